@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core;
+
+/**
+ * An {@link Appender} that can write several events in one operation. Asynchronous components that drain events in
+ * batches, like the {@link org.apache.logging.log4j.core.appender.AsyncAppender AsyncAppender}, hand whole batches
+ * to appenders implementing this interface so the fixed per-event cost (locking, flushing, round trips) is paid once
+ * per batch.
+ * <p>
+ * The events passed to {@link #append(LogEvent[], int)} may be reused by the caller after the method returns.
+ * Implementations that keep a reference to an event must call {@link LogEvent#toImmutable()}.
+ * </p>
+ *
+ * @since 2.14.0
+ */
+public interface BatchAppender extends Appender {
+
+    /**
+     * Logs the first {@code count} events of the specified array, in order.
+     *
+     * @param events the events to log, the array may be longer than {@code count}
+     * @param count the number of events to log
+     */
+    void append(LogEvent[] events, int count);
+}
@@ -29,6 +29,7 @@ import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.LocationAwareReliabilityStrategy;
 import org.apache.logging.log4j.core.config.LoggerConfig;
 import org.apache.logging.log4j.core.config.ReliabilityStrategy;
+import org.apache.logging.log4j.core.filter.CompiledFilter;
 import org.apache.logging.log4j.core.filter.CompositeFilter;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.MessageFactory;
@@ -381,7 +382,39 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
      *            The new Configuration.
      */
     protected void updateConfiguration(final Configuration newConfig) {
-        this.privateConfig = new PrivateConfig(newConfig, this);
+        updateConfiguration(newConfig, newConfig.getLoggerConfig(getName()));
+    }
+
+    /**
+     * Associates this Logger with the LoggerConfig it resolves to in the specified Configuration. Subclasses that
+     * keep other state derived from the Configuration override this method.
+     *
+     * @param newConfig The new Configuration.
+     * @param loggerConfig The LoggerConfig of this Logger in the new Configuration.
+     * @since 2.14.0
+     */
+    protected void updateConfiguration(final Configuration newConfig, final LoggerConfig loggerConfig) {
+        this.privateConfig = new PrivateConfig(newConfig, this, loggerConfig, privateConfig);
+    }
+
+    /**
+     * Associates this Logger with the specified Configuration, resolving its LoggerConfig once. Nothing is done if
+     * this Logger already uses that Configuration and LoggerConfig. Otherwise the Logger is bound to the new
+     * LoggerConfig, and it is only reported as changed if that LoggerConfig differs in name, level, additivity or
+     * filter from the one it used before.
+     *
+     * @param newConfig The new Configuration.
+     * @return {@code true} if what this Logger resolves to changed.
+     */
+    boolean updateConfigurationIfChanged(final Configuration newConfig) {
+        final PrivateConfig current = privateConfig;
+        final LoggerConfig loggerConfig = newConfig.getLoggerConfig(getName());
+        if (current.config == newConfig && current.isCurrent(loggerConfig)) {
+            return false;
+        }
+        final boolean changed = !current.isEquivalent(loggerConfig);
+        updateConfiguration(newConfig, loggerConfig);
+        return changed;
     }
 
     /**
@@ -397,6 +430,8 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         private final int intLevel;
         private final Logger logger;
         private final boolean requiresLocation;
+        /** The context-wide filter of the configuration, compiled when it is first used or changed. */
+        private CompiledFilter compiledFilter;
 
         public PrivateConfig(final Configuration config, final Logger logger) {
             this.config = config;
@@ -407,6 +442,21 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
             this.requiresLocation = this.loggerConfig.requiresLocation();
         }
 
+        /**
+         * Binds a Logger to a LoggerConfig that was already resolved, keeping the compiled context-wide filter of the
+         * previous binding, which is compiled again when it is used if the filter of the configuration changed.
+         */
+        PrivateConfig(final Configuration config, final Logger logger, final LoggerConfig loggerConfig,
+                final PrivateConfig previous) {
+            this.config = config;
+            this.loggerConfig = loggerConfig;
+            this.loggerConfigLevel = loggerConfig.getLevel();
+            this.intLevel = this.loggerConfigLevel.intLevel();
+            this.logger = logger;
+            this.requiresLocation = loggerConfig.requiresLocation();
+            this.compiledFilter = previous == null ? null : previous.compiledFilter;
+        }
+
         public PrivateConfig(final PrivateConfig pc, final Level level) {
             this.config = pc.config;
             this.loggerConfig = pc.loggerConfig;
@@ -425,13 +475,51 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
             this.requiresLocation = this.loggerConfig.requiresLocation();
         }
 
+        /**
+         * Returns whether the Logger name still resolves to the same LoggerConfig, with the same level and location
+         * requirement.
+         */
+        boolean isCurrent(final LoggerConfig resolved) {
+            return resolved == loggerConfig && resolved.getLevel() == loggerConfigLevel
+                    && resolved.requiresLocation() == requiresLocation;
+        }
+
+        /**
+         * Returns whether a LoggerConfig, possibly of another configuration, has the name, level, additivity, filter
+         * and location requirement of this binding. Filters do not define equality, so they must be the same object
+         * or both absent.
+         */
+        boolean isEquivalent(final LoggerConfig resolved) {
+            return resolved.getName().equals(loggerConfig.getName()) && resolved.getLevel() == loggerConfigLevel
+                    && resolved.isAdditive() == loggerConfig.isAdditive()
+                    && resolved.getFilter() == loggerConfig.getFilter()
+                    && resolved.requiresLocation() == requiresLocation;
+        }
+
         // LOG4J2-151: changed visibility to public
         public void logEvent(final LogEvent event) {
             loggerConfig.log(event);
         }
 
-        boolean filter(final Level level, final Marker marker, final String msg) {
+        /**
+         * Returns the compiled context-wide filter, compiling it again if the configuration's filter changed.
+         * CompiledFilter is immutable, so publishing it through a plain field is safe.
+         */
+        private Filter getFilter() {
             final Filter filter = config.getFilter();
+            if (filter == null) {
+                return null;
+            }
+            CompiledFilter compiled = compiledFilter;
+            if (compiled == null || !compiled.isCompiledFrom(filter)) {
+                compiled = CompiledFilter.compile(filter);
+                compiledFilter = compiled;
+            }
+            return compiled;
+        }
+
+        boolean filter(final Level level, final Marker marker, final String msg) {
+            final Filter filter = getFilter();
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg);
                 if (r != Filter.Result.NEUTRAL) {
@@ -442,7 +530,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         }
 
         boolean filter(final Level level, final Marker marker, final String msg, final Throwable t) {
-            final Filter filter = config.getFilter();
+            final Filter filter = getFilter();
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, (Object) msg, t);
                 if (r != Filter.Result.NEUTRAL) {
@@ -453,7 +541,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         }
 
         boolean filter(final Level level, final Marker marker, final String msg, final Object... p1) {
-            final Filter filter = config.getFilter();
+            final Filter filter = getFilter();
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p1);
                 if (r != Filter.Result.NEUTRAL) {
@@ -464,7 +552,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         }
 
         boolean filter(final Level level, final Marker marker, final String msg, final Object p0) {
-            final Filter filter = config.getFilter();
+            final Filter filter = getFilter();
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0);
                 if (r != Filter.Result.NEUTRAL) {
@@ -476,7 +564,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
 
         boolean filter(final Level level, final Marker marker, final String msg, final Object p0,
                 final Object p1) {
-            final Filter filter = config.getFilter();
+            final Filter filter = getFilter();
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0, p1);
                 if (r != Filter.Result.NEUTRAL) {
@@ -488,7 +576,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
 
         boolean filter(final Level level, final Marker marker, final String msg, final Object p0,
                 final Object p1, final Object p2) {
-            final Filter filter = config.getFilter();
+            final Filter filter = getFilter();
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0, p1, p2);
                 if (r != Filter.Result.NEUTRAL) {
@@ -500,7 +588,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
 
         boolean filter(final Level level, final Marker marker, final String msg, final Object p0,
                 final Object p1, final Object p2, final Object p3) {
-            final Filter filter = config.getFilter();
+            final Filter filter = getFilter();
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0, p1, p2, p3);
                 if (r != Filter.Result.NEUTRAL) {
@@ -513,7 +601,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         boolean filter(final Level level, final Marker marker, final String msg, final Object p0,
                 final Object p1, final Object p2, final Object p3,
                 final Object p4) {
-            final Filter filter = config.getFilter();
+            final Filter filter = getFilter();
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0, p1, p2, p3, p4);
                 if (r != Filter.Result.NEUTRAL) {
@@ -526,7 +614,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         boolean filter(final Level level, final Marker marker, final String msg, final Object p0,
                 final Object p1, final Object p2, final Object p3,
                 final Object p4, final Object p5) {
-            final Filter filter = config.getFilter();
+            final Filter filter = getFilter();
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5);
                 if (r != Filter.Result.NEUTRAL) {
@@ -539,7 +627,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         boolean filter(final Level level, final Marker marker, final String msg, final Object p0,
                 final Object p1, final Object p2, final Object p3,
                 final Object p4, final Object p5, final Object p6) {
-            final Filter filter = config.getFilter();
+            final Filter filter = getFilter();
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6);
                 if (r != Filter.Result.NEUTRAL) {
@@ -553,7 +641,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                 final Object p1, final Object p2, final Object p3,
                 final Object p4, final Object p5, final Object p6,
                 final Object p7) {
-            final Filter filter = config.getFilter();
+            final Filter filter = getFilter();
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7);
                 if (r != Filter.Result.NEUTRAL) {
@@ -567,7 +655,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                 final Object p1, final Object p2, final Object p3,
                 final Object p4, final Object p5, final Object p6,
                 final Object p7, final Object p8) {
-            final Filter filter = config.getFilter();
+            final Filter filter = getFilter();
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7, p8);
                 if (r != Filter.Result.NEUTRAL) {
@@ -581,7 +669,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                 final Object p1, final Object p2, final Object p3,
                 final Object p4, final Object p5, final Object p6,
                 final Object p7, final Object p8, final Object p9) {
-            final Filter filter = config.getFilter();
+            final Filter filter = getFilter();
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7, p8,
                         p9);
@@ -593,7 +681,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         }
 
         boolean filter(final Level level, final Marker marker, final CharSequence msg, final Throwable t) {
-            final Filter filter = config.getFilter();
+            final Filter filter = getFilter();
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg, t);
                 if (r != Filter.Result.NEUTRAL) {
@@ -604,7 +692,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         }
 
         boolean filter(final Level level, final Marker marker, final Object msg, final Throwable t) {
-            final Filter filter = config.getFilter();
+            final Filter filter = getFilter();
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg, t);
                 if (r != Filter.Result.NEUTRAL) {
@@ -615,7 +703,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
         }
 
         boolean filter(final Level level, final Marker marker, final Message msg, final Throwable t) {
-            final Filter filter = config.getFilter();
+            final Filter filter = getFilter();
             if (filter != null) {
                 final Filter.Result r = filter.filter(logger, level, marker, msg, t);
                 if (r != Filter.Result.NEUTRAL) {
@@ -35,6 +35,7 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.config.AbstractConfiguration;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.ConfigurationFactory;
 import org.apache.logging.log4j.core.config.ConfigurationListener;
@@ -83,6 +84,14 @@ public class LoggerContext extends AbstractLifeCycle
      */
     public static final String PROPERTY_CONFIG = "config";
 
+    /**
+     * Name of the property that controls whether a new configuration reuses the unchanged appenders of the
+     * configuration it replaces. The default is {@code true}.
+     *
+     * @since 2.14.0
+     */
+    public static final String REUSE_APPENDERS_PROPERTY = "log4j2.reuseAppendersOnReconfigure";
+
     private static final Configuration NULL_CONFIGURATION = new NullConfiguration();
 
     private final LoggerRegistry<Logger> loggerRegistry = new LoggerRegistry<>();
@@ -615,6 +624,11 @@ public class LoggerContext extends AbstractLifeCycle
                 map.putIfAbsent("hostName", "unknown");
             }
             map.putIfAbsent("contextName", contextName);
+            if (prev instanceof AbstractConfiguration && config instanceof AbstractConfiguration && prev != config
+                    && config.getState() == State.INITIALIZING && PropertiesUtil.getProperties().getBooleanProperty(
+                            REUSE_APPENDERS_PROPERTY, true)) {
+                ((AbstractConfiguration) config).setPreviousConfiguration((AbstractConfiguration) prev);
+            }
             config.start();
             this.configuration = config;
             updateLoggers();
@@ -727,15 +741,22 @@ public class LoggerContext extends AbstractLifeCycle
     }
 
     /**
-     * Causes all Logger to be updated against the specified Configuration.
+     * Causes all Logger to be updated against the specified Configuration. Each Logger resolves its LoggerConfig
+     * once; Loggers that already use that LoggerConfig are left alone, and Loggers whose LoggerConfig has the same
+     * name, level, additivity and filter as before are rebound without being counted as updated.
      *
      * @param config The Configuration.
      */
     public void updateLoggers(final Configuration config) {
         final Configuration old = this.configuration;
-        for (final Logger logger : loggerRegistry.getLoggers()) {
-            logger.updateConfiguration(config);
+        final Collection<Logger> loggers = loggerRegistry.getLoggers();
+        int updated = 0;
+        for (final Logger logger : loggers) {
+            if (logger.updateConfigurationIfChanged(config)) {
+                updated++;
+            }
         }
+        LOGGER.trace("Updated {} of {} loggers of context {}.", updated, loggers.size(), contextName);
         firePropertyChangeEvent(new PropertyChangeEvent(this, PROPERTY_CONFIG, old, config));
     }
 
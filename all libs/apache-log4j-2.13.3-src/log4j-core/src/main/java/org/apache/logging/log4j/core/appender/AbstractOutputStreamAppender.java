@@ -19,6 +19,7 @@ package org.apache.logging.log4j.core.appender;
 import java.io.Serializable;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.logging.log4j.core.BatchAppender;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
@@ -31,7 +32,8 @@ import org.apache.logging.log4j.core.util.Constants;
  *
  * @param <M> The kind of {@link OutputStreamManager} under management
  */
-public abstract class AbstractOutputStreamAppender<M extends OutputStreamManager> extends AbstractAppender {
+public abstract class AbstractOutputStreamAppender<M extends OutputStreamManager> extends AbstractAppender
+        implements BatchAppender {
 
     /**
      * Subclasses can extend this abstract Builder.
@@ -177,33 +179,112 @@ public abstract class AbstractOutputStreamAppender<M extends OutputStreamManager
      */
     @Override
     public void append(final LogEvent event) {
+        append(event, true);
+    }
+
+    /**
+     * Writes an event that is the last of its batch or not. A single event is a batch of its own. Subclasses that
+     * prepare each event, for example by checking for rollover, override this method so that the events of a batch go
+     * through it as well.
+     *
+     * @param event The LogEvent.
+     * @param endOfBatch Whether the event is the last of the events appended together.
+     * @since 2.14.0
+     */
+    protected void append(final LogEvent event, final boolean endOfBatch) {
         try {
-            tryAppend(event);
+            tryAppend(event, endOfBatch);
         } catch (final AppenderLoggingException ex) {
             error("Unable to write to stream " + manager.getName() + " for appender " + getName(), event, ex);
             throw ex;
         }
     }
 
-    private void tryAppend(final LogEvent event) {
+    /**
+     * Writes a batch of events and flushes the manager once after the last one instead of after every event. The
+     * manager is only locked while each event is written, so other threads can log between the events of the batch.
+     * If writing an event fails the rest of the batch is still written and the first exception is rethrown at the end.
+     *
+     * @param events The LogEvents.
+     * @param count The number of events in the array.
+     * @since 2.14.0
+     */
+    @Override
+    public void append(final LogEvent[] events, final int count) {
+        RuntimeException failure = null;
+        for (int i = 0; i < count; i++) {
+            try {
+                append(events[i], i == count - 1);
+            } catch (final RuntimeException ex) {
+                // already reported by append, keep writing the rest of the batch
+                if (failure == null) {
+                    failure = ex;
+                }
+            }
+        }
+        if (failure != null) {
+            if (immediateFlush) {
+                // the failed event may have been the one flushing the batch
+                manager.flush();
+            }
+            throw failure;
+        }
+    }
+
+    /**
+     * Returns whether the destination must be flushed after the specified event: at the end of a batch when immediate
+     * flush is enabled, or when the event ends a batch of an asynchronous logger.
+     *
+     * @param event The LogEvent.
+     * @param endOfBatch Whether the event is the last of the events appended together.
+     * @return true if the manager must be flushed after the event.
+     * @since 2.14.0
+     */
+    protected boolean isFlushRequired(final LogEvent event, final boolean endOfBatch) {
+        return (this.immediateFlush && endOfBatch) || event.isEndOfBatch();
+    }
+
+    private void tryAppend(final LogEvent event, final boolean endOfBatch) {
         if (Constants.ENABLE_DIRECT_ENCODERS) {
-            directEncodeEvent(event);
+            directEncodeEvent(event, endOfBatch);
         } else {
-            writeByteArrayToManager(event);
+            writeByteArrayToManager(event, endOfBatch);
         }
     }
 
     protected void directEncodeEvent(final LogEvent event) {
+        directEncodeEvent(event, true);
+    }
+
+    /**
+     * Encodes an event into the manager, flushing it if required.
+     *
+     * @param event The LogEvent.
+     * @param endOfBatch Whether the event is the last of the events appended together.
+     * @since 2.14.0
+     */
+    protected void directEncodeEvent(final LogEvent event, final boolean endOfBatch) {
         getLayout().encode(event, manager);
-        if (this.immediateFlush || event.isEndOfBatch()) {
+        if (isFlushRequired(event, endOfBatch)) {
             manager.flush();
         }
     }
 
     protected void writeByteArrayToManager(final LogEvent event) {
+        writeByteArrayToManager(event, true);
+    }
+
+    /**
+     * Writes the bytes of an event to the manager, flushing it if required.
+     *
+     * @param event The LogEvent.
+     * @param endOfBatch Whether the event is the last of the events appended together.
+     * @since 2.14.0
+     */
+    protected void writeByteArrayToManager(final LogEvent event, final boolean endOfBatch) {
         final byte[] bytes = getLayout().toByteArray(event);
         if (bytes != null && bytes.length > 0) {
-            manager.write(bytes, this.immediateFlush || event.isEndOfBatch());
+            manager.write(bytes, isFlushRequired(event, endOfBatch));
         }
     }
 }
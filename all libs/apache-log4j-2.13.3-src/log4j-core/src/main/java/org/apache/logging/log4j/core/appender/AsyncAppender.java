@@ -17,6 +17,7 @@
 package org.apache.logging.log4j.core.appender;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
@@ -26,6 +27,7 @@ import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.logging.log4j.core.AbstractLogEvent;
 import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.BatchAppender;
 import org.apache.logging.log4j.core.Core;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.LogEvent;
@@ -35,8 +37,10 @@ import org.apache.logging.log4j.core.async.AsyncQueueFullPolicy;
 import org.apache.logging.log4j.core.async.AsyncQueueFullPolicyFactory;
 import org.apache.logging.log4j.core.async.BlockingQueueFactory;
 import org.apache.logging.log4j.core.async.DiscardingAsyncQueueFullPolicy;
+import org.apache.logging.log4j.core.async.PriorityAsyncQueueFullPolicy;
 import org.apache.logging.log4j.core.async.EventRoute;
 import org.apache.logging.log4j.core.async.InternalAsyncUtil;
+import org.apache.logging.log4j.core.async.LogEventRingBufferQueue;
 import org.apache.logging.log4j.core.config.AppenderControl;
 import org.apache.logging.log4j.core.config.AppenderRef;
 import org.apache.logging.log4j.core.config.Configuration;
@@ -63,6 +67,7 @@ import org.apache.logging.log4j.spi.AbstractLogger;
 public final class AsyncAppender extends AbstractAppender {
 
     private static final int DEFAULT_QUEUE_SIZE = 1024;
+    private static final int MAX_BATCH_SIZE = 128;
     private static final LogEvent SHUTDOWN_LOG_EVENT = new AbstractLogEvent() {
         private static final long serialVersionUID = -1761035149477086330L;
     };
@@ -80,6 +85,7 @@ public final class AsyncAppender extends AbstractAppender {
     private AppenderControl errorAppender;
     private AsyncThread thread;
     private AsyncQueueFullPolicy asyncQueueFullPolicy;
+    private PriorityAsyncQueueFullPolicy priorityQueueFullPolicy;
 
     private AsyncAppender(final String name, final Filter filter, final AppenderRef[] appenderRefs,
             final String errorRef, final int queueSize, final boolean blocking, final boolean ignoreExceptions,
@@ -94,6 +100,10 @@ public final class AsyncAppender extends AbstractAppender {
         this.appenderRefs = appenderRefs;
         this.errorRef = errorRef;
         this.includeLocation = includeLocation;
+        if (queue instanceof LogEventRingBufferQueue) {
+            // events are offered without a snapshot, so the queue must not compute their location
+            ((LogEventRingBufferQueue) queue).setIncludeLocation(includeLocation);
+        }
     }
 
     @Override
@@ -123,6 +133,9 @@ public final class AsyncAppender extends AbstractAppender {
             throw new ConfigurationException("No appenders are available for AsyncAppender " + getName());
         }
         asyncQueueFullPolicy = AsyncQueueFullPolicyFactory.create();
+        priorityQueueFullPolicy = asyncQueueFullPolicy instanceof PriorityAsyncQueueFullPolicy
+                ? (PriorityAsyncQueueFullPolicy) asyncQueueFullPolicy
+                : null;
 
         thread.start();
         super.start();
@@ -159,8 +172,12 @@ public final class AsyncAppender extends AbstractAppender {
         if (!isStarted()) {
             throw new IllegalStateException("AsyncAppender " + getName() + " is not active");
         }
-        final Log4jLogEvent memento = Log4jLogEvent.createMemento(logEvent, includeLocation);
-        InternalAsyncUtil.makeMessageImmutable(logEvent.getMessage());
+        // remainingCapacity() is unbounded for some queues, such as LinkedTransferQueue
+        if (priorityQueueFullPolicy != null && priorityQueueFullPolicy.shed(logEvent.getLoggerName(),
+                logEvent.getLevel(), Math.max(0, queueSize - queue.size()), queueSize)) {
+            return;
+        }
+        final LogEvent memento = createMemento(logEvent);
         if (!transfer(memento)) {
             if (blocking) {
                 if (AbstractLogger.getRecursionDepth() > 1) { // LOG4J2-1518, LOG4J2-2031
@@ -179,6 +196,16 @@ public final class AsyncAppender extends AbstractAppender {
         }
     }
 
+    private LogEvent createMemento(final LogEvent logEvent) {
+        // The ring buffer queue copies the event into a preallocated slot, no snapshot is needed
+        if (queue instanceof LogEventRingBufferQueue && !includeLocation) {
+            return logEvent;
+        }
+        final Log4jLogEvent memento = Log4jLogEvent.createMemento(logEvent, includeLocation);
+        InternalAsyncUtil.makeMessageImmutable(logEvent.getMessage());
+        return memento;
+    }
+
     private boolean transfer(final LogEvent memento) {
         return queue instanceof TransferQueue
             ? ((TransferQueue<LogEvent>) queue).tryTransfer(memento)
@@ -382,14 +409,25 @@ public final class AsyncAppender extends AbstractAppender {
         private volatile boolean shutdown = false;
         private final List<AppenderControl> appenders;
         private final BlockingQueue<LogEvent> queue;
+        private final LogEvent[] batch;
 
         public AsyncThread(final List<AppenderControl> appenders, final BlockingQueue<LogEvent> queue) {
             super("AsyncAppender-" + THREAD_SEQUENCE.getAndIncrement());
             this.appenders = appenders;
             this.queue = queue;
+            this.batch = hasBatchAppender(appenders) ? new LogEvent[MAX_BATCH_SIZE] : null;
             setDaemon(true);
         }
 
+        private boolean hasBatchAppender(final List<AppenderControl> appenderControls) {
+            for (final AppenderControl control : appenderControls) {
+                if (control.getAppender() instanceof BatchAppender) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
         @Override
         public void run() {
             while (!shutdown) {
@@ -403,6 +441,10 @@ public final class AsyncAppender extends AbstractAppender {
                 } catch (final InterruptedException ex) {
                     break; // LOG4J2-830
                 }
+                if (batch != null) {
+                    dispatchBatch(event);
+                    continue;
+                }
                 event.setEndOfBatch(queue.isEmpty());
                 final boolean success = callAppenders(event);
                 if (!success && errorAppender != null) {
@@ -421,10 +463,9 @@ public final class AsyncAppender extends AbstractAppender {
             while (!queue.isEmpty()) {
                 try {
                     final LogEvent event = queue.take();
-                    if (event instanceof Log4jLogEvent) {
-                        final Log4jLogEvent logEvent = (Log4jLogEvent) event;
-                        logEvent.setEndOfBatch(queue.isEmpty());
-                        callAppenders(logEvent);
+                    if (event != SHUTDOWN_LOG_EVENT) {
+                        event.setEndOfBatch(queue.isEmpty());
+                        callAppenders(event);
                         count++;
                     } else {
                         ignored++;
@@ -439,6 +480,66 @@ public final class AsyncAppender extends AbstractAppender {
                 + "Processed {} and ignored {} events since shutdown started.", queue.size(), count, ignored);
         }
 
+        /**
+         * Collects the events that are already available behind the specified event and hands them to the appenders
+         * as one batch. Appenders that implement {@link BatchAppender} receive the whole batch in a single call.
+         *
+         * @param first the event that was taken from the queue
+         */
+        private void dispatchBatch(final LogEvent first) {
+            batch[0] = first;
+            int count = 1;
+            if (queue instanceof LogEventRingBufferQueue) {
+                count += ((LogEventRingBufferQueue) queue).drainTo(batch, 1);
+            } else {
+                LogEvent next;
+                while (count < batch.length && (next = queue.poll()) != null) {
+                    if (next == SHUTDOWN_LOG_EVENT) {
+                        shutdown = true;
+                        break;
+                    }
+                    batch[count++] = next;
+                }
+            }
+            for (int i = 0; i < count - 1; i++) {
+                batch[i].setEndOfBatch(false);
+            }
+            batch[count - 1].setEndOfBatch(queue.isEmpty());
+            final boolean success = callAppenders(batch, count);
+            if (!success && errorAppender != null) {
+                for (int i = 0; i < count; i++) {
+                    try {
+                        errorAppender.callAppender(batch[i]);
+                    } catch (final Exception ex) {
+                        // Silently accept the error.
+                    }
+                }
+            }
+            Arrays.fill(batch, 0, count, null);
+        }
+
+        /**
+         * Calls {@link AppenderControl#callAppender(LogEvent[], int) callAppender} on all registered
+         * {@code AppenderControl} objects, and returns {@code true} if at least one appender call was successful,
+         * {@code false} otherwise. Any exceptions are silently ignored.
+         *
+         * @param events the events to forward to the registered appenders
+         * @param count the number of events in the array
+         * @return {@code true} if at least one appender call succeeded, {@code false} otherwise
+         */
+        boolean callAppenders(final LogEvent[] events, final int count) {
+            boolean success = false;
+            for (final AppenderControl control : appenders) {
+                try {
+                    control.callAppender(events, count);
+                    success = true;
+                } catch (final Exception ex) {
+                    // If no appender is successful the error appender will get it.
+                }
+            }
+            return success;
+        }
+
         /**
          * Calls {@link AppenderControl#callAppender(LogEvent) callAppender} on all registered {@code AppenderControl}
          * objects, and returns {@code true} if at least one appender call was successful, {@code false} otherwise. Any
@@ -462,7 +563,10 @@ public final class AsyncAppender extends AbstractAppender {
 
         public void shutdown() {
             shutdown = true;
-            if (queue.isEmpty()) {
+            if (queue instanceof LogEventRingBufferQueue) {
+                // the ring buffer copies offered events, so it cannot carry the shutdown marker
+                ((LogEventRingBufferQueue) queue).halt();
+            } else if (queue.isEmpty()) {
                 queue.offer(SHUTDOWN_LOG_EVENT);
             }
             if (getState() == State.TIMED_WAITING || getState() == State.WAITING) {
@@ -530,4 +634,25 @@ public final class AsyncAppender extends AbstractAppender {
     public int getQueueSize() {
         return queue.size();
     }
+
+    /**
+     * Returns the number of events discarded by the {@code AsyncQueueFullPolicy}.
+     *
+     * @return the number of discarded events.
+     * @since 2.14.0
+     */
+    public long getDiscardCount() {
+        return DiscardingAsyncQueueFullPolicy.getDiscardCount(asyncQueueFullPolicy);
+    }
+
+    /**
+     * Returns the number of events discarded by the {@code AsyncQueueFullPolicy} per level, as {@code LEVEL=count}
+     * strings, if the policy is a {@link PriorityAsyncQueueFullPolicy}.
+     *
+     * @return the number of discarded events per level.
+     * @since 2.14.0
+     */
+    public String[] getDiscardCountsByLevel() {
+        return PriorityAsyncQueueFullPolicy.getDiscardCountsByLevel(asyncQueueFullPolicy);
+    }
 }
@@ -0,0 +1,323 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+
+package org.apache.logging.log4j.core.appender;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.net.ssl.SslConfiguration;
+import org.apache.logging.log4j.core.util.ExecutorServices;
+import org.apache.logging.log4j.core.util.Log4jThreadFactory;
+
+/**
+ * An {@link HttpURLConnectionManager} that sends many events in one request.
+ * <p>
+ * Events are rendered by the logging thread and appended to the current batch, which is sent when it holds
+ * {@code batchSize} events or {@code maxBatchBytes} bytes, or {@code lingerMillis} after its first event. Batches are
+ * sent by background threads; at most {@code maxInFlightRequests} batches are sent or waiting to be retried at the same
+ * time, and the logging thread waits for one of them to complete before it hands over another one. Connections are
+ * kept alive and reused by the keep-alive cache of {@code HttpURLConnection}, so the number of connections to the
+ * server is bounded by the number of requests in flight.
+ * </p>
+ * <p>
+ * Requests that fail with an I/O error, a server error or a {@code 429 Too Many Requests} status are retried up to
+ * {@code maxRetries} times, waiting {@code retryBackoffMillis} before the first retry and twice as long before each
+ * further one. Batches that cannot be sent are reported to the status logger, because the event that caused the error
+ * was logged earlier.
+ * </p>
+ * <p>
+ * When the manager is stopped, the current batch is sent by the stopping thread, which then waits for the batches in
+ * flight for the stop timeout, but at least five seconds.
+ * </p>
+ *
+ * @since 2.14.0
+ */
+public class BatchingHttpURLConnectionManager extends HttpURLConnectionManager {
+
+    /**
+     * The format of the body of a batch request.
+     */
+    public enum BatchFormat {
+        /**
+         * One event per line, as for the Elasticsearch bulk API or Loki, sent as {@code application/x-ndjson}. Events
+         * must not span lines, like those of a JSON layout with {@code compact="true" eventEol="true"}.
+         */
+        NDJSON,
+
+        /**
+         * The events as the elements of a JSON array, sent with the content type of the layout. Each event must be a
+         * JSON value, like those of a JSON layout with {@code complete="false"}.
+         */
+        JSON_ARRAY
+    }
+
+    static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+    /** How long stopping waits at least for the batches in flight, whose threads are daemon threads. */
+    private static final long MIN_STOP_TIMEOUT_MILLIS = 5_000;
+
+    private final int batchSize;
+    private final int maxBatchBytes;
+    private final long lingerMillis;
+    private final BatchFormat batchFormat;
+    private final int maxRetries;
+    private final long retryBackoffMillis;
+    private final boolean compress;
+    private final Semaphore inFlight;
+    private final ScheduledExecutorService executor;
+
+    private final Object lock = new Object();
+    private final ByteArrayOutputStream batch = new ByteArrayOutputStream();
+    private int batchCount;
+    private long batchNumber;
+    private ScheduledFuture<?> lingerFuture;
+    private String contentType;
+    private boolean stopped;
+
+    public BatchingHttpURLConnectionManager(final Configuration configuration, final LoggerContext loggerContext,
+            final String name, final URL url, final String method, final int connectTimeoutMillis,
+            final int readTimeoutMillis, final Property[] headers, final SslConfiguration sslConfiguration,
+            final boolean verifyHostname, final int batchSize, final int maxBatchBytes, final long lingerMillis,
+            final BatchFormat batchFormat, final int maxInFlightRequests, final int maxRetries,
+            final long retryBackoffMillis, final boolean compress) {
+        super(configuration, loggerContext, name, url, method, connectTimeoutMillis, readTimeoutMillis, headers,
+                sslConfiguration, verifyHostname);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBatchBytes = Math.max(1, maxBatchBytes);
+        this.lingerMillis = lingerMillis;
+        this.batchFormat = batchFormat == null ? BatchFormat.NDJSON : batchFormat;
+        this.maxRetries = Math.max(0, maxRetries);
+        this.retryBackoffMillis = Math.max(0, retryBackoffMillis);
+        this.compress = compress;
+        final int maxRequests = Math.max(1, maxInFlightRequests);
+        this.inFlight = new Semaphore(maxRequests);
+        // one more thread for the linger task, which may wait for a request to complete
+        final ScheduledThreadPoolExecutor pool = new ScheduledThreadPoolExecutor(maxRequests + 1,
+                Log4jThreadFactory.createDaemonThreadFactory("HttpManager-" + name));
+        pool.setRemoveOnCancelPolicy(true);
+        this.executor = pool;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getMaxBatchBytes() {
+        return maxBatchBytes;
+    }
+
+    public long getLingerMillis() {
+        return lingerMillis;
+    }
+
+    public BatchFormat getBatchFormat() {
+        return batchFormat;
+    }
+
+    @Override
+    public void send(final Layout<?> layout, final LogEvent event) throws IOException {
+        final byte[] bytes = layout.toByteArray(event);
+        byte[] full = null;
+        byte[] current = null;
+        synchronized (lock) {
+            if (stopped) {
+                throw new IllegalStateException("HTTP manager " + getName() + " is stopped");
+            }
+            if (contentType == null) {
+                contentType = batchFormat == BatchFormat.NDJSON ? NDJSON_CONTENT_TYPE : layout.getContentType();
+            }
+            if (batchCount > 0 && batch.size() + bytes.length + 2 > maxBatchBytes) {
+                full = takeBatch();
+            }
+            append(bytes);
+            if (batchCount >= batchSize || batch.size() >= maxBatchBytes) {
+                current = takeBatch();
+            } else if (batchCount == 1 && lingerMillis > 0) {
+                final long number = batchNumber;
+                lingerFuture = executor.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        sendLingering(number);
+                    }
+                }, lingerMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        if (current != null) {
+            dispatch(current);
+        }
+    }
+
+    private void append(final byte[] bytes) {
+        int length = bytes.length;
+        if (batchFormat == BatchFormat.JSON_ARRAY) {
+            batch.write(batchCount == 0 ? '[' : ',');
+            while (length > 0 && Character.isWhitespace(bytes[length - 1])) {
+                length--;
+            }
+            batch.write(bytes, 0, length);
+        } else {
+            batch.write(bytes, 0, length);
+            if (length == 0 || bytes[length - 1] != '\n') {
+                batch.write('\n');
+            }
+        }
+        batchCount++;
+    }
+
+    /**
+     * Returns the body of the current batch and starts a new one. Must be called while holding the lock.
+     */
+    private byte[] takeBatch() {
+        if (batchCount == 0) {
+            return null;
+        }
+        if (batchFormat == BatchFormat.JSON_ARRAY) {
+            batch.write(']');
+        }
+        final byte[] body = batch.toByteArray();
+        batch.reset();
+        batchCount = 0;
+        batchNumber++;
+        if (lingerFuture != null) {
+            lingerFuture.cancel(false);
+            lingerFuture = null;
+        }
+        return body;
+    }
+
+    private void sendLingering(final long number) {
+        final byte[] body;
+        synchronized (lock) {
+            // the batch may have been sent and replaced since this task was scheduled
+            body = number == batchNumber ? takeBatch() : null;
+        }
+        if (body != null) {
+            dispatch(body);
+        }
+    }
+
+    private void dispatch(final byte[] body) {
+        inFlight.acquireUninterruptibly();
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        sendWithRetries(body);
+                    } finally {
+                        inFlight.release();
+                    }
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            inFlight.release();
+            LOGGER.error("Unable to send batch of {} bytes in HTTP manager {}: manager is stopped", body.length,
+                    getName());
+        }
+    }
+
+    private void sendWithRetries(final byte[] body) {
+        byte[] data = body;
+        String contentEncoding = null;
+        if (compress) {
+            try {
+                data = gzip(body);
+                contentEncoding = "gzip";
+            } catch (final IOException e) {
+                LOGGER.warn("Unable to compress batch in HTTP manager {}, sending it uncompressed", getName(), e);
+            }
+        }
+        for (int attempt = 0;; attempt++) {
+            try {
+                send(contentType, contentEncoding, null, data, data.length);
+                return;
+            } catch (final IOException e) {
+                if (attempt >= maxRetries || !isRetryable(e)) {
+                    LOGGER.error("Unable to send batch of {} bytes in HTTP manager {} after {} attempts", body.length,
+                            getName(), attempt + 1, e);
+                    return;
+                }
+                final long backoffMillis = Math.min(MAX_BACKOFF_MILLIS, retryBackoffMillis << Math.min(attempt, 20));
+                LOGGER.debug("Retrying batch in HTTP manager {} in {} ms after {}", getName(), backoffMillis,
+                        e.toString());
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (final InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    LOGGER.error("Interrupted while retrying batch of {} bytes in HTTP manager {}", body.length,
+                            getName(), e);
+                    return;
+                }
+            }
+        }
+    }
+
+    private static boolean isRetryable(final IOException e) {
+        if (e instanceof ResponseException) {
+            final int responseCode = ((ResponseException) e).getResponseCode();
+            return responseCode >= 500 || responseCode == 429;
+        }
+        return true;
+    }
+
+    private static byte[] gzip(final byte[] body) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    protected boolean releaseSub(final long timeout, final TimeUnit timeUnit) {
+        final byte[] body;
+        synchronized (lock) {
+            stopped = true;
+            body = takeBatch();
+        }
+        if (body != null) {
+            // sent by the stopping thread, so that it is not lost when the JVM exits
+            inFlight.acquireUninterruptibly();
+            try {
+                sendWithRetries(body);
+            } finally {
+                inFlight.release();
+            }
+        }
+        final long timeoutMillis = timeUnit == null ? 0 : timeUnit.toMillis(timeout);
+        return ExecutorServices.shutdown(executor, Math.max(MIN_STOP_TIMEOUT_MILLIS, timeoutMillis),
+                TimeUnit.MILLISECONDS, toString());
+    }
+}
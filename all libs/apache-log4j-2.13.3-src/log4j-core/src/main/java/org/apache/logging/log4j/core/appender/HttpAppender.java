@@ -26,6 +26,7 @@ import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.BatchingHttpURLConnectionManager.BatchFormat;
 import org.apache.logging.log4j.core.config.Node;
 import org.apache.logging.log4j.core.config.Property;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
@@ -36,7 +37,7 @@ import org.apache.logging.log4j.core.config.plugins.validation.constraints.Requi
 import org.apache.logging.log4j.core.net.ssl.SslConfiguration;
 
 /**
- * Sends log events over HTTP.
+ * Sends log events over HTTP, one request per event or, when a {@code batchSize} is set, many events per request.
  */
 @Plugin(name = "Http", category = Node.CATEGORY, elementType = Appender.ELEMENT_TYPE, printObject = true)
 public final class HttpAppender extends AbstractAppender {
@@ -70,11 +71,43 @@ public final class HttpAppender extends AbstractAppender {
         @PluginBuilderAttribute
         private boolean verifyHostname = true;
 
+        @PluginBuilderAttribute
+        private int batchSize = 0;
+
+        @PluginBuilderAttribute
+        private int maxBatchBytes = 1024 * 1024;
+
+        @PluginBuilderAttribute
+        private int lingerMillis = 200;
+
+        @PluginBuilderAttribute
+        private BatchFormat batchFormat = BatchFormat.NDJSON;
+
+        @PluginBuilderAttribute
+        private int maxInFlightRequests = 2;
+
+        @PluginBuilderAttribute
+        private int maxRetries = 3;
+
+        @PluginBuilderAttribute
+        private int retryBackoffMillis = 100;
+
+        @PluginBuilderAttribute
+        private boolean compress;
+
         @Override
         public HttpAppender build() {
-            final HttpManager httpManager = new HttpURLConnectionManager(getConfiguration(),
-                    getConfiguration().getLoggerContext(), getName(), url, method, connectTimeoutMillis,
-                    readTimeoutMillis, headers, sslConfiguration, verifyHostname);
+            final HttpManager httpManager;
+            if (batchSize > 0) {
+                httpManager = new BatchingHttpURLConnectionManager(getConfiguration(),
+                        getConfiguration().getLoggerContext(), getName(), url, method, connectTimeoutMillis,
+                        readTimeoutMillis, headers, sslConfiguration, verifyHostname, batchSize, maxBatchBytes,
+                        lingerMillis, batchFormat, maxInFlightRequests, maxRetries, retryBackoffMillis, compress);
+            } else {
+                httpManager = new HttpURLConnectionManager(getConfiguration(),
+                        getConfiguration().getLoggerContext(), getName(), url, method, connectTimeoutMillis,
+                        readTimeoutMillis, headers, sslConfiguration, verifyHostname);
+            }
             return new HttpAppender(getName(), getLayout(), getFilter(), isIgnoreExceptions(), httpManager,
                     getPropertyArray());
         }
@@ -107,6 +140,38 @@ public final class HttpAppender extends AbstractAppender {
             return verifyHostname;
         }
 
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public int getMaxBatchBytes() {
+            return maxBatchBytes;
+        }
+
+        public int getLingerMillis() {
+            return lingerMillis;
+        }
+
+        public BatchFormat getBatchFormat() {
+            return batchFormat;
+        }
+
+        public int getMaxInFlightRequests() {
+            return maxInFlightRequests;
+        }
+
+        public int getMaxRetries() {
+            return maxRetries;
+        }
+
+        public int getRetryBackoffMillis() {
+            return retryBackoffMillis;
+        }
+
+        public boolean isCompress() {
+            return compress;
+        }
+
         public B setUrl(final URL url) {
             this.url = url;
             return asBuilder();
@@ -141,6 +206,103 @@ public final class HttpAppender extends AbstractAppender {
             this.verifyHostname = verifyHostname;
             return asBuilder();
         }
+
+        /**
+         * Sets the maximum number of events sent in one request. Events are sent one by one when this is 0, the
+         * default.
+         *
+         * @param batchSize the maximum number of events of a batch
+         * @return this builder
+         * @since 2.14.0
+         */
+        public B setBatchSize(final int batchSize) {
+            this.batchSize = batchSize;
+            return asBuilder();
+        }
+
+        /**
+         * Sets the size of the body from which a batch is sent before it holds {@code batchSize} events.
+         *
+         * @param maxBatchBytes the maximum number of bytes of a batch
+         * @return this builder
+         * @since 2.14.0
+         */
+        public B setMaxBatchBytes(final int maxBatchBytes) {
+            this.maxBatchBytes = maxBatchBytes;
+            return asBuilder();
+        }
+
+        /**
+         * Sets how long a batch waits for more events after its first event.
+         *
+         * @param lingerMillis the linger time in milliseconds, or 0 to only send full batches
+         * @return this builder
+         * @since 2.14.0
+         */
+        public B setLingerMillis(final int lingerMillis) {
+            this.lingerMillis = lingerMillis;
+            return asBuilder();
+        }
+
+        /**
+         * Sets the format of the body of a batch.
+         *
+         * @param batchFormat the format of a batch
+         * @return this builder
+         * @since 2.14.0
+         */
+        public B setBatchFormat(final BatchFormat batchFormat) {
+            this.batchFormat = batchFormat;
+            return asBuilder();
+        }
+
+        /**
+         * Sets the number of batches that are sent at the same time, after which logging waits.
+         *
+         * @param maxInFlightRequests the maximum number of concurrent requests
+         * @return this builder
+         * @since 2.14.0
+         */
+        public B setMaxInFlightRequests(final int maxInFlightRequests) {
+            this.maxInFlightRequests = maxInFlightRequests;
+            return asBuilder();
+        }
+
+        /**
+         * Sets how often a batch is sent again after an I/O error or a server error.
+         *
+         * @param maxRetries the maximum number of retries
+         * @return this builder
+         * @since 2.14.0
+         */
+        public B setMaxRetries(final int maxRetries) {
+            this.maxRetries = maxRetries;
+            return asBuilder();
+        }
+
+        /**
+         * Sets the time to wait before the first retry of a batch, which doubles for each further retry.
+         *
+         * @param retryBackoffMillis the initial backoff in milliseconds
+         * @return this builder
+         * @since 2.14.0
+         */
+        public B setRetryBackoffMillis(final int retryBackoffMillis) {
+            this.retryBackoffMillis = retryBackoffMillis;
+            return asBuilder();
+        }
+
+        /**
+         * Sets whether batches are sent with gzip content encoding.
+         *
+         * @param compress whether to compress batches
+         * @return this builder
+         * @since 2.14.0
+         */
+        public B setCompress(final boolean compress) {
+            this.compress = compress;
+            return asBuilder();
+        }
     }
 
     /**
@@ -73,8 +73,42 @@ public class HttpURLConnectionManager extends HttpManager {
         this.verifyHostname = verifyHostname;
     }
 
+    /**
+     * Signals that the server answered a request with an error status.
+     */
+    static final class ResponseException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        private final int responseCode;
+
+        ResponseException(final int responseCode, final String message) {
+            super(message);
+            this.responseCode = responseCode;
+        }
+
+        int getResponseCode() {
+            return responseCode;
+        }
+    }
+
     @Override
     public void send(final Layout<?> layout, final LogEvent event) throws IOException {
+        final byte[] msg = layout.toByteArray(event);
+        send(layout.getContentType(), null, event, msg, msg.length);
+    }
+
+    /**
+     * Sends a request with the specified body and reads the response.
+     *
+     * @param contentType the content type of the body, or {@code null}
+     * @param contentEncoding the content encoding of the body, or {@code null}
+     * @param event the event to look up the header values with, or {@code null}
+     * @param body the body of the request
+     * @param length the number of bytes of the body to send
+     * @throws IOException if the request cannot be sent, or the server answers with an error status
+     */
+    void send(final String contentType, final String contentEncoding, final LogEvent event, final byte[] body,
+            final int length) throws IOException {
         final HttpURLConnection urlConnection = (HttpURLConnection)url.openConnection();
         urlConnection.setAllowUserInteraction(false);
         urlConnection.setDoOutput(true);
@@ -86,8 +120,11 @@ public class HttpURLConnectionManager extends HttpManager {
         if (readTimeoutMillis > 0) {
             urlConnection.setReadTimeout(readTimeoutMillis);
         }
-        if (layout.getContentType() != null) {
-            urlConnection.setRequestProperty("Content-Type", layout.getContentType());
+        if (contentType != null) {
+            urlConnection.setRequestProperty("Content-Type", contentType);
+        }
+        if (contentEncoding != null) {
+            urlConnection.setRequestProperty("Content-Encoding", contentEncoding);
         }
         for (final Property header : headers) {
             urlConnection.setRequestProperty(
@@ -101,11 +138,10 @@ public class HttpURLConnectionManager extends HttpManager {
             ((HttpsURLConnection)urlConnection).setHostnameVerifier(LaxHostnameVerifier.INSTANCE);
         }
 
-        final byte[] msg = layout.toByteArray(event);
-        urlConnection.setFixedLengthStreamingMode(msg.length);
+        urlConnection.setFixedLengthStreamingMode(length);
         urlConnection.connect();
         try (OutputStream os = urlConnection.getOutputStream()) {
-            os.write(msg);
+            os.write(body, 0, length);
         }
 
         final byte[] buffer = new byte[1024];
@@ -128,8 +164,9 @@ public class HttpURLConnectionManager extends HttpManager {
                     }
                 }
             }
-            if (urlConnection.getResponseCode() > -1) {
-                throw new IOException(errorMessage.toString());
+            final int responseCode = urlConnection.getResponseCode();
+            if (responseCode > -1) {
+                throw new ResponseException(responseCode, errorMessage.toString());
             } else {
                 throw e;
             }
@@ -67,6 +67,9 @@ public final class MemoryMappedFileAppender extends AbstractOutputStreamAppender
         @PluginBuilderAttribute("advertiseURI")
         private String advertiseURI;
 
+        @PluginBuilderAttribute("remapAhead")
+        private boolean remapAhead;
+
         @Override
         public MemoryMappedFileAppender build() {
             final String name = getName();
@@ -83,7 +86,7 @@ public final class MemoryMappedFileAppender extends AbstractOutputStreamAppender
             }
             final Layout<? extends Serializable> layout = getOrCreateLayout();
             final MemoryMappedFileManager manager = MemoryMappedFileManager.getFileManager(fileName, append, isImmediateFlush(),
-                    actualRegionLength, advertiseURI, layout);
+                    actualRegionLength, advertiseURI, layout, remapAhead);
             if (manager == null) {
                 return null;
             }
@@ -117,6 +120,19 @@ public final class MemoryMappedFileAppender extends AbstractOutputStreamAppender
             return asBuilder();
         }
 
+        /**
+         * Maps the next region of the file in the background before the current one is full, so logging threads do
+         * not wait for the file to be extended and remapped.
+         *
+         * @param remapAhead whether to map the next region ahead
+         * @return this builder
+         * @since 2.14.0
+         */
+        public B setRemapAhead(final boolean remapAhead) {
+            this.remapAhead = remapAhead;
+            return asBuilder();
+        }
+
     }
 
     private static final int BIT_POSITION_1GB = 30; // 2^30 ~= 1GB
@@ -158,9 +174,10 @@ public final class MemoryMappedFileAppender extends AbstractOutputStreamAppender
      * Write the log entry rolling over the file when required.
      *
      * @param event The LogEvent.
+     * @param endOfBatch Whether the event is the last of the events appended together.
      */
     @Override
-    public void append(final LogEvent event) {
+    protected void append(final LogEvent event, final boolean endOfBatch) {
 
         // Leverage the nice batching behaviour of async Loggers/Appenders:
         // we can signal the file manager that it needs to flush the buffer
@@ -169,7 +186,7 @@ public final class MemoryMappedFileAppender extends AbstractOutputStreamAppender
         // _always_ available in the log file, without incurring the overhead
         // of immediateFlush=true.
         getManager().setEndOfBatch(event.isEndOfBatch()); // FIXME manager's EndOfBatch threadlocal can be deleted
-        super.append(event); // TODO should only call force() if immediateFlush && endOfBatch?
+        super.append(event, endOfBatch); // TODO should only call force() if immediateFlush && endOfBatch?
     }
 
     /**
@@ -254,7 +271,7 @@ public final class MemoryMappedFileAppender extends AbstractOutputStreamAppender
     /**
      * Converts the specified region length to a valid value.
      */
-    private static int determineValidRegionLength(final String name, final int regionLength) {
+    static int determineValidRegionLength(final String name, final int regionLength) {
         if (regionLength > MAX_REGION_LENGTH) {
             LOGGER.info("MemoryMappedAppender[{}] Reduced region length from {} to max length: {}", name, regionLength,
                     MAX_REGION_LENGTH);
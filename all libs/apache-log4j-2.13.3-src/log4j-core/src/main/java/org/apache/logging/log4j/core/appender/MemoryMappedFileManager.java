@@ -44,6 +44,10 @@ import org.apache.logging.log4j.core.util.NullOutputStream;
  * Extends OutputStreamManager but instead of using a buffered output stream, this class maps a region of a file into
  * memory and writes to this memory region.
  * <p>
+ * When a region is full, the file is extended and the next region is mapped. With remap-ahead enabled, the next region
+ * is mapped by a background thread before the current one is full, so the logging thread only swaps buffers, see
+ * {@link MemoryMappedRegions}.
+ * </p>
  *
  * @see <a href="http://www.codeproject.com/Tips/683614/Things-to-Know-about-Memory-Mapped-File-in-Java">
  *      http://www.codeproject.com/Tips/683614/Things-to-Know-about-Memory-Mapped-File-in-Java</a>
@@ -70,21 +74,31 @@ public class MemoryMappedFileManager extends OutputStreamManager {
     private final String advertiseURI;
     private final RandomAccessFile randomAccessFile;
     private final ThreadLocal<Boolean> isEndOfBatch = new ThreadLocal<>();
+    private final MemoryMappedRegions regions;
     private MappedByteBuffer mappedBuffer;
-    private long mappingOffset;
 
     protected MemoryMappedFileManager(final RandomAccessFile file, final String fileName, final OutputStream os,
             final boolean immediateFlush, final long position, final int regionLength, final String advertiseURI,
             final Layout<? extends Serializable> layout, final boolean writeHeader) throws IOException {
+        this(file, fileName, os, immediateFlush, position, regionLength, advertiseURI, layout, writeHeader, false);
+    }
+
+    /**
+     * @since 2.14.0
+     */
+    protected MemoryMappedFileManager(final RandomAccessFile file, final String fileName, final OutputStream os,
+            final boolean immediateFlush, final long position, final int regionLength, final String advertiseURI,
+            final Layout<? extends Serializable> layout, final boolean writeHeader, final boolean remapAhead)
+            throws IOException {
         super(os, fileName, layout, writeHeader, ByteBuffer.wrap(new byte[0]));
         this.immediateFlush = immediateFlush;
         this.randomAccessFile = Objects.requireNonNull(file, "RandomAccessFile");
         this.regionLength = regionLength;
         this.advertiseURI = advertiseURI;
         this.isEndOfBatch.set(Boolean.FALSE);
-        this.mappedBuffer = mmap(randomAccessFile.getChannel(), getFileName(), position, regionLength);
+        this.regions = new MemoryMappedRegions(getFileName(), randomAccessFile, position, regionLength, remapAhead);
+        this.mappedBuffer = regions.getBuffer();
         this.byteBuffer = mappedBuffer;
-        this.mappingOffset = position;
     }
 
     /**
@@ -101,8 +115,27 @@ public class MemoryMappedFileManager extends OutputStreamManager {
     public static MemoryMappedFileManager getFileManager(final String fileName, final boolean append,
             final boolean immediateFlush, final int regionLength, final String advertiseURI,
             final Layout<? extends Serializable> layout) {
+        return getFileManager(fileName, append, immediateFlush, regionLength, advertiseURI, layout, false);
+    }
+
+    /**
+     * Returns the MemoryMappedFileManager.
+     *
+     * @param fileName The name of the file to manage.
+     * @param append true if the file should be appended to, false if it should be overwritten.
+     * @param immediateFlush true if the contents should be flushed to disk on every write
+     * @param regionLength The mapped region length.
+     * @param advertiseURI the URI to use when advertising the file
+     * @param layout The layout.
+     * @param remapAhead true if the next region should be mapped in the background before the current one is full
+     * @return A MemoryMappedFileManager for the File.
+     * @since 2.14.0
+     */
+    public static MemoryMappedFileManager getFileManager(final String fileName, final boolean append,
+            final boolean immediateFlush, final int regionLength, final String advertiseURI,
+            final Layout<? extends Serializable> layout, final boolean remapAhead) {
         return narrow(MemoryMappedFileManager.class, getManager(fileName, new FactoryData(append, immediateFlush,
-                regionLength, advertiseURI, layout), FACTORY));
+                regionLength, advertiseURI, layout, remapAhead), FACTORY));
     }
 
     public Boolean isEndOfBatch() {
@@ -129,23 +162,13 @@ public class MemoryMappedFileManager extends OutputStreamManager {
     }
 
     private synchronized void remap() {
-        final long offset = this.mappingOffset + mappedBuffer.position();
-        final int length = mappedBuffer.remaining() + regionLength;
         try {
-            unsafeUnmap(mappedBuffer);
-            final long fileLength = randomAccessFile.length() + regionLength;
-            LOGGER.debug("{} {} extending {} by {} bytes to {}", getClass().getSimpleName(), getName(), getFileName(),
-                    regionLength, fileLength);
-
             final long startNanos = System.nanoTime();
-            randomAccessFile.setLength(fileLength);
-            final float millis = (float) ((System.nanoTime() - startNanos) / NANOS_PER_MILLISEC);
-            LOGGER.debug("{} {} extended {} OK in {} millis", getClass().getSimpleName(), getName(), getFileName(),
-                    millis);
-
-            mappedBuffer = mmap(randomAccessFile.getChannel(), getFileName(), offset, length);
+            mappedBuffer = regions.remap();
             this.byteBuffer = mappedBuffer;
-            mappingOffset = offset;
+            final float millis = (float) ((System.nanoTime() - startNanos) / NANOS_PER_MILLISEC);
+            LOGGER.debug("{} {} switched {} to the next region in {} millis", getClass().getSimpleName(), getName(),
+                    getFileName(), millis);
         } catch (final Exception ex) {
             logError("Unable to remap", ex);
         }
@@ -158,16 +181,14 @@ public class MemoryMappedFileManager extends OutputStreamManager {
 
     @Override
     public synchronized boolean closeOutputStream() {
-        final long position = mappedBuffer.position();
-        final long length = mappingOffset + position;
+        final long length = regions.getPosition();
         try {
-            unsafeUnmap(mappedBuffer);
+            regions.unmap();
         } catch (final Exception ex) {
             logError("Unable to unmap MappedBuffer", ex);
         }
         try {
-            LOGGER.debug("MMapAppender closing. Setting {} length to {} (offset {} + position {})", getFileName(),
-                    length, mappingOffset, position);
+            LOGGER.debug("MMapAppender closing. Setting {} length to {}", getFileName(), length);
             randomAccessFile.setLength(length);
             randomAccessFile.close();
             return true;
@@ -210,7 +231,7 @@ public class MemoryMappedFileManager extends OutputStreamManager {
         }
     }
 
-    private static void unsafeUnmap(final MappedByteBuffer mbb) throws PrivilegedActionException {
+    static void unsafeUnmap(final MappedByteBuffer mbb) throws PrivilegedActionException {
         LOGGER.debug("MMapAppender unmapping old buffer...");
         final long startNanos = System.nanoTime();
         AccessController.doPrivileged(new PrivilegedExceptionAction<Object>() {
@@ -246,6 +267,16 @@ public class MemoryMappedFileManager extends OutputStreamManager {
         return regionLength;
     }
 
+    /**
+     * Returns whether the next region is mapped in the background before the current one is full.
+     *
+     * @return whether remap-ahead is enabled
+     * @since 2.14.0
+     */
+    public boolean isRemapAhead() {
+        return regions.isRemapAhead();
+    }
+
     /**
      * Returns {@code true} if the content of the buffer should be forced to the storage device on every write,
      * {@code false} otherwise.
@@ -296,6 +327,7 @@ public class MemoryMappedFileManager extends OutputStreamManager {
         private final int regionLength;
         private final String advertiseURI;
         private final Layout<? extends Serializable> layout;
+        private final boolean remapAhead;
 
         /**
          * Constructor.
@@ -305,14 +337,16 @@ public class MemoryMappedFileManager extends OutputStreamManager {
          * @param regionLength length of the mapped region
          * @param advertiseURI the URI to use when advertising the file
          * @param layout The layout.
+         * @param remapAhead map the next region in the background
          */
         public FactoryData(final boolean append, final boolean immediateFlush, final int regionLength,
-                final String advertiseURI, final Layout<? extends Serializable> layout) {
+                final String advertiseURI, final Layout<? extends Serializable> layout, final boolean remapAhead) {
             this.append = append;
             this.immediateFlush = immediateFlush;
             this.regionLength = regionLength;
             this.advertiseURI = advertiseURI;
             this.layout = layout;
+            this.remapAhead = remapAhead;
         }
     }
 
@@ -346,7 +380,7 @@ public class MemoryMappedFileManager extends OutputStreamManager {
                 final long position = (data.append) ? raf.length() : 0;
                 raf.setLength(position + data.regionLength);
                 return new MemoryMappedFileManager(raf, name, os, data.immediateFlush, position, data.regionLength,
-                        data.advertiseURI, data.layout, writeHeader);
+                        data.advertiseURI, data.layout, writeHeader, data.remapAhead);
             } catch (final Exception ex) {
                 LOGGER.error("MemoryMappedFileManager (" + name + ") " + ex, ex);
                 Closer.closeSilently(raf);
@@ -0,0 +1,262 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.util.Log4jThreadFactory;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * Maps consecutive regions of a file into memory for a memory mapped file manager.
+ * <p>
+ * By default, when the current region is full the file is extended and remapped from the current position on the
+ * thread that writes, like {@link MemoryMappedFileManager} always did. With remap-ahead enabled, a background thread
+ * maps the region following the current one as soon as the current one is installed. Switching to the next region is
+ * then a single swap of the pre-mapped buffer, and the full region is unmapped in the background. If the next region
+ * is not ready yet, the writing thread waits for it; if mapping it failed, the region is mapped inline.
+ * </p>
+ * <p>
+ * Instances are not thread-safe: the owning manager calls them while holding its lock. This class should be
+ * considered internal.
+ * </p>
+ *
+ * @since 2.14.0
+ */
+public final class MemoryMappedRegions {
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+    private static volatile ExecutorService remapExecutor;
+
+    private final String fileName;
+    private final RandomAccessFile randomAccessFile;
+    private final int regionLength;
+    private final boolean remapAhead;
+    private final AtomicReference<MappedByteBuffer> nextRegion = new AtomicReference<>();
+    /** The file offset of the region mapped ahead. */
+    private long nextRegionOffset;
+    private Future<?> remapAheadTask;
+    private MappedByteBuffer mappedBuffer;
+    private long mappingOffset;
+
+    /**
+     * Maps the first region of the file.
+     *
+     * @param fileName the name of the file, used in log messages
+     * @param randomAccessFile the file
+     * @param position the position of the first write
+     * @param regionLength the length of each mapped region
+     * @param remapAhead whether to map the next region in the background
+     * @throws IOException if the region cannot be mapped
+     */
+    public MemoryMappedRegions(final String fileName, final RandomAccessFile randomAccessFile, final long position,
+            final int regionLength, final boolean remapAhead) throws IOException {
+        this.fileName = fileName;
+        this.randomAccessFile = randomAccessFile;
+        this.regionLength = regionLength;
+        this.remapAhead = remapAhead;
+        this.mappedBuffer = MemoryMappedFileManager.mmap(randomAccessFile.getChannel(), fileName, position,
+                regionLength);
+        this.mappingOffset = position;
+        scheduleRemapAhead();
+    }
+
+    /**
+     * Returns the buffer of the current region.
+     *
+     * @return the mapped buffer to write to
+     */
+    public MappedByteBuffer getBuffer() {
+        return mappedBuffer;
+    }
+
+    /**
+     * Returns the position in the file of the next byte written to the current region, that is the length of the
+     * data written to the file.
+     *
+     * @return the file position
+     */
+    public long getPosition() {
+        return mappingOffset + mappedBuffer.position();
+    }
+
+    /**
+     * Returns whether the next region is mapped in the background.
+     *
+     * @return {@code true} if remap-ahead is enabled
+     */
+    public boolean isRemapAhead() {
+        return remapAhead;
+    }
+
+    /**
+     * Makes the region following the data written so far the current region.
+     *
+     * @return the buffer of the new current region
+     * @throws IOException if the region cannot be mapped
+     */
+    public MappedByteBuffer remap() throws IOException {
+        return remapAhead ? switchToNextRegion() : remapInline();
+    }
+
+    /**
+     * Forces the content of the current region to the storage device.
+     */
+    public void force() {
+        mappedBuffer.force();
+    }
+
+    /**
+     * Unmaps the current region and the region mapped ahead, if any. The file is not closed.
+     *
+     * @return the length of the data written to the file
+     * @throws IOException if a region cannot be unmapped
+     */
+    public long unmap() throws IOException {
+        final long length = getPosition();
+        awaitRemapAhead();
+        final MappedByteBuffer next = nextRegion.getAndSet(null);
+        try {
+            unmap(mappedBuffer);
+        } finally {
+            if (next != null) {
+                unmap(next);
+            }
+        }
+        return length;
+    }
+
+    private MappedByteBuffer remapInline() throws IOException {
+        final long offset = this.mappingOffset + mappedBuffer.position();
+        final int length = mappedBuffer.remaining() + regionLength;
+        unmap(mappedBuffer);
+        final long fileLength = randomAccessFile.length() + regionLength;
+        LOGGER.debug("MemoryMappedRegions extending {} by {} bytes to {}", fileName, regionLength, fileLength);
+        randomAccessFile.setLength(fileLength);
+        mappedBuffer = MemoryMappedFileManager.mmap(randomAccessFile.getChannel(), fileName, offset, length);
+        mappingOffset = offset;
+        return mappedBuffer;
+    }
+
+    private MappedByteBuffer switchToNextRegion() throws IOException {
+        final long offset = mappingOffset + mappedBuffer.position();
+        MappedByteBuffer next = nextRegion.getAndSet(null);
+        if (next == null) {
+            awaitRemapAhead();
+            next = nextRegion.getAndSet(null);
+        }
+        if (next != null && offset != nextRegionOffset) {
+            // the current region was not filled: the region mapped ahead would leave a gap
+            unmap(next);
+            next = null;
+        }
+        if (next == null) {
+            LOGGER.debug("MemoryMappedRegions mapping {} inline at {}", fileName, offset);
+            next = MemoryMappedFileManager.mmap(randomAccessFile.getChannel(), fileName, offset, regionLength);
+        }
+        final MappedByteBuffer previous = mappedBuffer;
+        mappedBuffer = next;
+        mappingOffset = offset;
+        getRemapExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    unmap(previous);
+                } catch (final IOException ex) {
+                    LOGGER.warn("Unable to unmap region of {}", fileName, ex);
+                }
+            }
+        });
+        scheduleRemapAhead();
+        return mappedBuffer;
+    }
+
+    private void scheduleRemapAhead() {
+        if (!remapAhead) {
+            return;
+        }
+        final FileChannel channel = randomAccessFile.getChannel();
+        // where the next region starts once the current one is full
+        final long offset = mappingOffset + mappedBuffer.capacity();
+        nextRegionOffset = offset;
+        // the executor runs one task at a time: once this task is done, the unmapping of the previous region is too
+        remapAheadTask = getRemapExecutor().submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    // mapping beyond the end of the file extends it
+                    nextRegion.set(MemoryMappedFileManager.mmap(channel, fileName, offset, regionLength));
+                } catch (final IOException ex) {
+                    LOGGER.warn("Unable to map the next region of {} ahead, it will be mapped when needed", fileName,
+                            ex);
+                }
+            }
+        });
+    }
+
+    private void awaitRemapAhead() throws IOException {
+        final Future<?> task = remapAheadTask;
+        if (task == null) {
+            return;
+        }
+        remapAheadTask = null;
+        try {
+            task.get();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while mapping the next region of " + fileName, ex);
+        } catch (final ExecutionException ex) {
+            throw new IOException("Unable to map the next region of " + fileName, ex.getCause());
+        }
+    }
+
+    private static void unmap(final MappedByteBuffer buffer) throws IOException {
+        try {
+            MemoryMappedFileManager.unsafeUnmap(buffer);
+        } catch (final Exception ex) {
+            throw new IOException("Unable to unmap MappedBuffer", ex);
+        }
+    }
+
+    private static ExecutorService getRemapExecutor() {
+        ExecutorService result = remapExecutor;
+        if (result == null) {
+            synchronized (MemoryMappedRegions.class) {
+                result = remapExecutor;
+                if (result == null) {
+                    final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS,
+                            new LinkedBlockingQueue<Runnable>(),
+                            Log4jThreadFactory.createDaemonThreadFactory("MemoryMappedRemap"));
+                    executor.allowCoreThreadTimeOut(true);
+                    remapExecutor = result = executor;
+                }
+            }
+        }
+        return result;
+    }
+}
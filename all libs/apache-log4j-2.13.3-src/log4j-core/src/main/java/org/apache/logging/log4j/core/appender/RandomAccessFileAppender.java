@@ -62,6 +62,9 @@ public final class RandomAccessFileAppender extends AbstractOutputStreamAppender
         @PluginBuilderAttribute("advertiseURI")
         private String advertiseURI;
 
+        @PluginBuilderAttribute("threadLocalBuffers")
+        private boolean threadLocalBuffers;
+
         @Override
         public RandomAccessFileAppender build() {
             final String name = getName();
@@ -77,7 +80,7 @@ public final class RandomAccessFileAppender extends AbstractOutputStreamAppender
             final Layout<? extends Serializable> layout = getOrCreateLayout();
             final boolean immediateFlush = isImmediateFlush();
             final RandomAccessFileManager manager = RandomAccessFileManager.getFileManager(fileName, append,
-                    immediateFlush, getBufferSize(), advertiseURI, layout, null);
+                    immediateFlush, getBufferSize(), advertiseURI, layout, null, threadLocalBuffers);
             if (manager == null) {
                 return null;
             }
@@ -106,6 +109,19 @@ public final class RandomAccessFileAppender extends AbstractOutputStreamAppender
             return asBuilder();
         }
 
+        /**
+         * Enables writing from per-thread buffers: threads encode events into their own buffer and write it to the
+         * file without taking the manager's lock. Events of different threads are then ordered at buffer granularity.
+         *
+         * @param threadLocalBuffers whether to use per-thread buffers
+         * @return this builder
+         * @since 2.14.0
+         */
+        public B setThreadLocalBuffers(final boolean threadLocalBuffers) {
+            this.threadLocalBuffers = threadLocalBuffers;
+            return asBuilder();
+        }
+
     }
 
     private final String fileName;
@@ -145,9 +161,10 @@ public final class RandomAccessFileAppender extends AbstractOutputStreamAppender
      * Write the log entry rolling over the file when required.
      *
      * @param event The LogEvent.
+     * @param endOfBatch Whether the event is the last of the events appended together.
      */
     @Override
-    public void append(final LogEvent event) {
+    protected void append(final LogEvent event, final boolean endOfBatch) {
 
         // Leverage the nice batching behaviour of async Loggers/Appenders:
         // we can signal the file manager that it needs to flush the buffer
@@ -158,7 +175,17 @@ public final class RandomAccessFileAppender extends AbstractOutputStreamAppender
         getManager().setEndOfBatch(event.isEndOfBatch()); // FIXME manager's EndOfBatch threadlocal can be deleted
 
         // LOG4J2-1292 utilize gc-free Layout.encode() method: taken care of in superclass
-        super.append(event);
+        super.append(event, endOfBatch);
+    }
+
+    @Override
+    protected void directEncodeEvent(final LogEvent event, final boolean endOfBatch) {
+        final ThreadLocalBufferFileWriter writer = getManager().getThreadLocalWriter();
+        if (writer == null) {
+            super.directEncodeEvent(event, endOfBatch);
+        } else {
+            writer.encode(getLayout(), event, isFlushRequired(event, endOfBatch));
+        }
     }
 
     /**
@@ -28,6 +28,7 @@ import java.util.Map;
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.util.Constants;
 import org.apache.logging.log4j.core.util.FileUtils;
 import org.apache.logging.log4j.core.util.NullOutputStream;
 
@@ -35,6 +36,10 @@ import org.apache.logging.log4j.core.util.NullOutputStream;
  * Extends OutputStreamManager but instead of using a buffered output stream,
  * this class uses a {@code ByteBuffer} and a {@code RandomAccessFile} to do the
  * I/O.
+ * <p>
+ * With thread-local buffers enabled, events encoded directly into the manager are written by a
+ * {@link ThreadLocalBufferFileWriter} instead of going through the manager's lock.
+ * </p>
  */
 public class RandomAccessFileManager extends OutputStreamManager {
     static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
@@ -44,14 +49,36 @@ public class RandomAccessFileManager extends OutputStreamManager {
     private final String advertiseURI;
     private final RandomAccessFile randomAccessFile;
     private final ThreadLocal<Boolean> isEndOfBatch = new ThreadLocal<>();
+    private final ThreadLocalBufferFileWriter threadLocalWriter;
 
     protected RandomAccessFileManager(final LoggerContext loggerContext, final RandomAccessFile file, final String fileName,
             final OutputStream os, final int bufferSize, final String advertiseURI,
             final Layout<? extends Serializable> layout, final boolean writeHeader) {
+        this(loggerContext, file, fileName, os, bufferSize, advertiseURI, layout, writeHeader, false);
+    }
+
+    /**
+     * @since 2.14.0
+     */
+    protected RandomAccessFileManager(final LoggerContext loggerContext, final RandomAccessFile file,
+            final String fileName, final OutputStream os, final int bufferSize, final String advertiseURI,
+            final Layout<? extends Serializable> layout, final boolean writeHeader, final boolean threadLocalBuffers) {
         super(loggerContext, os, fileName, false, layout, writeHeader, ByteBuffer.wrap(new byte[bufferSize]));
         this.randomAccessFile = file;
         this.advertiseURI = advertiseURI;
         this.isEndOfBatch.set(Boolean.FALSE);
+        this.threadLocalWriter = threadLocalBuffers ? openThreadLocalWriter(file, fileName) : null;
+    }
+
+    private ThreadLocalBufferFileWriter openThreadLocalWriter(final RandomAccessFile file, final String fileName) {
+        final ThreadLocalBufferFileWriter writer = new ThreadLocalBufferFileWriter(fileName, this,
+                Constants.ENCODER_BYTE_BUFFER_SIZE);
+        try {
+            writer.open(file.getChannel(), file.getFilePointer());
+        } catch (final IOException ex) {
+            logError("Unable to get the position of RandomAccessFile", ex);
+        }
+        return writer;
     }
 
     /**
@@ -71,10 +98,33 @@ public class RandomAccessFileManager extends OutputStreamManager {
 	public static RandomAccessFileManager getFileManager(final String fileName, final boolean append,
 			final boolean immediateFlush, final int bufferSize, final String advertiseURI,
 			final Layout<? extends Serializable> layout, final Configuration configuration) {
-		return narrow(RandomAccessFileManager.class, getManager(fileName,
-				new FactoryData(append, immediateFlush, bufferSize, advertiseURI, layout, configuration), FACTORY));
+		return getFileManager(fileName, append, immediateFlush, bufferSize, advertiseURI, layout, configuration, false);
 	}
 
+    /**
+     * Returns the RandomAccessFileManager.
+     *
+     * @param fileName The name of the file to manage.
+     * @param append true if the file should be appended to, false if it should
+     *            be overwritten.
+     * @param immediateFlush true if the contents should be flushed to disk on every
+     *            write
+     * @param bufferSize The buffer size.
+     * @param advertiseURI the URI to use when advertising the file
+     * @param layout The layout.
+     * @param configuration The configuration.
+     * @param threadLocalBuffers true if events should be written from per-thread buffers without locking.
+     * @return A RandomAccessFileManager for the File.
+     * @since 2.14.0
+     */
+    public static RandomAccessFileManager getFileManager(final String fileName, final boolean append,
+            final boolean immediateFlush, final int bufferSize, final String advertiseURI,
+            final Layout<? extends Serializable> layout, final Configuration configuration,
+            final boolean threadLocalBuffers) {
+        return narrow(RandomAccessFileManager.class, getManager(fileName, new FactoryData(append, immediateFlush,
+                bufferSize, advertiseURI, layout, configuration, threadLocalBuffers), FACTORY));
+    }
+
     public Boolean isEndOfBatch() {
         return isEndOfBatch.get();
     }
@@ -83,8 +133,22 @@ public class RandomAccessFileManager extends OutputStreamManager {
         this.isEndOfBatch.set(Boolean.valueOf(endOfBatch));
     }
 
+    /**
+     * Returns the writer of the per-thread buffers.
+     *
+     * @return the writer, or {@code null} if thread-local buffers are not enabled
+     * @since 2.14.0
+     */
+    public ThreadLocalBufferFileWriter getThreadLocalWriter() {
+        return threadLocalWriter;
+    }
+
     @Override
     protected void writeToDestination(final byte[] bytes, final int offset, final int length) {
+        if (threadLocalWriter != null) {
+            threadLocalWriter.write(bytes, offset, length);
+            return;
+        }
         try {
             randomAccessFile.write(bytes, offset, length);
         } catch (final IOException ex) {
@@ -95,12 +159,26 @@ public class RandomAccessFileManager extends OutputStreamManager {
 
     @Override
     public synchronized void flush() {
+        if (threadLocalWriter != null) {
+            threadLocalWriter.flush();
+        }
         flushBuffer(byteBuffer);
     }
 
+    @Override
+    protected void writeFooter() {
+        if (threadLocalWriter != null) {
+            threadLocalWriter.flushAll();
+        }
+        super.writeFooter();
+    }
+
     @Override
     public synchronized boolean closeOutputStream() {
         flush();
+        if (threadLocalWriter != null) {
+            threadLocalWriter.suspend();
+        }
         try {
             randomAccessFile.close();
             return true;
@@ -152,6 +230,7 @@ public class RandomAccessFileManager extends OutputStreamManager {
         private final int bufferSize;
         private final String advertiseURI;
         private final Layout<? extends Serializable> layout;
+        private final boolean threadLocalBuffers;
 
         /**
          * Constructor.
@@ -162,12 +241,27 @@ public class RandomAccessFileManager extends OutputStreamManager {
          */
         public FactoryData(final boolean append, final boolean immediateFlush, final int bufferSize,
                 final String advertiseURI, final Layout<? extends Serializable> layout, final Configuration configuration) {
+            this(append, immediateFlush, bufferSize, advertiseURI, layout, configuration, false);
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param append Append status.
+         * @param bufferSize size of the buffer
+         * @param configuration The configuration.
+         * @param threadLocalBuffers Whether to write from per-thread buffers.
+         */
+        public FactoryData(final boolean append, final boolean immediateFlush, final int bufferSize,
+                final String advertiseURI, final Layout<? extends Serializable> layout,
+                final Configuration configuration, final boolean threadLocalBuffers) {
             super(configuration);
             this.append = append;
             this.immediateFlush = immediateFlush;
             this.bufferSize = bufferSize;
             this.advertiseURI = advertiseURI;
             this.layout = layout;
+            this.threadLocalBuffers = threadLocalBuffers;
         }
     }
 
@@ -203,7 +297,7 @@ public class RandomAccessFileManager extends OutputStreamManager {
                     raf.setLength(0);
                 }
                 return new RandomAccessFileManager(data.getLoggerContext(), raf, name,
-                        os, data.bufferSize, data.advertiseURI, data.layout, writeHeader);
+                        os, data.bufferSize, data.advertiseURI, data.layout, writeHeader, data.threadLocalBuffers);
             } catch (final Exception ex) {
                 LOGGER.error("RandomAccessFileManager (" + name + ") " + ex, ex);
             }
@@ -305,11 +305,12 @@ public final class RollingFileAppender extends AbstractOutputStreamAppender<Roll
      * Writes the log entry rolling over the file when required.
 
      * @param event The LogEvent.
+     * @param endOfBatch Whether the event is the last of the events appended together.
      */
     @Override
-    public void append(final LogEvent event) {
+    protected void append(final LogEvent event, final boolean endOfBatch) {
         getManager().checkRollover(event);
-        super.append(event);
+        super.append(event, endOfBatch);
     }
 
     /**
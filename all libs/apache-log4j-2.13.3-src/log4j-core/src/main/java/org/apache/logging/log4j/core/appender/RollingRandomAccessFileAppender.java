@@ -90,6 +90,9 @@ public final class RollingRandomAccessFileAppender extends AbstractOutputStreamA
         @PluginBuilderAttribute
         private String fileGroup;
 
+        @PluginBuilderAttribute
+        private boolean threadLocalBuffers;
+
         @Override
         public RollingRandomAccessFileAppender build() {
             final String name = getName();
@@ -132,7 +135,7 @@ public final class RollingRandomAccessFileAppender extends AbstractOutputStreamA
             final RollingRandomAccessFileManager manager = RollingRandomAccessFileManager
                     .getRollingRandomAccessFileManager(fileName, filePattern, append, immediateFlush, bufferSize, policy,
                             strategy, advertiseURI, layout,
-                            filePermissions, fileOwner, fileGroup, getConfiguration());
+                            filePermissions, fileOwner, fileGroup, getConfiguration(), threadLocalBuffers);
             if (manager == null) {
                 return null;
             }
@@ -194,6 +197,19 @@ public final class RollingRandomAccessFileAppender extends AbstractOutputStreamA
             return asBuilder();
         }
 
+        /**
+         * Enables writing from per-thread buffers: threads encode events into their own buffer and write it to the
+         * file without taking the manager's lock, and only one thread at a time evaluates the triggering policy.
+         *
+         * @param threadLocalBuffers whether to use per-thread buffers
+         * @return this builder
+         * @since 2.14.0
+         */
+        public B withThreadLocalBuffers(final boolean threadLocalBuffers) {
+            this.threadLocalBuffers = threadLocalBuffers;
+            return asBuilder();
+        }
+
     }
 
     private final String fileName;
@@ -234,9 +250,10 @@ public final class RollingRandomAccessFileAppender extends AbstractOutputStreamA
      * Write the log entry rolling over the file when required.
      *
      * @param event The LogEvent.
+     * @param endOfBatch Whether the event is the last of the events appended together.
      */
     @Override
-    public void append(final LogEvent event) {
+    protected void append(final LogEvent event, final boolean endOfBatch) {
         final RollingRandomAccessFileManager manager = getManager();
         manager.checkRollover(event);
 
@@ -249,7 +266,17 @@ public final class RollingRandomAccessFileAppender extends AbstractOutputStreamA
         manager.setEndOfBatch(event.isEndOfBatch()); // FIXME manager's EndOfBatch threadlocal can be deleted
 
         // LOG4J2-1292 utilize gc-free Layout.encode() method: taken care of in superclass
-        super.append(event);
+        super.append(event, endOfBatch);
+    }
+
+    @Override
+    protected void directEncodeEvent(final LogEvent event, final boolean endOfBatch) {
+        final ThreadLocalBufferFileWriter writer = getManager().getThreadLocalWriter();
+        if (writer == null) {
+            super.directEncodeEvent(event, endOfBatch);
+        } else {
+            writer.encode(getLayout(), event, isFlushRequired(event, endOfBatch));
+        }
     }
 
     /**
@@ -40,6 +40,8 @@ import org.apache.logging.log4j.core.config.plugins.validation.constraints.Valid
 import org.apache.logging.log4j.core.net.AbstractSocketManager;
 import org.apache.logging.log4j.core.net.Advertiser;
 import org.apache.logging.log4j.core.net.DatagramSocketManager;
+import org.apache.logging.log4j.core.net.NioTcpSocketManager;
+import org.apache.logging.log4j.core.net.NioTcpSocketManager.OverflowPolicy;
 import org.apache.logging.log4j.core.net.Protocol;
 import org.apache.logging.log4j.core.net.SocketOptions;
 import org.apache.logging.log4j.core.net.SslSocketManager;
@@ -98,6 +100,24 @@ public class SocketAppender extends AbstractOutputStreamAppender<AbstractSocketM
         @PluginElement("SocketOptions")
         private SocketOptions socketOptions;
 
+        @PluginBuilderAttribute
+        private boolean nonBlocking;
+
+        @PluginBuilderAttribute
+        private int writeQueueCapacity = NioTcpSocketManager.DEFAULT_WRITE_QUEUE_CAPACITY;
+
+        @PluginBuilderAttribute
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+        @PluginBuilderAttribute
+        private String spillDirectory;
+
+        @PluginBuilderAttribute
+        private long spillMaxBytes = NioTcpSocketManager.DEFAULT_SPILL_MAX_BYTES;
+
+        @PluginBuilderAttribute
+        private int spillReplayRate;
+
         @PluginElement("SslConfiguration")
         @PluginAliases({ "SslConfig" })
         private SslConfiguration sslConfiguration;
@@ -183,6 +203,132 @@ public class SocketAppender extends AbstractOutputStreamAppender<AbstractSocketM
             return socketOptions;
         }
 
+        public boolean isNonBlocking() {
+            return nonBlocking;
+        }
+
+        public int getWriteQueueCapacity() {
+            return writeQueueCapacity;
+        }
+
+        public OverflowPolicy getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        public String getSpillDirectory() {
+            return spillDirectory;
+        }
+
+        public long getSpillMaxBytes() {
+            return spillMaxBytes;
+        }
+
+        public int getSpillReplayRate() {
+            return spillReplayRate;
+        }
+
+        /**
+         * Sets whether TCP events are queued and written by an I/O thread, so that logging does not wait for the
+         * network.
+         *
+         * @param nonBlocking whether to use a {@link NioTcpSocketManager}
+         * @return this builder
+         * @since 2.14.0
+         */
+        public B withNonBlocking(final boolean nonBlocking) {
+            this.nonBlocking = nonBlocking;
+            return asBuilder();
+        }
+
+        /**
+         * Sets the capacity in bytes of the write queue of a non-blocking appender.
+         *
+         * @param writeQueueCapacity the capacity of the write queue
+         * @return this builder
+         * @since 2.14.0
+         */
+        public B withWriteQueueCapacity(final int writeQueueCapacity) {
+            this.writeQueueCapacity = writeQueueCapacity;
+            return asBuilder();
+        }
+
+        /**
+         * Sets what a non-blocking appender does with events when its write queue is full.
+         *
+         * @param overflowPolicy the overflow policy
+         * @return this builder
+         * @since 2.14.0
+         */
+        public B withOverflowPolicy(final OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+            return asBuilder();
+        }
+
+        /**
+         * Sets the directory of the journal that a non-blocking appender with the {@link OverflowPolicy#SPILL} policy
+         * writes events to when its write queue is full.
+         *
+         * @param spillDirectory the spill directory
+         * @return this builder
+         * @since 2.14.0
+         */
+        public B withSpillDirectory(final String spillDirectory) {
+            this.spillDirectory = spillDirectory;
+            return asBuilder();
+        }
+
+        /**
+         * Sets the maximum size in bytes of the spill journal; events are dropped when it is full.
+         *
+         * @param spillMaxBytes the maximum size of the spill journal
+         * @return this builder
+         * @since 2.14.0
+         */
+        public B withSpillMaxBytes(final long spillMaxBytes) {
+            this.spillMaxBytes = spillMaxBytes;
+            return asBuilder();
+        }
+
+        /**
+         * Sets the maximum number of spilled events per second that are written again once the connection is
+         * established, or 0 for no limit. The rate applies to the events spilled before the connection was
+         * established; the events spilled after them are written as fast as the server takes them.
+         *
+         * @param spillReplayRate the replay rate in events per second
+         * @return this builder
+         * @since 2.14.0
+         */
+        public B withSpillReplayRate(final int spillReplayRate) {
+            this.spillReplayRate = spillReplayRate;
+            return asBuilder();
+        }
+
+        /**
+         * Creates the socket manager for the settings of this builder.
+         *
+         * @param name the name of the appender
+         * @param protocol the protocol
+         * @param layout the layout
+         * @param bufferSize the buffer size
+         * @param socketOptions the socket options
+         * @return the socket manager
+         * @since 2.14.0
+         */
+        protected AbstractSocketManager createSocketManager(final String name, final Protocol protocol,
+                final Layout<? extends Serializable> layout, final int bufferSize, final SocketOptions socketOptions) {
+            if (nonBlocking && protocol == Protocol.TCP && sslConfiguration == null) {
+                return NioTcpSocketManager.getSocketManager(host, port, connectTimeoutMillis, reconnectDelayMillis,
+                        layout, bufferSize, socketOptions, writeQueueCapacity, overflowPolicy, spillDirectory,
+                        spillMaxBytes, spillReplayRate);
+            }
+            if (nonBlocking) {
+                AbstractLifeCycle.LOGGER.info("Appender {} ignoring nonBlocking for {} protocol{}", name, protocol,
+                        sslConfiguration != null ? " with SSL" : "");
+            }
+            return SocketAppender.createSocketManager(name, protocol, host, port, connectTimeoutMillis,
+                    sslConfiguration, reconnectDelayMillis, immediateFail, layout, bufferSize, socketOptions);
+        }
+
     }
 
     /**
@@ -218,8 +364,8 @@ public class SocketAppender extends AbstractOutputStreamAppender<AbstractSocketM
                 immediateFlush = true;
             }
 
-            final AbstractSocketManager manager = SocketAppender.createSocketManager(name, actualProtocol, getHost(), getPort(),
-                    getConnectTimeoutMillis(), getSslConfiguration(), getReconnectDelayMillis(), getImmediateFail(), layout, getBufferSize(), getSocketOptions());
+            final AbstractSocketManager manager = createSocketManager(name, actualProtocol, layout, getBufferSize(),
+                    getSocketOptions());
 
             return new SocketAppender(name, layout, getFilter(), manager, isIgnoreExceptions(),
                     !bufferedIo || immediateFlush, getAdvertise() ? getConfiguration().getAdvertiser() : null,
@@ -453,9 +599,15 @@ public class SocketAppender extends AbstractOutputStreamAppender<AbstractSocketM
     }
 
     @Override
-    protected void directEncodeEvent(final LogEvent event) {
+    protected void directEncodeEvent(final LogEvent event, final boolean endOfBatch) {
+        final AbstractSocketManager manager = getManager();
+        if (manager instanceof NioTcpSocketManager) {
+            // queues the event as one record however the layout writes it
+            ((NioTcpSocketManager) manager).writeEvent(getLayout(), event);
+            return;
+        }
         // Disable garbage-free logging for now:
         // problem with UDP: 8K buffer size means that largish messages get broken up into chunks
-        writeByteArrayToManager(event); // revert to classic (non-garbage free) logging
+        writeByteArrayToManager(event, endOfBatch); // revert to classic (non-garbage free) logging
     }
 }
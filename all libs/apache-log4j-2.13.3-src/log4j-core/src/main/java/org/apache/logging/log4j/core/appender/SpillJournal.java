@@ -0,0 +1,713 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.util.Closer;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * An append-only journal of byte records in memory mapped segment files, for network managers that spill events to
+ * disk while the remote end is unavailable or slow, and replay them in order once it has recovered.
+ * <p>
+ * Records are appended to the newest segment file, {@code <name>.<sequence>.spill} in the journal directory, as an
+ * int length followed by the bytes. A new segment is started when a record does not fit, and an append is rejected
+ * when the journal would need more than {@code maxBytes / segmentSize} segments. Records are read in order from the
+ * oldest segment, which is deleted once it has been read. The length of a record is written after its bytes, so a
+ * record that was being appended when the process died is ignored.
+ * </p>
+ * <p>
+ * Records can also be put in front of the records to read, in a segment before the oldest one, for a manager that
+ * stops with events it had already taken from the journal. The records of the oldest segment that were already read
+ * are then covered by a negative length, so that they are skipped.
+ * </p>
+ * <p>
+ * The read position is kept in the memory mapped file {@code <name>.checkpoint}, which is locked while the journal
+ * is open, so records left when the application stopped are read after it restarts. The files survive a crash of the
+ * process, but they are forced to the storage device only when the journal is closed. A record is read again after
+ * a restart if the process died while it was being read.
+ * </p>
+ * <p>
+ * {@link #drain(Consumer, int)} passes at most {@code replayRate} records per second to the consumer, with bursts
+ * of a tenth of that, so that a remote end that has just recovered is not flooded with the backlog;
+ * {@link #drain(Consumer, int, boolean)} can ignore that rate.
+ * </p>
+ * <p>
+ * Instances are not thread-safe: the owning manager calls them while holding its lock. This class should be
+ * considered internal.
+ * </p>
+ *
+ * @since 2.14.0
+ */
+public final class SpillJournal implements Closeable {
+
+    /**
+     * The default length of a segment file in bytes.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 8 * 1024 * 1024;
+
+    /**
+     * Receives the records of the journal.
+     */
+    public interface Consumer {
+
+        /**
+         * Receives the next record of the journal.
+         *
+         * @param record the bytes of the record between the position and the limit of the buffer, which is only valid
+         *            during this call
+         * @return whether the record was consumed; if not, draining stops and the record is passed again by the next
+         *         drain
+         */
+        boolean accept(ByteBuffer record);
+    }
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    private static final int MAGIC = 0x4C34534A;
+    private static final int VERSION = 1;
+    private static final int SEGMENT_HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 4;
+    private static final int CHECKPOINT_SIZE = 16;
+    private static final int CHECKPOINT_SEQUENCE = 0;
+    private static final int CHECKPOINT_POSITION = 8;
+    private static final String SEGMENT_SUFFIX = ".spill";
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+
+    private final File directory;
+    private final String name;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final int replayRate;
+    private final RandomAccessFile checkpointFile;
+    private FileLock fileLock;
+    private MappedByteBuffer checkpoint;
+
+    private MappedByteBuffer readSegment;
+    private ByteBuffer readView;
+    private long readSequence;
+    private int readPosition;
+    private MappedByteBuffer writeSegment;
+    private long writeSequence;
+    private int writePosition;
+
+    private long pendingRecords;
+    private long pendingBytes;
+    private long appendedCount;
+    private long replayedCount;
+    private long rejectedCount;
+
+    private double replayPermits;
+    private long lastRefillNanos;
+    private boolean closed;
+
+    private SpillJournal(final File directory, final String name, final int segmentSize, final long maxBytes,
+            final int replayRate) throws IOException {
+        this.directory = directory;
+        this.name = name;
+        this.segmentSize = segmentSize;
+        this.maxSegments = (int) Math.min(Integer.MAX_VALUE, Math.max(2, maxBytes / segmentSize));
+        this.replayRate = replayRate;
+        this.checkpointFile = new RandomAccessFile(new File(directory, name + CHECKPOINT_SUFFIX), "rw");
+        try {
+            try {
+                fileLock = checkpointFile.getChannel().tryLock();
+            } catch (final OverlappingFileLockException ex) {
+                fileLock = null;
+            }
+            if (fileLock == null) {
+                throw new IOException("Spill journal " + name + " in " + directory + " is already in use");
+            }
+            final boolean existing = checkpointFile.length() >= CHECKPOINT_SIZE;
+            checkpoint = checkpointFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, CHECKPOINT_SIZE);
+            recover(existing);
+        } catch (final IOException | RuntimeException ex) {
+            Closer.closeSilently(checkpointFile);
+            throw ex;
+        }
+        this.replayPermits = getReplayBurst();
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Opens the journal with the specified name in a directory, creating the directory and the journal if they do not
+     * exist.
+     *
+     * @param directory the directory of the journal files
+     * @param name the name of the journal, which prefixes the names of its files
+     * @param segmentSize the length of a segment file in bytes, which limits the length of a record
+     * @param maxBytes the maximum length of all segment files in bytes; at least two segments are used
+     * @param replayRate the maximum number of records drained per second, or 0 for no limit
+     * @return the journal
+     * @throws IOException if the directory cannot be created, the journal is in use, or its files cannot be read
+     */
+    public static SpillJournal open(final File directory, final String name, final int segmentSize,
+            final long maxBytes, final int replayRate) throws IOException {
+        if (segmentSize <= SEGMENT_HEADER_SIZE + RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentSize);
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Unable to create spill directory " + directory);
+        }
+        return new SpillJournal(directory, name, segmentSize, maxBytes, replayRate);
+    }
+
+    private void recover(final boolean existing) throws IOException {
+        final long[] sequences = listSegments();
+        long sequence = existing ? checkpoint.getLong(CHECKPOINT_SEQUENCE) : 0;
+        int position = existing ? checkpoint.getInt(CHECKPOINT_POSITION) : SEGMENT_HEADER_SIZE;
+        if (sequences.length == 0) {
+            readSequence = writeSequence = Math.max(sequence, 0);
+            readSegment = writeSegment = createSegment(writeSequence);
+            readPosition = writePosition = SEGMENT_HEADER_SIZE;
+            readView = readSegment.duplicate();
+            writeCheckpoint();
+            return;
+        }
+        if (sequence < sequences[0] || sequence > sequences[sequences.length - 1]) {
+            sequence = sequences[0];
+            position = SEGMENT_HEADER_SIZE;
+        }
+        for (final long s : sequences) {
+            if (s < sequence) {
+                deleteSegment(s);
+                continue;
+            }
+            final MappedByteBuffer segment = mapSegment(s);
+            final int start = s == sequence ? Math.max(SEGMENT_HEADER_SIZE, Math.min(position, segment.capacity()))
+                    : SEGMENT_HEADER_SIZE;
+            final int end = scan(segment, start);
+            if (s == sequence) {
+                readSequence = s;
+                readSegment = segment;
+                readPosition = start;
+                readView = segment.duplicate();
+            }
+            if (s == sequences[sequences.length - 1]) {
+                writeSequence = s;
+                writeSegment = segment;
+                writePosition = end;
+            } else if (s != sequence) {
+                unmap(segment);
+            }
+        }
+        writeCheckpoint();
+        if (pendingRecords > 0) {
+            LOGGER.debug("Spill journal {} in {} has {} records to replay", name, directory, pendingRecords);
+        }
+    }
+
+    /**
+     * Counts the records of a segment from the specified position.
+     *
+     * @return the position after the last record
+     */
+    private int scan(final MappedByteBuffer segment, final int start) {
+        int position = start;
+        while (true) {
+            position = skipRead(segment, position);
+            final int length = recordLength(segment, position);
+            if (length < 0) {
+                return position;
+            }
+            position += RECORD_HEADER_SIZE + length;
+            pendingRecords++;
+            pendingBytes += RECORD_HEADER_SIZE + length;
+        }
+    }
+
+    /**
+     * Returns the position after the records that a negative length at the specified position covers, or the position
+     * itself.
+     */
+    private static int skipRead(final ByteBuffer segment, final int position) {
+        if (segment.capacity() - position >= RECORD_HEADER_SIZE) {
+            final int length = segment.getInt(position);
+            if (length < 0 && -length <= segment.capacity() - position - RECORD_HEADER_SIZE) {
+                return position + RECORD_HEADER_SIZE - length;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Returns the length of the record at the specified position of a segment, or -1 if there is no record.
+     */
+    private static int recordLength(final ByteBuffer segment, final int position) {
+        if (segment.capacity() - position < RECORD_HEADER_SIZE) {
+            return -1;
+        }
+        final int length = segment.getInt(position);
+        return length > 0 && length <= segment.capacity() - position - RECORD_HEADER_SIZE ? length : -1;
+    }
+
+    /**
+     * Appends a record to the journal.
+     *
+     * @param bytes the bytes of the record
+     * @param offset the offset of the record in the array
+     * @param length the length of the record
+     * @return whether the record was appended; {@code false} if the journal is full or closed, or the record is larger
+     *         than a segment
+     * @throws IOException if a new segment cannot be created
+     */
+    public boolean append(final byte[] bytes, final int offset, final int length) throws IOException {
+        if (!reserve(length)) {
+            return false;
+        }
+        writeSegment.put(bytes, offset, length);
+        commit(length);
+        return true;
+    }
+
+    /**
+     * Appends a record to the journal.
+     *
+     * @param record the bytes of the record between the position and the limit of the buffer, which are consumed
+     * @return whether the record was appended; {@code false} if the journal is full or closed, or the record is larger
+     *         than a segment
+     * @throws IOException if a new segment cannot be created
+     */
+    public boolean append(final ByteBuffer record) throws IOException {
+        final int length = record.remaining();
+        if (!reserve(length)) {
+            return false;
+        }
+        writeSegment.put(record);
+        commit(length);
+        return true;
+    }
+
+    /**
+     * Positions the write segment at the bytes of a new record, starting a new segment if needed.
+     */
+    private boolean reserve(final int length) throws IOException {
+        final int recordSize = RECORD_HEADER_SIZE + length;
+        if (closed || length <= 0 || recordSize > segmentSize - SEGMENT_HEADER_SIZE
+                || writeSegment.capacity() - writePosition < recordSize && !roll()) {
+            rejectedCount++;
+            return false;
+        }
+        writeSegment.position(writePosition + RECORD_HEADER_SIZE);
+        return true;
+    }
+
+    /**
+     * Puts records in front of the records to read, in a new segment before the oldest one, so that they are read
+     * first. Either all records are put in front, or none.
+     *
+     * @param records the records in the order to read them, each between the position and the limit of the buffer,
+     *            which are consumed
+     * @return whether the records were put in front; {@code false} if the journal is full or closed, or the records
+     *         do not fit in a segment
+     * @throws IOException if the new segment cannot be created
+     */
+    public boolean prepend(final List<ByteBuffer> records) throws IOException {
+        if (records.isEmpty()) {
+            return true;
+        }
+        long size = 0;
+        for (final ByteBuffer record : records) {
+            size += RECORD_HEADER_SIZE + record.remaining();
+        }
+        final long sequence = readSequence - 1;
+        if (closed || size > segmentSize - SEGMENT_HEADER_SIZE || writeSequence - sequence + 1 > maxSegments
+                || segmentFile(sequence).exists() && !segmentFile(sequence).delete()) {
+            rejectedCount += records.size();
+            return false;
+        }
+        final MappedByteBuffer segment = createSegment(sequence);
+        int position = SEGMENT_HEADER_SIZE;
+        for (final ByteBuffer record : records) {
+            final int length = record.remaining();
+            segment.position(position + RECORD_HEADER_SIZE);
+            segment.put(record);
+            segment.putInt(position, length);
+            position += RECORD_HEADER_SIZE + length;
+        }
+        if (readPosition > SEGMENT_HEADER_SIZE) {
+            // skip the records that were read when the segment is read again
+            readSegment.putInt(SEGMENT_HEADER_SIZE, SEGMENT_HEADER_SIZE + RECORD_HEADER_SIZE - readPosition);
+        }
+        if (readSegment != writeSegment) {
+            unmap(readSegment);
+        }
+        readSegment = segment;
+        readView = segment.duplicate();
+        readSequence = sequence;
+        readPosition = SEGMENT_HEADER_SIZE;
+        writeCheckpoint();
+        pendingRecords += records.size();
+        pendingBytes += size;
+        appendedCount += records.size();
+        return true;
+    }
+
+    private void commit(final int length) {
+        // the length makes the record visible
+        writeSegment.putInt(writePosition, length);
+        writePosition += RECORD_HEADER_SIZE + length;
+        pendingRecords++;
+        pendingBytes += RECORD_HEADER_SIZE + length;
+        appendedCount++;
+    }
+
+    private boolean roll() throws IOException {
+        final boolean drained = pendingRecords == 0;
+        if (!drained && writeSequence - readSequence + 1 >= maxSegments) {
+            return false;
+        }
+        final MappedByteBuffer next = createSegment(writeSequence + 1);
+        if (writeSegment != readSegment) {
+            unmap(writeSegment);
+        }
+        writeSegment = next;
+        writeSequence++;
+        writePosition = SEGMENT_HEADER_SIZE;
+        if (drained) {
+            // nothing left to read in the previous segments
+            advanceReader(writeSequence, next);
+        }
+        return true;
+    }
+
+    /**
+     * Passes records to a consumer in the order they were appended, and removes the records it consumed.
+     *
+     * @param consumer the consumer of the records
+     * @param maxRecords the maximum number of records to pass
+     * @return the number of records consumed
+     * @throws IOException if a segment cannot be mapped
+     */
+    public int drain(final Consumer consumer, final int maxRecords) throws IOException {
+        return drain(consumer, maxRecords, false);
+    }
+
+    /**
+     * Passes records to a consumer in the order they were appended, and removes the records it consumed.
+     *
+     * @param consumer the consumer of the records
+     * @param maxRecords the maximum number of records to pass
+     * @param ignoreReplayRate whether to pass records regardless of the replay rate
+     * @return the number of records consumed
+     * @throws IOException if a segment cannot be mapped
+     */
+    public int drain(final Consumer consumer, final int maxRecords, final boolean ignoreReplayRate)
+            throws IOException {
+        if (closed || pendingRecords == 0) {
+            return 0;
+        }
+        int limit = maxRecords;
+        if (replayRate > 0 && !ignoreReplayRate) {
+            refillPermits();
+            limit = (int) Math.min(limit, (long) replayPermits);
+        }
+        int count = 0;
+        while (count < limit && pendingRecords > 0) {
+            readPosition = skipRead(readSegment, readPosition);
+            final int length = recordLength(readSegment, readPosition);
+            if (length < 0) {
+                if (readSequence >= writeSequence) {
+                    break;
+                }
+                advanceReader(readSequence + 1, null);
+                continue;
+            }
+            readView.clear();
+            readView.position(readPosition + RECORD_HEADER_SIZE);
+            readView.limit(readPosition + RECORD_HEADER_SIZE + length);
+            if (!consumer.accept(readView)) {
+                break;
+            }
+            readPosition += RECORD_HEADER_SIZE + length;
+            checkpoint.putInt(CHECKPOINT_POSITION, readPosition);
+            pendingRecords--;
+            pendingBytes -= RECORD_HEADER_SIZE + length;
+            replayedCount++;
+            count++;
+        }
+        if (replayRate > 0 && !ignoreReplayRate) {
+            replayPermits -= count;
+        }
+        return count;
+    }
+
+    /**
+     * Returns how long to wait before {@link #drain(Consumer, int)} can pass a record again, because of the replay
+     * rate.
+     *
+     * @param unit the unit of the result
+     * @return the time to wait, rounded up, or 0 if a record can be drained now
+     */
+    public long getReplayDelay(final TimeUnit unit) {
+        if (replayRate <= 0) {
+            return 0;
+        }
+        refillPermits();
+        if (replayPermits >= 1) {
+            return 0;
+        }
+        final long nanos = (long) Math.ceil((1 - replayPermits) * TimeUnit.SECONDS.toNanos(1) / replayRate);
+        return Math.max(1, unit.convert(nanos + unit.toNanos(1) - 1, TimeUnit.NANOSECONDS));
+    }
+
+    private void refillPermits() {
+        final long now = System.nanoTime();
+        final double refill = (now - lastRefillNanos) * (double) replayRate / TimeUnit.SECONDS.toNanos(1);
+        replayPermits = Math.min(getReplayBurst(), replayPermits + refill);
+        lastRefillNanos = now;
+    }
+
+    private double getReplayBurst() {
+        return Math.max(1, replayRate / 10.0);
+    }
+
+    /**
+     * Makes the specified segment the segment to read, and deletes the segments before it.
+     */
+    private void advanceReader(final long sequence, final MappedByteBuffer segment) throws IOException {
+        final MappedByteBuffer next;
+        if (segment != null) {
+            next = segment;
+        } else if (sequence == writeSequence) {
+            next = writeSegment;
+        } else {
+            next = mapSegment(sequence);
+        }
+        // move the checkpoint before deleting: a segment may be read twice, but a record is never skipped
+        checkpoint.putInt(CHECKPOINT_POSITION, SEGMENT_HEADER_SIZE);
+        checkpoint.putLong(CHECKPOINT_SEQUENCE, sequence);
+        final long previous = readSequence;
+        final MappedByteBuffer previousSegment = readSegment;
+        readSegment = next;
+        readView = next.duplicate();
+        readSequence = sequence;
+        readPosition = SEGMENT_HEADER_SIZE;
+        unmap(previousSegment);
+        for (long s = previous; s < sequence; s++) {
+            deleteSegment(s);
+        }
+    }
+
+    /**
+     * Returns whether the journal has no records to read.
+     *
+     * @return whether the journal is empty
+     */
+    public boolean isEmpty() {
+        return pendingRecords == 0;
+    }
+
+    /**
+     * Returns the number of records to read.
+     *
+     * @return the number of records in the journal
+     */
+    public long size() {
+        return pendingRecords;
+    }
+
+    /**
+     * Returns the number of bytes of the records to read, including their headers.
+     *
+     * @return the number of bytes in the journal
+     */
+    public long getPendingBytes() {
+        return pendingBytes;
+    }
+
+    /**
+     * Returns the number of records appended since the journal was opened.
+     *
+     * @return the number of appended records
+     */
+    public long getAppendedCount() {
+        return appendedCount;
+    }
+
+    /**
+     * Returns the number of records consumed since the journal was opened.
+     *
+     * @return the number of replayed records
+     */
+    public long getReplayedCount() {
+        return replayedCount;
+    }
+
+    /**
+     * Returns the number of records that were rejected because the journal was full or closed, or they were larger
+     * than a segment.
+     *
+     * @return the number of rejected records
+     */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    public int getReplayRate() {
+        return replayRate;
+    }
+
+    /**
+     * Forces the journal to the storage device and closes its files. Records that were not read are kept for the next
+     * time the journal is opened.
+     *
+     * @throws IOException if a file cannot be unmapped or closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writeSegment.force();
+            checkpoint.force();
+            if (readSegment != writeSegment) {
+                unmap(readSegment);
+            }
+            unmap(writeSegment);
+            unmap(checkpoint);
+        } finally {
+            readSegment = writeSegment = checkpoint = null;
+            readView = null;
+            try {
+                fileLock.release();
+            } finally {
+                checkpointFile.close();
+            }
+        }
+    }
+
+    private void writeCheckpoint() {
+        checkpoint.putLong(CHECKPOINT_SEQUENCE, readSequence);
+        checkpoint.putInt(CHECKPOINT_POSITION, readPosition);
+    }
+
+    private File segmentFile(final long sequence) {
+        return new File(directory, name + '.' + sequence + SEGMENT_SUFFIX);
+    }
+
+    private long[] listSegments() {
+        final String prefix = name + '.';
+        final String[] names = directory.list(new FilenameFilter() {
+            @Override
+            public boolean accept(final File dir, final String fileName) {
+                return fileName.startsWith(prefix) && fileName.endsWith(SEGMENT_SUFFIX);
+            }
+        });
+        if (names == null) {
+            return new long[0];
+        }
+        final long[] sequences = new long[names.length];
+        int count = 0;
+        for (final String fileName : names) {
+            try {
+                sequences[count] = Long.parseLong(
+                        fileName.substring(prefix.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+                count++;
+            } catch (final NumberFormatException ex) {
+                // another journal whose name starts with this name
+            }
+        }
+        final long[] result = Arrays.copyOf(sequences, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    private MappedByteBuffer createSegment(final long sequence) throws IOException {
+        final File file = segmentFile(sequence);
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(segmentSize);
+            final MappedByteBuffer segment = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            segment.putInt(0, MAGIC);
+            segment.putInt(4, VERSION);
+            LOGGER.debug("Spill journal {} created segment {}", name, file);
+            return segment;
+        }
+    }
+
+    private MappedByteBuffer mapSegment(final long sequence) throws IOException {
+        final File file = segmentFile(sequence);
+        if (!file.exists()) {
+            // a segment deleted outside of the journal: continue with an empty one
+            LOGGER.warn("Spill journal {} is missing segment {}", name, file);
+            return createSegment(sequence);
+        }
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            final long length = raf.length();
+            if (length < SEGMENT_HEADER_SIZE || length > Integer.MAX_VALUE) {
+                throw new IOException("Invalid spill journal segment " + file);
+            }
+            final MappedByteBuffer segment = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, length);
+            if (segment.getInt(0) != MAGIC || segment.getInt(4) != VERSION) {
+                unmap(segment);
+                throw new IOException("Invalid spill journal segment " + file);
+            }
+            return segment;
+        }
+    }
+
+    private void deleteSegment(final long sequence) {
+        final File file = segmentFile(sequence);
+        if (file.exists() && !file.delete()) {
+            LOGGER.warn("Spill journal {} is unable to delete {}", name, file);
+        }
+    }
+
+    private static void unmap(final MappedByteBuffer buffer) {
+        try {
+            MemoryMappedFileManager.unsafeUnmap(buffer);
+        } catch (final Exception ex) {
+            // the buffer is unmapped when it is garbage collected
+            LOGGER.debug("Unable to unmap spill journal segment", ex);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SpillJournal [directory=" + directory + ", name=" + name + ", segmentSize=" + segmentSize
+                + ", maxSegments=" + maxSegments + ", replayRate=" + replayRate + ", pendingRecords=" + pendingRecords
+                + ", pendingBytes=" + pendingBytes + "]";
+    }
+}
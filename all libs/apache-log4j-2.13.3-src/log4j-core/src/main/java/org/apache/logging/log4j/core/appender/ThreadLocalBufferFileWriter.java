@@ -0,0 +1,460 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.core.layout.ByteBufferDestinationHelper;
+import org.apache.logging.log4j.core.layout.Encoder;
+
+/**
+ * Writes to a {@link FileChannel} from per-thread buffers without taking a lock on the write path.
+ * <p>
+ * Each thread encodes events into its own buffer. When the buffer is drained, the writer reserves a range of the file
+ * by atomically advancing the file position and writes the bytes there with a positional
+ * {@link FileChannel#write(ByteBuffer, long)}, so threads never wait for each other. Events of one thread keep their
+ * order; events of different threads are ordered at buffer granularity. An event is always written in one piece: a
+ * buffer that fills up in the middle of an event only writes the events before it, and grows if the event alone does
+ * not fit.
+ * </p>
+ * <p>
+ * A flush of a thread's buffer, at the end of a batch or with {@code immediateFlush}, also writes the buffers of the
+ * threads that are idle, so that their events do not wait for their next event. So does a thread whose buffer fills
+ * up, which keeps the events of idle threads from staying buffered while other threads log without flushing. The
+ * buffers of threads that have terminated are written and forgotten when a new thread starts writing.
+ * </p>
+ * <p>
+ * The owning manager coordinates with writers through {@link #suspend()} and {@link #open(FileChannel, long)}, both
+ * called while holding the manager's lock: suspending flushes the buffers of the threads that are not busy writing and
+ * waits for the in-flight writes to complete, after which the file can be closed or rolled over. Writers arriving while
+ * the writer is suspended wait for the lock and retry. This class should be considered internal.
+ * </p>
+ *
+ * @since 2.14.0
+ */
+public class ThreadLocalBufferFileWriter {
+
+    private final String name;
+    private final Object lock;
+    private final int bufferSize;
+    private final ThreadLocal<ThreadBuffer> threadBuffer = new ThreadLocal<>();
+    private final Set<ThreadBuffer> buffers = Collections.newSetFromMap(new ConcurrentHashMap<ThreadBuffer, Boolean>());
+    private final AtomicLong position = new AtomicLong();
+    private final AtomicInteger writers = new AtomicInteger();
+    /** The number of buffers that hold events. */
+    private final AtomicInteger pendingBuffers = new AtomicInteger();
+    /** Notified when the last in-flight write of a suspended writer completes. */
+    private final Object writesDone = new Object();
+    private volatile FileChannel channel;
+    private volatile boolean suspended = true;
+
+    /**
+     * Constructs a suspended writer, call {@link #open(FileChannel, long)} to start writing.
+     *
+     * @param name the name of the file, used in error messages
+     * @param lock the lock held by the owner while it suspends and opens this writer
+     * @param bufferSize the size of each thread's buffer
+     */
+    public ThreadLocalBufferFileWriter(final String name, final Object lock, final int bufferSize) {
+        this.name = name;
+        this.lock = lock;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Encodes an event into the calling thread's buffer.
+     *
+     * @param encoder the encoder of the event, typically a layout
+     * @param event the event
+     * @param flush whether to write the buffer to the file after the event
+     */
+    public void encode(final Encoder<LogEvent> encoder, final LogEvent event, final boolean flush) {
+        final ThreadBuffer buffer = getThreadBuffer();
+        buffer.ownerLock.lock();
+        try {
+            buffer.beginEvent();
+            try {
+                encoder.encode(event, buffer);
+            } finally {
+                buffer.endEvent();
+            }
+            if (flush) {
+                buffer.flushLocked();
+            } else {
+                buffer.updatePending();
+            }
+        } finally {
+            buffer.ownerLock.unlock();
+        }
+        if (flush || buffer.takeWritten()) {
+            flushIdle(buffer);
+        }
+    }
+
+    /**
+     * Returns the calling thread's buffer.
+     *
+     * @return the destination of the events of the calling thread
+     */
+    public ByteBufferDestination getDestination() {
+        return getThreadBuffer();
+    }
+
+    /**
+     * Writes the calling thread's buffer and the buffers of the idle threads to the file.
+     */
+    public void flush() {
+        final ThreadBuffer buffer = threadBuffer.get();
+        if (buffer != null) {
+            buffer.flush();
+        }
+        flushIdle(buffer);
+    }
+
+    /**
+     * Writes the buffers of all threads to the file. The buffers of threads that are busy writing an event are
+     * skipped: their owner may be waiting for the lock held by the caller.
+     */
+    public void flushAll() {
+        flushAllExcept(null);
+    }
+
+    private void flushAllExcept(final ThreadBuffer except) {
+        for (final ThreadBuffer buffer : buffers) {
+            if (buffer != except && buffer.ownerLock.tryLock()) {
+                try {
+                    buffer.flushLocked();
+                } finally {
+                    buffer.ownerLock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the buffers that hold events, except the one of the calling thread, which it has just written or is
+     * still filling.
+     */
+    private void flushIdle(final ThreadBuffer own) {
+        if (pendingBuffers.get() > 0) {
+            flushAllExcept(own);
+        }
+    }
+
+    /**
+     * Writes and removes the buffers of the threads that have terminated.
+     */
+    private void removeTerminated() {
+        for (final ThreadBuffer buffer : buffers) {
+            if (!buffer.isOwnerAlive() && buffer.ownerLock.tryLock()) {
+                try {
+                    buffer.flushLocked();
+                    buffers.remove(buffer);
+                } finally {
+                    buffer.ownerLock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the specified bytes to the file, bypassing the calling thread's buffer.
+     *
+     * @param bytes the data
+     * @param offset the index of the first byte to write
+     * @param length the number of bytes to write
+     */
+    public void write(final byte[] bytes, final int offset, final int length) {
+        write(ByteBuffer.wrap(bytes, offset, length));
+    }
+
+    /**
+     * Writes the remaining bytes of the specified buffer to the file, bypassing the calling thread's buffer.
+     *
+     * @param data the data
+     */
+    public void write(final ByteBuffer data) {
+        final int length = data.remaining();
+        if (length == 0) {
+            return;
+        }
+        for (;;) {
+            writers.incrementAndGet();
+            if (!suspended) {
+                try {
+                    long offset = position.getAndAdd(length);
+                    final FileChannel fileChannel = channel;
+                    while (data.hasRemaining()) {
+                        offset += fileChannel.write(data, offset);
+                    }
+                    return;
+                } catch (final IOException ex) {
+                    throw new AppenderLoggingException("Error writing to FileChannel " + name, ex);
+                } finally {
+                    endWrite();
+                }
+            }
+            endWrite();
+            synchronized (lock) {
+                if (suspended && !reopen()) {
+                    throw new AppenderLoggingException("Unable to write to closed file " + name);
+                }
+            }
+        }
+    }
+
+    private void endWrite() {
+        // suspend() sets suspended before it reads the writer count, so one of them sees the other's update
+        if (writers.decrementAndGet() == 0 && suspended) {
+            synchronized (writesDone) {
+                writesDone.notifyAll();
+            }
+        }
+    }
+
+    int getBufferCount() {
+        return buffers.size();
+    }
+
+    /**
+     * Returns the position at which the next write starts, that is the size of the file written so far.
+     *
+     * @return the file position
+     */
+    public long getPosition() {
+        return position.get();
+    }
+
+    /**
+     * Starts writing to the specified channel. Must be called while holding the lock.
+     *
+     * @param fileChannel the channel to write to
+     * @param filePosition the position of the first write
+     */
+    public void open(final FileChannel fileChannel, final long filePosition) {
+        this.channel = fileChannel;
+        this.position.set(filePosition);
+        this.suspended = false;
+    }
+
+    /**
+     * Flushes all the buffers and waits until no thread writes to the file. Must be called while holding the lock.
+     * Until {@link #open(FileChannel, long)} is called, writers wait for the lock and then call {@link #reopen()}.
+     */
+    public void suspend() {
+        if (suspended) {
+            return;
+        }
+        flushAll();
+        suspended = true;
+        boolean interrupted = false;
+        synchronized (writesDone) {
+            while (writers.get() != 0) {
+                try {
+                    writesDone.wait();
+                } catch (final InterruptedException ex) {
+                    // the file must not be closed under a write
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        channel = null;
+    }
+
+    /**
+     * Returns whether the writer is suspended.
+     *
+     * @return {@code true} if writes are suspended
+     */
+    public boolean isSuspended() {
+        return suspended;
+    }
+
+    /**
+     * Called with the lock held when a thread writes while this writer is suspended. Subclasses may open the file
+     * lazily here.
+     *
+     * @return {@code true} if the writer has been reopened, {@code false} to fail the write
+     */
+    protected boolean reopen() {
+        return false;
+    }
+
+    private ThreadBuffer getThreadBuffer() {
+        ThreadBuffer buffer = threadBuffer.get();
+        if (buffer == null) {
+            removeTerminated();
+            buffer = new ThreadBuffer(Thread.currentThread());
+            threadBuffer.set(buffer);
+            buffers.add(buffer);
+        }
+        return buffer;
+    }
+
+    private final class ThreadBuffer implements ByteBufferDestination {
+
+        // held by the owner thread while it writes and by flushAll, which never waits for it
+        private final ReentrantLock ownerLock = new ReentrantLock();
+        // weak, so that the buffer does not keep a terminated thread
+        private final WeakReference<Thread> owner;
+        private ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+        // position of the event being encoded, or -1 between events
+        private int eventStart = -1;
+        // whether the buffer is counted in pendingBuffers
+        private boolean pending;
+        // whether the buffer was written because it filled up since the owner last checked
+        private boolean written;
+
+        ThreadBuffer(final Thread owner) {
+            this.owner = new WeakReference<>(owner);
+        }
+
+        boolean isOwnerAlive() {
+            final Thread thread = owner.get();
+            return thread != null && thread.isAlive();
+        }
+
+        void updatePending() {
+            final boolean hasEvents = buffer.position() > 0;
+            if (hasEvents != pending) {
+                pending = hasEvents;
+                pendingBuffers.addAndGet(hasEvents ? 1 : -1);
+            }
+        }
+
+        boolean takeWritten() {
+            final boolean result = written;
+            written = false;
+            return result;
+        }
+
+        @Override
+        public ByteBuffer getByteBuffer() {
+            return buffer;
+        }
+
+        @Override
+        public ByteBuffer drain(final ByteBuffer buf) {
+            written = true;
+            if (eventStart < 0) {
+                writeBuffer();
+            } else if (eventStart > 0) {
+                // write the complete events and keep the beginning of the current one
+                final ByteBuffer complete = buffer.duplicate();
+                complete.flip().limit(eventStart);
+                write(complete);
+                buffer.limit(buffer.position()).position(eventStart);
+                buffer.compact();
+                eventStart = 0;
+            } else {
+                final ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+            return buffer;
+        }
+
+        @Override
+        public void writeBytes(final ByteBuffer data) {
+            ownerLock.lock();
+            try {
+                beginEvent();
+                ByteBufferDestinationHelper.writeToUnsynchronized(data, this);
+            } finally {
+                endEvent();
+                updatePending();
+                ownerLock.unlock();
+            }
+            afterWrite();
+        }
+
+        @Override
+        public void writeBytes(final byte[] data, final int offset, final int length) {
+            ownerLock.lock();
+            try {
+                beginEvent();
+                ByteBufferDestinationHelper.writeToUnsynchronized(data, offset, length, this);
+            } finally {
+                endEvent();
+                updatePending();
+                ownerLock.unlock();
+            }
+            afterWrite();
+        }
+
+        private void afterWrite() {
+            // when called while encoding an event, encode() flushes the idle buffers once the event is complete
+            if (!ownerLock.isHeldByCurrentThread() && takeWritten()) {
+                flushIdle(this);
+            }
+        }
+
+        void beginEvent() {
+            eventStart = buffer.position();
+        }
+
+        void endEvent() {
+            eventStart = -1;
+        }
+
+        void flush() {
+            ownerLock.lock();
+            try {
+                flushLocked();
+            } finally {
+                ownerLock.unlock();
+            }
+        }
+
+        void flushLocked() {
+            try {
+                if (buffer.position() > 0) {
+                    writeBuffer();
+                }
+            } finally {
+                updatePending();
+            }
+            if (buffer.capacity() > bufferSize) {
+                buffer = ByteBuffer.allocate(bufferSize);
+            }
+        }
+
+        private void writeBuffer() {
+            buffer.flip();
+            try {
+                write(buffer);
+            } finally {
+                buffer.clear();
+            }
+        }
+    }
+}
@@ -20,12 +20,18 @@ package org.apache.logging.log4j.core.appender.db;
 import java.io.Flushable;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.appender.AbstractManager;
+import org.apache.logging.log4j.core.appender.AppenderLoggingException;
 import org.apache.logging.log4j.core.appender.ManagerFactory;
+import org.apache.logging.log4j.core.util.ExecutorServices;
+import org.apache.logging.log4j.core.util.Log4jThreadFactory;
 
 /**
  * Manager that allows database appenders to have their configuration reloaded without losing events.
@@ -86,13 +92,20 @@ public abstract class AbstractDatabaseManager extends AbstractManager implements
     ) {
         return AbstractManager.getManager(name, factory, data);
     }
-    private final ArrayList<LogEvent> buffer;
+    private ArrayList<Object> buffer;
     private final int bufferSize;
 
     private final Layout<? extends Serializable> layout;
 
     private boolean running;
 
+    // background flushing: the full buffer is written by the executor while events are added to the spare buffer
+    private final ExecutorService flushExecutor;
+    private ArrayList<Object> spareBuffer;
+    private boolean flushing;
+    // the failure of the last background flush, thrown to the next caller of write or flush
+    private RuntimeException backgroundFlushFailure;
+
     /**
      * Instantiates the base manager.
      *
@@ -113,19 +126,158 @@ public abstract class AbstractDatabaseManager extends AbstractManager implements
      * @param bufferSize The size of the log event buffer.
      */
     protected AbstractDatabaseManager(final String name, final int bufferSize, final Layout<? extends Serializable> layout) {
+        this(name, bufferSize, layout, false);
+    }
+
+    /**
+     * Instantiates the base manager.
+     *
+     * @param name The manager name, which should include any configuration details that one might want to be able to
+     *             reconfigure at runtime, such as database name, username, (hashed) password, etc.
+     * @param bufferSize The size of the log event buffer.
+     * @param layout the Appender-level layout.
+     * @param backgroundFlush Whether a full buffer is written to the database by a background thread, while further
+     *             events are added to a second buffer. Only applies when buffering is enabled.
+     * @since 2.14.0
+     */
+    protected AbstractDatabaseManager(final String name, final int bufferSize,
+            final Layout<? extends Serializable> layout, final boolean backgroundFlush) {
         super(null, name);
         this.bufferSize = bufferSize;
         this.buffer = new ArrayList<>(bufferSize + 1);
         this.layout = layout;
+        this.flushExecutor = backgroundFlush && bufferSize > 0
+                ? Executors.newSingleThreadExecutor(Log4jThreadFactory.createDaemonThreadFactory("DatabaseFlush"))
+                : null;
     }
 
     protected void buffer(final LogEvent event) {
-        this.buffer.add(event.toImmutable());
+        this.buffer.add(toBufferedEvent(event));
         if (this.buffer.size() >= this.bufferSize || event.isEndOfBatch()) {
+            if (this.flushExecutor != null) {
+                this.flushInBackground();
+            } else {
+                this.flush();
+            }
+        }
+        if (this.flushExecutor != null) {
+            throwBackgroundFlushFailure();
+        }
+    }
+
+    /**
+     * Converts an event to the form in which it is kept in the buffer until the buffer is flushed. The event may be
+     * mutable and reused after this method returns. The default implementation returns an immutable copy of the event;
+     * implementations can instead extract the values they write, which is cheaper than copying the whole event.
+     *
+     * @param event The event to buffer.
+     * @return the buffered form of the event, which is passed to {@link #writeBufferedEvent(Object)}.
+     * @since 2.14.0
+     */
+    protected Object toBufferedEvent(final LogEvent event) {
+        return event.toImmutable();
+    }
+
+    /**
+     * Writes an event from the buffer in an implementation-specific way. This method is called from {@link #flush()},
+     * between {@link #connectAndStart()} and {@link #commitAndClose()}. The default implementation calls
+     * {@link #writeInternal(LogEvent, Serializable)}.
+     *
+     * @param bufferedEvent An event returned by {@link #toBufferedEvent(LogEvent)}.
+     * @since 2.14.0
+     */
+    protected void writeBufferedEvent(final Object bufferedEvent) {
+        final LogEvent event = (LogEvent) bufferedEvent;
+        this.writeInternal(event, layout != null ? layout.toSerializable(event) : null);
+    }
+
+    private void writeBuffer(final ArrayList<Object> events) {
+        this.connectAndStart();
+        try {
+            for (final Object event : events) {
+                this.writeBufferedEvent(event);
+            }
+        } finally {
+            this.commitAndClose();
+        }
+    }
+
+    /**
+     * Hands the buffer to the flush thread and continues with the spare buffer. Waits for the previous background
+     * flush to complete first, so that at most one buffer is written at a time. Must be called holding the lock.
+     */
+    private void flushInBackground() {
+        if (!this.isRunning() || !awaitBackgroundFlush()) {
+            return;
+        }
+        final ArrayList<Object> events = this.buffer;
+        this.buffer = this.spareBuffer != null ? this.spareBuffer : new ArrayList<>(this.bufferSize + 1);
+        this.spareBuffer = null;
+        this.flushing = true;
+        try {
+            this.flushExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    RuntimeException failure = null;
+                    try {
+                        writeBuffer(events);
+                    } catch (final RuntimeException e) {
+                        logError("Could not write buffered events to the database", e);
+                        failure = e;
+                    } finally {
+                        backgroundFlushCompleted(events, failure);
+                    }
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            this.flushing = false;
+            this.spareBuffer = this.buffer;
+            this.buffer = events;
             this.flush();
         }
     }
 
+    private synchronized void backgroundFlushCompleted(final ArrayList<Object> events,
+            final RuntimeException failure) {
+        events.clear();
+        this.spareBuffer = events;
+        this.flushing = false;
+        if (failure != null) {
+            this.backgroundFlushFailure = failure;
+        }
+        this.notifyAll();
+    }
+
+    /**
+     * Throws the failure of the last background flush, if any, once. Must be called holding the lock.
+     */
+    private void throwBackgroundFlushFailure() {
+        final RuntimeException failure = this.backgroundFlushFailure;
+        if (failure != null) {
+            this.backgroundFlushFailure = null;
+            throw new AppenderLoggingException("Could not write buffered events to the database in the background",
+                    failure);
+        }
+    }
+
+    /**
+     * Waits until the buffer that is written in the background, if any, has been written. Must be called holding the
+     * lock.
+     *
+     * @return {@code false} if the thread was interrupted while waiting.
+     */
+    private boolean awaitBackgroundFlush() {
+        while (this.flushing) {
+            try {
+                this.wait();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Commits any active transaction (if applicable) and disconnects from the database (returns the connection to the
      * connection pool). With buffering enabled, this is called when flushing the buffer completes, after the last call
@@ -144,22 +296,42 @@ public abstract class AbstractDatabaseManager extends AbstractManager implements
 
     /**
      * This method is called automatically when the buffer size reaches its maximum or at the beginning of a call to
-     * {@link #shutdown()}. It can also be called manually to flush events to the database.
+     * {@link #shutdown()}. It can also be called manually to flush events to the database. With background flushing
+     * enabled, this waits for the buffer that is written in the background and then writes the current buffer in the
+     * calling thread. If writing the buffer in the background failed, that failure is thrown by the next call to this
+     * method or to one of the {@code write} methods.
      */
     @Override
     public final synchronized void flush() {
+        if (flushBuffer() && this.flushExecutor != null) {
+            throwBackgroundFlushFailure();
+        }
+    }
+
+    /**
+     * Writes the buffer. Must be called holding the lock.
+     *
+     * @return {@code false} if the manager is not running or the thread was interrupted while waiting for the
+     *         background flush.
+     */
+    private boolean flushBuffer() {
         if (this.isRunning() && isBuffered()) {
+            if (this.flushExecutor != null && !awaitBackgroundFlush()) {
+                return false;
+            }
             this.connectAndStart();
             try {
-                for (final LogEvent event : this.buffer) {
-                    this.writeInternal(event, layout != null ? layout.toSerializable(event) : null);
+                for (final Object event : this.buffer) {
+                    this.writeBufferedEvent(event);
                 }
             } finally {
                 this.commitAndClose();
                 // not sure if this should be done when writing the events failed
                 this.buffer.clear();
             }
+            return true;
         }
+        return false;
     }
 
     protected boolean isBuffered() {
@@ -189,7 +361,14 @@ public abstract class AbstractDatabaseManager extends AbstractManager implements
      */
     public final synchronized boolean shutdown() {
         boolean closed = true;
-        this.flush();
+        try {
+            // a failed background flush was logged already and there is no next write to report it to
+            this.flushBuffer();
+        } finally {
+            if (this.flushExecutor != null) {
+                ExecutorServices.shutdown(this.flushExecutor, 0, TimeUnit.MILLISECONDS, toString());
+            }
+        }
         if (this.isRunning()) {
             try {
                 closed &= this.shutdownInternal();
@@ -265,6 +444,24 @@ public abstract class AbstractDatabaseManager extends AbstractManager implements
         }
     }
 
+    /**
+     * This method manages buffering and writing of a batch of events. With buffering disabled the whole batch is
+     * written between a single {@link #connectAndStart()} and {@link #commitAndClose()}.
+     *
+     * @param events The events to write to the database.
+     * @param count The number of events in the array.
+     * @since 2.14.0
+     */
+    public final synchronized void write(final LogEvent[] events, final int count) {
+        if (isBuffered()) {
+            for (int i = 0; i < count; i++) {
+                buffer(events[i]);
+            }
+        } else {
+            writeThrough(events, count);
+        }
+    }
+
     /**
      * Performs the actual writing of the event in an implementation-specific way. This method is called immediately
      * from {@link #write(LogEvent, Serializable)} if buffering is off, or from {@link #flush()} if the buffer has reached its limit.
@@ -293,4 +490,33 @@ public abstract class AbstractDatabaseManager extends AbstractManager implements
             this.commitAndClose();
         }
     }
+
+    /**
+     * Writes a batch of events in one transaction when buffering is disabled.
+     *
+     * @param events The events to write to the database.
+     * @param count The number of events in the array.
+     * @since 2.14.0
+     */
+    protected void writeThrough(final LogEvent[] events, final int count) {
+        this.connectAndStart();
+        try {
+            writeEvents(events, count);
+        } finally {
+            this.commitAndClose();
+        }
+    }
+
+    /**
+     * Writes a batch of events with {@link #writeInternal(LogEvent, Serializable)} in the current transaction.
+     *
+     * @param events The events to write to the database.
+     * @param count The number of events in the array.
+     * @since 2.14.0
+     */
+    protected void writeEvents(final LogEvent[] events, final int count) {
+        for (int i = 0; i < count; i++) {
+            this.writeInternal(events[i], layout != null ? layout.toSerializable(events[i]) : null);
+        }
+    }
 }
@@ -83,18 +83,21 @@ public final class JdbcAppender extends AbstractDatabaseAppender<JdbcDatabaseMan
         @PluginBuilderAttribute
         private long reconnectIntervalMillis = DEFAULT_RECONNECT_INTERVAL_MILLIS;
 
+        @PluginBuilderAttribute
+        private boolean backgroundFlush;
+
         @Override
         public JdbcAppender build() {
             if (Assert.isEmpty(columnConfigs) && Assert.isEmpty(columnMappings)) {
                 LOGGER.error("Cannot create JdbcAppender without any columns.");
                 return null;
             }
-            final String managerName = "JdbcManager{name=" + getName() + ", bufferSize=" + bufferSize + ", tableName="
-                    + tableName + ", columnConfigs=" + Arrays.toString(columnConfigs) + ", columnMappings="
-                    + Arrays.toString(columnMappings) + '}';
+            final String managerName = "JdbcManager{name=" + getName() + ", bufferSize=" + bufferSize
+                    + ", backgroundFlush=" + backgroundFlush + ", tableName=" + tableName + ", columnConfigs="
+                    + Arrays.toString(columnConfigs) + ", columnMappings=" + Arrays.toString(columnMappings) + '}';
             final JdbcDatabaseManager manager = JdbcDatabaseManager.getManager(managerName, bufferSize, getLayout(),
                     connectionSource, tableName, columnConfigs, columnMappings, immediateFail, reconnectIntervalMillis,
-                    truncateStrings);
+                    truncateStrings, backgroundFlush);
             if (manager == null) {
                 return null;
             }
@@ -102,6 +105,10 @@ public final class JdbcAppender extends AbstractDatabaseAppender<JdbcDatabaseMan
                     manager);
         }
 
+        public boolean isBackgroundFlush() {
+            return backgroundFlush;
+        }
+
         public long getReconnectIntervalMillis() {
             return reconnectIntervalMillis;
         }
@@ -110,6 +117,20 @@ public final class JdbcAppender extends AbstractDatabaseAppender<JdbcDatabaseMan
             return immediateFail;
         }
 
+        /**
+         * If true and buffering is enabled, a full buffer is inserted by a background thread while the appender
+         * continues buffering events in a second buffer.
+         *
+         * @param backgroundFlush Whether to flush the buffer in the background.
+         *
+         * @return this
+         * @since 2.14.0
+         */
+        public B setBackgroundFlush(final boolean backgroundFlush) {
+            this.backgroundFlush = backgroundFlush;
+            return asBuilder();
+        }
+
         /**
          * If an integer greater than 0, this causes the appender to buffer log events and flush whenever the buffer
          * reaches this size.
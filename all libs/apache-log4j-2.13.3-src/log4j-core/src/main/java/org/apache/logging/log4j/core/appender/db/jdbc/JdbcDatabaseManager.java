@@ -75,11 +75,20 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
         private final boolean retry;
         private final long reconnectIntervalMillis;
         private final boolean truncateStrings;
+        private final boolean backgroundFlush;
 
         protected FactoryData(final int bufferSize, final Layout<? extends Serializable> layout,
                 final ConnectionSource connectionSource, final String tableName, final ColumnConfig[] columnConfigs,
                 final ColumnMapping[] columnMappings, final boolean immediateFail, final long reconnectIntervalMillis,
                 final boolean truncateStrings) {
+            this(bufferSize, layout, connectionSource, tableName, columnConfigs, columnMappings, immediateFail,
+                    reconnectIntervalMillis, truncateStrings, false);
+        }
+
+        protected FactoryData(final int bufferSize, final Layout<? extends Serializable> layout,
+                final ConnectionSource connectionSource, final String tableName, final ColumnConfig[] columnConfigs,
+                final ColumnMapping[] columnMappings, final boolean immediateFail, final long reconnectIntervalMillis,
+                final boolean truncateStrings, final boolean backgroundFlush) {
             super(bufferSize, layout);
             this.connectionSource = connectionSource;
             this.tableName = tableName;
@@ -89,14 +98,17 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
             this.retry = reconnectIntervalMillis > 0;
             this.reconnectIntervalMillis = reconnectIntervalMillis;
             this.truncateStrings = truncateStrings;
+            this.backgroundFlush = backgroundFlush;
         }
 
         @Override
         public String toString() {
             return String.format(
-                    "FactoryData [connectionSource=%s, tableName=%s, columnConfigs=%s, columnMappings=%s, immediateFail=%s, retry=%s, reconnectIntervalMillis=%s, truncateStrings=%s]",
+                    "FactoryData [connectionSource=%s, tableName=%s, columnConfigs=%s, columnMappings=%s, "
+                            + "immediateFail=%s, retry=%s, reconnectIntervalMillis=%s, truncateStrings=%s, "
+                            + "backgroundFlush=%s]",
                     connectionSource, tableName, Arrays.toString(columnConfigs), Arrays.toString(columnMappings),
-                    immediateFail, retry, reconnectIntervalMillis, truncateStrings);
+                    immediateFail, retry, reconnectIntervalMillis, truncateStrings, backgroundFlush);
         }
     }
 
@@ -466,22 +478,54 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
                 columnMappings, immediateFail, reconnectIntervalMillis, truncateStrings), getFactory());
     }
 
+    /**
+     * Creates a JDBC manager for use within the {@link JdbcAppender}, or returns a suitable one if it already exists.
+     *
+     * @param name The name of the manager, which should include connection details and hashed passwords where possible.
+     * @param bufferSize The size of the log event buffer.
+     * @param layout The Appender-level layout
+     * @param connectionSource The source for connections to the database.
+     * @param tableName The name of the database table to insert log events into.
+     * @param columnConfigs Configuration information about the log table columns.
+     * @param columnMappings column mapping configuration (including type conversion).
+     * @param immediateFail Whether or not to fail immediately with a {@link AppenderLoggingException} when connecting
+     * to JDBC fails.
+     * @param reconnectIntervalMillis How often to reconnect to the database when a SQL exception is detected.
+     * @param truncateStrings Whether or not to truncate strings to match column metadata.
+     * @param backgroundFlush Whether or not a full buffer is inserted by a background thread while the appender
+     * continues buffering events.
+     * @return a new or existing JDBC manager as applicable.
+     * @since 2.14.0
+     */
+    public static JdbcDatabaseManager getManager(final String name, final int bufferSize,
+            final Layout<? extends Serializable> layout, final ConnectionSource connectionSource,
+            final String tableName, final ColumnConfig[] columnConfigs, final ColumnMapping[] columnMappings,
+            final boolean immediateFail, final long reconnectIntervalMillis, final boolean truncateStrings,
+            final boolean backgroundFlush) {
+        return getManager(name, new FactoryData(bufferSize, layout, connectionSource, tableName, columnConfigs,
+                columnMappings, immediateFail, reconnectIntervalMillis, truncateStrings, backgroundFlush),
+                getFactory());
+    }
+
     // NOTE: prepared statements are prepared in this order: column mappings, then column configs
     private final List<ColumnConfig> columnConfigs;
     private final String sqlStatement;
     private final FactoryData factoryData;
+    private final int parameterCount;
     private volatile Connection connection;
     private volatile PreparedStatement statement;
     private volatile Reconnector reconnector;
     private volatile boolean isBatchSupported;
+    private boolean isWritingBatch;
     private volatile Map<String, ResultSetColumnMetaData> columnMetaData;
 
     private JdbcDatabaseManager(final String name, final String sqlStatement, final List<ColumnConfig> columnConfigs,
             final FactoryData factoryData) {
-        super(name, factoryData.getBufferSize());
+        super(name, factoryData.getBufferSize(), null, factoryData.backgroundFlush);
         this.sqlStatement = sqlStatement;
         this.columnConfigs = columnConfigs;
         this.factoryData = factoryData;
+        this.parameterCount = countParameters(factoryData.columnMappings, columnConfigs);
     }
 
     private void checkConnection() {
@@ -546,16 +590,8 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
         final boolean closed = true;
         try {
             if (this.connection != null && !this.connection.isClosed()) {
-                if (isBuffered() && this.isBatchSupported && this.statement != null) {
-                    logger().debug("Executing batch PreparedStatement {}", this.statement);
-                    int[] result;
-                    try {
-                        result = this.statement.executeBatch();
-                    } catch (SQLTransactionRollbackException e) {
-                        logger().debug("{} executing batch PreparedStatement {}, retrying.", e, this.statement);
-                        result = this.statement.executeBatch();
-                    }
-                    logger().debug("Batch result: {}", Arrays.toString(result));
+                if (isBatching() && this.statement != null) {
+                    executeBatch();
                 }
                 logger().debug("Committing Connection {}", this.connection);
                 this.connection.commit();
@@ -569,6 +605,31 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
         return closed;
     }
 
+    private void executeBatch() throws SQLException {
+        logger().debug("Executing batch PreparedStatement {}", this.statement);
+        int[] result;
+        try {
+            result = this.statement.executeBatch();
+        } catch (SQLTransactionRollbackException e) {
+            logger().debug("{} executing batch PreparedStatement {}, retrying.", e, this.statement);
+            result = this.statement.executeBatch();
+        }
+        logger().debug("Batch result: {}", Arrays.toString(result));
+    }
+
+    private void rollbackAndClose() {
+        try {
+            if (this.connection != null && !this.connection.isClosed()) {
+                logger().debug("Rolling back Connection {}", this.connection);
+                this.connection.rollback();
+            }
+        } catch (final SQLException e) {
+            logWarn("Failed to roll back transaction of a batch of log events", e);
+        } finally {
+            closeResources(false);
+        }
+    }
+
     private boolean commitAndCloseAll() {
         if (this.connection != null || this.statement != null) {
             try {
@@ -796,8 +857,77 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
         return value;
     }
 
+    /**
+     * Extracts the values of the parameters of the insert statement from an event, in the order of the parameters.
+     * The values are computed in the calling thread, so that buffering does not need an immutable copy of the event.
+     */
+    private Object[] toRow(final LogEvent event) {
+        final Object[] row = new Object[this.parameterCount];
+        int i = 0;
+        if (this.factoryData.columnMappings != null) {
+            for (final ColumnMapping mapping : this.factoryData.columnMappings) {
+                if (ThreadContextMap.class.isAssignableFrom(mapping.getType())
+                        || ReadOnlyStringMap.class.isAssignableFrom(mapping.getType())) {
+                    row[i++] = event.getContextData().toMap();
+                } else if (ThreadContextStack.class.isAssignableFrom(mapping.getType())) {
+                    row[i++] = event.getContextStack().asList();
+                } else if (Date.class.isAssignableFrom(mapping.getType())) {
+                    row[i++] = DateTypeConverter.fromMillis(event.getTimeMillis(),
+                            mapping.getType().asSubclass(Date.class));
+                } else {
+                    final StringLayout layout = mapping.getLayout();
+                    if (layout != null) {
+                        if (Clob.class.isAssignableFrom(mapping.getType())
+                                || NClob.class.isAssignableFrom(mapping.getType())) {
+                            row[i++] = layout.toSerializable(event);
+                        } else {
+                            row[i++] = TypeConverters.convert(layout.toSerializable(event), mapping.getType(), null);
+                        }
+                    }
+                }
+            }
+        }
+        for (final ColumnConfig column : this.columnConfigs) {
+            if (column.isEventTimestamp()) {
+                row[i++] = new Timestamp(event.getTimeMillis());
+            } else {
+                row[i++] = column.getLayout().toSerializable(event);
+            }
+        }
+        return row;
+    }
+
+    private static int countParameters(final ColumnMapping[] columnMappings, final List<ColumnConfig> columnConfigs) {
+        int count = columnConfigs.size();
+        if (columnMappings != null) {
+            for (final ColumnMapping mapping : columnMappings) {
+                if (ThreadContextMap.class.isAssignableFrom(mapping.getType())
+                        || ReadOnlyStringMap.class.isAssignableFrom(mapping.getType())
+                        || ThreadContextStack.class.isAssignableFrom(mapping.getType())
+                        || Date.class.isAssignableFrom(mapping.getType()) || mapping.getLayout() != null) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    protected Object toBufferedEvent(final LogEvent event) {
+        return toRow(event);
+    }
+
+    @Override
+    protected void writeBufferedEvent(final Object bufferedEvent) {
+        writeRow((Object[]) bufferedEvent, null);
+    }
+
     @Override
     protected void writeInternal(final LogEvent event, final Serializable serializable) {
+        writeRow(toRow(event), serializable);
+    }
+
+    private void writeRow(final Object[] row, final Serializable serializable) {
         StringReader reader = null;
         try {
             if (!this.isRunning() || isClosed(this.connection) || isClosed(this.statement)) {
@@ -814,49 +944,42 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
             if (this.factoryData.columnMappings != null) {
                 for (final ColumnMapping mapping : this.factoryData.columnMappings) {
                     if (ThreadContextMap.class.isAssignableFrom(mapping.getType())
-                            || ReadOnlyStringMap.class.isAssignableFrom(mapping.getType())) {
-                        this.statement.setObject(j++, event.getContextData().toMap());
-                    } else if (ThreadContextStack.class.isAssignableFrom(mapping.getType())) {
-                        this.statement.setObject(j++, event.getContextStack().asList());
-                    } else if (Date.class.isAssignableFrom(mapping.getType())) {
-                        this.statement.setObject(j++, DateTypeConverter.fromMillis(event.getTimeMillis(),
-                                mapping.getType().asSubclass(Date.class)));
-                    } else {
-                        final StringLayout layout = mapping.getLayout();
-                        if (layout != null) {
-                            if (Clob.class.isAssignableFrom(mapping.getType())) {
-                                this.statement.setClob(j++, new StringReader(layout.toSerializable(event)));
-                            } else if (NClob.class.isAssignableFrom(mapping.getType())) {
-                                this.statement.setNClob(j++, new StringReader(layout.toSerializable(event)));
-                            } else {
-                                final Object value = TypeConverters.convert(layout.toSerializable(event),
-                                        mapping.getType(), null);
-                                setStatementObject(j++, mapping.getNameKey(), value);
-                            }
+                            || ReadOnlyStringMap.class.isAssignableFrom(mapping.getType())
+                            || ThreadContextStack.class.isAssignableFrom(mapping.getType())
+                            || Date.class.isAssignableFrom(mapping.getType())) {
+                        this.statement.setObject(j, row[j - 1]);
+                        j++;
+                    } else if (mapping.getLayout() != null) {
+                        if (Clob.class.isAssignableFrom(mapping.getType())) {
+                            this.statement.setClob(j, new StringReader((String) row[j - 1]));
+                        } else if (NClob.class.isAssignableFrom(mapping.getType())) {
+                            this.statement.setNClob(j, new StringReader((String) row[j - 1]));
+                        } else {
+                            setStatementObject(j, mapping.getNameKey(), row[j - 1]);
                         }
+                        j++;
                     }
                 }
             }
             for (final ColumnConfig column : this.columnConfigs) {
+                final Object value = row[j - 1];
                 if (column.isEventTimestamp()) {
-                    this.statement.setTimestamp(j++, new Timestamp(event.getTimeMillis()));
+                    this.statement.setTimestamp(j++, (Timestamp) value);
                 } else if (column.isClob()) {
-                    reader = new StringReader(column.getLayout().toSerializable(event));
+                    reader = new StringReader((String) value);
                     if (column.isUnicode()) {
                         this.statement.setNClob(j++, reader);
                     } else {
                         this.statement.setClob(j++, reader);
                     }
                 } else if (column.isUnicode()) {
-                    this.statement.setNString(j++, Objects.toString(
-                            truncate(column.getColumnNameKey(), column.getLayout().toSerializable(event)), null));
+                    this.statement.setNString(j++, Objects.toString(truncate(column.getColumnNameKey(), value), null));
                 } else {
-                    this.statement.setString(j++, Objects.toString(
-                            truncate(column.getColumnNameKey(), column.getLayout().toSerializable(event)), null));
+                    this.statement.setString(j++, Objects.toString(truncate(column.getColumnNameKey(), value), null));
                 }
             }
 
-            if (isBuffered() && this.isBatchSupported) {
+            if (isBatching()) {
                 logger().debug("addBatch for {}", this.statement);
                 this.statement.addBatch();
             } else {
@@ -903,4 +1026,55 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
         }
     }
 
+    @Override
+    protected void writeThrough(final LogEvent[] events, final int count) {
+        this.isWritingBatch = true;
+        try {
+            this.connectAndStart();
+            try {
+                writeBatch(events, count);
+            } catch (final DbAppenderLoggingException e) {
+                // the transaction was rolled back, so the whole batch is written again
+                reconnectOn(e);
+                writeBatch(events, count);
+            }
+        } finally {
+            this.isWritingBatch = false;
+        }
+    }
+
+    /**
+     * Writes a batch of events in the current transaction and commits it. If an event cannot be written, the
+     * transaction is rolled back. A failed commit is reported with an {@link AppenderLoggingException} that is not
+     * retried, because the rows may have been committed.
+     */
+    private void writeBatch(final LogEvent[] events, final int count) {
+        try {
+            writeEvents(events, count);
+            if (isBatching() && this.statement != null) {
+                executeBatch();
+            }
+        } catch (final SQLException e) {
+            rollbackAndClose();
+            throw new DbAppenderLoggingException(e, "Failed to insert batch of %s log events in JDBC manager: %s [%s]",
+                    count, e, fieldsToString());
+        } catch (final RuntimeException e) {
+            rollbackAndClose();
+            throw e;
+        }
+        try {
+            logger().debug("Committing Connection {}", this.connection);
+            this.connection.commit();
+        } catch (final SQLException e) {
+            throw new AppenderLoggingException(e, "Failed to commit batch of %s log events [%s]", count,
+                    fieldsToString());
+        } finally {
+            closeResources(true);
+        }
+    }
+
+    private boolean isBatching() {
+        return (isBuffered() || this.isWritingBatch) && this.isBatchSupported;
+    }
+
 }
@@ -23,13 +23,18 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.logging.log4j.core.AbstractLifeCycle;
 import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.BatchAppender;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.AppenderControl;
 import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.ConfigurationBound;
 import org.apache.logging.log4j.core.config.Node;
 import org.apache.logging.log4j.core.config.Property;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
@@ -41,7 +46,8 @@ import org.apache.logging.log4j.core.layout.SerializedLayout;
  * Sends log events to an Apache Kafka topic.
  */
 @Plugin(name = "Kafka", category = Node.CATEGORY, elementType = Appender.ELEMENT_TYPE, printObject = true)
-public final class KafkaAppender extends AbstractAppender {
+@ConfigurationBound
+public final class KafkaAppender extends AbstractAppender implements BatchAppender {
 
 	private final Integer retryCount;
 
@@ -65,6 +71,12 @@ public final class KafkaAppender extends AbstractAppender {
 		@PluginAttribute(value = "syncSend", defaultBoolean = true)
 		private boolean syncSend;
 
+		@PluginAttribute("maxInFlightSends")
+		private int maxInFlightSends;
+
+		@PluginAttribute("failoverAppender")
+		private String failoverAppender;
+
 		@SuppressWarnings("resource")
 		@Override
 		public KafkaAppender build() {
@@ -73,10 +85,15 @@ public final class KafkaAppender extends AbstractAppender {
 				AbstractLifeCycle.LOGGER.error("No layout provided for KafkaAppender");
 				return null;
 			}
+			if (syncSend && (maxInFlightSends > 0 || failoverAppender != null)) {
+				AbstractLifeCycle.LOGGER.warn(
+						"KafkaAppender {}: maxInFlightSends and failoverAppender only apply when syncSend is false",
+						getName());
+			}
 			final KafkaManager kafkaManager = KafkaManager.getManager(getConfiguration().getLoggerContext(), getName(),
-					topic, syncSend, getPropertyArray(), key);
+					topic, syncSend, maxInFlightSends, getPropertyArray(), key);
 			return new KafkaAppender(getName(), layout, getFilter(), isIgnoreExceptions(), kafkaManager,
-					getPropertyArray(), getRetryCount());
+					getPropertyArray(), getRetryCount(), getConfiguration(), syncSend ? null : failoverAppender);
 		}
 
 		public String getTopic() {
@@ -102,6 +119,40 @@ public final class KafkaAppender extends AbstractAppender {
 			return asBuilder();
 		}
 
+		public int getMaxInFlightSends() {
+			return maxInFlightSends;
+		}
+
+		/**
+		 * Sets the maximum number of unacknowledged messages when {@code syncSend} is false. Further events are
+		 * routed to the failover appender, if any, until messages are acknowledged. 0, the default, means unbounded.
+		 *
+		 * @param maxInFlightSends the maximum number of unacknowledged messages.
+		 * @return this
+		 * @since 2.14.0
+		 */
+		public B setMaxInFlightSends(final int maxInFlightSends) {
+			this.maxInFlightSends = maxInFlightSends;
+			return asBuilder();
+		}
+
+		public String getFailoverAppender() {
+			return failoverAppender;
+		}
+
+		/**
+		 * Sets the name of the appender that receives the events that could not be sent when {@code syncSend} is
+		 * false, because sending failed or {@code maxInFlightSends} messages were unacknowledged.
+		 *
+		 * @param failoverAppender the name of an appender of the configuration.
+		 * @return this
+		 * @since 2.14.0
+		 */
+		public B setFailoverAppender(final String failoverAppender) {
+			this.failoverAppender = failoverAppender;
+			return asBuilder();
+		}
+
 		public Integer getRetryCount() {
 			Integer intRetryCount = null;
 			try {
@@ -127,7 +178,8 @@ public final class KafkaAppender extends AbstractAppender {
 		}
 		final KafkaManager kafkaManager = KafkaManager.getManager(configuration.getLoggerContext(), name, topic, true,
 				properties, key);
-		return new KafkaAppender(name, layout, filter, ignoreExceptions, kafkaManager, null, null);
+		return new KafkaAppender(name, layout, filter, ignoreExceptions, kafkaManager, null, null, configuration,
+				null);
 	}
 
 	/**
@@ -141,19 +193,36 @@ public final class KafkaAppender extends AbstractAppender {
 	}
 
 	private final KafkaManager manager;
+	private final Configuration configuration;
+	private final String failoverAppenderName;
+	private volatile AppenderControl failoverAppender;
 
 	private KafkaAppender(final String name, final Layout<? extends Serializable> layout, final Filter filter,
 			final boolean ignoreExceptions, final KafkaManager manager, final Property[] properties,
-			final Integer retryCount) {
+			final Integer retryCount, final Configuration configuration, final String failoverAppenderName) {
 		super(name, filter, layout, ignoreExceptions, properties);
 		this.manager = Objects.requireNonNull(manager, "manager");
 		this.retryCount = retryCount;
+		this.configuration = configuration;
+		this.failoverAppenderName = failoverAppenderName;
+	}
+
+	/**
+	 * Returns the manager of this appender.
+	 *
+	 * @return the manager
+	 * @since 2.14.0
+	 */
+	public KafkaManager getManager() {
+		return manager;
 	}
 
 	@Override
 	public void append(final LogEvent event) {
 		if (event.getLoggerName() != null && event.getLoggerName().startsWith("org.apache.kafka")) {
 			LOGGER.warn("Recursive logging from [{}] for appender [{}].", event.getLoggerName(), getName());
+		} else if (!manager.isSyncSend()) {
+			sendAsync(event);
 		} else {
 			try {
 				tryAppend(event);
@@ -176,7 +245,99 @@ public final class KafkaAppender extends AbstractAppender {
 		}
 	}
 
+	/**
+	 * Sends a batch of events. With {@code syncSend} the acknowledgements of the whole batch are awaited together.
+	 *
+	 * @param events The events to send.
+	 * @param count The number of events in the array.
+	 * @since 2.14.0
+	 */
+	@Override
+	public void append(final LogEvent[] events, final int count) {
+		if (!manager.isSyncSend()) {
+			for (int i = 0; i < count; i++) {
+				append(events[i]);
+			}
+			return;
+		}
+		final byte[][] data = new byte[count][];
+		int size = 0;
+		for (int i = 0; i < count; i++) {
+			final LogEvent event = events[i];
+			if (event.getLoggerName() != null && event.getLoggerName().startsWith("org.apache.kafka")) {
+				LOGGER.warn("Recursive logging from [{}] for appender [{}].", event.getLoggerName(), getName());
+			} else {
+				data[size++] = toData(event);
+			}
+		}
+		if (size == 0) {
+			return;
+		}
+		try {
+			manager.send(data, size);
+		} catch (final Exception e) {
+
+			if (this.retryCount != null) {
+				int currentRetryAttempt = 0;
+				while (currentRetryAttempt < this.retryCount) {
+					currentRetryAttempt++;
+					try {
+						manager.send(data, size);
+						break;
+					} catch (Exception e1) {
+
+					}
+				}
+			}
+			error("Unable to write to Kafka in appender [" + getName() + "]", events[0], e);
+		}
+	}
+
 	private void tryAppend(final LogEvent event) throws ExecutionException, InterruptedException, TimeoutException {
+		manager.send(toData(event));
+	}
+
+	/**
+	 * Sends an event without waiting for its acknowledgement. Events that cannot be sent go to the failover appender.
+	 */
+	private void sendAsync(final LogEvent event) {
+		final AppenderControl failover = failoverAppender;
+		Callback callback = null;
+		if (failover != null) {
+			// the event may be reused before the acknowledgement arrives
+			final LogEvent failoverEvent = event.toImmutable();
+			callback = new Callback() {
+				@Override
+				public void onCompletion(final RecordMetadata metadata, final Exception exception) {
+					if (exception != null) {
+						failover(failover, failoverEvent, exception);
+					}
+				}
+			};
+		}
+		if (!manager.trySend(toData(event), callback)) {
+			if (failover != null) {
+				failover(failover, event, null);
+			} else {
+				error("Unable to write to Kafka in appender [" + getName() + "]: " + manager.getMaxInFlightSends()
+						+ " messages are in flight", event, null);
+			}
+		}
+	}
+
+	private void failover(final AppenderControl failover, final LogEvent event, final Exception exception) {
+		if (exception != null) {
+			LOGGER.debug("Sending event to failover appender {} after Kafka error in appender [{}]: {}",
+					failover.getAppenderName(), getName(), exception.toString());
+		}
+		try {
+			failover.callAppender(event);
+		} catch (final Exception e) {
+			error("Unable to write to Kafka or to failover appender in appender [" + getName() + "]", event, e);
+		}
+	}
+
+	private byte[] toData(final LogEvent event) {
 		final Layout<? extends Serializable> layout = getLayout();
 		byte[] data;
 		if (layout instanceof SerializedLayout) {
@@ -188,11 +349,19 @@ public final class KafkaAppender extends AbstractAppender {
 		} else {
 			data = layout.toByteArray(event);
 		}
-		manager.send(data);
+		return data;
 	}
 
 	@Override
 	public void start() {
+		if (failoverAppenderName != null) {
+			final Appender appender = configuration.getAppender(failoverAppenderName);
+			if (appender != null) {
+				failoverAppender = new AppenderControl(appender, null, null);
+			} else {
+				LOGGER.error("Unable to locate failover appender {} for appender {}", failoverAppenderName, getName());
+			}
+		}
 		super.start();
 		manager.startup();
 	}
@@ -18,12 +18,16 @@
 package org.apache.logging.log4j.core.appender.mom.kafka;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.Producer;
@@ -33,6 +37,8 @@ import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.appender.AbstractManager;
 import org.apache.logging.log4j.core.appender.ManagerFactory;
 import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.lookup.StrSubstitutor;
+import org.apache.logging.log4j.core.lookup.StrTemplate;
 import org.apache.logging.log4j.core.util.Log4jThread;
 
 public class KafkaManager extends AbstractManager {
@@ -50,8 +56,37 @@ public class KafkaManager extends AbstractManager {
 
 	private final String topic;
 	private final String key;
+	private final byte[] constantKey;
+	private volatile CompiledKey compiledKey;
 	private final boolean syncSend;
+	private final int maxInFlightSends;
+	private final Semaphore inFlightSends;
+	private final LatencyHistogram sendLatency = new LatencyHistogram();
+	private final LatencyHistogram ackLatency = new LatencyHistogram();
+	private final LatencyHistogram errorLatency = new LatencyHistogram();
+	private final AtomicLong rejectedCount = new AtomicLong();
 	private static final KafkaManagerFactory factory = new KafkaManagerFactory();
+	private final Callback errorCallback = new Callback() {
+		@Override
+		public void onCompletion(final RecordMetadata metadata, final Exception e) {
+			if (e != null) {
+				LOGGER.error("Unable to write to Kafka in appender [" + getName() + "]", e);
+			}
+		}
+	};
+
+	/**
+	 * The key template, compiled for the StrSubstitutor of the current configuration.
+	 */
+	private static final class CompiledKey {
+		private final StrSubstitutor substitutor;
+		private final StrTemplate template;
+
+		CompiledKey(final StrSubstitutor substitutor, final String key) {
+			this.substitutor = substitutor;
+			this.template = substitutor.compile(key);
+		}
+	}
 
 	/*
 	 * The Constructor should have been declared private as all Managers are create
@@ -59,19 +94,36 @@ public class KafkaManager extends AbstractManager {
 	 */
 	public KafkaManager(final LoggerContext loggerContext, final String name, final String topic,
 			final boolean syncSend, final Property[] properties, final String key) {
+		this(loggerContext, name, topic, syncSend, 0, properties, key);
+	}
+
+	/**
+	 * Creates a manager. With {@code syncSend} disabled and {@code maxInFlightSends} greater than 0, sends do not wait
+	 * for acknowledgements, at most {@code maxInFlightSends} records are unacknowledged at any time, and the producer
+	 * batches records per partition with its default {@code batch.size} instead of sending each record on its own.
+	 *
+	 * @since 2.14.0
+	 */
+	public KafkaManager(final LoggerContext loggerContext, final String name, final String topic,
+			final boolean syncSend, final int maxInFlightSends, final Property[] properties, final String key) {
 		super(loggerContext, name);
 		this.topic = Objects.requireNonNull(topic, "topic");
 		this.syncSend = syncSend;
+		this.maxInFlightSends = syncSend ? 0 : Math.max(0, maxInFlightSends);
+		this.inFlightSends = this.maxInFlightSends > 0 ? new Semaphore(this.maxInFlightSends) : null;
 
 		config.setProperty("key.serializer", "org.apache.kafka.common.serialization.ByteArraySerializer");
 		config.setProperty("value.serializer", "org.apache.kafka.common.serialization.ByteArraySerializer");
-		config.setProperty("batch.size", "0");
+		if (this.inFlightSends == null) {
+			config.setProperty("batch.size", "0");
+		}
 
 		for (final Property property : properties) {
 			config.setProperty(property.getName(), property.getValue());
 		}
 
 		this.key = key;
+		this.constantKey = key != null && !key.contains("${") ? key.getBytes(StandardCharsets.UTF_8) : null;
 
 		this.timeoutMillis = Integer.parseInt(config.getProperty("timeout.ms", DEFAULT_TIMEOUT_MILLIS));
 	}
@@ -111,32 +163,111 @@ public class KafkaManager extends AbstractManager {
 
 	public void send(final byte[] msg) throws ExecutionException, InterruptedException, TimeoutException {
 		if (producer != null) {
-			byte[] newKey = null;
-
-			if (key != null && key.contains("${")) {
-				newKey = getLoggerContext().getConfiguration().getStrSubstitutor().replace(key)
-						.getBytes(StandardCharsets.UTF_8);
-			} else if (key != null) {
-				newKey = key.getBytes(StandardCharsets.UTF_8);
-			}
-
-			final ProducerRecord<byte[], byte[]> newRecord = new ProducerRecord<>(topic, newKey, msg);
+			final ProducerRecord<byte[], byte[]> newRecord = newRecord(msg);
 			if (syncSend) {
 				final Future<RecordMetadata> response = producer.send(newRecord);
 				response.get(timeoutMillis, TimeUnit.MILLISECONDS);
 			} else {
-				producer.send(newRecord, new Callback() {
-					@Override
-					public void onCompletion(final RecordMetadata metadata, final Exception e) {
-						if (e != null) {
-							LOGGER.error("Unable to write to Kafka in appender [" + getName() + "]", e);
-						}
-					}
-				});
+				producer.send(newRecord, errorCallback);
+			}
+		}
+	}
+
+	/**
+	 * Sends the first {@code count} messages of the array. With {@code syncSend} all records are handed to the
+	 * producer before waiting for their acknowledgements, so the batch shares one timeout instead of waiting for a
+	 * round trip per message.
+	 *
+	 * @param msgs the messages to send
+	 * @param count the number of messages in the array
+	 * @since 2.14.0
+	 */
+	public void send(final byte[][] msgs, final int count)
+			throws ExecutionException, InterruptedException, TimeoutException {
+		if (producer != null) {
+			if (syncSend) {
+				final List<Future<RecordMetadata>> responses = new ArrayList<>(count);
+				for (int i = 0; i < count; i++) {
+					responses.add(producer.send(newRecord(msgs[i])));
+				}
+				final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+				for (final Future<RecordMetadata> response : responses) {
+					response.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+				}
+			} else {
+				for (int i = 0; i < count; i++) {
+					producer.send(newRecord(msgs[i]), errorCallback);
+				}
 			}
 		}
 	}
 
+	/**
+	 * Hands a message to the producer without waiting for its acknowledgement, if fewer than
+	 * {@code maxInFlightSends} messages are unacknowledged or there is no such limit. The callback is called from the
+	 * producer I/O thread when the message was acknowledged or sending it failed. The latencies of the send are
+	 * recorded in the histograms of this manager.
+	 *
+	 * @param msg the message to send
+	 * @param callback the callback, or {@code null} to log failures
+	 * @return {@code false} if the message was not sent because too many messages are unacknowledged
+	 * @since 2.14.0
+	 */
+	public boolean trySend(final byte[] msg, final Callback callback) {
+		if (producer == null) {
+			return true;
+		}
+		if (inFlightSends != null && !inFlightSends.tryAcquire()) {
+			rejectedCount.incrementAndGet();
+			return false;
+		}
+		final long start = System.nanoTime();
+		final Callback completion = new Callback() {
+			@Override
+			public void onCompletion(final RecordMetadata metadata, final Exception exception) {
+				if (inFlightSends != null) {
+					inFlightSends.release();
+				}
+				if (exception == null) {
+					ackLatency.record(System.nanoTime() - start);
+				} else {
+					errorLatency.record(System.nanoTime() - start);
+				}
+				(callback != null ? callback : errorCallback).onCompletion(metadata, exception);
+			}
+		};
+		try {
+			producer.send(newRecord(msg), completion);
+		} catch (final RuntimeException e) {
+			// the producer did not accept the record, so the callback is not called
+			completion.onCompletion(null, e);
+		} finally {
+			sendLatency.record(System.nanoTime() - start);
+		}
+		return true;
+	}
+
+	private ProducerRecord<byte[], byte[]> newRecord(final byte[] msg) {
+		return new ProducerRecord<>(topic, newKey(), msg);
+	}
+
+	private byte[] newKey() {
+		if (key == null) {
+			return null;
+		}
+		if (constantKey != null) {
+			// the same key bytes for every record, so records are batched on one partition
+			return constantKey;
+		}
+		final StrSubstitutor substitutor = getLoggerContext().getConfiguration().getStrSubstitutor();
+		CompiledKey compiled = compiledKey;
+		if (compiled == null || compiled.substitutor != substitutor) {
+			compiled = new CompiledKey(substitutor, key);
+			compiledKey = compiled;
+		}
+		return compiled.template.format(null).getBytes(StandardCharsets.UTF_8);
+	}
+
 	public void startup() {
 		producer = producerFactory.newKafkaProducer(config);
 	}
@@ -145,27 +276,103 @@ public class KafkaManager extends AbstractManager {
 		return topic;
 	}
 
+	/**
+	 * Returns whether sends wait for the acknowledgement of the message.
+	 *
+	 * @since 2.14.0
+	 */
+	public boolean isSyncSend() {
+		return syncSend;
+	}
+
+	/**
+	 * @since 2.14.0
+	 */
+	public int getMaxInFlightSends() {
+		return maxInFlightSends;
+	}
+
+	/**
+	 * Returns the number of messages that were handed to the producer and not acknowledged yet.
+	 *
+	 * @since 2.14.0
+	 */
+	public int getInFlightSends() {
+		return inFlightSends != null ? maxInFlightSends - inFlightSends.availablePermits() : 0;
+	}
+
+	/**
+	 * Returns the number of messages that were not sent because {@code maxInFlightSends} messages were in flight.
+	 *
+	 * @since 2.14.0
+	 */
+	public long getRejectedCount() {
+		return rejectedCount.get();
+	}
+
+	/**
+	 * Returns the histogram of the time the producer took to accept a message, which includes waiting for metadata
+	 * and for space in its buffer.
+	 *
+	 * @since 2.14.0
+	 */
+	public LatencyHistogram getSendLatency() {
+		return sendLatency;
+	}
+
+	/**
+	 * Returns the histogram of the time from sending a message to its acknowledgement.
+	 *
+	 * @since 2.14.0
+	 */
+	public LatencyHistogram getAckLatency() {
+		return ackLatency;
+	}
+
+	/**
+	 * Returns the histogram of the time from sending a message to the failure of the send.
+	 *
+	 * @since 2.14.0
+	 */
+	public LatencyHistogram getErrorLatency() {
+		return errorLatency;
+	}
+
 	public static KafkaManager getManager(final LoggerContext loggerContext, final String name, final String topic,
 			final boolean syncSend, final Property[] properties, final String key) {
+		return getManager(loggerContext, name, topic, syncSend, 0, properties, key);
+	}
+
+	/**
+	 * @since 2.14.0
+	 */
+	public static KafkaManager getManager(final LoggerContext loggerContext, final String name, final String topic,
+			final boolean syncSend, final int maxInFlightSends, final Property[] properties, final String key) {
 		StringBuilder sb = new StringBuilder(name);
+		if (maxInFlightSends > 0) {
+			sb.append(" maxInFlightSends=").append(maxInFlightSends);
+		}
 		for (Property prop : properties) {
 			sb.append(" ").append(prop.getName()).append("=").append(prop.getValue());
 		}
-		return getManager(sb.toString(), factory, new FactoryData(loggerContext, topic, syncSend, properties, key));
+		return getManager(sb.toString(), factory,
+				new FactoryData(loggerContext, topic, syncSend, maxInFlightSends, properties, key));
 	}
 
 	private static class FactoryData {
 		private final LoggerContext loggerContext;
 		private final String topic;
 		private final boolean syncSend;
+		private final int maxInFlightSends;
 		private final Property[] properties;
 		private final String key;
 
 		public FactoryData(final LoggerContext loggerContext, final String topic, final boolean syncSend,
-				final Property[] properties, final String key) {
+				final int maxInFlightSends, final Property[] properties, final String key) {
 			this.loggerContext = loggerContext;
 			this.topic = topic;
 			this.syncSend = syncSend;
+			this.maxInFlightSends = maxInFlightSends;
 			this.properties = properties;
 			this.key = key;
 		}
@@ -175,7 +382,8 @@ public class KafkaManager extends AbstractManager {
 	private static class KafkaManagerFactory implements ManagerFactory<KafkaManager, FactoryData> {
 		@Override
 		public KafkaManager createManager(String name, FactoryData data) {
-			return new KafkaManager(data.loggerContext, name, data.topic, data.syncSend, data.properties, data.key);
+			return new KafkaManager(data.loggerContext, name, data.topic, data.syncSend, data.maxInFlightSends,
+					data.properties, data.key);
 		}
 	}
 
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.mom.kafka;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of latencies with buckets whose upper bounds are powers of two microseconds, from 1
+ * microsecond to about 16.8 seconds, and a last bucket for longer latencies.
+ *
+ * @since 2.14.0
+ */
+public final class LatencyHistogram {
+
+    /** The number of buckets, including the bucket for latencies above the highest bound. */
+    public static final int BUCKET_COUNT = 26;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(final long nanos) {
+        final long micros = TimeUnit.NANOSECONDS.toMicros(Math.max(0, nanos));
+        // values in [2^(i-1), 2^i) fall into bucket i; 0 into bucket 0
+        final int bucket = 64 - Long.numberOfLeadingZeros(micros);
+        counts.incrementAndGet(Math.min(bucket, BUCKET_COUNT - 1));
+    }
+
+    /**
+     * Returns the exclusive upper bounds of the buckets in microseconds. The bound of the last bucket is
+     * {@link Long#MAX_VALUE}.
+     *
+     * @return a new array with the bounds of the buckets
+     */
+    public static long[] getBucketBoundsMicros() {
+        final long[] bounds = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT - 1; i++) {
+            bounds[i] = 1L << i;
+        }
+        bounds[BUCKET_COUNT - 1] = Long.MAX_VALUE;
+        return bounds;
+    }
+
+    /**
+     * Returns the number of latencies recorded in each bucket.
+     *
+     * @return a new array with the counts of the buckets
+     */
+    public long[] getCounts() {
+        final long[] result = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            result[i] = counts.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of recorded latencies.
+     *
+     * @return the number of recorded latencies
+     */
+    public long getCount() {
+        long result = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            result += counts.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the upper bound of the bucket that contains the specified percentile of the recorded latencies.
+     *
+     * @param percentile a percentile between 0 and 100
+     * @return the upper bound in microseconds, {@link Long#MAX_VALUE} if the percentile is in the last bucket, or 0 if
+     *         no latency was recorded
+     */
+    public long getPercentileMicros(final double percentile) {
+        final long[] snapshot = getCounts();
+        long total = 0;
+        for (final long count : snapshot) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT - 1; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return 1L << i;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram[count=" + getCount() + ", p50=" + getPercentileMicros(50) + "us, p99="
+                + getPercentileMicros(99) + "us]";
+    }
+}
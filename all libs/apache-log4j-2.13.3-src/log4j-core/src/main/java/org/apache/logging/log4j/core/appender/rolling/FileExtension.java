@@ -73,6 +73,14 @@ public enum FileExtension {
             // One of "gz", "bzip2", "xz", "pack200", or "deflate".
             return new CommonsCompressAction("xz", source(renameTo), target(compressedName), deleteSource);
         }
+    },
+    ZSTD(".zst") {
+        @Override
+        Action createCompressAction(final String renameTo, final String compressedName, final boolean deleteSource,
+                                    final int compressionLevel) {
+            // Requires Zstd JNI on the classpath.
+            return new CommonsCompressAction("zstd", source(renameTo), target(compressedName), deleteSource);
+        }
     };
 
     public static FileExtension lookup(final String fileExtension) {
@@ -26,12 +26,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileTime;
-import java.util.Collection;
 import java.util.Date;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Semaphore;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
@@ -48,7 +44,6 @@ import org.apache.logging.log4j.core.appender.rolling.action.Action;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.util.Constants;
 import org.apache.logging.log4j.core.util.FileUtils;
-import org.apache.logging.log4j.core.util.Log4jThreadFactory;
 
 /**
  * The Rolling File Manager.
@@ -64,7 +59,6 @@ public class RollingFileManager extends FileManager {
     private long initialTime;
     private volatile PatternProcessor patternProcessor;
     private final Semaphore semaphore = new Semaphore(1);
-    private final Log4jThreadFactory threadFactory = Log4jThreadFactory.createThreadFactory("RollingFileManager");
     private volatile TriggeringPolicy triggeringPolicy;
     private volatile RolloverStrategy rolloverStrategy;
     private volatile boolean renameEmptyFiles = false;
@@ -72,10 +66,10 @@ public class RollingFileManager extends FileManager {
     private volatile String fileName;
     private final boolean directWrite;
 
-    /* This executor pool will create a new Thread for every work async action to be performed. Using it allows
-       us to make sure all the Threads are completed when the Manager is stopped. */
-    private final ExecutorService asyncExecutor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0, TimeUnit.MILLISECONDS,
-            new EmptyQueue(), threadFactory);
+    /* The asynchronous actions of all the managers of a LoggerContext share a bounded RolloverActionScheduler. The
+       semaphore is held until the pending action completes, so the manager is stopped once it can be acquired. */
+    private volatile RolloverActionScheduler pendingScheduler;
+    private volatile Object pendingAction;
 
     private static final AtomicReferenceFieldUpdater<RollingFileManager, TriggeringPolicy> triggeringPolicyUpdater =
             AtomicReferenceFieldUpdater.newUpdater(RollingFileManager.class, TriggeringPolicy.class, "triggeringPolicy");
@@ -285,40 +279,29 @@ public class RollingFileManager extends FileManager {
             stopped &= true;
         }
         final boolean status = super.releaseSub(timeout, timeUnit) && stopped;
-        asyncExecutor.shutdown();
         try {
             // Allow at least the minimum interval to pass so async actions can complete.
             final long millis = timeUnit.toMillis(timeout);
             final long waitInterval = MIN_DURATION < millis ? millis : MIN_DURATION;
 
-            for (int count = 1; count <= MAX_TRIES && !asyncExecutor.isTerminated(); ++count) {
-                asyncExecutor.awaitTermination(waitInterval * count, TimeUnit.MILLISECONDS);
+            boolean completed = false;
+            for (int count = 1; count <= MAX_TRIES && !completed; ++count) {
+                completed = semaphore.tryAcquire(waitInterval * count, TimeUnit.MILLISECONDS);
             }
-            if (asyncExecutor.isTerminated()) {
-                LOGGER.debug("All asynchronous threads have terminated");
+            if (completed) {
+                semaphore.release();
+                LOGGER.debug("All asynchronous actions have completed");
             } else {
-                asyncExecutor.shutdownNow();
-                try {
-                    asyncExecutor.awaitTermination(timeout, timeUnit);
-                    if (asyncExecutor.isTerminated()) {
-                        LOGGER.debug("All asynchronous threads have terminated");
-                    } else {
-                        LOGGER.debug("RollingFileManager shutting down but some asynchronous services may not have completed");
-                    }
-                } catch (final InterruptedException inner) {
-                    LOGGER.warn("RollingFileManager stopped but some asynchronous services may not have completed.");
+                final RolloverActionScheduler scheduler = pendingScheduler;
+                if (scheduler != null && scheduler.cancel(pendingAction)) {
+                    semaphore.release();
+                    LOGGER.warn("RollingFileManager stopped before its asynchronous action could start.");
+                } else {
+                    LOGGER.debug("RollingFileManager shutting down but some asynchronous services may not have completed");
                 }
             }
         } catch (final InterruptedException ie) {
-            asyncExecutor.shutdownNow();
-            try {
-                asyncExecutor.awaitTermination(timeout, timeUnit);
-                if (asyncExecutor.isTerminated()) {
-                    LOGGER.debug("All asynchronous threads have terminated");
-                }
-            } catch (final InterruptedException inner) {
-                LOGGER.warn("RollingFileManager stopped but some asynchronous services may not have completed.");
-            }
+            LOGGER.warn("RollingFileManager stopped but some asynchronous services may not have completed.");
             // Preserve interrupt status
             Thread.currentThread().interrupt();
         }
@@ -440,7 +423,11 @@ public class RollingFileManager extends FileManager {
 
                 if (success && descriptor.getAsynchronous() != null) {
                     LOGGER.debug("RollingFileManager executing async {}", descriptor.getAsynchronous());
-                    asyncExecutor.execute(new AsyncAction(descriptor.getAsynchronous(), this));
+                    final Action action = descriptor.getAsynchronous();
+                    final RolloverActionScheduler scheduler = RolloverActionScheduler.getScheduler(getLoggerContext());
+                    pendingScheduler = scheduler;
+                    pendingAction = scheduler.submit(new AsyncAction(action, this),
+                            RolloverActionScheduler.estimateCost(action));
                     releaseRequired = false;
                 }
                 return true;
@@ -706,47 +693,4 @@ public class RollingFileManager extends FileManager {
         return file.lastModified();
     }
 
-    private static class EmptyQueue extends ArrayBlockingQueue<Runnable> {
-
-        /**
-         *
-         */
-        private static final long serialVersionUID = 1L;
-
-        EmptyQueue() {
-            super(1);
-        }
-
-        @Override
-        public int remainingCapacity() {
-            return 0;
-        }
-
-        @Override
-        public boolean add(final Runnable runnable) {
-            throw new IllegalStateException("Queue is full");
-        }
-
-        @Override
-        public void put(final Runnable runnable) throws InterruptedException {
-            /* No point in going into a permanent wait */
-            throw new InterruptedException("Unable to insert into queue");
-        }
-
-        @Override
-        public boolean offer(final Runnable runnable, final long timeout, final TimeUnit timeUnit) throws InterruptedException {
-            Thread.sleep(timeUnit.toMillis(timeout));
-            return false;
-        }
-
-        @Override
-        public boolean addAll(final Collection<? extends Runnable> collection) {
-            if (collection.size() > 0) {
-                throw new IllegalArgumentException("Too many items in collection");
-            }
-            return false;
-        }
-
-    }
-
 }
@@ -0,0 +1,417 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AppenderLoggingException;
+import org.apache.logging.log4j.core.appender.ConfigurationFactoryData;
+import org.apache.logging.log4j.core.appender.ManagerFactory;
+import org.apache.logging.log4j.core.appender.MemoryMappedRegions;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.util.FileUtils;
+import org.apache.logging.log4j.core.util.NullOutputStream;
+
+/**
+ * Extends RollingFileManager but instead of using a buffered output stream, this class maps regions of the file into
+ * memory and writes to these regions, like the
+ * {@link org.apache.logging.log4j.core.appender.MemoryMappedFileManager MemoryMappedFileManager}.
+ * <p>
+ * On rollover the regions are unmapped and the file is truncated to the length of the data written before it is
+ * closed and processed by the rollover strategy. With remap-ahead enabled, the next region of the active file is mapped
+ * in the background, see {@link MemoryMappedRegions}.
+ * </p>
+ *
+ * @since 2.14.0
+ */
+public class RollingMemoryMappedFileManager extends RollingFileManager {
+
+    /**
+     * The default length of the mapped regions.
+     */
+    public static final int DEFAULT_REGION_LENGTH = 32 * 1024 * 1024;
+
+    private static final RollingMemoryMappedFileManagerFactory FACTORY = new RollingMemoryMappedFileManagerFactory();
+
+    private final boolean immediateFlush;
+    private final int regionLength;
+    private final boolean remapAhead;
+    private final ThreadLocal<Boolean> isEndOfBatch = new ThreadLocal<>();
+    private RandomAccessFile randomAccessFile;
+    private MemoryMappedRegions regions;
+    private MappedByteBuffer mappedBuffer;
+
+    public RollingMemoryMappedFileManager(final LoggerContext loggerContext, final RandomAccessFile raf,
+            final String fileName, final String pattern, final OutputStream os, final boolean append,
+            final boolean immediateFlush, final int regionLength, final boolean remapAhead, final long size,
+            final long initialTime, final TriggeringPolicy policy, final RolloverStrategy strategy,
+            final String advertiseURI, final Layout<? extends Serializable> layout, final String filePermissions,
+            final String fileOwner, final String fileGroup, final boolean writeHeader) {
+        super(loggerContext, fileName, pattern, os, append, false, size, initialTime, policy, strategy, advertiseURI,
+                layout, filePermissions, fileOwner, fileGroup, writeHeader, ByteBuffer.wrap(new byte[0]));
+        this.immediateFlush = immediateFlush;
+        this.regionLength = regionLength;
+        this.remapAhead = remapAhead;
+        isEndOfBatch.set(Boolean.FALSE);
+        if (raf != null) {
+            try {
+                map(raf);
+            } catch (final IOException ex) {
+                throw new AppenderLoggingException("Unable to map " + getName(), ex);
+            }
+        }
+    }
+
+    public static RollingMemoryMappedFileManager getRollingMemoryMappedFileManager(final String fileName,
+            final String filePattern, final boolean isAppend, final boolean immediateFlush, final int regionLength,
+            final boolean remapAhead, final TriggeringPolicy policy, final RolloverStrategy strategy,
+            final String advertiseURI, final Layout<? extends Serializable> layout, final String filePermissions,
+            final String fileOwner, final String fileGroup, final Configuration configuration) {
+        if (strategy instanceof DirectWriteRolloverStrategy && fileName != null) {
+            LOGGER.error("The fileName attribute must not be specified with the DirectWriteRolloverStrategy");
+            return null;
+        }
+        final String name = fileName == null ? filePattern : fileName;
+        return narrow(RollingMemoryMappedFileManager.class, getManager(name, new FactoryData(fileName, filePattern,
+                isAppend, immediateFlush, regionLength, remapAhead, policy, strategy, advertiseURI, layout,
+                filePermissions, fileOwner, fileGroup, configuration), FACTORY));
+    }
+
+    private void map(final RandomAccessFile raf) throws IOException {
+        final long position = isAppend() ? raf.length() : 0;
+        this.randomAccessFile = raf;
+        this.regions = new MemoryMappedRegions(getFileName(), raf, position, regionLength, remapAhead);
+        this.mappedBuffer = regions.getBuffer();
+        this.byteBuffer = mappedBuffer;
+        writeHeader(position);
+    }
+
+    /**
+     * Writes the layout's header to the mapped region if the file is empty.
+     */
+    private void writeHeader(final long position) {
+        if (layout == null || position != 0) {
+            return;
+        }
+        final byte[] header = layout.getHeader();
+        if (header != null) {
+            write(header, 0, header.length, false);
+        }
+    }
+
+    private void openLazily() {
+        if (regions != null) {
+            return;
+        }
+        try {
+            final String fileName = getFileName();
+            FileUtils.makeParentDirs(new File(fileName));
+            createFileAfterRollover(fileName);
+        } catch (final IOException ex) {
+            throw new AppenderLoggingException("Unable to map " + getName(), ex);
+        }
+    }
+
+    public Boolean isEndOfBatch() {
+        return isEndOfBatch.get();
+    }
+
+    public void setEndOfBatch(final boolean endOfBatch) {
+        this.isEndOfBatch.set(Boolean.valueOf(endOfBatch));
+    }
+
+    @Override
+    protected synchronized void write(final byte[] bytes, int offset, int length, final boolean immediateFlush) {
+        openLazily();
+        while (length > mappedBuffer.remaining()) {
+            final int chunk = mappedBuffer.remaining();
+            mappedBuffer.put(bytes, offset, chunk);
+            offset += chunk;
+            length -= chunk;
+            remap();
+        }
+        mappedBuffer.put(bytes, offset, length);
+    }
+
+    private synchronized void remap() {
+        try {
+            mappedBuffer = regions.remap();
+            this.byteBuffer = mappedBuffer;
+        } catch (final IOException ex) {
+            logError("Unable to remap", ex);
+        }
+    }
+
+    @Override
+    protected void createFileAfterRollover() throws IOException {
+        createFileAfterRollover(getFileName());
+    }
+
+    private void createFileAfterRollover(final String fileName) throws IOException {
+        final RandomAccessFile raf = new RandomAccessFile(fileName, "rw");
+        try {
+            map(raf);
+        } catch (final IOException ex) {
+            raf.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns the length of the data written to the active file.
+     *
+     * @return the size of the file in bytes
+     */
+    @Override
+    public synchronized long getFileSize() {
+        return regions == null ? size : regions.getPosition();
+    }
+
+    @Override
+    public synchronized void flush() {
+        if (regions != null) {
+            regions.force();
+        }
+    }
+
+    @Override
+    public synchronized boolean closeOutputStream() {
+        if (regions == null) {
+            return true;
+        }
+        final long length = regions.getPosition();
+        try {
+            regions.unmap();
+        } catch (final IOException ex) {
+            logError("Unable to unmap MappedBuffer", ex);
+        }
+        regions = null;
+        mappedBuffer = null;
+        this.byteBuffer = ByteBuffer.wrap(new byte[0]);
+        try {
+            LOGGER.debug("RollingMemoryMappedFileManager closing. Setting {} length to {}", getFileName(), length);
+            randomAccessFile.setLength(length);
+            randomAccessFile.close();
+            return true;
+        } catch (final IOException ex) {
+            logError("Unable to close MemoryMappedFile", ex);
+            return false;
+        } finally {
+            randomAccessFile = null;
+        }
+    }
+
+    @Override
+    protected void flushBuffer(final ByteBuffer buffer) {
+        // do nothing (do not call drain() to avoid spurious remapping)
+    }
+
+    @Override
+    public ByteBuffer getByteBuffer() {
+        openLazily();
+        return mappedBuffer;
+    }
+
+    @Override
+    public ByteBuffer drain(final ByteBuffer buf) {
+        remap();
+        return mappedBuffer;
+    }
+
+    /**
+     * Returns the length of the memory mapped regions.
+     *
+     * @return the length of the mapped regions
+     */
+    public int getRegionLength() {
+        return regionLength;
+    }
+
+    /**
+     * Returns whether the next region is mapped in the background before the current one is full.
+     *
+     * @return whether remap-ahead is enabled
+     */
+    public boolean isRemapAhead() {
+        return remapAhead;
+    }
+
+    /**
+     * Returns {@code true} if the content of the buffer should be forced to the storage device on every write,
+     * {@code false} otherwise.
+     *
+     * @return whether each write should be force-sync'ed
+     */
+    public boolean isImmediateFlush() {
+        return immediateFlush;
+    }
+
+    /**
+     * Factory to create a RollingMemoryMappedFileManager.
+     */
+    private static class RollingMemoryMappedFileManagerFactory implements
+            ManagerFactory<RollingMemoryMappedFileManager, FactoryData> {
+
+        /**
+         * Create the RollingMemoryMappedFileManager.
+         *
+         * @param name The name of the entity to manage.
+         * @param data The data required to create the entity.
+         * @return a RollingMemoryMappedFileManager.
+         */
+        @Override
+        public RollingMemoryMappedFileManager createManager(final String name, final FactoryData data) {
+            File file = null;
+            long size = 0;
+            long time = System.currentTimeMillis();
+            RandomAccessFile raf = null;
+            if (data.fileName != null) {
+                file = new File(name);
+
+                if (!data.append) {
+                    file.delete();
+                }
+                size = data.append ? file.length() : 0;
+                if (file.exists()) {
+                    time = file.lastModified();
+                }
+                try {
+                    FileUtils.makeParentDirs(file);
+                    raf = new RandomAccessFile(name, "rw");
+                } catch (final IOException ex) {
+                    LOGGER.error("Cannot access RandomAccessFile " + ex, ex);
+                    return null;
+                }
+            }
+            final boolean writeHeader = !data.append || file == null || !file.exists();
+
+            try {
+                final RollingMemoryMappedFileManager manager = new RollingMemoryMappedFileManager(
+                        data.getLoggerContext(), raf, name, data.pattern, NullOutputStream.getInstance(), data.append,
+                        data.immediateFlush, data.regionLength, data.remapAhead, size, time, data.policy,
+                        data.strategy, data.advertiseURI, data.layout, data.filePermissions, data.fileOwner,
+                        data.fileGroup, writeHeader);
+                if (manager.isAttributeViewEnabled()) {
+                    manager.defineAttributeView(file.toPath());
+                }
+                return manager;
+            } catch (final AppenderLoggingException ex) {
+                LOGGER.error("RollingMemoryMappedFileManager (" + name + ") " + ex, ex);
+                if (raf != null) {
+                    try {
+                        raf.close();
+                    } catch (final IOException e) {
+                        LOGGER.error("Cannot close RandomAccessFile {}", name, e);
+                    }
+                }
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Factory data.
+     */
+    private static class FactoryData extends ConfigurationFactoryData {
+        private final String fileName;
+        private final String pattern;
+        private final boolean append;
+        private final boolean immediateFlush;
+        private final int regionLength;
+        private final boolean remapAhead;
+        private final TriggeringPolicy policy;
+        private final RolloverStrategy strategy;
+        private final String advertiseURI;
+        private final Layout<? extends Serializable> layout;
+        private final String filePermissions;
+        private final String fileOwner;
+        private final String fileGroup;
+
+        /**
+         * Create the data for the factory.
+         *
+         * @param fileName The file name.
+         * @param pattern The pattern.
+         * @param append The append flag.
+         * @param immediateFlush
+         * @param regionLength
+         * @param remapAhead
+         * @param policy
+         * @param strategy
+         * @param advertiseURI
+         * @param layout
+         * @param filePermissions File permissions
+         * @param fileOwner File owner
+         * @param fileGroup File group
+         * @param configuration
+         */
+        public FactoryData(final String fileName, final String pattern, final boolean append,
+                final boolean immediateFlush, final int regionLength, final boolean remapAhead,
+                final TriggeringPolicy policy, final RolloverStrategy strategy, final String advertiseURI,
+                final Layout<? extends Serializable> layout, final String filePermissions, final String fileOwner,
+                final String fileGroup, final Configuration configuration) {
+            super(configuration);
+            this.fileName = fileName;
+            this.pattern = pattern;
+            this.append = append;
+            this.immediateFlush = immediateFlush;
+            this.regionLength = regionLength;
+            this.remapAhead = remapAhead;
+            this.policy = policy;
+            this.strategy = strategy;
+            this.advertiseURI = advertiseURI;
+            this.layout = layout;
+            this.filePermissions = filePermissions;
+            this.fileOwner = fileOwner;
+            this.fileGroup = fileGroup;
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public TriggeringPolicy getTriggeringPolicy() {
+            return this.policy;
+        }
+
+        public RolloverStrategy getRolloverStrategy() {
+            return this.strategy;
+        }
+    }
+
+    /**
+     * Updates the RollingFileManager's data during a reconfiguration. This method should be considered private.
+     * It is not thread safe and calling it outside of a reconfiguration may lead to errors. This method may be
+     * made protected in a future release.
+     * @param data The data to update.
+     */
+    @Override
+    public void updateData(final Object data) {
+        final FactoryData factoryData = (FactoryData) data;
+        setRolloverStrategy(factoryData.getRolloverStrategy());
+        setPatternProcessor(new PatternProcessor(factoryData.getPattern(), getPatternProcessor()));
+        setTriggeringPolicy(factoryData.getTriggeringPolicy());
+    }
+}
@@ -22,19 +22,29 @@ import java.io.OutputStream;
 import java.io.RandomAccessFile;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.appender.AppenderLoggingException;
 import org.apache.logging.log4j.core.appender.ConfigurationFactoryData;
 import org.apache.logging.log4j.core.appender.ManagerFactory;
+import org.apache.logging.log4j.core.appender.ThreadLocalBufferFileWriter;
 import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.util.Constants;
 import org.apache.logging.log4j.core.util.FileUtils;
 import org.apache.logging.log4j.core.util.NullOutputStream;
 
 /**
  * Extends RollingFileManager but instead of using a buffered output stream, this class uses a {@code ByteBuffer} and a
  * {@code RandomAccessFile} to do the I/O.
+ * <p>
+ * With thread-local buffers enabled, events encoded directly into the manager are written by a
+ * {@link ThreadLocalBufferFileWriter} instead of going through the manager's lock. Rollover suspends the writer, which
+ * waits for the in-flight writes, and reopens it on the new file. Only one thread at a time evaluates the triggering
+ * policy; the other threads skip the check instead of waiting for it.
+ * </p>
  */
 public class RollingRandomAccessFileManager extends RollingFileManager {
     /**
@@ -46,6 +56,8 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
 
     private RandomAccessFile randomAccessFile;
     private final ThreadLocal<Boolean> isEndOfBatch = new ThreadLocal<>();
+    private final ThreadLocalBufferFileWriter threadLocalWriter;
+    private final ReentrantLock rolloverCheckLock = new ReentrantLock();
 
     @Deprecated
     public RollingRandomAccessFileManager(final LoggerContext loggerContext, final RandomAccessFile raf,
@@ -67,11 +79,57 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
             final Layout<? extends Serializable> layout,
             final String filePermissions, final String fileOwner, final String fileGroup,
             final boolean writeHeader) {
+        this(loggerContext, raf, fileName, pattern, os, append, immediateFlush, bufferSize, size, initialTime, policy,
+                strategy, advertiseURI, layout, filePermissions, fileOwner, fileGroup, writeHeader, false);
+    }
+
+    /**
+     * @since 2.14.0
+     */
+    public RollingRandomAccessFileManager(final LoggerContext loggerContext, final RandomAccessFile raf,
+            final String fileName, final String pattern, final OutputStream os, final boolean append,
+            final boolean immediateFlush, final int bufferSize, final long size, final long initialTime,
+            final TriggeringPolicy policy, final RolloverStrategy strategy, final String advertiseURI,
+            final Layout<? extends Serializable> layout,
+            final String filePermissions, final String fileOwner, final String fileGroup,
+            final boolean writeHeader, final boolean threadLocalBuffers) {
         super(loggerContext, fileName, pattern, os, append, false, size, initialTime, policy, strategy, advertiseURI,
                 layout, filePermissions, fileOwner, fileGroup, writeHeader, ByteBuffer.wrap(new byte[bufferSize]));
         this.randomAccessFile = raf;
+        this.threadLocalWriter = threadLocalBuffers ? new ThreadLocalBufferFileWriter(getName(), this,
+                Constants.ENCODER_BYTE_BUFFER_SIZE) {
+            @Override
+            protected boolean reopen() {
+                return openLazily();
+            }
+        } : null;
         isEndOfBatch.set(Boolean.FALSE);
         writeHeader();
+        openThreadLocalWriter();
+    }
+
+    private void openThreadLocalWriter() {
+        if (threadLocalWriter != null && randomAccessFile != null) {
+            try {
+                threadLocalWriter.open(randomAccessFile.getChannel(), randomAccessFile.length());
+            } catch (final IOException e) {
+                logError("Unable to get the length of RandomAccessFile", e);
+            }
+        }
+    }
+
+    private boolean openLazily() {
+        if (randomAccessFile != null) {
+            return false;
+        }
+        try {
+            final String fileName = getFileName();
+            FileUtils.makeParentDirs(new File(fileName));
+            createFileAfterRollover(fileName);
+            return true;
+        } catch (final IOException ex) {
+            throw new AppenderLoggingException("Unable to create RandomAccessFile " + getName(), ex);
+        }
     }
 
     /**
@@ -100,6 +158,18 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
             final TriggeringPolicy policy, final RolloverStrategy strategy, final String advertiseURI,
             final Layout<? extends Serializable> layout, final String filePermissions, final String fileOwner, final String fileGroup,
             final Configuration configuration) {
+        return getRollingRandomAccessFileManager(fileName, filePattern, isAppend, immediateFlush, bufferSize, policy,
+                strategy, advertiseURI, layout, filePermissions, fileOwner, fileGroup, configuration, false);
+    }
+
+    /**
+     * @since 2.14.0
+     */
+    public static RollingRandomAccessFileManager getRollingRandomAccessFileManager(final String fileName,
+            final String filePattern, final boolean isAppend, final boolean immediateFlush, final int bufferSize,
+            final TriggeringPolicy policy, final RolloverStrategy strategy, final String advertiseURI,
+            final Layout<? extends Serializable> layout, final String filePermissions, final String fileOwner,
+            final String fileGroup, final Configuration configuration, final boolean threadLocalBuffers) {
         if (strategy instanceof DirectWriteRolloverStrategy && fileName != null) {
             LOGGER.error("The fileName attribute must not be specified with the DirectWriteRolloverStrategy");
             return null;
@@ -107,7 +177,39 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
         final String name = fileName == null ? filePattern : fileName;
         return narrow(RollingRandomAccessFileManager.class, getManager(name, new FactoryData(fileName, filePattern, isAppend,
                 immediateFlush, bufferSize, policy, strategy, advertiseURI, layout,
-                filePermissions, fileOwner, fileGroup, configuration), FACTORY));
+                filePermissions, fileOwner, fileGroup, configuration, threadLocalBuffers), FACTORY));
+    }
+
+    /**
+     * Returns the writer of the per-thread buffers.
+     *
+     * @return the writer, or {@code null} if thread-local buffers are not enabled
+     * @since 2.14.0
+     */
+    public ThreadLocalBufferFileWriter getThreadLocalWriter() {
+        return threadLocalWriter;
+    }
+
+    @Override
+    public void checkRollover(final LogEvent event) {
+        if (threadLocalWriter == null) {
+            super.checkRollover(event);
+            return;
+        }
+        // the triggering policies are not thread-safe: if another thread is checking, let it do the work
+        if (rolloverCheckLock.tryLock()) {
+            try {
+                super.checkRollover(event);
+            } finally {
+                rolloverCheckLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public long getFileSize() {
+        return threadLocalWriter == null ? super.getFileSize()
+                : threadLocalWriter.getPosition() + byteBuffer.position();
     }
 
     public Boolean isEndOfBatch() {
@@ -127,6 +229,10 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
 
     @Override
     protected synchronized void writeToDestination(final byte[] bytes, final int offset, final int length) {
+        if (threadLocalWriter != null) {
+            threadLocalWriter.write(bytes, offset, length);
+            return;
+        }
         try {
             if (randomAccessFile == null) {
                 final String fileName = getFileName();
@@ -153,16 +259,31 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
             randomAccessFile.seek(randomAccessFile.length());
         }
         writeHeader();
+        openThreadLocalWriter();
     }
 
     @Override
     public synchronized void flush() {
+        if (threadLocalWriter != null) {
+            threadLocalWriter.flush();
+        }
         flushBuffer(byteBuffer);
     }
 
+    @Override
+    protected void writeFooter() {
+        if (threadLocalWriter != null) {
+            threadLocalWriter.flushAll();
+        }
+        super.writeFooter();
+    }
+
     @Override
 	public synchronized boolean closeOutputStream() {
 		flush();
+		if (threadLocalWriter != null) {
+			threadLocalWriter.suspend();
+		}
 		if (randomAccessFile != null) {
 			try {
 				randomAccessFile.close();
@@ -241,7 +362,8 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
 
             final RollingRandomAccessFileManager rrm = new RollingRandomAccessFileManager(data.getLoggerContext(), raf, name, data.pattern,
                     NullOutputStream.getInstance(), data.append, data.immediateFlush, data.bufferSize, size, time, data.policy,
-                    data.strategy, data.advertiseURI, data.layout, data.filePermissions, data.fileOwner, data.fileGroup, writeHeader);
+                    data.strategy, data.advertiseURI, data.layout, data.filePermissions, data.fileOwner, data.fileGroup,
+                    writeHeader, data.threadLocalBuffers);
             if (rrm.isAttributeViewEnabled()) {
                 rrm.defineAttributeView(file.toPath());
             }
@@ -265,6 +387,7 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
         private final String filePermissions;
         private final String fileOwner;
         private final String fileGroup;
+        private final boolean threadLocalBuffers;
 
         /**
          * Create the data for the factory.
@@ -288,6 +411,33 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
                 final String advertiseURI, final Layout<? extends Serializable> layout,
                 final String filePermissions, final String fileOwner, final String fileGroup,
                 final Configuration configuration) {
+            this(fileName, pattern, append, immediateFlush, bufferSize, policy, strategy, advertiseURI, layout,
+                    filePermissions, fileOwner, fileGroup, configuration, false);
+        }
+
+        /**
+         * Create the data for the factory.
+         *
+         * @param fileName The file name.
+         * @param pattern The pattern.
+         * @param append The append flag.
+         * @param immediateFlush
+         * @param bufferSize
+         * @param policy
+         * @param strategy
+         * @param advertiseURI
+         * @param layout
+         * @param filePermissions File permissions
+         * @param fileOwner File owner
+         * @param fileGroup File group
+         * @param configuration
+         * @param threadLocalBuffers Whether to write from per-thread buffers
+         */
+        public FactoryData(final String fileName, final String pattern, final boolean append, final boolean immediateFlush,
+                final int bufferSize, final TriggeringPolicy policy, final RolloverStrategy strategy,
+                final String advertiseURI, final Layout<? extends Serializable> layout,
+                final String filePermissions, final String fileOwner, final String fileGroup,
+                final Configuration configuration, final boolean threadLocalBuffers) {
             super(configuration);
             this.fileName = fileName;
             this.pattern = pattern;
@@ -301,6 +451,7 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
             this.filePermissions = filePermissions;
             this.fileOwner = fileOwner;
             this.fileGroup = fileGroup;
+            this.threadLocalBuffers = threadLocalBuffers;
         }
 
         public String getPattern() {
@@ -0,0 +1,300 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import java.io.File;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.rolling.action.Action;
+import org.apache.logging.log4j.core.appender.rolling.action.CommonsCompressAction;
+import org.apache.logging.log4j.core.appender.rolling.action.CompositeAction;
+import org.apache.logging.log4j.core.appender.rolling.action.GzCompressAction;
+import org.apache.logging.log4j.core.appender.rolling.action.ZipCompressAction;
+import org.apache.logging.log4j.core.util.Log4jThreadFactory;
+import org.apache.logging.log4j.spi.LoggerContextShutdownAware;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.apache.logging.log4j.util.PropertiesUtil;
+
+/**
+ * Runs the asynchronous part of rollovers (typically compression) for all the {@link RollingFileManager}s of a
+ * {@link LoggerContext} on a bounded pool of threads.
+ * <p>
+ * When many rolling files roll over at the same time, the pending actions wait in a priority queue instead of each
+ * getting its own thread. Actions with a lower priority value run first; by default the priority of a rollover is the
+ * number of bytes it has to compress, so cheap actions like deletes are not stuck behind the compression of a large
+ * file. Actions with the same priority run in submission order.
+ * </p>
+ * <p>
+ * The number of threads is set with the {@value #PARALLELISM_PROPERTY} system property and defaults to half the
+ * available processors. Idle threads are released, so a context that does not roll over does not keep any thread.
+ * The scheduler of a context is shut down when the context stops, after its rolling files waited for their actions.
+ * An action submitted to a scheduler that was shut down, by a rollover racing the stop of its context, runs on the
+ * calling thread.
+ * </p>
+ *
+ * @since 2.14.0
+ */
+public final class RolloverActionScheduler implements LoggerContextShutdownAware {
+
+    /**
+     * System property that sets the maximum number of rollover actions running at the same time.
+     */
+    public static final String PARALLELISM_PROPERTY = "log4j2.rolloverParallelism";
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+    private static final String KEY = RolloverActionScheduler.class.getName();
+    private static final long KEEP_ALIVE_MILLIS = 100;
+
+    private static volatile RolloverActionScheduler defaultScheduler;
+
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    /**
+     * Constructs a scheduler running at most {@code parallelism} actions at the same time.
+     *
+     * @param name the prefix of the thread names
+     * @param parallelism the maximum number of threads
+     */
+    public RolloverActionScheduler(final String name, final int parallelism) {
+        final int threads = Math.max(1, parallelism);
+        this.executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_MILLIS, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<Runnable>(), Log4jThreadFactory.createThreadFactory(name));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Returns the scheduler shared by the rolling files of the specified context, creating it if needed.
+     *
+     * @param loggerContext the context, or {@code null} for the scheduler shared by managers without a context
+     * @return the scheduler of the context
+     */
+    public static RolloverActionScheduler getScheduler(final LoggerContext loggerContext) {
+        if (loggerContext == null) {
+            RolloverActionScheduler result = defaultScheduler;
+            if (result == null) {
+                synchronized (RolloverActionScheduler.class) {
+                    result = defaultScheduler;
+                    if (result == null) {
+                        defaultScheduler = result = new RolloverActionScheduler("RolloverScheduler",
+                                getDefaultParallelism());
+                    }
+                }
+            }
+            return result;
+        }
+        final Object existing = loggerContext.getObject(KEY);
+        if (existing instanceof RolloverActionScheduler) {
+            if (!((RolloverActionScheduler) existing).isShutdown()) {
+                return (RolloverActionScheduler) existing;
+            }
+            loggerContext.removeObject(KEY, existing);
+        }
+        final RolloverActionScheduler created = new RolloverActionScheduler(
+                "RolloverScheduler-" + loggerContext.getName(), getDefaultParallelism());
+        final Object previous = loggerContext.putObjectIfAbsent(KEY, created);
+        if (previous instanceof RolloverActionScheduler) {
+            created.executor.shutdown();
+            return (RolloverActionScheduler) previous;
+        }
+        loggerContext.addShutdownListener(created);
+        return created;
+    }
+
+    /**
+     * Shuts down the scheduler of a context that stopped. Tasks that were already submitted still run, but no new
+     * thread is kept alive for the context.
+     *
+     * @param loggerContext the context that stopped
+     */
+    @Override
+    public void contextShutdown(final org.apache.logging.log4j.spi.LoggerContext loggerContext) {
+        if (loggerContext instanceof LoggerContext) {
+            ((LoggerContext) loggerContext).removeObject(KEY, this);
+        }
+        executor.shutdown();
+        LOGGER.debug("Shut down {}", this);
+    }
+
+    boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    /**
+     * Returns the parallelism set with the {@value #PARALLELISM_PROPERTY} system property, by default half the
+     * available processors.
+     *
+     * @return the default number of threads of a scheduler
+     */
+    public static int getDefaultParallelism() {
+        final int defaultValue = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return Math.max(1, PropertiesUtil.getProperties().getIntegerProperty(PARALLELISM_PROPERTY, defaultValue));
+    }
+
+    /**
+     * Estimates the cost of an action as the number of bytes it compresses.
+     *
+     * @param action the action
+     * @return the size of the files compressed by the action, 0 for actions that do not compress
+     */
+    public static long estimateCost(final Action action) {
+        File source = null;
+        if (action instanceof GzCompressAction) {
+            source = ((GzCompressAction) action).getSource();
+        } else if (action instanceof ZipCompressAction) {
+            source = ((ZipCompressAction) action).getSource();
+        } else if (action instanceof CommonsCompressAction) {
+            source = ((CommonsCompressAction) action).getSource();
+        } else if (action instanceof CompositeAction) {
+            long cost = 0;
+            for (final Action child : ((CompositeAction) action).getActions()) {
+                cost += estimateCost(child);
+            }
+            return cost;
+        }
+        return source == null ? 0 : source.length();
+    }
+
+    /**
+     * Schedules a task, or runs it on the calling thread if this scheduler was shut down.
+     *
+     * @param task the task to run
+     * @param priority the priority of the task, tasks with a lower value run first
+     * @return a handle that can be passed to {@link #cancel(Object)}
+     */
+    public Object submit(final Runnable task, final long priority) {
+        final ScheduledTask scheduled = new ScheduledTask(task, priority, sequence.getAndIncrement());
+        try {
+            executor.execute(scheduled);
+        } catch (final RejectedExecutionException ex) {
+            // the file was already closed for the rollover, so its action must still run
+            LOGGER.debug("{} is shut down, running rollover action {} on the calling thread", this, task);
+            scheduled.run();
+        }
+        return scheduled;
+    }
+
+    /**
+     * Removes a task that has not started yet.
+     *
+     * @param handle the handle returned by {@link #submit(Runnable, long)}
+     * @return {@code true} if the task was removed and will not run
+     */
+    public boolean cancel(final Object handle) {
+        return handle instanceof Runnable && executor.remove((Runnable) handle);
+    }
+
+    /**
+     * Returns the maximum number of tasks running at the same time.
+     *
+     * @return the number of threads of this scheduler
+     */
+    public int getParallelism() {
+        return executor.getMaximumPoolSize();
+    }
+
+    /**
+     * Returns the number of tasks waiting for a thread.
+     *
+     * @return the number of queued tasks
+     */
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Returns the number of tasks currently running.
+     *
+     * @return the number of in-flight tasks
+     */
+    public int getInFlightCount() {
+        return inFlight.get();
+    }
+
+    /**
+     * Returns the number of tasks that have finished.
+     *
+     * @return the number of completed tasks, including the failed ones
+     */
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    /**
+     * Returns the number of tasks that have thrown an exception.
+     *
+     * @return the number of failed tasks
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    @Override
+    public String toString() {
+        return "RolloverActionScheduler[parallelism=" + getParallelism() + ", queued=" + getQueuedCount()
+                + ", inFlight=" + getInFlightCount() + ", completed=" + getCompletedCount()
+                + ", failed=" + getFailedCount() + "]";
+    }
+
+    private final class ScheduledTask implements Runnable, Comparable<ScheduledTask> {
+
+        private final Runnable task;
+        private final long priority;
+        private final long order;
+
+        ScheduledTask(final Runnable task, final long priority, final long order) {
+            this.task = task;
+            this.priority = priority;
+            this.order = order;
+        }
+
+        @Override
+        public void run() {
+            inFlight.incrementAndGet();
+            try {
+                task.run();
+            } catch (final RuntimeException | Error ex) {
+                failed.incrementAndGet();
+                LOGGER.warn("Rollover action {} failed", task, ex);
+            } finally {
+                inFlight.decrementAndGet();
+                completed.incrementAndGet();
+            }
+        }
+
+        @Override
+        public int compareTo(final ScheduledTask other) {
+            final int result = Long.compare(priority, other.priority);
+            return result != 0 ? result : Long.compare(order, other.order);
+        }
+
+        @Override
+        public String toString() {
+            return task.toString();
+        }
+    }
+}
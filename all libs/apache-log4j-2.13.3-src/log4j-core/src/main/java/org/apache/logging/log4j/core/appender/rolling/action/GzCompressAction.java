@@ -23,15 +23,38 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.zip.Deflater;
 import java.util.zip.GZIPOutputStream;
 
+import org.apache.logging.log4j.core.appender.rolling.RolloverActionScheduler;
+import org.apache.logging.log4j.core.util.Log4jThreadFactory;
+import org.apache.logging.log4j.util.PropertiesUtil;
+
 /**
  * Compresses a file using GZ compression.
+ * <p>
+ * Files larger than the {@value #PARALLEL_THRESHOLD_PROPERTY} system property (32 MiB by default) are compressed
+ * in blocks on up to {@value RolloverActionScheduler#PARALLELISM_PROPERTY} threads with a
+ * {@link ParallelGzipOutputStream}. The threads belong to the compression and are released when it completes.
+ * </p>
  */
 public final class GzCompressAction extends AbstractAction {
 
+    /**
+     * System property that sets the size in bytes from which a file is compressed in parallel blocks.
+     *
+     * @since 2.14.0
+     */
+    public static final String PARALLEL_THRESHOLD_PROPERTY = "log4j2.rolloverParallelGzipThreshold";
+
     private static final int BUF_SIZE = 8192;
+    private static final int PARALLEL_BLOCK_SIZE = 1024 * 1024;
+    private static final long PARALLEL_THRESHOLD = PropertiesUtil.getProperties().getLongProperty(
+            PARALLEL_THRESHOLD_PROPERTY, 32L * 1024 * 1024);
 
     /**
      * Source file.
@@ -132,10 +155,13 @@ public final class GzCompressAction extends AbstractAction {
             final boolean deleteSource,
             final int compressionLevel) throws IOException {
         if (source.exists()) {
+            final int parallelism = RolloverActionScheduler.getDefaultParallelism();
+            final ExecutorService blockExecutor = parallelism > 1 && source.length() >= PARALLEL_THRESHOLD
+                    ? createBlockExecutor(parallelism) : null;
             try (final FileInputStream fis = new FileInputStream(source);
                  final OutputStream fos = new FileOutputStream(destination);
-                 final OutputStream gzipOut = new ConfigurableLevelGZIPOutputStream(
-                         fos, BUF_SIZE, compressionLevel);
+                 final OutputStream gzipOut = createGzipOutputStream(source, fos, compressionLevel, parallelism,
+                         blockExecutor);
                  // Reduce native invocations by buffering data into GZIPOutputStream
                  final OutputStream os = new BufferedOutputStream(gzipOut, BUF_SIZE)) {
                 final byte[] inbuf = new byte[BUF_SIZE];
@@ -144,6 +170,11 @@ public final class GzCompressAction extends AbstractAction {
                 while ((n = fis.read(inbuf)) != -1) {
                     os.write(inbuf, 0, n);
                 }
+            } finally {
+                if (blockExecutor != null) {
+                    // closing the stream waited for the blocks, unless the compression failed
+                    blockExecutor.shutdownNow();
+                }
             }
 
             if (deleteSource && !source.delete()) {
@@ -156,6 +187,26 @@ public final class GzCompressAction extends AbstractAction {
         return false;
     }
 
+    private static OutputStream createGzipOutputStream(final File source, final OutputStream fos,
+            final int compressionLevel, final int parallelism, final ExecutorService blockExecutor)
+            throws IOException {
+        if (blockExecutor != null) {
+            LOGGER.debug("Compressing {} in parallel blocks", source);
+            return new ParallelGzipOutputStream(fos, compressionLevel, PARALLEL_BLOCK_SIZE, parallelism * 2,
+                    blockExecutor);
+        }
+        return new ConfigurableLevelGZIPOutputStream(fos, BUF_SIZE, compressionLevel);
+    }
+
+    /*
+     * Not the RolloverActionScheduler: the compression runs on one of its threads and waits for the blocks, which
+     * would never start if all its threads were waiting the same way.
+     */
+    private static ExecutorService createBlockExecutor(final int parallelism) {
+        return new ThreadPoolExecutor(parallelism, parallelism, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(), Log4jThreadFactory.createDaemonThreadFactory("GzCompressBlock"));
+    }
+
     private static final class ConfigurableLevelGZIPOutputStream extends GZIPOutputStream {
 
         ConfigurableLevelGZIPOutputStream(OutputStream out, int bufSize, int level) throws IOException {
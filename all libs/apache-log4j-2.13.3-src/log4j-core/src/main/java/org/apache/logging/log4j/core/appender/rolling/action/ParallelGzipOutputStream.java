@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling.action;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Output stream that compresses fixed-size blocks of its input in parallel, in the manner of pigz. Each block is
+ * written as a separate gzip member; the concatenation of members is a valid gzip file that {@code gzip -d} and
+ * {@link java.util.zip.GZIPInputStream} read back as a single stream.
+ * <p>
+ * Blocks are compressed on the specified executor and written in order. At most {@code maxPendingBlocks} blocks are
+ * held in memory: the writing thread waits for the oldest block when the limit is reached. Because blocks do not share
+ * a dictionary, the output is slightly larger than the output of a {@link GZIPOutputStream}.
+ * </p>
+ *
+ * @since 2.14.0
+ */
+public final class ParallelGzipOutputStream extends OutputStream {
+
+    private static final int COMPRESSED_BUF_SIZE = 8192;
+
+    private final OutputStream out;
+    private final int compressionLevel;
+    private final int blockSize;
+    private final int maxPendingBlocks;
+    private final ExecutorService executor;
+    private final ArrayDeque<Future<byte[]>> pending = new ArrayDeque<>();
+    private byte[] block;
+    private int count;
+    private int membersWritten;
+    private boolean closed;
+
+    /**
+     * Constructs a new stream.
+     *
+     * @param out the stream receiving the gzip members
+     * @param compressionLevel the deflater compression level
+     * @param blockSize the number of uncompressed bytes per gzip member
+     * @param maxPendingBlocks the maximum number of blocks being compressed at the same time
+     * @param executor the executor compressing the blocks
+     */
+    public ParallelGzipOutputStream(final OutputStream out, final int compressionLevel, final int blockSize,
+            final int maxPendingBlocks, final ExecutorService executor) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        this.out = Objects.requireNonNull(out, "out");
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.compressionLevel = compressionLevel;
+        this.blockSize = blockSize;
+        this.maxPendingBlocks = Math.max(1, maxPendingBlocks);
+        this.block = new byte[blockSize];
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        ensureOpen();
+        block[count++] = (byte) b;
+        if (count == blockSize) {
+            submitBlock();
+        }
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+        ensureOpen();
+        int off = offset;
+        int remaining = length;
+        while (remaining > 0) {
+            final int chunk = Math.min(remaining, blockSize - count);
+            System.arraycopy(bytes, off, block, count, chunk);
+            count += chunk;
+            off += chunk;
+            remaining -= chunk;
+            if (count == blockSize) {
+                submitBlock();
+            }
+        }
+    }
+
+    /**
+     * Compresses the buffered bytes as a gzip member, waits for all pending members and flushes the underlying stream.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        submitBlock();
+        while (!pending.isEmpty()) {
+            writeOldest();
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            submitBlock();
+            while (!pending.isEmpty()) {
+                writeOldest();
+            }
+            if (membersWritten == 0) {
+                // a gzip file holds at least one member
+                out.write(compress(block, 0, compressionLevel));
+            }
+        } finally {
+            for (final Future<byte[]> future : pending) {
+                future.cancel(true);
+            }
+            out.close();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        if (count == 0) {
+            return;
+        }
+        while (pending.size() >= maxPendingBlocks) {
+            writeOldest();
+        }
+        final byte[] data = block;
+        final int length = count;
+        final int level = compressionLevel;
+        pending.add(executor.submit(new Callable<byte[]>() {
+            @Override
+            public byte[] call() throws IOException {
+                return compress(data, length, level);
+            }
+        }));
+        block = new byte[blockSize];
+        count = 0;
+    }
+
+    private void writeOldest() throws IOException {
+        final Future<byte[]> future = pending.poll();
+        try {
+            out.write(future.get());
+            membersWritten++;
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a compressed block");
+        } catch (final ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Unable to compress block", cause);
+        }
+    }
+
+    private static byte[] compress(final byte[] data, final int length, final int level) throws IOException {
+        final ByteArrayOutputStream result = new ByteArrayOutputStream(length / 2 + 32);
+        try (final GZIPOutputStream gzip = new LevelGZIPOutputStream(result, level)) {
+            gzip.write(data, 0, length);
+        }
+        return result.toByteArray();
+    }
+
+    private static final class LevelGZIPOutputStream extends GZIPOutputStream {
+        LevelGZIPOutputStream(final OutputStream out, final int level) throws IOException {
+            super(out, COMPRESSED_BUF_SIZE);
+            def.setLevel(level);
+        }
+    }
+}
@@ -16,11 +16,14 @@
  */
 package org.apache.logging.log4j.core.appender.routing;
 
+import java.util.Collections;
 import java.util.Map.Entry;
+import java.util.PriorityQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.logging.log4j.core.AbstractLifeCycle;
 import org.apache.logging.log4j.core.Core;
@@ -35,21 +38,92 @@ import org.apache.logging.log4j.core.config.plugins.PluginFactory;
 
 /**
  * Policy is purging appenders that were not in use specified time in minutes
+ * <p>
+ * If {@code maxRoutes} is set, the least recently used appenders are also purged as soon as there are more than
+ * {@code maxRoutes} of them. Appenders are stopped on the scheduler thread, at most {@value #PURGE_BATCH_SIZE} per
+ * scheduled run, so that purging many appenders does not stall the scheduler.
+ * </p>
  */
 @Plugin(name = "IdlePurgePolicy", category = Core.CATEGORY_NAME, printObject = true)
 @Scheduled
 public class IdlePurgePolicy extends AbstractLifeCycle implements PurgePolicy, Runnable {
 
+    /** Maximum number of appenders stopped by one scheduled run of the policy. */
+    static final int PURGE_BATCH_SIZE = 32;
+
+    /** Delay before the next run when a run left appenders to purge. */
+    private static final long BATCH_DELAY_MILLIS = 10;
+
+    /** Returned by {@link #purgeIdle()} when idle appenders remain to be purged. */
+    private static final long MORE_IDLE = Long.MIN_VALUE;
+
     private final long timeToLive;
     private final long checkInterval;
-    private final ConcurrentMap<String, Long> appendersUsage = new ConcurrentHashMap<>();
+    private final int maxRoutes;
+    private final ConcurrentMap<String, Usage> appendersUsage = new ConcurrentHashMap<>();
     private RoutingAppender routingAppender;
     private final ConfigurationScheduler scheduler;
     private volatile ScheduledFuture<?> future;
+    private final AtomicBoolean evictionScheduled = new AtomicBoolean();
+    private final Runnable evictionTask = new Runnable() {
+        @Override
+        public void run() {
+            evictionScheduled.set(false);
+            if (evictLeastRecentlyUsed()) {
+                scheduleEviction(BATCH_DELAY_MILLIS);
+            }
+        }
+    };
+
+    /**
+     * The last time a route was used, updated in place so that routing an event does not allocate.
+     */
+    private static final class Usage {
+        volatile long lastUsed;
+
+        Usage(final long lastUsed) {
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    /**
+     * A route and its last use time when the eviction started, since use times change while selecting.
+     */
+    private static final class Candidate implements Comparable<Candidate> {
+        final String key;
+        final Usage usage;
+        final long lastUsed;
+
+        Candidate(final String key, final Usage usage, final long lastUsed) {
+            this.key = key;
+            this.usage = usage;
+            this.lastUsed = lastUsed;
+        }
+
+        @Override
+        public int compareTo(final Candidate other) {
+            return Long.compare(lastUsed, other.lastUsed);
+        }
+    }
 
     public IdlePurgePolicy(final long timeToLive, final long checkInterval, final ConfigurationScheduler scheduler) {
+        this(timeToLive, checkInterval, 0, scheduler);
+    }
+
+    /**
+     * Constructs a policy that also bounds the number of routes.
+     *
+     * @param timeToLive the number of milliseconds after which an unused appender is purged
+     * @param checkInterval the number of milliseconds between two checks when there are no appenders
+     * @param maxRoutes the maximum number of appenders to keep, or 0 for no limit
+     * @param scheduler the scheduler that runs the policy
+     * @since 2.14.0
+     */
+    public IdlePurgePolicy(final long timeToLive, final long checkInterval, final int maxRoutes,
+            final ConfigurationScheduler scheduler) {
         this.timeToLive = timeToLive;
         this.checkInterval = checkInterval;
+        this.maxRoutes = maxRoutes;
         this.scheduler = scheduler;
     }
 
@@ -71,48 +145,110 @@ public class IdlePurgePolicy extends AbstractLifeCycle implements PurgePolicy, R
      */
     @Override
     public void purge() {
+        purgeIdle(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Purges at most the specified number of appenders that were not in use for the time to live.
+     *
+     * @param limit the maximum number of appenders to purge
+     * @return {@link #MORE_IDLE} if more idle appenders remain, otherwise the oldest last use time of the remaining
+     *         appenders, or {@code Long.MAX_VALUE} if there are none
+     */
+    private long purgeIdle(final int limit) {
         final long createTime = System.currentTimeMillis() - timeToLive;
-        for (final Entry<String, Long> entry : appendersUsage.entrySet()) {
-            long entryValue = entry.getValue();
-            if (entryValue < createTime) {
-                if (appendersUsage.remove(entry.getKey(), entryValue)) {
-                    LOGGER.debug("Removing appender {}", entry.getKey());
-                    routingAppender.deleteAppender(entry.getKey());
+        long oldest = Long.MAX_VALUE;
+        int purged = 0;
+        for (final Entry<String, Usage> entry : appendersUsage.entrySet()) {
+            final long lastUsed = entry.getValue().lastUsed;
+            if (lastUsed < createTime) {
+                if (purged == limit) {
+                    return MORE_IDLE;
+                }
+                if (remove(entry.getKey(), entry.getValue())) {
+                    purged++;
                 }
+            } else if (lastUsed < oldest) {
+                oldest = lastUsed;
             }
         }
+        return oldest;
+    }
+
+    /**
+     * Purges at most {@link #PURGE_BATCH_SIZE} of the least recently used appenders while there are more than
+     * {@code maxRoutes}.
+     *
+     * @return whether more appenders remain to be purged
+     */
+    boolean evictLeastRecentlyUsed() {
+        final int excess = appendersUsage.size() - maxRoutes;
+        if (maxRoutes <= 0 || excess <= 0) {
+            return false;
+        }
+        final int count = Math.min(excess, PURGE_BATCH_SIZE);
+        // the least recently used routes seen so far, the most recently used of them first
+        final PriorityQueue<Candidate> oldest = new PriorityQueue<>(count, Collections.<Candidate>reverseOrder());
+        for (final Entry<String, Usage> entry : appendersUsage.entrySet()) {
+            final long lastUsed = entry.getValue().lastUsed;
+            if (oldest.size() < count) {
+                oldest.add(new Candidate(entry.getKey(), entry.getValue(), lastUsed));
+            } else if (lastUsed < oldest.peek().lastUsed) {
+                oldest.poll();
+                oldest.add(new Candidate(entry.getKey(), entry.getValue(), lastUsed));
+            }
+        }
+        for (final Candidate candidate : oldest) {
+            remove(candidate.key, candidate.usage);
+        }
+        return excess > count;
+    }
+
+    private boolean remove(final String key, final Usage usage) {
+        if (appendersUsage.remove(key, usage)) {
+            LOGGER.debug("Removing appender {}", key);
+            routingAppender.deleteAppender(key);
+            return true;
+        }
+        return false;
     }
 
     @Override
     public void update(final String key, final LogEvent event) {
         final long now = System.currentTimeMillis();
-        appendersUsage.put(key, now);
+        final Usage usage = appendersUsage.get(key);
+        if (usage != null) {
+            usage.lastUsed = now;
+        } else if (appendersUsage.putIfAbsent(key, new Usage(now)) == null
+                && maxRoutes > 0 && appendersUsage.size() > maxRoutes) {
+            scheduleEviction(0);
+        }
         if (future == null) {
             synchronized (this) {
                 if (future == null) {
-                    scheduleNext();
+                    scheduleNext(now);
                 }
             }
         }
 
     }
 
+    private void scheduleEviction(final long delayMillis) {
+        if (evictionScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(evictionTask, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
     @Override
     public void run() {
-        purge();
-        scheduleNext();
+        scheduleNext(purgeIdle(PURGE_BATCH_SIZE));
     }
 
-    private void scheduleNext() {
-        long updateTime = Long.MAX_VALUE;
-        for (final Entry<String, Long> entry : appendersUsage.entrySet()) {
-            if (entry.getValue() < updateTime) {
-                updateTime = entry.getValue();
-            }
-        }
-
-        if (updateTime < Long.MAX_VALUE) {
-            final long interval = timeToLive - (System.currentTimeMillis() - updateTime);
+    private void scheduleNext(final long oldestUse) {
+        if (oldestUse == MORE_IDLE) {
+            future = scheduler.schedule(this, BATCH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        } else if (oldestUse < Long.MAX_VALUE) {
+            final long interval = timeToLive - (System.currentTimeMillis() - oldestUse);
             future = scheduler.schedule(this, interval, TimeUnit.MILLISECONDS);
         } else {
             // reset to initial state - in case of all appenders already purged
@@ -128,11 +264,28 @@ public class IdlePurgePolicy extends AbstractLifeCycle implements PurgePolicy, R
      * @param timeUnit      the unit of time the timeToLive and the checkInterval is expressed in.
      * @return The Routes container.
      */
+    public static PurgePolicy createPurgePolicy(final String timeToLive, final String checkInterval,
+            final String timeUnit, final Configuration configuration) {
+        return createPurgePolicy(timeToLive, checkInterval, timeUnit, null, configuration);
+    }
+
+    /**
+     * Create the PurgePolicy
+     *
+     * @param timeToLive    the number of increments of timeUnit before the Appender should be purged.
+     * @param checkInterval when all appenders purged, the number of increments of timeUnit to check if any appenders
+     *                      appeared
+     * @param timeUnit      the unit of time the timeToLive and the checkInterval is expressed in.
+     * @param maxRoutes     the maximum number of appenders to keep, the least recently used are purged first.
+     * @return The Routes container.
+     * @since 2.14.0
+     */
     @PluginFactory
     public static PurgePolicy createPurgePolicy(
         @PluginAttribute("timeToLive") final String timeToLive,
         @PluginAttribute("checkInterval") final String checkInterval,
         @PluginAttribute("timeUnit") final String timeUnit,
+        @PluginAttribute("maxRoutes") final String maxRoutes,
         @PluginConfiguration final Configuration configuration) {
 
         if (timeToLive == null) {
@@ -168,12 +321,21 @@ public class IdlePurgePolicy extends AbstractLifeCycle implements PurgePolicy, R
             }
         }
 
-        return new IdlePurgePolicy(ttl, ci, configuration.getScheduler());
+        int max = 0;
+        if (maxRoutes != null) {
+            max = Integer.parseInt(maxRoutes);
+            if (max < 0) {
+                LOGGER.error("maxRoutes must be positive. maxRoutes set to 0 (no limit)");
+                max = 0;
+            }
+        }
+
+        return new IdlePurgePolicy(ttl, ci, max, configuration.getScheduler());
     }
 
     @Override
     public String toString() {
-        return "timeToLive=" + timeToLive;
+        return maxRoutes > 0 ? "timeToLive=" + timeToLive + ", maxRoutes=" + maxRoutes : "timeToLive=" + timeToLive;
     }
 
 }
@@ -23,6 +23,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.script.Bindings;
 
@@ -40,6 +41,7 @@ import org.apache.logging.log4j.core.config.Property;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
 import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
 import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.lookup.StrTemplate;
 import org.apache.logging.log4j.core.script.AbstractScript;
 import org.apache.logging.log4j.core.script.ScriptManager;
 import org.apache.logging.log4j.core.util.Booleans;
@@ -51,6 +53,11 @@ import org.apache.logging.log4j.core.util.Booleans;
  * the Routing appender declaration. The pattern should contain one or more substitution patterns of
  * the form "$${[key:]token}". The pattern will be resolved each time the Appender is called using
  * the built in StrSubstitutor and the StrLookup plugin that matches the specified key.
+ * <p>
+ * Events for routes whose appender already exists are appended without locking. Appenders for new routes are created
+ * while holding one of a fixed number of locks selected by the hash of the route key, so routes with different keys
+ * are usually created concurrently.
+ * </p>
  */
 @Plugin(name = "Routing", category = Core.CATEGORY_NAME, elementType = Appender.ELEMENT_TYPE, printObject = true)
 public final class RoutingAppender extends AbstractAppender {
@@ -132,6 +139,9 @@ public final class RoutingAppender extends AbstractAppender {
 
     private static final String DEFAULT_KEY = "ROUTING_APPENDER_DEFAULT";
 
+    /** Number of locks that serialize the creation of appenders for the same route key, a power of 2. */
+    private static final int ROUTE_LOCK_COUNT = 64;
+
     private final Routes routes;
     private Route defaultRoute;
     private final Configuration configuration;
@@ -143,6 +153,10 @@ public final class RoutingAppender extends AbstractAppender {
     private final PurgePolicy purgePolicy;
     private final AbstractScript defaultRouteScript;
     private final ConcurrentMap<Object, Object> scriptStaticVariables = new ConcurrentHashMap<>();
+    private volatile StrTemplate patternTemplate;
+    private final Object[] routeLocks = new Object[ROUTE_LOCK_COUNT];
+    private final AtomicLong routeCreationCount = new AtomicLong();
+    private final AtomicLong routeEvictionCount = new AtomicLong();
 
     private RoutingAppender(final String name, final Filter filter, final boolean ignoreExceptions, final Routes routes,
             final RewritePolicy rewritePolicy, final Configuration configuration, final PurgePolicy purgePolicy,
@@ -156,6 +170,9 @@ public final class RoutingAppender extends AbstractAppender {
             this.purgePolicy.initialize(this);
         }
         this.defaultRouteScript = defaultRouteScript;
+        for (int i = 0; i < routeLocks.length; i++) {
+            routeLocks[i] = new Object();
+        }
         Route defRoute = null;
         for (final Route route : routes.getRoutes()) {
             if (route.getKey() == null) {
@@ -224,7 +241,7 @@ public final class RoutingAppender extends AbstractAppender {
             event = rewritePolicy.rewrite(event);
         }
         final String pattern = routes.getPattern(event, scriptStaticVariables);
-        final String key = pattern != null ? configuration.getStrSubstitutor().replace(event, pattern) :
+        final String key = pattern != null ? getPatternTemplate(pattern).format(event) :
                 defaultRoute.getKey() != null ? defaultRoute.getKey() : DEFAULT_KEY;
         final RouteAppenderControl control = getControl(key, event);
         if (control != null) {
@@ -237,6 +254,18 @@ public final class RoutingAppender extends AbstractAppender {
         updatePurgePolicy(key, event);
     }
 
+    /**
+     * Returns the pattern parsed into a template, which is only parsed again if a script returns another pattern.
+     */
+    private StrTemplate getPatternTemplate(final String pattern) {
+        StrTemplate template = patternTemplate;
+        if (template == null || !template.getSource().equals(pattern)) {
+            template = configuration.getStrSubstitutor().compile(pattern);
+            patternTemplate = template;
+        }
+        return template;
+    }
+
     private void updatePurgePolicy(final String key, final LogEvent event) {
         if (purgePolicy != null
                 // LOG4J2-2631: PurgePolicy implementations do not need to be aware of appenders that
@@ -246,10 +275,21 @@ public final class RoutingAppender extends AbstractAppender {
         }
     }
 
-    private synchronized RouteAppenderControl getControl(final String key, final LogEvent event) {
+    private RouteAppenderControl getControl(final String key, final LogEvent event) {
+        final RouteAppenderControl control = getAppender(key);
+        if (control != null && control.checkout()) {
+            return control;
+        }
+        // the appender does not exist yet or is being deleted
+        final int hash = key.hashCode();
+        synchronized (routeLocks[(hash ^ (hash >>> 16)) & (ROUTE_LOCK_COUNT - 1)]) {
+            return createControl(key, event);
+        }
+    }
+
+    private RouteAppenderControl createControl(final String key, final LogEvent event) {
         RouteAppenderControl control = getAppender(key);
-        if (control != null) {
-            control.checkout();
+        if (control != null && control.checkout()) {
             return control;
         }
         Route route = null;
@@ -262,8 +302,7 @@ public final class RoutingAppender extends AbstractAppender {
         if (route == null) {
             route = defaultRoute;
             control = getAppender(DEFAULT_KEY);
-            if (control != null) {
-                control.checkout();
+            if (control != null && control.checkout()) {
                 return control;
             }
         }
@@ -272,15 +311,13 @@ public final class RoutingAppender extends AbstractAppender {
             if (app == null) {
                 return null;
             }
-            CreatedRouteAppenderControl created = new CreatedRouteAppenderControl(app);
-            control = created;
+            final CreatedRouteAppenderControl created = new CreatedRouteAppenderControl(app);
+            created.checkout();
             createdAppenders.put(key, created);
+            routeCreationCount.incrementAndGet();
+            return created;
         }
-
-        if (control != null) {
-            control.checkout();
-        }
-        return control;
+        return null;
     }
 
     private RouteAppenderControl getAppender(final String key) {
@@ -318,6 +355,36 @@ public final class RoutingAppender extends AbstractAppender {
         return createdAppendersUnmodifiableView;
     }
 
+    /**
+     * Returns the number of appenders created by this {@link RoutingAppender} that have not been deleted.
+     *
+     * @return the number of created routes
+     * @since 2.14.0
+     */
+    public int getRouteCount() {
+        return createdAppenders.size();
+    }
+
+    /**
+     * Returns how many appenders this {@link RoutingAppender} created for its routes.
+     *
+     * @return the number of created appenders
+     * @since 2.14.0
+     */
+    public long getRouteCreationCount() {
+        return routeCreationCount.get();
+    }
+
+    /**
+     * Returns how many created appenders were deleted, by a {@link PurgePolicy} or by {@link #deleteAppender(String)}.
+     *
+     * @return the number of deleted appenders
+     * @since 2.14.0
+     */
+    public long getRouteEvictionCount() {
+        return routeEvictionCount.get();
+    }
+
     /**
      * Deletes the specified appender.
      *
@@ -329,13 +396,10 @@ public final class RoutingAppender extends AbstractAppender {
         final CreatedRouteAppenderControl control = createdAppenders.remove(key);
         if (null != control) {
             LOGGER.debug("Stopping route with {} key", key);
-            // Synchronize with getControl to avoid triggering stopAppender before RouteAppenderControl.checkout
-            // can be invoked.
-            synchronized (this) {
-                control.pendingDeletion = true;
-            }
-            // Don't attempt to stop the appender in a synchronized block, since it may block flushing events
-            // to disk.
+            routeEvictionCount.incrementAndGet();
+            // getControl may still check out the control it found before the removal: the appender is stopped when
+            // the last event checked out is appended, and checkouts fail once it is stopped.
+            control.pendingDeletion = true;
             control.tryStopAppender();
         } else {
             if (referencedAppenders.containsKey(key)) {
@@ -428,7 +492,12 @@ public final class RoutingAppender extends AbstractAppender {
             super(appender, null, null);
         }
 
-        abstract void checkout();
+        /**
+         * Marks the appender as in use.
+         *
+         * @return {@code false} if the appender was stopped because it was deleted
+         */
+        abstract boolean checkout();
 
         abstract void release();
     }
@@ -443,12 +512,16 @@ public final class RoutingAppender extends AbstractAppender {
         }
 
         @Override
-        void checkout() {
-            if (pendingDeletion) {
-                LOGGER.warn("CreatedRouteAppenderControl.checkout invoked on a " +
-                        "RouteAppenderControl that is pending deletion");
+        boolean checkout() {
+            for (;;) {
+                final int current = depth.get();
+                if (current < 0) {
+                    return false;
+                }
+                if (depth.compareAndSet(current, current + 1)) {
+                    return true;
+                }
             }
-            depth.incrementAndGet();
         }
 
         @Override
@@ -477,8 +550,8 @@ public final class RoutingAppender extends AbstractAppender {
         }
 
         @Override
-        void checkout() {
-            // nop
+        boolean checkout() {
+            return true;
         }
 
         @Override
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.lmax.disruptor.AlertException;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.util.ThreadHints;
+
+/**
+ * Wait strategy for the background thread that spins, then yields, then parks, and tunes how long it spins and
+ * yields from the gaps it observes between log events.
+ * <p>
+ * Every time the background thread has to wait for a new event, the time it waited is added to an exponentially
+ * weighted moving average. When events arrive in quick succession the strategy spins, so that the next event is
+ * picked up without a context switch. When events arrive further apart than a yield can bridge, spinning and yielding
+ * only burn CPU, so the strategy parks almost immediately. The park time doubles up to the configured maximum,
+ * and a parked background thread is unparked by {@link #signalAllWhenBlocking()} when an event is published.
+ * </p>
+ * <p>
+ * The Disruptor calls {@link #waitFor(long, Sequence, Sequence, SequenceBarrier)} only from the single background
+ * thread of the async logger, so the tuning state is not shared between threads.
+ * </p>
+ */
+final class AdaptiveWaitStrategy implements WaitStrategy {
+
+    /** Gaps up to this many nanoseconds are bridged by spinning. */
+    static final long SPIN_THRESHOLD_NANOS = 10_000L;
+
+    /** Gaps up to this many nanoseconds are bridged by yielding. */
+    static final long YIELD_THRESHOLD_NANOS = 1_000_000L;
+
+    static final int MAX_SPIN_TRIES = 1000;
+    static final int MIN_SPIN_TRIES = 10;
+    static final int MAX_YIELD_TRIES = 100;
+    static final int MIN_YIELD_TRIES = 1;
+
+    private static final long MIN_PARK_NANOS = 1_000L;
+
+    /** Weight of a new sample in the moving average, as a right shift: 1/8. */
+    private static final int AVERAGE_SHIFT = 3;
+
+    private final long maxParkNanos;
+
+    private volatile Thread parkedThread;
+
+    private long averageWaitNanos = SPIN_THRESHOLD_NANOS;
+    private int spinTries = MAX_SPIN_TRIES;
+    private int yieldTries = MAX_YIELD_TRIES;
+
+    /**
+     * Constructs a wait strategy.
+     *
+     * @param maxParkTime the longest time to park the background thread while waiting for an event
+     * @param timeUnit the unit of {@code maxParkTime}
+     */
+    AdaptiveWaitStrategy(final long maxParkTime, final TimeUnit timeUnit) {
+        this.maxParkNanos = Math.max(MIN_PARK_NANOS, timeUnit.toNanos(maxParkTime));
+    }
+
+    @Override
+    public long waitFor(final long sequence, final Sequence cursor, final Sequence dependentSequence,
+            final SequenceBarrier barrier) throws AlertException, InterruptedException {
+        long availableSequence = dependentSequence.get();
+        if (availableSequence >= sequence) {
+            // there is a backlog: the next wait is likely to be short
+            tune(0);
+            return availableSequence;
+        }
+        final long start = System.nanoTime();
+        int spins = spinTries;
+        int yields = yieldTries;
+        long parkNanos = MIN_PARK_NANOS;
+        while ((availableSequence = dependentSequence.get()) < sequence) {
+            barrier.checkAlert();
+            if (spins > 0) {
+                spins--;
+                ThreadHints.onSpinWait();
+            } else if (yields > 0) {
+                yields--;
+                Thread.yield();
+            } else {
+                park(parkNanos);
+                parkNanos = Math.min(parkNanos << 1, maxParkNanos);
+            }
+        }
+        tune(System.nanoTime() - start);
+        return availableSequence;
+    }
+
+    private void park(final long nanos) throws InterruptedException {
+        parkedThread = Thread.currentThread();
+        LockSupport.parkNanos(this, nanos);
+        parkedThread = null;
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+        final Thread thread = parkedThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Adds the specified wait time to the moving average and derives the spin and yield budgets from it.
+     */
+    void tune(final long waitNanos) {
+        averageWaitNanos += (waitNanos - averageWaitNanos) >> AVERAGE_SHIFT;
+        if (averageWaitNanos <= SPIN_THRESHOLD_NANOS) {
+            spinTries = MAX_SPIN_TRIES;
+            yieldTries = MAX_YIELD_TRIES;
+        } else if (averageWaitNanos <= YIELD_THRESHOLD_NANOS) {
+            spinTries = MIN_SPIN_TRIES;
+            yieldTries = MAX_YIELD_TRIES;
+        } else {
+            spinTries = MIN_SPIN_TRIES;
+            yieldTries = MIN_YIELD_TRIES;
+        }
+    }
+
+    long getAverageWaitNanos() {
+        return averageWaitNanos;
+    }
+
+    int getSpinTries() {
+        return spinTries;
+    }
+
+    int getYieldTries() {
+        return yieldTries;
+    }
+
+    long getMaxParkNanos() {
+        return maxParkNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveWaitStrategy[averageWaitNanos=" + averageWaitNanos + ", spinTries=" + spinTries
+                + ", yieldTries=" + yieldTries + ", maxParkNanos=" + maxParkNanos + "]";
+    }
+}
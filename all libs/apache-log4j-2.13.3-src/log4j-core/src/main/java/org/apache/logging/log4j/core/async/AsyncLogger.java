@@ -105,11 +105,23 @@ public class AsyncLogger extends Logger implements EventTranslatorVararg<RingBuf
      */
     @Override
     protected void updateConfiguration(final Configuration newConfig) {
-        nanoClock = newConfig.getNanoClock();
-        includeLocation = newConfig.getLoggerConfig(name).isIncludeLocation();
+        // the state of this logger is refreshed by updateConfiguration(Configuration, LoggerConfig)
         super.updateConfiguration(newConfig);
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.apache.logging.log4j.core.Logger#updateConfiguration(org.apache.logging.log4j.core.config.Configuration,
+     * org.apache.logging.log4j.core.config.LoggerConfig)
+     */
+    @Override
+    protected void updateConfiguration(final Configuration newConfig, final LoggerConfig loggerConfig) {
+        nanoClock = newConfig.getNanoClock();
+        includeLocation = loggerConfig.isIncludeLocation();
+        super.updateConfiguration(newConfig, loggerConfig);
+    }
+
     // package protected for unit tests
     NanoClock getNanoClock() {
         return nanoClock;
@@ -226,6 +238,10 @@ public class AsyncLogger extends Logger implements EventTranslatorVararg<RingBuf
     }
 
     private void publish(final RingBufferLogEventTranslator translator) {
+        if (loggerDisruptor.isShedding(translator.loggerName, translator.level)) {
+            translator.clear();
+            return;
+        }
         if (!loggerDisruptor.tryPublish(translator)) {
             handleRingBufferFull(translator);
         }
@@ -333,13 +349,18 @@ public class AsyncLogger extends Logger implements EventTranslatorVararg<RingBuf
             LOGGER.error("Ignoring log event after Log4j has been shut down.");
             return;
         }
+        if (loggerDisruptor.isShedding(getName(), level)) {
+            return;
+        }
         // if the Message instance is reused, there is no point in freezing its message here
         if (!isReused(message)) {
             InternalAsyncUtil.makeMessageImmutable(message);
         }
         StackTraceElement location = null;
+        final ProducerStatistics producerStatistics = loggerDisruptor.getProducerStatistics();
+        final long start = producerStatistics.enqueueStarted();
         // calls the translateTo method on this AsyncLogger
-        if (!disruptor.getRingBuffer().tryPublishEvent(this,
+        if (disruptor.getRingBuffer().tryPublishEvent(this,
                 this, // asyncLogger: 0
                 (location = calcLocationIfRequested(fqcn)), // location: 1
                 fqcn, // 2
@@ -347,6 +368,9 @@ public class AsyncLogger extends Logger implements EventTranslatorVararg<RingBuf
                 marker, // 4
                 message, // 5
                 thrown)) { // 6
+            producerStatistics.enqueueFinished(start);
+        } else {
+            producerStatistics.queueFull();
             handleRingBufferFull(location, fqcn, level, marker, message, thrown);
         }
     }
@@ -373,12 +397,17 @@ public class AsyncLogger extends Logger implements EventTranslatorVararg<RingBuf
             LOGGER.error("Ignoring log event after Log4j has been shut down.");
             return;
         }
+        if (loggerDisruptor.isShedding(getName(), level)) {
+            return;
+        }
         // if the Message instance is reused, there is no point in freezing its message here
         if (!isReused(message)) {
             InternalAsyncUtil.makeMessageImmutable(message);
         }
+        final ProducerStatistics producerStatistics = loggerDisruptor.getProducerStatistics();
+        final long start = producerStatistics.enqueueStarted();
         // calls the translateTo method on this AsyncLogger
-        if (!disruptor.getRingBuffer().tryPublishEvent(this,
+        if (disruptor.getRingBuffer().tryPublishEvent(this,
             this, // asyncLogger: 0
             location, // location: 1
             fqcn, // 2
@@ -386,6 +415,9 @@ public class AsyncLogger extends Logger implements EventTranslatorVararg<RingBuf
             marker, // 4
             message, // 5
             thrown)) { // 6
+            producerStatistics.enqueueFinished(start);
+        } else {
+            producerStatistics.queueFull();
             handleRingBufferFull(location, fqcn, level, marker, message, thrown);
         }
     }
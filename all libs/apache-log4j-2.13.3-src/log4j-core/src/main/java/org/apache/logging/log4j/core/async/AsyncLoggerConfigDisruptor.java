@@ -178,6 +178,7 @@ public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements Asy
 
     private int ringBufferSize;
     private AsyncQueueFullPolicy asyncQueueFullPolicy;
+    private PriorityAsyncQueueFullPolicy priorityQueueFullPolicy;
     private Boolean mutable = Boolean.FALSE;
 
     private volatile Disruptor<Log4jEventWrapper> disruptor;
@@ -187,6 +188,8 @@ public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements Asy
     private volatile boolean alreadyLoggedWarning = false;
 
     private final Object queueFullEnqueueLock = new Object();
+    private final ProducerStatistics producerStatistics =
+            DisruptorUtil.createProducerStatistics("AsyncLoggerConfig.ProducerStatistics");
 
     public AsyncLoggerConfigDisruptor() {
     }
@@ -225,6 +228,9 @@ public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements Asy
             }
         };
         asyncQueueFullPolicy = AsyncQueueFullPolicyFactory.create();
+        priorityQueueFullPolicy = asyncQueueFullPolicy instanceof PriorityAsyncQueueFullPolicy
+                ? (PriorityAsyncQueueFullPolicy) asyncQueueFullPolicy
+                : null;
 
         translator = mutable ? MUTABLE_TRANSLATOR : TRANSLATOR;
         factory = mutable ? MUTABLE_FACTORY : FACTORY;
@@ -371,6 +377,7 @@ public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements Asy
     }
 
     private void enqueue(final LogEvent logEvent, final AsyncLoggerConfig asyncLoggerConfig) {
+        final long start = producerStatistics.enqueueStarted();
         if (synchronizeEnqueueWhenQueueFull()) {
             synchronized (queueFullEnqueueLock) {
                 disruptor.getRingBuffer().publishEvent(translator, logEvent, asyncLoggerConfig);
@@ -378,6 +385,7 @@ public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements Asy
         } else {
             disruptor.getRingBuffer().publishEvent(translator, logEvent, asyncLoggerConfig);
         }
+        producerStatistics.enqueueFinished(start);
     }
 
     private boolean synchronizeEnqueueWhenQueueFull() {
@@ -388,8 +396,19 @@ public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements Asy
 
     @Override
     public boolean tryEnqueue(final LogEvent event, final AsyncLoggerConfig asyncLoggerConfig) {
+        final PriorityAsyncQueueFullPolicy policy = priorityQueueFullPolicy;
+        if (policy != null && policy.shed(event.getLoggerName(), event.getLevel(),
+                disruptor.getRingBuffer().remainingCapacity(), ringBufferSize)) {
+            return true; // discarded as if the event had been enqueued
+        }
         final LogEvent logEvent = prepareEvent(event);
-        return disruptor.getRingBuffer().tryPublishEvent(translator, logEvent, asyncLoggerConfig);
+        final long start = producerStatistics.enqueueStarted();
+        if (disruptor.getRingBuffer().tryPublishEvent(translator, logEvent, asyncLoggerConfig)) {
+            producerStatistics.enqueueFinished(start);
+            return true;
+        }
+        producerStatistics.queueFull();
+        return false;
     }
 
     private LogEvent ensureImmutable(final LogEvent event) {
@@ -414,6 +433,7 @@ public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements Asy
      */
     @Override
     public RingBufferAdmin createRingBufferAdmin(final String contextName, final String loggerConfigName) {
-        return RingBufferAdmin.forAsyncLoggerConfig(disruptor.getRingBuffer(), contextName, loggerConfigName);
+        return RingBufferAdmin.forAsyncLoggerConfig(disruptor.getRingBuffer(), contextName, loggerConfigName,
+                producerStatistics, asyncQueueFullPolicy);
     }
 }
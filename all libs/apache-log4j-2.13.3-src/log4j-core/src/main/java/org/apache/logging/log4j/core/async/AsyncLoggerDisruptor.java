@@ -47,6 +47,8 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
     private static final int MAX_DRAIN_ATTEMPTS_BEFORE_SHUTDOWN = 200;
 
     private final Object queueFullEnqueueLock = new Object();
+    private final ProducerStatistics producerStatistics =
+            DisruptorUtil.createProducerStatistics("AsyncLogger.ProducerStatistics");
 
     private volatile Disruptor<RingBufferLogEvent> disruptor;
     private String contextName;
@@ -54,6 +56,7 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
     private boolean useThreadLocalTranslator = true;
     private long backgroundThreadId;
     private AsyncQueueFullPolicy asyncQueueFullPolicy;
+    private PriorityAsyncQueueFullPolicy priorityQueueFullPolicy;
     private int ringBufferSize;
 
     AsyncLoggerDisruptor(final String contextName) {
@@ -72,6 +75,10 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
         return disruptor;
     }
 
+    ProducerStatistics getProducerStatistics() {
+        return producerStatistics;
+    }
+
     /**
      * Creates and starts a new Disruptor and associated thread if none currently exists.
      *
@@ -98,6 +105,9 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
             }
         };
         asyncQueueFullPolicy = AsyncQueueFullPolicyFactory.create();
+        priorityQueueFullPolicy = asyncQueueFullPolicy instanceof PriorityAsyncQueueFullPolicy
+                ? (PriorityAsyncQueueFullPolicy) asyncQueueFullPolicy
+                : null;
 
         disruptor = new Disruptor<>(RingBufferLogEvent.FACTORY, ringBufferSize, threadFactory, ProducerType.MULTI,
                 waitStrategy);
@@ -178,7 +188,7 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
      */
     public RingBufferAdmin createRingBufferAdmin(final String jmxContextName) {
         final RingBuffer<RingBufferLogEvent> ring = disruptor == null ? null : disruptor.getRingBuffer();
-        return RingBufferAdmin.forAsyncLogger(ring, jmxContextName);
+        return RingBufferAdmin.forAsyncLogger(ring, jmxContextName, producerStatistics, asyncQueueFullPolicy);
     }
 
     EventRoute getEventRoute(final Level logLevel) {
@@ -189,6 +199,17 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
         return asyncQueueFullPolicy.getRoute(backgroundThreadId, logLevel);
     }
 
+    /**
+     * Returns whether an event should be discarded before it is enqueued because the ring buffer is filling up and the
+     * {@link PriorityAsyncQueueFullPolicy} sheds events of this level.
+     */
+    boolean isShedding(final String loggerName, final Level level) {
+        final PriorityAsyncQueueFullPolicy policy = priorityQueueFullPolicy;
+        final Disruptor<RingBufferLogEvent> temp = disruptor;
+        return policy != null && temp != null
+                && policy.shed(loggerName, level, temp.getRingBuffer().remainingCapacity(), ringBufferSize);
+    }
+
     private int remainingDisruptorCapacity() {
         final Disruptor<RingBufferLogEvent> temp = disruptor;
         if (hasLog4jBeenShutDown(temp)) {
@@ -212,7 +233,13 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
             // Note: we deliberately access the volatile disruptor field afresh here.
             // Avoiding this and using an older reference could result in adding a log event to the disruptor after it
             // was shut down, which could cause the publishEvent method to hang and never return.
-            return disruptor.getRingBuffer().tryPublishEvent(translator);
+            final long start = producerStatistics.enqueueStarted();
+            if (disruptor.getRingBuffer().tryPublishEvent(translator)) {
+                producerStatistics.enqueueFinished(start);
+                return true;
+            }
+            producerStatistics.queueFull();
+            return false;
         } catch (final NullPointerException npe) {
             // LOG4J2-639: catch NPE if disruptor field was set to null in stop()
             logWarningOnNpeFromDisruptorPublish(translator);
@@ -225,6 +252,7 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
             // Note: we deliberately access the volatile disruptor field afresh here.
             // Avoiding this and using an older reference could result in adding a log event to the disruptor after it
             // was shut down, which could cause the publishEvent method to hang and never return.
+            final long start = producerStatistics.enqueueStarted();
             if (synchronizeEnqueueWhenQueueFull()) {
                 synchronized (queueFullEnqueueLock) {
                     disruptor.publishEvent(translator);
@@ -232,6 +260,7 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
             } else {
                 disruptor.publishEvent(translator);
             }
+            producerStatistics.enqueueFinished(start);
         } catch (final NullPointerException npe) {
             // LOG4J2-639: catch NPE if disruptor field was set to null in stop()
             logWarningOnNpeFromDisruptorPublish(translator);
@@ -251,6 +280,7 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
             // Note: we deliberately access the volatile disruptor field afresh here.
             // Avoiding this and using an older reference could result in adding a log event to the disruptor after it
             // was shut down, which could cause the publishEvent method to hang and never return.
+            final long start = producerStatistics.enqueueStarted();
             if (synchronizeEnqueueWhenQueueFull()) {
                 synchronized (queueFullEnqueueLock) {
                     disruptor.getRingBuffer().publishEvent(translator,
@@ -272,6 +302,7 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
                         msg, // 5
                         thrown); // 6
             }
+            producerStatistics.enqueueFinished(start);
         } catch (final NullPointerException npe) {
             // LOG4J2-639: catch NPE if disruptor field was set to null in stop()
             logWarningOnNpeFromDisruptorPublish(level, fqcn, msg, thrown);
@@ -35,6 +35,12 @@ import org.apache.logging.log4j.util.PropertiesUtil;
  * This can be adjusted with property {@code "log4j2.DiscardThreshold"} (name of the level at which to start
  * discarding).
  * </p> <p>
+ * If this property has value {@code "Priority"}, this factory creates {@link PriorityAsyncQueueFullPolicy} objects.
+ * By default, this router never discards events of level {@code ERROR} and {@code FATAL}, reserves 10% of the queue
+ * for them, and starts discarding {@code TRACE} events when the queue is half full. This can be adjusted with
+ * properties {@code "log4j2.PriorityReservedLevel"}, {@code "log4j2.PriorityReservedRatio"},
+ * {@code "log4j2.PriorityShedRatio"} and {@code "log4j2.PrioritySummaryIntervalMillis"}.
+ * </p> <p>
  * For any other value, this
  * factory interprets the value as the fully qualified name of a class implementing the {@link AsyncQueueFullPolicy}
  * interface. The class must have a default constructor.
@@ -47,6 +53,11 @@ public class AsyncQueueFullPolicyFactory {
     static final String PROPERTY_VALUE_DEFAULT_ASYNC_EVENT_ROUTER = "Default";
     static final String PROPERTY_VALUE_DISCARDING_ASYNC_EVENT_ROUTER = "Discard";
     static final String PROPERTY_NAME_DISCARDING_THRESHOLD_LEVEL = "log4j2.DiscardThreshold";
+    static final String PROPERTY_VALUE_PRIORITY_ASYNC_EVENT_ROUTER = "Priority";
+    static final String PROPERTY_NAME_PRIORITY_RESERVED_LEVEL = "log4j2.PriorityReservedLevel";
+    static final String PROPERTY_NAME_PRIORITY_RESERVED_RATIO = "log4j2.PriorityReservedRatio";
+    static final String PROPERTY_NAME_PRIORITY_SHED_RATIO = "log4j2.PriorityShedRatio";
+    static final String PROPERTY_NAME_PRIORITY_SUMMARY_INTERVAL = "log4j2.PrioritySummaryIntervalMillis";
 
     private static final Logger LOGGER = StatusLogger.getLogger();
 
@@ -58,6 +69,8 @@ public class AsyncQueueFullPolicyFactory {
      * </p> <p>
      * If this property has value {@code "Discard"}, this method returns {@link DiscardingAsyncQueueFullPolicy} objects.
      * </p> <p>
+     * If this property has value {@code "Priority"}, this method returns {@link PriorityAsyncQueueFullPolicy} objects.
+     * </p> <p>
      * For any other value, this method interprets the value as the fully qualified name of a class implementing the
      * {@link AsyncQueueFullPolicy} interface. The class must have a default constructor.
      * </p>
@@ -74,6 +87,10 @@ public class AsyncQueueFullPolicyFactory {
                 router, DiscardingAsyncQueueFullPolicy.class, PROPERTY_VALUE_DISCARDING_ASYNC_EVENT_ROUTER)) {
             return createDiscardingAsyncQueueFullPolicy();
         }
+        if (isRouterSelected(
+                router, PriorityAsyncQueueFullPolicy.class, PROPERTY_VALUE_PRIORITY_ASYNC_EVENT_ROUTER)) {
+            return createPriorityAsyncQueueFullPolicy();
+        }
         return createCustomRouter(router);
     }
 
@@ -105,4 +122,21 @@ public class AsyncQueueFullPolicyFactory {
         LOGGER.debug("Creating custom DiscardingAsyncQueueFullPolicy(discardThreshold:{})", thresholdLevel);
         return new DiscardingAsyncQueueFullPolicy(thresholdLevel);
     }
+
+    private static AsyncQueueFullPolicy createPriorityAsyncQueueFullPolicy() {
+        final PropertiesUtil util = PropertiesUtil.getProperties();
+        final String level = util.getStringProperty(PROPERTY_NAME_PRIORITY_RESERVED_LEVEL, Level.ERROR.name());
+        final Level reservedLevel = Level.toLevel(level, Level.ERROR);
+        final double reservedRatio = util.getDoubleProperty(PROPERTY_NAME_PRIORITY_RESERVED_RATIO, 0.1);
+        final double shedRatio = util.getDoubleProperty(PROPERTY_NAME_PRIORITY_SHED_RATIO, 0.5);
+        final long summaryIntervalMillis = util.getLongProperty(PROPERTY_NAME_PRIORITY_SUMMARY_INTERVAL, 10_000L);
+        LOGGER.debug("Creating custom PriorityAsyncQueueFullPolicy(reservedLevel:{}, reservedRatio:{}, shedRatio:{})",
+                reservedLevel, reservedRatio, shedRatio);
+        try {
+            return new PriorityAsyncQueueFullPolicy(reservedLevel, reservedRatio, shedRatio, summaryIntervalMillis);
+        } catch (final IllegalArgumentException ex) {
+            LOGGER.error("Using default PriorityAsyncQueueFullPolicy ratios: {}", ex.getMessage());
+            return new PriorityAsyncQueueFullPolicy(reservedLevel, 0.1, 0.5, summaryIntervalMillis);
+        }
+    }
 }
@@ -59,10 +59,20 @@ public class DiscardingAsyncQueueFullPolicy extends DefaultAsyncQueueFullPolicy
         return super.getRoute(backgroundThreadId, level);
     }
 
+    /**
+     * Returns the number of events discarded by the specified router if it is a
+     * {@code DiscardingAsyncQueueFullPolicy} or a {@link PriorityAsyncQueueFullPolicy}.
+     *
+     * @param router the queue full policy
+     * @return the number of discarded events, or zero
+     */
     public static long getDiscardCount(final AsyncQueueFullPolicy router) {
         if (router instanceof DiscardingAsyncQueueFullPolicy) {
             return ((DiscardingAsyncQueueFullPolicy) router).discardCount.get();
         }
+        if (router instanceof PriorityAsyncQueueFullPolicy) {
+            return ((PriorityAsyncQueueFullPolicy) router).getDiscardCount();
+        }
         return 0;
     }
 
@@ -87,11 +87,19 @@ final class DisruptorUtil {
             return new BusySpinWaitStrategy();
         case "TIMEOUT":
             return new TimeoutBlockingWaitStrategy(timeoutMillis, TimeUnit.MILLISECONDS);
+        case "ADAPTIVE":
+            return new AdaptiveWaitStrategy(timeoutMillis, TimeUnit.MILLISECONDS);
         default:
             return new TimeoutBlockingWaitStrategy(timeoutMillis, TimeUnit.MILLISECONDS);
         }
     }
 
+    static ProducerStatistics createProducerStatistics(final String propertyName) {
+        final boolean timingEnabled = PropertiesUtil.getProperties().getBooleanProperty(propertyName, false);
+        LOGGER.trace("property {}={}", propertyName, timingEnabled);
+        return new ProducerStatistics(timingEnabled);
+    }
+
     static int calculateRingBufferSize(final String propertyName) {
         int ringBufferSize = Constants.ENABLE_THREADLOCALS ? RINGBUFFER_NO_GC_DEFAULT_SIZE : RINGBUFFER_DEFAULT_SIZE;
         final String userPreferredRBSize = PropertiesUtil.getProperties().getStringProperty(propertyName,
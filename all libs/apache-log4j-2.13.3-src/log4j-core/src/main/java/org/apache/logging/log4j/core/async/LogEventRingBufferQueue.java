@@ -0,0 +1,316 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.MutableLogEvent;
+import org.apache.logging.log4j.core.util.Integers;
+
+/**
+ * Bounded, lock-free, multiple producer single consumer queue of {@link LogEvent}s backed by a ring of preallocated
+ * {@link MutableLogEvent} slots.
+ * <p>
+ * Producers claim a slot with a single CAS on the producer sequence and copy the offered event into the slot with
+ * {@link MutableLogEvent#initFrom(LogEvent)}, so no event object is allocated per enqueue. The slot sequence protocol
+ * is the one used by bounded MPMC array queues: each slot carries the sequence number at which it may next be written
+ * or read.
+ * </p>
+ * <p>
+ * Because slots are reused, an event returned by {@link #poll()}, {@link #take()}, {@link #peek()} or
+ * {@link #drainTo(LogEvent[], int)} is only valid until the consumer next calls {@code poll} or {@code take}.
+ * Callers that need to keep an event must call {@link LogEvent#toImmutable()}.
+ * Only one thread may consume from this queue.
+ * </p>
+ *
+ * @since 2.14.0
+ */
+public final class LogEventRingBufferQueue extends AbstractQueue<LogEvent> implements BlockingQueue<LogEvent> {
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+
+    private final MutableLogEvent[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong producerSequence = new AtomicLong();
+    private volatile long consumerSequence;
+    private volatile boolean halted;
+    private boolean includeLocation = true;
+
+    // consumer-owned: slots in [releaseSequence, consumerSequence) are held until the next retrieval
+    private long releaseSequence;
+
+    /**
+     * Constructs a new queue. The capacity is rounded up to the next power of two.
+     *
+     * @param capacity the minimum number of events this queue can hold
+     */
+    public LogEventRingBufferQueue(final int capacity) {
+        final int size = Integers.ceilingNextPowerOfTwo(Math.max(capacity, 2));
+        this.slots = new MutableLogEvent[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            slots[i] = new MutableLogEvent();
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Sets whether the location of offered events is copied into the slots. By default it is copied for events that
+     * include their location. When set to false, the location of offered events is neither copied nor computed. Must
+     * be called before the queue is used.
+     *
+     * @param includeLocation whether the location of offered events is copied
+     */
+    public void setIncludeLocation(final boolean includeLocation) {
+        this.includeLocation = includeLocation;
+    }
+
+    /**
+     * Returns the number of preallocated slots in this queue.
+     *
+     * @return the capacity of this queue
+     */
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Wakes up the consumer: once the queue is drained, {@link #take()} will throw an {@code InterruptedException}
+     * instead of waiting for more events. Producers may continue to enqueue events.
+     */
+    public void halt() {
+        halted = true;
+    }
+
+    @Override
+    public boolean offer(final LogEvent event) {
+        if (event == null) {
+            throw new NullPointerException();
+        }
+        long sequence = producerSequence.get();
+        int index;
+        for (;;) {
+            index = (int) sequence & mask;
+            final long difference = sequences.get(index) - sequence;
+            if (difference == 0) {
+                if (producerSequence.compareAndSet(sequence, sequence + 1)) {
+                    break;
+                }
+                sequence = producerSequence.get();
+            } else if (difference < 0) {
+                return false; // slot not yet released by the consumer: the queue is full
+            } else {
+                sequence = producerSequence.get();
+            }
+        }
+        slots[index].initFrom(event, includeLocation && event.isIncludeLocation());
+        sequences.lazySet(index, sequence + 1);
+        return true;
+    }
+
+    @Override
+    public void put(final LogEvent event) throws InterruptedException {
+        int idleCounter = 0;
+        while (!offer(event)) {
+            idleCounter = idle(idleCounter);
+        }
+    }
+
+    @Override
+    public boolean offer(final LogEvent event, final long timeout, final TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int idleCounter = 0;
+        while (!offer(event)) {
+            if (System.nanoTime() - deadline > 0) {
+                return false;
+            }
+            idleCounter = idle(idleCounter);
+        }
+        return true;
+    }
+
+    @Override
+    public LogEvent poll() {
+        releaseHeldSlots();
+        final long sequence = consumerSequence;
+        final int index = (int) sequence & mask;
+        if (sequences.get(index) != sequence + 1) {
+            return null;
+        }
+        consumerSequence = sequence + 1;
+        return slots[index];
+    }
+
+    /**
+     * Moves the available events into the specified array, starting at {@code offset}, without copying them. Unlike
+     * {@link #poll()} this does not release the events handed out earlier, so a consumer can {@link #take()} an event
+     * and then collect the rest of a batch with this method. All these events stay valid until the next call to
+     * {@code poll} or {@code take}.
+     *
+     * @param events the array to fill
+     * @param offset the index of the first array element to fill
+     * @return the number of events added to the array
+     */
+    public int drainTo(final LogEvent[] events, final int offset) {
+        long sequence = consumerSequence;
+        int count = 0;
+        for (int i = offset; i < events.length; i++) {
+            final int index = (int) sequence & mask;
+            if (sequences.get(index) != sequence + 1) {
+                break;
+            }
+            events[i] = slots[index];
+            sequence++;
+            count++;
+        }
+        consumerSequence = sequence;
+        return count;
+    }
+
+    @Override
+    public LogEvent take() throws InterruptedException {
+        int idleCounter = 0;
+        for (;;) {
+            final LogEvent result = poll();
+            if (result != null) {
+                return result;
+            }
+            if (halted) {
+                throw new InterruptedException();
+            }
+            idleCounter = idle(idleCounter);
+        }
+    }
+
+    @Override
+    public LogEvent poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int idleCounter = 0;
+        for (;;) {
+            final LogEvent result = poll();
+            if (result != null) {
+                return result;
+            }
+            if (System.nanoTime() - deadline > 0) {
+                return null;
+            }
+            idleCounter = idle(idleCounter);
+        }
+    }
+
+    @Override
+    public LogEvent peek() {
+        final long sequence = consumerSequence;
+        final int index = (int) sequence & mask;
+        return sequences.get(index) == sequence + 1 ? slots[index] : null;
+    }
+
+    /**
+     * Moves the available events to the specified collection. Because slots are reused, the events added to the
+     * collection are immutable copies.
+     */
+    @Override
+    public int drainTo(final Collection<? super LogEvent> collection) {
+        return drainTo(collection, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Moves at most {@code maxElements} available events to the specified collection. Because slots are reused, the
+     * events added to the collection are immutable copies.
+     */
+    @Override
+    public int drainTo(final Collection<? super LogEvent> collection, final int maxElements) {
+        int count = 0;
+        LogEvent event;
+        while (count < maxElements && (event = poll()) != null) {
+            collection.add(event.toImmutable());
+            count++;
+        }
+        releaseHeldSlots();
+        return count;
+    }
+
+    @Override
+    public int size() {
+        final long size = producerSequence.get() - consumerSequence;
+        return (int) Math.max(0, Math.min(size, slots.length));
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return slots.length - size();
+    }
+
+    /**
+     * Returns a read-only iterator over immutable copies of the events that are in this queue when this method is
+     * called. Because slots are reused, the iterator does not reflect later changes. Events that the consumer takes
+     * while the copies are made are left out, together with the events after them.
+     */
+    @Override
+    public Iterator<LogEvent> iterator() {
+        final List<LogEvent> snapshot = new ArrayList<>(size());
+        final long end = producerSequence.get();
+        for (long sequence = consumerSequence; sequence < end; sequence++) {
+            final int index = (int) sequence & mask;
+            if (sequences.get(index) != sequence + 1) {
+                break; // not published yet, or already taken
+            }
+            final LogEvent copy = slots[index].toImmutable();
+            if (sequences.get(index) != sequence + 1) {
+                break; // released and reused while it was copied
+            }
+            snapshot.add(copy);
+        }
+        return Collections.unmodifiableList(snapshot).iterator();
+    }
+
+    private void releaseHeldSlots() {
+        final long end = consumerSequence;
+        for (long sequence = releaseSequence; sequence < end; sequence++) {
+            final int index = (int) sequence & mask;
+            slots[index].clear();
+            sequences.lazySet(index, sequence + slots.length);
+        }
+        releaseSequence = end;
+    }
+
+    private static int idle(final int idleCounter) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (idleCounter > YIELD_TRIES) {
+            LockSupport.parkNanos(1L);
+        } else if (idleCounter > SPIN_TRIES) {
+            Thread.yield();
+        }
+        return idleCounter + 1;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.util.concurrent.BlockingQueue;
+
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+
+/**
+ * Factory for creating instances of the garbage-free {@link LogEventRingBufferQueue}. Unlike the other
+ * {@link BlockingQueueFactory} implementations this one does not need any external dependency.
+ *
+ * @since 2.14.0
+ */
+@Plugin(name = "LogEventRingBufferQueue", category = Node.CATEGORY, elementType = BlockingQueueFactory.ELEMENT_TYPE)
+public class LogEventRingBufferQueueFactory implements BlockingQueueFactory<LogEvent> {
+    @Override
+    public BlockingQueue<LogEvent> create(final int capacity) {
+        return new LogEventRingBufferQueue(capacity);
+    }
+
+    @PluginFactory
+    public static LogEventRingBufferQueueFactory createFactory() {
+        return new LogEventRingBufferQueueFactory();
+    }
+}
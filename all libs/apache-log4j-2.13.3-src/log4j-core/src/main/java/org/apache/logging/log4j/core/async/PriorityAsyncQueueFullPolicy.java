@@ -0,0 +1,266 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * Priority router: reserves part of the queue capacity for events {@linkplain Level#isMoreSpecificThan(Level) at
+ * least as specific} as a reserved level, and progressively sheds less specific events as the queue fills up.
+ * <p>
+ * Events at or above the reserved level ({@code ERROR} by default) are never discarded: when the queue is full they
+ * are routed by the {@linkplain DefaultAsyncQueueFullPolicy default routing rules}. Other events are discarded
+ * before they are enqueued once the used fraction of the queue reaches the shed ratio of their level. The least
+ * specific level, {@code TRACE}, is shed first when the queue is {@code shedRatio} full; the shed ratio increases
+ * linearly with the specificity of the level up to {@code 1 - reservedRatio}, so with the default ratios
+ * {@code TRACE} is shed at 50%, {@code DEBUG} at 60%, {@code INFO} at 70% and {@code WARN} at 80%, leaving the last
+ * 10% of the queue for {@code ERROR} and {@code FATAL} events.
+ * </p>
+ * <p>
+ * Discarded events are counted per level and per logger. At most once per summary interval a summary like
+ * "discarded 42 DEBUG events from logger com.example.Foo" is logged to the {@code StatusLogger} for every logger that
+ * had events discarded. The counts of a logger are removed once they are summarized, so loggers that stopped
+ * logging are not kept; an event discarded while its logger is being summarized may be missing from the summary, but
+ * not from {@link #getDiscardCount()}.
+ * </p>
+ *
+ * @since 2.14.0
+ */
+public class PriorityAsyncQueueFullPolicy extends DefaultAsyncQueueFullPolicy {
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    /** Key for events discarded by {@link #getRoute(long, Level)}, which does not know the logger name. */
+    private static final String UNKNOWN_LOGGER = "";
+
+    private final Level reservedLevel;
+    private final double reservedRatio;
+    private final double shedRatio;
+    private final long summaryIntervalNanos;
+    private final AtomicLong discardCount = new AtomicLong();
+    private final ConcurrentMap<Level, AtomicLong> levelDiscardCounts = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentMap<Level, AtomicLong>> pendingDiscardCounts =
+            new ConcurrentHashMap<>();
+    private final AtomicLong nextSummaryNanos = new AtomicLong(System.nanoTime());
+    private volatile boolean summaryPending;
+
+    /**
+     * Constructs a router that never discards events at or above the specified reserved level.
+     *
+     * @param reservedLevel events at least as specific as this level are never discarded
+     * @param reservedRatio the fraction of the queue capacity that is reserved for events at or above the reserved
+     *            level
+     * @param shedRatio the used fraction of the queue capacity at which {@code TRACE} events are discarded
+     * @param summaryIntervalMillis the minimum number of milliseconds between two summaries of discarded events
+     */
+    public PriorityAsyncQueueFullPolicy(final Level reservedLevel, final double reservedRatio, final double shedRatio,
+            final long summaryIntervalMillis) {
+        this.reservedLevel = Objects.requireNonNull(reservedLevel, "reservedLevel");
+        if (reservedRatio < 0 || reservedRatio >= 1) {
+            throw new IllegalArgumentException("reservedRatio must be in [0, 1): " + reservedRatio);
+        }
+        if (shedRatio < 0 || shedRatio > 1 - reservedRatio) {
+            throw new IllegalArgumentException("shedRatio must be in [0, 1 - reservedRatio]: " + shedRatio);
+        }
+        this.reservedRatio = reservedRatio;
+        this.shedRatio = shedRatio;
+        this.summaryIntervalNanos = TimeUnit.MILLISECONDS.toNanos(summaryIntervalMillis);
+    }
+
+    /**
+     * Returns whether an event should be discarded before it is enqueued, given how full the queue is. Events that
+     * are discarded are counted.
+     *
+     * @param loggerName the name of the logger of the event
+     * @param level the level of the event
+     * @param remainingCapacity the number of free slots in the queue
+     * @param capacity the size of the queue
+     * @return {@code true} if the event should be discarded
+     */
+    public boolean shed(final String loggerName, final Level level, final long remainingCapacity,
+            final long capacity) {
+        if (level.isMoreSpecificThan(reservedLevel)
+                || (double) (capacity - remainingCapacity) < getShedRatio(level) * capacity) {
+            summarizeIfDue();
+            return false;
+        }
+        discard(loggerName, level);
+        return true;
+    }
+
+    @Override
+    public EventRoute getRoute(final long backgroundThreadId, final Level level) {
+        if (level.isMoreSpecificThan(reservedLevel)) {
+            return super.getRoute(backgroundThreadId, level);
+        }
+        discard(null, level);
+        return EventRoute.DISCARD;
+    }
+
+    /**
+     * Returns the used fraction of the queue capacity at which events of the specified level are discarded.
+     *
+     * @param level the level of events
+     * @return the shed ratio of the level, or a value greater than 1 for levels that are never discarded
+     */
+    public double getShedRatio(final Level level) {
+        if (level.isMoreSpecificThan(reservedLevel)) {
+            return Double.MAX_VALUE;
+        }
+        final int range = Level.TRACE.intLevel() - reservedLevel.intLevel();
+        final double position = range <= 0
+                ? 1.0
+                : Math.min(1.0, (double) (level.intLevel() - reservedLevel.intLevel()) / range);
+        final double limit = 1.0 - reservedRatio;
+        return limit - position * (limit - shedRatio);
+    }
+
+    private void discard(final String loggerName, final Level level) {
+        discardCount.incrementAndGet();
+        getCounter(levelDiscardCounts, level).incrementAndGet();
+        final String key = loggerName == null ? UNKNOWN_LOGGER : loggerName;
+        ConcurrentMap<Level, AtomicLong> loggerCounts = pendingDiscardCounts.get(key);
+        if (loggerCounts == null) {
+            pendingDiscardCounts.putIfAbsent(key, new ConcurrentHashMap<Level, AtomicLong>());
+            loggerCounts = pendingDiscardCounts.get(key);
+        }
+        getCounter(loggerCounts, level).incrementAndGet();
+        summaryPending = true;
+        summarizeIfDue();
+    }
+
+    private static AtomicLong getCounter(final ConcurrentMap<Level, AtomicLong> counters, final Level level) {
+        AtomicLong result = counters.get(level);
+        if (result == null) {
+            counters.putIfAbsent(level, new AtomicLong());
+            result = counters.get(level);
+        }
+        return result;
+    }
+
+    private void summarizeIfDue() {
+        if (summaryPending) {
+            final long next = nextSummaryNanos.get();
+            final long now = System.nanoTime();
+            if (now - next >= 0 && nextSummaryNanos.compareAndSet(next, now + summaryIntervalNanos)) {
+                summarize();
+            }
+        }
+    }
+
+    /**
+     * Logs the number of events discarded per logger and level since the previous summary.
+     */
+    void summarize() {
+        summaryPending = false;
+        for (final Map.Entry<String, ConcurrentMap<Level, AtomicLong>> entry : pendingDiscardCounts.entrySet()) {
+            if (!pendingDiscardCounts.remove(entry.getKey(), entry.getValue())) {
+                continue;
+            }
+            for (final Map.Entry<Level, AtomicLong> count : entry.getValue().entrySet()) {
+                final long discarded = count.getValue().getAndSet(0);
+                if (discarded > 0) {
+                    if (UNKNOWN_LOGGER.equals(entry.getKey())) {
+                        LOGGER.warn("Async queue is full, discarded {} {} events.", discarded, count.getKey());
+                    } else {
+                        LOGGER.warn("Async queue is filling up, discarded {} {} events from logger {}.", discarded,
+                                count.getKey(), entry.getKey());
+                    }
+                }
+            }
+        }
+    }
+
+    int getPendingLoggerCount() {
+        return pendingDiscardCounts.size();
+    }
+
+    /**
+     * Returns the number of discarded events.
+     *
+     * @return the number of discarded events
+     */
+    public long getDiscardCount() {
+        return discardCount.get();
+    }
+
+    /**
+     * Returns the number of discarded events per level, as {@code LEVEL=count} strings from the most to the least
+     * specific level.
+     *
+     * @return the number of discarded events per level
+     */
+    public String[] getDiscardCountsByLevel() {
+        final List<Level> levels = new ArrayList<>(levelDiscardCounts.keySet());
+        Collections.sort(levels, new Comparator<Level>() {
+            @Override
+            public int compare(final Level o1, final Level o2) {
+                return Integer.compare(o1.intLevel(), o2.intLevel());
+            }
+        });
+        final String[] result = new String[levels.size()];
+        for (int i = 0; i < result.length; i++) {
+            final Level level = levels.get(i);
+            result[i] = level.name() + '=' + levelDiscardCounts.get(level).get();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of discarded events per level if the specified router is a
+     * {@code PriorityAsyncQueueFullPolicy}.
+     *
+     * @param router the queue full policy
+     * @return the number of discarded events per level, or an empty array
+     */
+    public static String[] getDiscardCountsByLevel(final AsyncQueueFullPolicy router) {
+        if (router instanceof PriorityAsyncQueueFullPolicy) {
+            return ((PriorityAsyncQueueFullPolicy) router).getDiscardCountsByLevel();
+        }
+        return new String[0];
+    }
+
+    public Level getReservedLevel() {
+        return reservedLevel;
+    }
+
+    public double getReservedRatio() {
+        return reservedRatio;
+    }
+
+    public double getShedRatio() {
+        return shedRatio;
+    }
+
+    @Override
+    public String toString() {
+        return "PriorityAsyncQueueFullPolicy[reservedLevel=" + reservedLevel + ", reservedRatio=" + reservedRatio
+                + ", shedRatio=" + shedRatio + "]";
+    }
+}
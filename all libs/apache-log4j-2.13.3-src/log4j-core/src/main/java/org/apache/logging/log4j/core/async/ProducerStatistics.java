@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per producer thread statistics of the enqueue operations on an async logger ring buffer: how long application
+ * threads took to enqueue log events, and how often they found the ring buffer full.
+ * <p>
+ * The counters of a thread are only written by that thread and are kept in a {@code ThreadLocal} that only holds
+ * JDK classes (see LOG4J2-1172). Readers, like the {@code RingBufferAdmin} MBean, see approximate values. Enqueue
+ * latencies are only measured when timing is enabled, because that costs two calls to {@link System#nanoTime()}
+ * per log event; queue full occurrences are always counted.
+ * </p>
+ * <p>
+ * The counters of terminated threads are folded into the totals when the statistics are read, and when a new thread
+ * registers while there are {@value #MIN_PRUNE_THRESHOLD} or more producers and twice as many as were alive at the
+ * previous pass. At most {@code max(}{@value #MIN_PRUNE_THRESHOLD}{@code , 2 * live producers)} producers are kept.
+ * </p>
+ * <p>
+ * This class should be considered internal.
+ * </p>
+ *
+ * @since 2.14.0
+ */
+public final class ProducerStatistics {
+
+    private static final int ENQUEUE_COUNT = 0;
+    private static final int ENQUEUE_TOTAL_NANOS = 1;
+    private static final int ENQUEUE_MAX_NANOS = 2;
+    private static final int QUEUE_FULL_COUNT = 3;
+    private static final int COUNTER_COUNT = 4;
+
+    /** Smallest number of producers at which a new thread folds the counters of terminated threads into the totals. */
+    static final int MIN_PRUNE_THRESHOLD = 64;
+
+    private final boolean timingEnabled;
+    private final ThreadLocal<long[]> threadCounters = new ThreadLocal<>();
+    private final ConcurrentMap<Long, Producer> producers = new ConcurrentHashMap<>();
+    private final long[] terminatedCounters = new long[COUNTER_COUNT]; // guarded by this
+    private volatile int pruneThreshold = MIN_PRUNE_THRESHOLD;
+
+    /**
+     * Holds the counters of a producer thread and a weak reference to detect that the thread terminated.
+     */
+    private static final class Producer {
+        private final WeakReference<Thread> thread;
+        private final String threadName;
+        private final long threadId;
+        private final long[] counters;
+
+        Producer(final Thread thread, final long[] counters) {
+            this.thread = new WeakReference<>(thread);
+            this.threadName = thread.getName();
+            this.threadId = thread.getId();
+            this.counters = counters;
+        }
+
+        boolean isTerminated() {
+            final Thread t = thread.get();
+            return t == null || !t.isAlive();
+        }
+    }
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param timingEnabled whether enqueue latencies are measured
+     */
+    public ProducerStatistics(final boolean timingEnabled) {
+        this.timingEnabled = timingEnabled;
+    }
+
+    /**
+     * Returns whether enqueue latencies are measured.
+     *
+     * @return whether enqueue latencies are measured
+     */
+    public boolean isTimingEnabled() {
+        return timingEnabled;
+    }
+
+    /**
+     * Returns the start time to pass to {@link #enqueueFinished(long)}, or zero if timing is disabled.
+     *
+     * @return the start time of an enqueue operation
+     */
+    public long enqueueStarted() {
+        return timingEnabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records an enqueue operation of the current thread if timing is enabled.
+     *
+     * @param startNanos the value returned by {@link #enqueueStarted()}
+     */
+    public void enqueueFinished(final long startNanos) {
+        if (timingEnabled) {
+            final long elapsed = System.nanoTime() - startNanos;
+            final long[] counters = getCounters();
+            counters[ENQUEUE_COUNT]++;
+            counters[ENQUEUE_TOTAL_NANOS] += elapsed;
+            if (elapsed > counters[ENQUEUE_MAX_NANOS]) {
+                counters[ENQUEUE_MAX_NANOS] = elapsed;
+            }
+        }
+    }
+
+    /**
+     * Records that the current thread found the ring buffer full.
+     */
+    public void queueFull() {
+        getCounters()[QUEUE_FULL_COUNT]++;
+    }
+
+    private long[] getCounters() {
+        long[] result = threadCounters.get();
+        if (result == null) {
+            result = new long[COUNTER_COUNT];
+            threadCounters.set(result);
+            register(Thread.currentThread(), result);
+        }
+        return result;
+    }
+
+    private void register(final Thread thread, final long[] counters) {
+        if (producers.size() >= pruneThreshold) {
+            removeTerminatedProducers();
+        }
+        final Producer previous = producers.put(thread.getId(), new Producer(thread, counters));
+        if (previous != null) { // the JVM reuses the ids of terminated threads
+            addToTerminated(previous);
+        }
+    }
+
+    private synchronized void removeTerminatedProducers() {
+        for (final Iterator<Producer> iterator = producers.values().iterator(); iterator.hasNext();) {
+            final Producer producer = iterator.next();
+            if (producer.isTerminated()) {
+                iterator.remove();
+                addToTerminated(producer);
+            }
+        }
+        pruneThreshold = Math.max(MIN_PRUNE_THRESHOLD, 2 * producers.size());
+    }
+
+    private synchronized void addToTerminated(final Producer producer) {
+        terminatedCounters[ENQUEUE_COUNT] += producer.counters[ENQUEUE_COUNT];
+        terminatedCounters[ENQUEUE_TOTAL_NANOS] += producer.counters[ENQUEUE_TOTAL_NANOS];
+        terminatedCounters[ENQUEUE_MAX_NANOS] = Math.max(terminatedCounters[ENQUEUE_MAX_NANOS],
+                producer.counters[ENQUEUE_MAX_NANOS]);
+        terminatedCounters[QUEUE_FULL_COUNT] += producer.counters[QUEUE_FULL_COUNT];
+    }
+
+    /**
+     * Returns the number of timed enqueue operations of all producer threads.
+     *
+     * @return the number of timed enqueue operations
+     */
+    public long getEnqueueCount() {
+        return sum(ENQUEUE_COUNT);
+    }
+
+    /**
+     * Returns how often producer threads found the ring buffer full.
+     *
+     * @return the number of queue full occurrences
+     */
+    public long getQueueFullCount() {
+        return sum(QUEUE_FULL_COUNT);
+    }
+
+    private synchronized long sum(final int counter) {
+        removeTerminatedProducers();
+        long result = terminatedCounters[counter];
+        for (final Producer producer : producers.values()) {
+            result += producer.counters[counter];
+        }
+        return result;
+    }
+
+    /**
+     * Returns one line per live producer thread with its enqueue count, average and maximum enqueue latency in
+     * nanoseconds, and queue full count. Threads that terminated are removed and only counted in the totals.
+     *
+     * @return the statistics of the producer threads
+     */
+    public String[] getProducerStatistics() {
+        removeTerminatedProducers();
+        final List<String> result = new ArrayList<>(producers.size());
+        for (final Producer producer : producers.values()) {
+            final long[] counters = producer.counters;
+            final long count = counters[ENQUEUE_COUNT];
+            result.add(producer.threadName + " (id=" + producer.threadId + "): enqueueCount=" + count
+                    + ", averageEnqueueNanos=" + (count == 0 ? 0 : counters[ENQUEUE_TOTAL_NANOS] / count)
+                    + ", maxEnqueueNanos=" + counters[ENQUEUE_MAX_NANOS]
+                    + ", queueFullCount=" + counters[QUEUE_FULL_COUNT]);
+        }
+        return result.toArray(new String[result.size()]);
+    }
+
+    int getProducerCount() {
+        return producers.size();
+    }
+
+    @Override
+    public String toString() {
+        return "ProducerStatistics[timingEnabled=" + timingEnabled + ", producers=" + producers.size()
+                + ", enqueueCount=" + getEnqueueCount() + ", queueFullCount=" + getQueueFullCount() + "]";
+    }
+}
@@ -28,9 +28,11 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -46,13 +48,17 @@ import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.Version;
 import org.apache.logging.log4j.core.appender.AsyncAppender;
 import org.apache.logging.log4j.core.appender.ConsoleAppender;
+import org.apache.logging.log4j.core.appender.FailoverAppender;
+import org.apache.logging.log4j.core.appender.routing.Routes;
 import org.apache.logging.log4j.core.async.AsyncLoggerConfig;
 import org.apache.logging.log4j.core.async.AsyncLoggerConfigDelegate;
 import org.apache.logging.log4j.core.async.AsyncLoggerConfigDisruptor;
 import org.apache.logging.log4j.core.config.plugins.util.PluginBuilder;
 import org.apache.logging.log4j.core.config.plugins.util.PluginManager;
 import org.apache.logging.log4j.core.config.plugins.util.PluginType;
+import org.apache.logging.log4j.core.config.snapshot.ConfigurationSnapshot;
 import org.apache.logging.log4j.core.filter.AbstractFilterable;
+import org.apache.logging.log4j.core.layout.AbstractLayout;
 import org.apache.logging.log4j.core.layout.PatternLayout;
 import org.apache.logging.log4j.core.lookup.Interpolator;
 import org.apache.logging.log4j.core.lookup.MapLookup;
@@ -65,7 +71,6 @@ import org.apache.logging.log4j.core.script.ScriptRef;
 import org.apache.logging.log4j.core.util.Constants;
 import org.apache.logging.log4j.core.util.DummyNanoClock;
 import org.apache.logging.log4j.core.util.Loader;
-import org.apache.logging.log4j.core.util.NameUtil;
 import org.apache.logging.log4j.core.util.NanoClock;
 import org.apache.logging.log4j.core.util.Source;
 import org.apache.logging.log4j.core.util.WatchManager;
@@ -123,7 +128,18 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
     private Object advertisement;
     private String name;
     private ConcurrentMap<String, Appender> appenders = new ConcurrentHashMap<>();
+    /** The configuration of the appenders created from configuration nodes, by appender name. */
+    private final ConcurrentMap<String, String> appenderSignatures = new ConcurrentHashMap<>();
+    /** Appenders of the previous configuration that this configuration reuses. */
+    private final Set<Appender> reusedAppenders = Collections.newSetFromMap(new ConcurrentHashMap<Appender, Boolean>());
+    /** Appenders that a configuration replacing this one reuses, which are not stopped with this configuration. */
+    private final Set<Appender> transferredAppenders =
+            Collections.newSetFromMap(new ConcurrentHashMap<Appender, Boolean>());
+    private AbstractConfiguration previousConfiguration;
+    /** The snapshot the Node tree is written to once it was set up. */
+    private ConfigurationSnapshot snapshot;
     private ConcurrentMap<String, LoggerConfig> loggerConfigs = new ConcurrentHashMap<>();
+    private volatile LoggerConfigIndex loggerConfigIndex = LoggerConfigIndex.EMPTY;
     private List<CustomLevelConfig> customLevels = Collections.emptyList();
     private final ConcurrentMap<String, String> propertyMap = new ConcurrentHashMap<>();
     private final StrLookup tempLookup = new Interpolator(propertyMap);
@@ -237,6 +253,10 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
             }
         }
         setup();
+        if (snapshot != null) {
+            snapshot.write(this);
+            snapshot = null;
+        }
         setupAdvertisement();
         doConfigure();
         setState(State.INITIALIZED);
@@ -287,6 +307,8 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
         if (getState().equals(State.INITIALIZING)) {
             initialize();
         }
+        rebindReusedLayouts();
+        previousConfiguration = null;
         LOGGER.debug("Starting configuration {}", this);
         this.setStarting();
         if (watchManager.getIntervalSeconds() >= 0) {
@@ -301,7 +323,9 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
             alreadyStarted.add(logger);
         }
         for (final Appender appender : appenders.values()) {
-            appender.start();
+            if (!reusedAppenders.contains(appender)) {
+                appender.start();
+            }
         }
         if (!alreadyStarted.contains(root)) { // LOG4J2-392
             root.start(); // LOG4J2-336
@@ -370,7 +394,10 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
         }
 
         // Stop the appenders in reverse order in case they still have activity.
-        final Appender[] array = appenders.values().toArray(new Appender[appenders.size()]);
+        // Appenders reused by the configuration that replaces this one keep running.
+        final List<Appender> owned = new ArrayList<>(appenders.values());
+        owned.removeAll(transferredAppenders);
+        final Appender[] array = owned.toArray(new Appender[owned.size()]);
         final List<Appender> async = getAsyncAppenders(array);
         if (!async.isEmpty()) {
             // LOG4J2-511, LOG4J2-392 stop AsyncAppenders first
@@ -549,7 +576,11 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
                 }
                 continue;
             }
-            createConfiguration(child, null);
+            if (child.getName().equalsIgnoreCase("Appenders")) {
+                createAppenders(child);
+            } else {
+                createConfiguration(child, null);
+            }
             if (child.getObject() == null) {
                 continue;
             }
@@ -570,6 +601,7 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
             } else if (child.getName().equalsIgnoreCase("Loggers")) {
                 final Loggers l = child.getObject();
                 loggerConfigs = l.getMap();
+                loggerConfigIndex = LoggerConfigIndex.create(loggerConfigs);
                 setLoggers = true;
                 if (l.getRoot() != null) {
                     root = l.getRoot();
@@ -616,6 +648,172 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
         setParents();
     }
 
+    /**
+     * Sets the configuration that this configuration is going to replace, before this configuration is initialized.
+     * <p>
+     * When this configuration creates its appenders, it reuses the running appenders of the previous configuration
+     * whose configuration nodes, after variable substitution, are unchanged, including their layouts, filters and
+     * managers, instead of creating new ones. The previous configuration does not stop the appenders that were reused
+     * when it is stopped. Appenders that refer to other appenders or to scripts, like an AsyncAppender, a
+     * FailoverAppender or a RoutingAppender, and appenders with components that use the configuration once they are
+     * started, like a CronTriggeringPolicy that schedules rollovers on its scheduler, are always created again. Such
+     * components are annotated with {@link ConfigurationBound} or {@link Scheduled}. When this configuration starts, the
+     * layouts of the reused appenders resolve the variables they look up for each event with its properties.
+     * </p>
+     *
+     * @param previous the configuration that is replaced, or {@code null}
+     * @since 2.14.0
+     */
+    public void setPreviousConfiguration(final AbstractConfiguration previous) {
+        this.previousConfiguration = previous;
+    }
+
+    /**
+     * Sets the snapshot that the Node tree of this configuration is written to when it was set up, before any plugin
+     * is created, so that the next start can read the configuration from the snapshot instead of parsing it.
+     *
+     * @param snapshot the snapshot of the configuration file, or {@code null} to not write one
+     * @since 2.14.0
+     */
+    public void setSnapshot(final ConfigurationSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Returns whether the specified appender was reused from the configuration this configuration replaced.
+     *
+     * @param appender an appender of this configuration
+     * @return whether the appender was reused
+     * @since 2.14.0
+     */
+    public boolean isReusedAppender(final Appender appender) {
+        return reusedAppenders.contains(appender);
+    }
+
+    private void createAppenders(final Node node) {
+        final AbstractConfiguration previous = previousConfiguration;
+        for (final Node child : node.getChildren()) {
+            final String signature = getAppenderSignature(child);
+            final String name = signature == null ? null : subst.replace(getAttribute(child, "name"));
+            final Appender reused = previous == null || name == null
+                    ? null
+                    : previous.transferAppender(name, signature);
+            if (reused != null) {
+                LOGGER.debug("Reusing unchanged appender {}", name);
+                child.setObject(reused);
+                reusedAppenders.add(reused);
+            } else {
+                createConfiguration(child, null);
+            }
+            if (signature != null && child.getObject() instanceof Appender) {
+                appenderSignatures.put(child.<Appender>getObject().getName(), signature);
+            }
+        }
+        if (node.getType() != null) {
+            node.setObject(createPluginObject(node.getType(), node, null));
+        }
+    }
+
+    /**
+     * Makes the layouts of the reused appenders resolve the variables they look up for each event, like {@code $${ctx:id}}
+     * in a pattern, with the properties and lookups of this configuration instead of the one that created them.
+     */
+    private void rebindReusedLayouts() {
+        for (final Appender appender : reusedAppenders) {
+            final Layout<? extends Serializable> layout = appender.getLayout();
+            if (layout instanceof AbstractLayout) {
+                final Configuration bound = ((AbstractLayout<?>) layout).getConfiguration();
+                if (bound != null && bound != this) {
+                    bound.getStrSubstitutor().setVariableResolver(subst.getVariableResolver());
+                }
+            }
+        }
+    }
+
+    /**
+     * Hands over a running appender to the configuration that replaces this one, if it was created from an equal
+     * configuration node.
+     */
+    private Appender transferAppender(final String name, final String signature) {
+        final Appender appender = appenders.get(name);
+        if (appender == null || !appender.isStarted() || !signature.equals(appenderSignatures.get(name))) {
+            return null;
+        }
+        transferredAppenders.add(appender);
+        return appender;
+    }
+
+    /**
+     * Returns the configuration of an appender node with substituted variables, or {@code null} if the appender cannot
+     * be reused. It is computed before the appender is created, because creating plugins consumes the attributes of
+     * their nodes.
+     */
+    private String getAppenderSignature(final Node node) {
+        if (!isReusable(node)) {
+            return null;
+        }
+        final StringBuilder sb = new StringBuilder();
+        appendSignature(node, sb);
+        return sb.toString();
+    }
+
+    private static boolean isReusable(final Node node) {
+        final PluginType<?> type = node.getType();
+        if (type == null) {
+            return false;
+        }
+        final Class<?> clazz = type.getPluginClass();
+        if (AppenderRef.class.isAssignableFrom(clazz) || AbstractScript.class.isAssignableFrom(clazz)
+                || Routes.class.isAssignableFrom(clazz) || FailoverAppender.class.isAssignableFrom(clazz)
+                || clazz.isAnnotationPresent(ConfigurationBound.class) || clazz.isAnnotationPresent(Scheduled.class)) {
+            return false;
+        }
+        for (final Node child : node.getChildren()) {
+            if (!isReusable(child)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void appendSignature(final Node node, final StringBuilder sb) {
+        sb.append('<').append(node.getName().toLowerCase(Locale.ROOT)).append(' ')
+                .append(node.getType().getPluginClass().getName());
+        final Map<String, String> attributes = new TreeMap<>();
+        for (final Map.Entry<String, String> entry : node.getAttributes().entrySet()) {
+            attributes.put(entry.getKey().toLowerCase(Locale.ROOT), subst.replace(entry.getValue()));
+        }
+        for (final Map.Entry<String, String> entry : attributes.entrySet()) {
+            appendValue(sb.append(' ').append(entry.getKey()).append('='), entry.getValue());
+        }
+        if (node.getValue() != null) {
+            appendValue(sb.append(" #value="), subst.replace(node.getValue()));
+        }
+        sb.append('>');
+        for (final Node child : node.getChildren()) {
+            appendSignature(child, sb);
+        }
+        sb.append("</>");
+    }
+
+    private static void appendValue(final StringBuilder sb, final String value) {
+        if (value == null) {
+            sb.append('-');
+        } else {
+            // length prefixed, so that values cannot be confused with the structure
+            sb.append(value.length()).append(':').append(value);
+        }
+    }
+
+    private static String getAttribute(final Node node, final String name) {
+        for (final Map.Entry<String, String> entry : node.getAttributes().entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(name)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
     protected void setToDefault() {
         // LOG4J2-1176 facilitate memory leak investigation
         setName(DefaultConfiguration.DEFAULT_NAME + "@" + Integer.toHexString(hashCode()));
@@ -828,6 +1026,7 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
         final Appender app = appenderName != null ? appenders.remove(appenderName) : null;
 
         if (app != null) {
+            appenderSignatures.remove(appenderName);
             app.stop();
         }
     }
@@ -851,18 +1050,8 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
      */
     @Override
     public LoggerConfig getLoggerConfig(final String loggerName) {
-        LoggerConfig loggerConfig = loggerConfigs.get(loggerName);
-        if (loggerConfig != null) {
-            return loggerConfig;
-        }
-        String substr = loggerName;
-        while ((substr = NameUtil.getSubName(substr)) != null) {
-            loggerConfig = loggerConfigs.get(substr);
-            if (loggerConfig != null) {
-                return loggerConfig;
-            }
-        }
-        return root;
+        final LoggerConfig loggerConfig = loggerConfigIndex.find(loggerName);
+        return loggerConfig != null ? loggerConfig : root;
     }
 
     @Override
@@ -1022,6 +1211,7 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
     }
 
     private void setParents() {
+        loggerConfigIndex = LoggerConfigIndex.create(loggerConfigs);
         for (final Map.Entry<String, LoggerConfig> entry : loggerConfigs.entrySet()) {
             final LoggerConfig logger = entry.getValue();
             String key = entry.getKey();
@@ -16,10 +16,12 @@
  */
 package org.apache.logging.log4j.core.config;
 
+import java.util.Arrays;
 import java.util.Objects;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.BatchAppender;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.appender.AppenderLoggingException;
@@ -84,14 +86,71 @@ public class AppenderControl extends AbstractFilterable {
         callAppenderPreventRecursion(event);
     }
 
+    /**
+     * Call the appender with a batch of events. If the appender is a {@link BatchAppender} the events that pass the
+     * level and filter checks are handed over in a single call, otherwise the appender is called once per event.
+     *
+     * @param events The events to process.
+     * @param count The number of events in the array to process.
+     * @since 2.14.0
+     */
+    public void callAppender(final LogEvent[] events, final int count) {
+        if (!(appender instanceof BatchAppender)) {
+            for (int i = 0; i < count; i++) {
+                callAppender(events[i]);
+            }
+            return;
+        }
+        if (isRecursiveCall()) {
+            return;
+        }
+        final LogEvent[] accepted = acceptedEvents(events, count);
+        final int acceptedCount = accepted == events ? count : accepted.length;
+        if (acceptedCount == 0) {
+            return;
+        }
+        try {
+            recursive.set(this);
+            ensureAppenderStarted();
+            tryCallAppender(accepted, acceptedCount);
+        } finally {
+            recursive.set(null);
+        }
+    }
+
+    /**
+     * Returns the specified array if all events are accepted (the common case, which needs no allocation), otherwise a
+     * new array holding only the accepted events.
+     */
+    private LogEvent[] acceptedEvents(final LogEvent[] events, final int count) {
+        LogEvent[] result = null;
+        int index = 0;
+        for (int i = 0; i < count; i++) {
+            final LogEvent event = events[i];
+            if (isRejected(event)) {
+                if (result == null) {
+                    result = new LogEvent[count - 1];
+                    System.arraycopy(events, 0, result, 0, i);
+                    index = i;
+                }
+            } else if (result != null) {
+                result[index++] = event;
+            }
+        }
+        return result == null ? events : Arrays.copyOf(result, index);
+    }
+
+    private boolean isRejected(final LogEvent event) {
+        return isFilteredByAppenderControl(event) || isFilteredByLevel(event) || isFilteredByAppender(event);
+    }
+
     private boolean shouldSkip(final LogEvent event) {
         return isFilteredByAppenderControl(event) || isFilteredByLevel(event) || isRecursiveCall();
     }
 
     @PerformanceSensitive
     private boolean isFilteredByAppenderControl(final LogEvent event) {
-        final Filter filter = getFilter();
-        return filter != null && Filter.Result.DENY == filter.filter(event);
+        return isFiltered(event);
     }
 
     @PerformanceSensitive
@@ -161,6 +220,16 @@ public class AppenderControl extends AbstractFilterable {
         }
     }
 
+    private void tryCallAppender(final LogEvent[] events, final int count) {
+        try {
+            ((BatchAppender) appender).append(events, count);
+        } catch (final RuntimeException ex) {
+            handleAppenderError(events[0], ex);
+        } catch (final Exception ex) {
+            handleAppenderError(events[0], new AppenderLoggingException(ex));
+        }
+    }
+
     private void handleAppenderError(final LogEvent event, final RuntimeException ex) {
         appender.getHandler().error(createErrorMsg("An exception occurred processing Appender "), event, ex);
         if (!appender.ignoreExceptions()) {
@@ -23,6 +23,7 @@ import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilderFact
 import org.apache.logging.log4j.core.config.composite.CompositeConfiguration;
 import org.apache.logging.log4j.core.config.plugins.util.PluginManager;
 import org.apache.logging.log4j.core.config.plugins.util.PluginType;
+import org.apache.logging.log4j.core.config.snapshot.ConfigurationSnapshot;
 import org.apache.logging.log4j.core.lookup.Interpolator;
 import org.apache.logging.log4j.core.lookup.StrSubstitutor;
 import org.apache.logging.log4j.core.net.UrlConnectionFactory;
@@ -100,6 +101,14 @@ public abstract class ConfigurationFactory extends ConfigurationBuilderFactory {
 
     public static final String AUTHORIZATION_PROVIDER = "log4j2.authorizationProvider";
 
+    /**
+     * Names a directory where snapshots of the parsed configuration files are kept, so that a configuration file that
+     * did not change since the previous start is not parsed again.
+     *
+     * @since 2.14.0
+     */
+    public static final String CONFIGURATION_SNAPSHOT_DIRECTORY_PROPERTY = "log4j2.configurationSnapshotDirectory";
+
     /**
      * Plugin category used to inject a ConfigurationFactory {@link org.apache.logging.log4j.core.config.plugins.Plugin}
      * class.
@@ -299,7 +308,7 @@ public abstract class ConfigurationFactory extends ConfigurationBuilderFactory {
         if (configLocation != null) {
             final ConfigurationSource source = ConfigurationSource.fromUri(configLocation);
             if (source != null) {
-                return getConfiguration(loggerContext, source);
+                return getConfiguration(this, loggerContext, source);
             }
         }
         return null;
@@ -326,7 +335,7 @@ public abstract class ConfigurationFactory extends ConfigurationBuilderFactory {
             final String path = extractClassLoaderUriPath(configLocation);
             final ConfigurationSource source = ConfigurationSource.fromResource(path, loader);
             if (source != null) {
-                final Configuration configuration = getConfiguration(loggerContext, source);
+                final Configuration configuration = getConfiguration(this, loggerContext, source);
                 if (configuration != null) {
                     return configuration;
                 }
@@ -335,6 +344,27 @@ public abstract class ConfigurationFactory extends ConfigurationBuilderFactory {
         return getConfiguration(loggerContext, name, configLocation);
     }
 
+    /**
+     * Returns the configuration of a configuration file from its snapshot if snapshots are enabled and the file did not
+     * change, and otherwise from the specified factory.
+     */
+    static Configuration getConfiguration(final ConfigurationFactory factory, final LoggerContext loggerContext,
+            final ConfigurationSource source) {
+        final ConfigurationSnapshot snapshot = ConfigurationSnapshot.forSource(factory, source);
+        if (snapshot == null) {
+            return factory.getConfiguration(loggerContext, source);
+        }
+        final Configuration cached = snapshot.load(loggerContext);
+        if (cached != null) {
+            return cached;
+        }
+        final Configuration config = factory.getConfiguration(loggerContext, snapshot.getSource());
+        if (ConfigurationSnapshot.isSupported(config)) {
+            ((AbstractConfiguration) config).setSnapshot(snapshot);
+        }
+        return config;
+    }
+
     static boolean isClassLoaderUri(final URI uri) {
         if (uri == null) {
             return false;
@@ -514,7 +544,7 @@ public abstract class ConfigurationFactory extends ConfigurationBuilderFactory {
                     if (types != null) {
                         for (final String type : types) {
                             if (type.equals(ALL_TYPES) || configLocationStr.endsWith(type)) {
-                                final Configuration config = factory.getConfiguration(loggerContext, source);
+                                final Configuration config = getConfiguration(factory, loggerContext, source);
                                 if (config != null) {
                                     return config;
                                 }
@@ -548,7 +578,7 @@ public abstract class ConfigurationFactory extends ConfigurationBuilderFactory {
                         if (!factory.isActive()) {
                             LOGGER.warn("Found configuration file {} for inactive ConfigurationFactory {}", configName, factory.getClass().getName());
                         }
-                        return factory.getConfiguration(loggerContext, source);
+                        return getConfiguration(factory, loggerContext, source);
                     }
                 }
             }
@@ -569,7 +599,7 @@ public abstract class ConfigurationFactory extends ConfigurationBuilderFactory {
                     if (types != null) {
                         for (final String type : types) {
                             if (type.equals(ALL_TYPES) || config != null && config.endsWith(type)) {
-                                final Configuration c = factory.getConfiguration(loggerContext, source);
+                                final Configuration c = getConfiguration(factory, loggerContext, source);
                                 if (c != null) {
                                     LOGGER.debug("Loaded configuration from {}", source);
                                     return c;
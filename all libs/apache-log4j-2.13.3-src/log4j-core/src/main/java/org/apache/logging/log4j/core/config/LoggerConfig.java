@@ -48,6 +48,7 @@ import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.core.impl.LogEventFactory;
 import org.apache.logging.log4j.core.impl.ReusableLogEventFactory;
 import org.apache.logging.log4j.core.lookup.StrSubstitutor;
+import org.apache.logging.log4j.core.lookup.StrTemplate;
 import org.apache.logging.log4j.core.util.Booleans;
 import org.apache.logging.log4j.core.util.Constants;
 import org.apache.logging.log4j.core.util.Loader;
@@ -77,6 +78,7 @@ public class LoggerConfig extends AbstractFilterable implements LocationAware {
     private Map<Property, Boolean> propertiesMap;
     private final List<Property> properties;
     private final boolean propertiesRequireLookup;
+    private final StrTemplate[] propertyTemplates;
     private final Configuration config;
     private final ReliabilityStrategy reliabilityStrategy;
 
@@ -108,6 +110,7 @@ public class LoggerConfig extends AbstractFilterable implements LocationAware {
         this.name = Strings.EMPTY;
         this.properties = null;
         this.propertiesRequireLookup = false;
+        this.propertyTemplates = null;
         this.config = null;
         this.reliabilityStrategy = new DefaultReliabilityStrategy(this);
     }
@@ -126,6 +129,7 @@ public class LoggerConfig extends AbstractFilterable implements LocationAware {
         this.additive = additive;
         this.properties = null;
         this.propertiesRequireLookup = false;
+        this.propertyTemplates = null;
         this.config = null;
         this.reliabilityStrategy = new DefaultReliabilityStrategy(this);
     }
@@ -148,9 +152,26 @@ public class LoggerConfig extends AbstractFilterable implements LocationAware {
             this.properties = null;
         }
         this.propertiesRequireLookup = containsPropertyRequiringLookup(properties);
+        this.propertyTemplates = propertiesRequireLookup ? compilePropertyTemplates(this.properties, config) : null;
         this.reliabilityStrategy = config.getReliabilityStrategy(this);
     }
 
+    private static StrTemplate[] compilePropertyTemplates(final List<Property> properties,
+            final Configuration config) {
+        final StrSubstitutor substitutor = config.getStrSubstitutor();
+        if (substitutor == null) {
+            return null;
+        }
+        final StrTemplate[] result = new StrTemplate[properties.size()];
+        for (int i = 0; i < result.length; i++) {
+            final Property prop = properties.get(i);
+            if (prop.isValueNeedsLookup()) {
+                result[i] = substitutor.compile(prop.getValue());
+            }
+        }
+        return result;
+    }
+
     private static boolean containsPropertyRequiringLookup(final Property[] properties) {
         if (properties == null) {
             return false;
@@ -368,6 +389,12 @@ public class LoggerConfig extends AbstractFilterable implements LocationAware {
         return propertiesRequireLookup;
     }
 
+    private String lookupPropertyValue(final int index, final Property prop, final LogEvent event) {
+        return propertyTemplates != null
+                ? propertyTemplates[index].format(event)
+                : config.getStrSubstitutor().replace(event, prop.getValue());
+    }
+
     /**
      * Logs an event.
      *
@@ -398,7 +425,7 @@ public class LoggerConfig extends AbstractFilterable implements LocationAware {
                 for (int i = 0; i < properties.size(); i++) {
                     final Property prop = properties.get(i);
                     final String value = prop.isValueNeedsLookup() // since LOG4J2-1575
-                            ? config.getStrSubstitutor().replace(event, prop.getValue()) //
+                            ? lookupPropertyValue(i, prop, event) //
                             : prop.getValue();
                     props.add(Property.createProperty(prop.getName(), value));
                 }
@@ -447,7 +474,7 @@ public class LoggerConfig extends AbstractFilterable implements LocationAware {
                 for (int i = 0; i < properties.size(); i++) {
                     final Property prop = properties.get(i);
                     final String value = prop.isValueNeedsLookup() // since LOG4J2-1575
-                        ? config.getStrSubstitutor().replace(event, prop.getValue()) //
+                        ? lookupPropertyValue(i, prop, event) //
                         : prop.getValue();
                     props.add(Property.createProperty(prop.getName(), value));
                 }
@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config;
+
+import java.util.Map;
+
+/**
+ * Immutable trie of LoggerConfigs indexed by the dot separated segments of their names.
+ * <p>
+ * {@link #find(String)} returns the same LoggerConfig as looking up the logger name and then its parent names, as
+ * produced by {@link org.apache.logging.log4j.core.util.NameUtil#getSubName(String)}, in the map the index was
+ * created from. It walks the name once and looks up each segment in a hash table of the trie node by comparing
+ * regions of the logger name, so it does not allocate.
+ * </p>
+ * <p>
+ * The index is rebuilt when the LoggerConfigs of a configuration change, which only happens while configuring.
+ * </p>
+ */
+final class LoggerConfigIndex {
+
+    static final LoggerConfigIndex EMPTY = new LoggerConfigIndex();
+
+    private final Node root = new Node();
+    private LoggerConfig emptyNameConfig;
+
+    /**
+     * A trie node: a LoggerConfig for the name that ends at this node, if any, and an open addressing hash table of
+     * the child segments.
+     */
+    private static final class Node {
+        private static final int INITIAL_CAPACITY = 4;
+
+        private LoggerConfig loggerConfig;
+        private String[] keys;
+        private int[] hashes;
+        private Node[] children;
+        private int childCount;
+
+        Node getChild(final String name, final int start, final int end) {
+            if (keys == null) {
+                return null;
+            }
+            final int hash = hash(name, start, end);
+            final int length = end - start;
+            final int mask = keys.length - 1;
+            for (int i = hash & mask;; i = (i + 1) & mask) {
+                final String key = keys[i];
+                if (key == null) {
+                    return null;
+                }
+                if (hashes[i] == hash && key.length() == length && name.regionMatches(start, key, 0, length)) {
+                    return children[i];
+                }
+            }
+        }
+
+        Node getOrAddChild(final String name, final int start, final int end) {
+            final Node existing = getChild(name, start, end);
+            if (existing != null) {
+                return existing;
+            }
+            if (keys == null) {
+                keys = new String[INITIAL_CAPACITY];
+                hashes = new int[INITIAL_CAPACITY];
+                children = new Node[INITIAL_CAPACITY];
+            } else if ((childCount + 1) * 2 > keys.length) {
+                resize();
+            }
+            final Node child = new Node();
+            put(name.substring(start, end), hash(name, start, end), child);
+            return child;
+        }
+
+        private void put(final String key, final int hash, final Node child) {
+            final int mask = keys.length - 1;
+            int i = hash & mask;
+            while (keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            hashes[i] = hash;
+            children[i] = child;
+            childCount++;
+        }
+
+        private void resize() {
+            final String[] oldKeys = keys;
+            final int[] oldHashes = hashes;
+            final Node[] oldChildren = children;
+            keys = new String[oldKeys.length * 2];
+            hashes = new int[oldKeys.length * 2];
+            children = new Node[oldKeys.length * 2];
+            childCount = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    put(oldKeys[i], oldHashes[i], oldChildren[i]);
+                }
+            }
+        }
+
+        private static int hash(final String name, final int start, final int end) {
+            int h = 0;
+            for (int i = start; i < end; i++) {
+                h = 31 * h + name.charAt(i);
+            }
+            return h ^ (h >>> 16);
+        }
+    }
+
+    private LoggerConfigIndex() {
+    }
+
+    /**
+     * Creates an index of the specified LoggerConfigs.
+     *
+     * @param loggerConfigs the LoggerConfigs by name
+     * @return a new index
+     */
+    static LoggerConfigIndex create(final Map<String, LoggerConfig> loggerConfigs) {
+        final LoggerConfigIndex result = new LoggerConfigIndex();
+        for (final Map.Entry<String, LoggerConfig> entry : loggerConfigs.entrySet()) {
+            result.add(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    private void add(final String name, final LoggerConfig loggerConfig) {
+        if (name.isEmpty()) {
+            emptyNameConfig = loggerConfig;
+            return;
+        }
+        Node node = root;
+        int start = 0;
+        while (true) {
+            int end = name.indexOf('.', start);
+            if (end < 0) {
+                end = name.length();
+            }
+            node = node.getOrAddChild(name, start, end);
+            if (end == name.length()) {
+                node.loggerConfig = loggerConfig;
+                return;
+            }
+            start = end + 1;
+        }
+    }
+
+    /**
+     * Returns the LoggerConfig with the longest name that is the specified logger name or one of its parent names.
+     *
+     * @param loggerName the name of a Logger
+     * @return the LoggerConfig, or {@code null} if none matches and there is no LoggerConfig with an empty name
+     */
+    LoggerConfig find(final String loggerName) {
+        if (loggerName.isEmpty()) {
+            return emptyNameConfig;
+        }
+        LoggerConfig result = emptyNameConfig;
+        Node node = root;
+        int start = 0;
+        final int length = loggerName.length();
+        while (true) {
+            int end = loggerName.indexOf('.', start);
+            if (end < 0) {
+                end = length;
+            }
+            node = node.getChild(loggerName, start, end);
+            if (node == null) {
+                return result;
+            }
+            if (node.loggerConfig != null) {
+                result = node.loggerConfig;
+            }
+            if (end == length) {
+                return result;
+            }
+            start = end + 1;
+        }
+    }
+}
@@ -126,6 +126,8 @@ public class JsonConfiguration extends AbstractConfiguration implements Reconfig
             for (final Status s : status) {
                 LOGGER.error("Error processing element {}: {}", s.name, s.errorType);
             }
+            // a configuration with errors is parsed again to report them
+            setSnapshot(null);
         }
     }
 
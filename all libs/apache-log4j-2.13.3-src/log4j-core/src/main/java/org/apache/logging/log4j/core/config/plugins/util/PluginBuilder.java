@@ -18,7 +18,9 @@
 package org.apache.logging.log4j.core.config.plugins.util;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.AccessibleObject;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -36,6 +38,7 @@ import org.apache.logging.log4j.core.config.Node;
 import org.apache.logging.log4j.core.config.plugins.PluginAliases;
 import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.config.plugins.validation.Constraint;
 import org.apache.logging.log4j.core.config.plugins.validation.ConstraintValidator;
 import org.apache.logging.log4j.core.config.plugins.validation.ConstraintValidators;
 import org.apache.logging.log4j.core.config.plugins.visitors.PluginVisitor;
@@ -49,11 +52,146 @@ import org.apache.logging.log4j.util.StringBuilders;
 /**
  * Builder class to instantiate and configure a Plugin object using a PluginFactory method or PluginBuilderFactory
  * builder class.
+ * <p>
+ * The factory methods of plugin classes and the fields of builder classes, with method handles to set and get them,
+ * are looked up once per class, so that configuring a plugin again does not repeat the reflection.
+ * </p>
  */
 public class PluginBuilder implements Builder<Object> {
 
     private static final Logger LOGGER = StatusLogger.getLogger();
 
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<FactoryMethods> FACTORY_METHODS = new ClassValue<FactoryMethods>() {
+        @Override
+        protected FactoryMethods computeValue(final Class<?> type) {
+            return new FactoryMethods(type);
+        }
+    };
+
+    private static final ClassValue<BuilderField[]> BUILDER_FIELDS = new ClassValue<BuilderField[]>() {
+        @Override
+        protected BuilderField[] computeValue(final Class<?> type) {
+            final List<Field> fields = TypeUtil.getAllDeclaredFields(type);
+            final BuilderField[] result = new BuilderField[fields.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = new BuilderField(fields.get(i));
+            }
+            return result;
+        }
+    };
+
+    /**
+     * The static builder factory method and factory method of a plugin class.
+     */
+    private static final class FactoryMethods {
+        private final Method builderFactory;
+        private final Method factory;
+
+        FactoryMethods(final Class<?> clazz) {
+            Method builderFactoryMethod = null;
+            Method factoryMethod = null;
+            for (final Method method : clazz.getDeclaredMethods()) {
+                if (!Modifier.isStatic(method.getModifiers())) {
+                    continue;
+                }
+                if (builderFactoryMethod == null && method.isAnnotationPresent(PluginBuilderFactory.class) &&
+                    TypeUtil.isAssignable(Builder.class, method.getReturnType())) {
+                    ReflectionUtil.makeAccessible(method);
+                    builderFactoryMethod = method;
+                }
+                if (factoryMethod == null && method.isAnnotationPresent(PluginFactory.class)) {
+                    ReflectionUtil.makeAccessible(method);
+                    factoryMethod = method;
+                }
+            }
+            this.builderFactory = builderFactoryMethod;
+            this.factory = factoryMethod;
+        }
+    }
+
+    /**
+     * A field of a builder class with its annotations, and method handles to set and get its value.
+     */
+    private static final class BuilderField {
+        private final Field field;
+        private final Annotation[] annotations;
+        private final String[] aliases;
+        private final boolean constrained;
+        /** Sets the field of a builder, or {@code null} if the field is set by reflection. */
+        private final MethodHandle setter;
+        /** Gets the field of a builder, or {@code null} if the field is read by reflection. */
+        private final MethodHandle getter;
+
+        BuilderField(final Field field) {
+            field.setAccessible(true);
+            this.field = field;
+            this.annotations = field.getDeclaredAnnotations();
+            this.aliases = extractPluginAliases(annotations);
+            boolean hasConstraint = false;
+            for (final Annotation annotation : annotations) {
+                hasConstraint |= annotation.annotationType().isAnnotationPresent(Constraint.class);
+            }
+            this.constrained = hasConstraint;
+            this.setter = createSetter(field);
+            this.getter = constrained ? createGetter(field) : null;
+        }
+
+        private static MethodHandle createSetter(final Field field) {
+            try {
+                MethodHandle handle = MethodHandles.lookup().unreflectSetter(field);
+                if (Modifier.isStatic(field.getModifiers())) {
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                }
+                return handle.asType(SETTER_TYPE);
+            } catch (final IllegalAccessException | RuntimeException e) {
+                // final fields cannot be set with a method handle
+                return null;
+            }
+        }
+
+        private static MethodHandle createGetter(final Field field) {
+            try {
+                MethodHandle handle = MethodHandles.lookup().unreflectGetter(field);
+                if (Modifier.isStatic(field.getModifiers())) {
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                }
+                return handle.asType(GETTER_TYPE);
+            } catch (final IllegalAccessException | RuntimeException e) {
+                return null;
+            }
+        }
+
+        void set(final Object builder, final Object value) throws IllegalAccessException {
+            if (setter == null) {
+                field.set(builder, value);
+                return;
+            }
+            try {
+                setter.invokeExact(builder, value);
+            } catch (final RuntimeException | Error e) {
+                throw e;
+            } catch (final Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+
+        Object get(final Object builder) throws IllegalAccessException {
+            if (getter == null) {
+                return field.get(builder);
+            }
+            try {
+                return getter.invokeExact(builder);
+            } catch (final RuntimeException | Error e) {
+                throw e;
+            } catch (final Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+    }
+
     private final PluginType<?> pluginType;
     private final Class<?> clazz;
 
@@ -149,27 +287,19 @@ public class PluginBuilder implements Builder<Object> {
 
     private static Builder<?> createBuilder(final Class<?> clazz)
         throws InvocationTargetException, IllegalAccessException {
-        for (final Method method : clazz.getDeclaredMethods()) {
-            if (method.isAnnotationPresent(PluginBuilderFactory.class) &&
-                Modifier.isStatic(method.getModifiers()) &&
-                TypeUtil.isAssignable(Builder.class, method.getReturnType())) {
-                ReflectionUtil.makeAccessible(method);
-                return (Builder<?>) method.invoke(null);
-            }
-        }
-        return null;
+        final Method method = FACTORY_METHODS.get(clazz).builderFactory;
+        return method == null ? null : (Builder<?>) method.invoke(null);
     }
 
     private void injectFields(final Builder<?> builder) throws IllegalAccessException {
-        final List<Field> fields = TypeUtil.getAllDeclaredFields(builder.getClass());
-        AccessibleObject.setAccessible(fields.toArray(new Field[] {}), true);
         final StringBuilder log = new StringBuilder();
         boolean invalid = false;
         String reason = "";
-        for (final Field field : fields) {
+        for (final BuilderField builderField : BUILDER_FIELDS.get(builder.getClass())) {
             log.append(log.length() == 0 ? simpleName(builder) + "(" : ", ");
-            final Annotation[] annotations = field.getDeclaredAnnotations();
-            final String[] aliases = extractPluginAliases(annotations);
+            final Field field = builderField.field;
+            final Annotation[] annotations = builderField.annotations;
+            final String[] aliases = builderField.aliases;
             for (final Annotation a : annotations) {
                 if (a instanceof PluginAliases) {
                     continue; // already processed
@@ -185,13 +315,16 @@ public class PluginBuilder implements Builder<Object> {
                         .visit(configuration, node, event, log);
                     // don't overwrite default values if the visitor gives us no value to inject
                     if (value != null) {
-                        field.set(builder, value);
+                        builderField.set(builder, value);
                     }
                 }
             }
+            if (!builderField.constrained) {
+                continue;
+            }
             final Collection<ConstraintValidator<?>> validators =
                 ConstraintValidators.findValidators(annotations);
-            final Object value = field.get(builder);
+            final Object value = builderField.get(builder);
             for (final ConstraintValidator<?> validator : validators) {
                 if (!validator.isValid(field.getName(), value)) {
                     invalid = true;
@@ -224,14 +357,11 @@ public class PluginBuilder implements Builder<Object> {
     }
 
     private static Method findFactoryMethod(final Class<?> clazz) {
-        for (final Method method : clazz.getDeclaredMethods()) {
-            if (method.isAnnotationPresent(PluginFactory.class) &&
-                Modifier.isStatic(method.getModifiers())) {
-                ReflectionUtil.makeAccessible(method);
-                return method;
-            }
+        final Method method = FACTORY_METHODS.get(clazz).factory;
+        if (method == null) {
+            throw new IllegalStateException("No factory method found for class " + clazz.getName());
         }
-        throw new IllegalStateException("No factory method found for class " + clazz.getName());
+        return method;
     }
 
     private Object[] generateParameters(final Method factory) {
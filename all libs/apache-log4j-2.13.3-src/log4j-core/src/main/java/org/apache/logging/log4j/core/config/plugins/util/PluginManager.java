@@ -39,6 +39,8 @@ public class PluginManager {
     private static final Logger LOGGER = StatusLogger.getLogger();
 
     private Map<String, PluginType<?>> plugins = new HashMap<>();
+    /** The plugins whose classes could be loaded, created when all the plugins are requested. */
+    private Map<String, PluginType<?>> loadablePlugins;
     private final String category;
 
     /**
@@ -93,22 +95,33 @@ public class PluginManager {
     }
 
     /**
-     * Returns the type of a specified plugin.
+     * Returns the type of a specified plugin. This loads the class of the plugin, but not the classes of other plugins.
      *
      * @param name The name of the plugin.
-     * @return The plugin's type.
+     * @return The plugin's type, or {@code null} if there is no such plugin or its class cannot be loaded.
      */
     public PluginType<?> getPluginType(final String name) {
-        return plugins.get(name.toLowerCase());
+        final PluginType<?> type = plugins.get(name.toLowerCase());
+        return type != null && type.isLoadable() ? type : null;
     }
 
     /**
-     * Returns all the matching plugins.
+     * Returns all the matching plugins. This loads the classes of all the plugins.
      *
      * @return A Map containing the name of the plugin and its type.
      */
     public Map<String, PluginType<?>> getPlugins() {
-        return plugins;
+        Map<String, PluginType<?>> result = loadablePlugins;
+        if (result == null) {
+            result = new LinkedHashMap<>(plugins.size());
+            for (final Map.Entry<String, PluginType<?>> entry : plugins.entrySet()) {
+                if (entry.getValue().isLoadable()) {
+                    result.put(entry.getKey(), entry.getValue());
+                }
+            }
+            loadablePlugins = result;
+        }
+        return result;
     }
 
     /**
@@ -156,6 +169,7 @@ public class PluginManager {
         LOGGER.debug("PluginManager '{}' found {} plugins", category, newPlugins.size());
 
         plugins = newPlugins;
+        loadablePlugins = null;
     }
 
     private static void mergeByName(final Map<String, PluginType<?>> newPlugins, final List<PluginType<?>> plugins) {
@@ -167,9 +181,10 @@ public class PluginManager {
             final PluginType<?> existing = newPlugins.get(key);
             if (existing == null) {
                 newPlugins.put(key, pluginType);
-            } else if (!existing.getPluginClass().equals(pluginType.getPluginClass())) {
+            } else if (!existing.getPluginClassName().equals(pluginType.getPluginClassName())) {
+                // compared by name, so that the classes of the plugins are not loaded
                 LOGGER.warn("Plugin [{}] is already mapped to {}, ignoring {}",
-                    key, existing.getPluginClass(), pluginType.getPluginClass());
+                    key, existing.getPluginClassName(), pluginType.getPluginClassName());
             }
         }
     }
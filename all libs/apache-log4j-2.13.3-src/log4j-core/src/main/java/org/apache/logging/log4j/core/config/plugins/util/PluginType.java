@@ -17,31 +17,104 @@
 package org.apache.logging.log4j.core.config.plugins.util;
 
 
+import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.config.plugins.processor.PluginEntry;
+import org.apache.logging.log4j.status.StatusLogger;
 
 /**
  * Plugin Descriptor. This is a memento object for Plugin annotations paired to their annotated classes.
+ * <p>
+ * The descriptors of plugins read from a plugin cache file load the plugin class the first time it is requested, so
+ * that the classes of plugins that are not used by the configuration are not loaded.
+ * </p>
  *
  * @param <T> The plug-in class, which can be any kind of class.
  * @see org.apache.logging.log4j.core.config.plugins.Plugin
  */
 public class PluginType<T> {
 
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
     private final PluginEntry pluginEntry;
-    private final Class<T> pluginClass;
+    private final ClassLoader classLoader;
     private final String elementName;
+    private volatile Class<T> pluginClass;
+    private volatile boolean loadFailed;
 
     /**
      * @since 2.1
      */
     public PluginType(final PluginEntry pluginEntry, final Class<T> pluginClass, final String elementName) {
         this.pluginEntry = pluginEntry;
+        this.classLoader = null;
         this.pluginClass = pluginClass;
         this.elementName = elementName;
     }
 
+    /**
+     * Constructs a PluginType that loads the plugin class named by the plugin entry with the specified ClassLoader
+     * the first time it is requested.
+     *
+     * @param pluginEntry the plugin entry
+     * @param classLoader the ClassLoader to load the plugin class with
+     * @param elementName the element name of the plugin
+     * @since 2.14.0
+     */
+    public PluginType(final PluginEntry pluginEntry, final ClassLoader classLoader, final String elementName) {
+        this.pluginEntry = pluginEntry;
+        this.classLoader = classLoader;
+        this.elementName = elementName;
+    }
+
+    /**
+     * Returns the plugin class, loading it if this is the first request.
+     *
+     * @return the plugin class, or {@code null} if it could not be loaded
+     */
     public Class<T> getPluginClass() {
-        return this.pluginClass;
+        final Class<T> result = this.pluginClass;
+        if (result != null || loadFailed) {
+            return result;
+        }
+        return loadPluginClass();
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized Class<T> loadPluginClass() {
+        if (pluginClass == null && !loadFailed) {
+            final String className = pluginEntry.getClassName();
+            try {
+                pluginClass = (Class<T>) classLoader.loadClass(className);
+            } catch (final ClassNotFoundException e) {
+                loadFailed = true;
+                LOGGER.info("Plugin [{}] could not be loaded due to missing classes.", className, e);
+            } catch (final LinkageError e) {
+                loadFailed = true;
+                LOGGER.info("Plugin [{}] could not be loaded due to linkage error.", className, e);
+            }
+        }
+        return pluginClass;
+    }
+
+    /**
+     * Returns whether the plugin class can be loaded, loading it if it was not loaded yet.
+     *
+     * @return whether {@link #getPluginClass()} returns a class
+     * @since 2.14.0
+     */
+    public boolean isLoadable() {
+        return getPluginClass() != null;
+    }
+
+    /**
+     * Returns the name of the plugin class without loading it.
+     *
+     * @return the fully qualified name of the plugin class
+     * @since 2.14.0
+     */
+    public String getPluginClassName() {
+        final Class<T> clazz = this.pluginClass;
+        return clazz != null ? clazz.getName() : pluginEntry.getClassName();
     }
 
     public String getElementName() {
@@ -72,7 +145,7 @@ public class PluginType<T> {
 
     @Override
     public String toString() {
-        return "PluginType [pluginClass=" + pluginClass +
+        return "PluginType [pluginClass=" + (pluginClass != null ? pluginClass : getPluginClassName()) +
                 ", key=" + pluginEntry.getKey() +
                 ", elementName=" + pluginEntry.getName() +
                 ", isObjectPrintable=" + pluginEntry.isPrintable() +
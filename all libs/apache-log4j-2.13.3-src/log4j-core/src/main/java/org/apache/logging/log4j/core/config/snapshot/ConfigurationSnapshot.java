@@ -0,0 +1,425 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config.snapshot;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.Version;
+import org.apache.logging.log4j.core.config.AbstractConfiguration;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.ConfigurationFactory;
+import org.apache.logging.log4j.core.config.ConfigurationSource;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.json.JsonConfiguration;
+import org.apache.logging.log4j.core.config.xml.XmlConfiguration;
+import org.apache.logging.log4j.core.config.yaml.YamlConfiguration;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.apache.logging.log4j.util.PropertiesUtil;
+import org.apache.logging.log4j.util.Strings;
+
+/**
+ * A snapshot of the Node tree that a configuration built from a configuration file, which is read instead of parsing
+ * the configuration file again when it did not change.
+ * <p>
+ * When the {@value ConfigurationFactory#CONFIGURATION_SNAPSHOT_DIRECTORY_PROPERTY} property names a directory, the Node
+ * tree of an XML, JSON or YAML configuration is written to that directory once it was built, in a file named after
+ * the location of the configuration file and the SHA-256 checksum of its contents. The next time the configuration
+ * file is loaded by the same ConfigurationFactory, a {@link SnapshotConfiguration} is created from the snapshot of its
+ * current contents without parsing it. A snapshot is not used when it was written by another version of Log4j, or
+ * when it cannot be read; the configuration file is parsed and the snapshot is written again. No snapshot is written
+ * for an XML configuration file that uses XInclude or declares entities, because the other files it reads are not
+ * part of the checksum.
+ * </p>
+ * <p>
+ * The snapshot contains the attributes as they are written in the configuration file and the plugin type of each node.
+ * Variables are substituted when the configuration is built, as they are for a parsed configuration, because their
+ * values, like environment variables, may differ between runs.
+ * </p>
+ * <p>
+ * This class should be considered internal.
+ * </p>
+ *
+ * @since 2.14.0
+ */
+public final class ConfigurationSnapshot {
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    private static final int MAGIC = 0x4C344A53;
+    private static final int FORMAT_VERSION = 1;
+    private static final String SUFFIX = ".snapshot";
+    private static final int LOCATION_HASH_LENGTH = 8;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    /** Markers of an XML configuration file that reads other files while it is parsed. */
+    private static final String[] INCLUDE_MARKERS = {"http://www.w3.org/2001/XInclude", "<!ENTITY"};
+
+    private final File directory;
+    private final String factoryClassName;
+    private final ConfigurationSource source;
+    private final byte[] data;
+    /** The hash of the location of the configuration file, which starts the names of its snapshots. */
+    private final String prefix;
+    private final String checksum;
+    /** Whether the configuration file reads other files, whose contents are not part of the checksum. */
+    private final boolean includesFiles;
+
+    /**
+     * A node read from a snapshot, whose plugin type is looked up when the configuration is set up.
+     */
+    static final class Element {
+        final String name;
+        final String pluginKey;
+        final String value;
+        final Map<String, String> attributes;
+        final List<Element> children;
+
+        Element(final String name, final String pluginKey, final String value, final Map<String, String> attributes,
+                final List<Element> children) {
+            this.name = name;
+            this.pluginKey = pluginKey;
+            this.value = value;
+            this.attributes = attributes;
+            this.children = children;
+        }
+    }
+
+    private ConfigurationSnapshot(final File directory, final String factoryClassName,
+            final ConfigurationSource source, final byte[] data) throws NoSuchAlgorithmException {
+        this.directory = directory;
+        this.factoryClassName = factoryClassName;
+        this.source = source;
+        this.data = data;
+        final byte[] locationHash = MessageDigest.getInstance("SHA-256")
+                .digest(source.getLocation().getBytes(StandardCharsets.UTF_8));
+        this.prefix = toHex(locationHash, LOCATION_HASH_LENGTH) + '-';
+        final byte[] contentHash = MessageDigest.getInstance("SHA-256").digest(data);
+        this.checksum = toHex(contentHash, contentHash.length);
+        this.includesFiles = includesFiles(data);
+    }
+
+    /**
+     * Reads the contents of a configuration file that a ConfigurationFactory is about to parse, if snapshots are
+     * enabled.
+     *
+     * @param factory the ConfigurationFactory that parses the configuration file
+     * @param source the configuration file, whose input stream is read if a snapshot is returned
+     * @return the snapshot of the configuration file, or {@code null} if snapshots are not enabled or the source is not
+     *         a file or URL
+     */
+    public static ConfigurationSnapshot forSource(final ConfigurationFactory factory,
+            final ConfigurationSource source) {
+        final String directoryName = PropertiesUtil.getProperties()
+                .getStringProperty(ConfigurationFactory.CONFIGURATION_SNAPSHOT_DIRECTORY_PROPERTY);
+        if (Strings.isBlank(directoryName) || source == null || source.getLocation() == null
+                || source.getInputStream() == null || (source.getFile() == null && source.getURL() == null)) {
+            return null;
+        }
+        try {
+            final byte[] data;
+            try (final InputStream is = source.getInputStream()) {
+                data = toByteArray(is);
+            }
+            // a source that reads the file or URL again when it is reset, like the original source
+            final ConfigurationSource copy = source.getFile() != null
+                    ? new ConfigurationSource(new ByteArrayInputStream(data), source.getFile())
+                    : new ConfigurationSource(new ByteArrayInputStream(data), source.getURL(),
+                            source.getLastModified());
+            return new ConfigurationSnapshot(new File(directoryName), factory.getClass().getName(), copy, data);
+        } catch (final IOException | NoSuchAlgorithmException e) {
+            LOGGER.warn("Unable to read configuration source {} for a snapshot", source, e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns whether the Node tree of a configuration can be written to a snapshot.
+     *
+     * @param configuration a configuration
+     * @return whether the configuration is an XML, JSON or YAML configuration
+     */
+    public static boolean isSupported(final Configuration configuration) {
+        return configuration != null && (configuration.getClass() == XmlConfiguration.class
+                || configuration.getClass() == JsonConfiguration.class
+                || configuration.getClass() == YamlConfiguration.class);
+    }
+
+    /**
+     * Returns the configuration source to parse when there is no snapshot. The contents of the original source were
+     * read by {@link #forSource(ConfigurationFactory, ConfigurationSource)}.
+     *
+     * @return a configuration source with the contents of the configuration file
+     */
+    public ConfigurationSource getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the file of the snapshot of the current contents of the configuration file.
+     *
+     * @return the snapshot file
+     */
+    public File getFile() {
+        return new File(directory, prefix + checksum + SUFFIX);
+    }
+
+    /**
+     * Creates a configuration from the snapshot of the current contents of the configuration file.
+     *
+     * @param loggerContext the LoggerContext of the configuration
+     * @return the configuration, or {@code null} if there is no usable snapshot
+     */
+    public Configuration load(final LoggerContext loggerContext) {
+        final File file = getFile();
+        if (includesFiles) {
+            LOGGER.debug("Not using a configuration snapshot for {}, which includes other files", source);
+            return null;
+        }
+        if (!file.isFile()) {
+            LOGGER.debug("No configuration snapshot {} for {}", file, source);
+            return null;
+        }
+        try {
+            final byte[] bytes = Files.readAllBytes(file.toPath());
+            final int length = bytes.length - Long.BYTES;
+            if (length < 0) {
+                throw new IOException("Truncated snapshot");
+            }
+            final CRC32 crc = new CRC32();
+            crc.update(bytes, 0, length);
+            final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            in.skipBytes(length);
+            if (in.readLong() != crc.getValue()) {
+                throw new IOException("Corrupted snapshot");
+            }
+            final DataInputStream payload = new DataInputStream(new ByteArrayInputStream(bytes, 0, length));
+            if (payload.readInt() != MAGIC || payload.readInt() != FORMAT_VERSION) {
+                throw new IOException("Unknown snapshot format");
+            }
+            final String version = readString(payload);
+            if (!Version.getProductString().equals(version)) {
+                LOGGER.debug("Ignoring configuration snapshot {} written by {}", file, version);
+                return null;
+            }
+            if (!factoryClassName.equals(readString(payload)) || !checksum.equals(readString(payload))) {
+                LOGGER.debug("Ignoring configuration snapshot {} written for another configuration", file);
+                return null;
+            }
+            final String contentType = readString(payload);
+            final Map<String, String> rootAttributes = readAttributes(payload);
+            final List<Element> elements = readChildren(payload);
+            LOGGER.debug("Loading configuration {} from snapshot {}", source, file);
+            return new SnapshotConfiguration(loggerContext, source, data, contentType, rootAttributes, elements);
+        } catch (final IOException | RuntimeException e) {
+            LOGGER.warn("Ignoring unreadable configuration snapshot {}: {}", file, e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Writes the Node tree of a configuration that was just set up to the snapshot file, and deletes the snapshots of
+     * previous contents of the configuration file.
+     *
+     * @param configuration a configuration whose Node tree was built but not configured yet
+     */
+    public void write(final AbstractConfiguration configuration) {
+        final Node rootNode = configuration.getRootNode();
+        if (includesFiles || !isSupported(configuration) || rootNode == null || !rootNode.hasChildren()) {
+            return;
+        }
+        final File file = getFile();
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length);
+            final DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            writeString(out, Version.getProductString());
+            writeString(out, factoryClassName);
+            writeString(out, checksum);
+            writeString(out, configuration instanceof XmlConfiguration ? "text/xml" : "application/json");
+            writeAttributes(out, rootNode.getAttributes());
+            writeChildren(out, rootNode);
+            out.flush();
+            final CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            out.writeLong(crc.getValue());
+            out.flush();
+
+            final Path directoryPath = directory.toPath();
+            Files.createDirectories(directoryPath);
+            final Path temp = Files.createTempFile(directoryPath, prefix, ".tmp");
+            try {
+                Files.write(temp, bytes.toByteArray());
+                try {
+                    Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.ATOMIC_MOVE);
+                } catch (final AtomicMoveNotSupportedException e) {
+                    Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            LOGGER.debug("Wrote configuration snapshot {} for {}", file, source);
+            deleteStaleSnapshots(file);
+        } catch (final IOException e) {
+            LOGGER.warn("Unable to write configuration snapshot {}", file, e);
+        }
+    }
+
+    private void deleteStaleSnapshots(final File current) {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (final File file : files) {
+            final String name = file.getName();
+            if (name.startsWith(prefix) && name.endsWith(SUFFIX) && !file.equals(current) && !file.delete()) {
+                LOGGER.debug("Unable to delete stale configuration snapshot {}", file);
+            }
+        }
+    }
+
+    private static void writeChildren(final DataOutputStream out, final Node node) throws IOException {
+        final List<Node> children = node.getChildren();
+        out.writeInt(children.size());
+        for (final Node child : children) {
+            writeString(out, child.getName());
+            writeString(out, child.getType() == null ? null : child.getType().getKey());
+            writeString(out, child.getValue());
+            writeAttributes(out, child.getAttributes());
+            writeChildren(out, child);
+        }
+    }
+
+    private static List<Element> readChildren(final DataInputStream in) throws IOException {
+        final int count = readCount(in);
+        final List<Element> children = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final String name = readString(in);
+            final String pluginKey = readString(in);
+            final String value = readString(in);
+            final Map<String, String> attributes = readAttributes(in);
+            children.add(new Element(name, pluginKey, value, attributes, readChildren(in)));
+        }
+        return children;
+    }
+
+    private static void writeAttributes(final DataOutputStream out, final Map<String, String> attributes)
+            throws IOException {
+        out.writeInt(attributes.size());
+        for (final Map.Entry<String, String> entry : attributes.entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue());
+        }
+    }
+
+    private static Map<String, String> readAttributes(final DataInputStream in) throws IOException {
+        final int count = readCount(in);
+        final Map<String, String> attributes = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            attributes.put(readString(in), readString(in));
+        }
+        return attributes;
+    }
+
+    private static int readCount(final DataInputStream in) throws IOException {
+        final int count = in.readInt();
+        if (count < 0 || count > in.available()) {
+            throw new IOException("Invalid count " + count);
+        }
+        return count;
+    }
+
+    /**
+     * Writes a string that may be {@code null} or longer than {@link DataOutputStream#writeUTF(String)} allows.
+     */
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.available()) {
+            throw new IOException("Invalid string length " + length);
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns whether a configuration file uses XInclude or entity declarations, which read other files when it is
+     * parsed. A snapshot only checks the contents of the configuration file itself, so it would not notice when one of
+     * the other files changed.
+     */
+    private static boolean includesFiles(final byte[] data) {
+        final String contents = new String(data, StandardCharsets.ISO_8859_1);
+        for (final String marker : INCLUDE_MARKERS) {
+            if (contents.contains(marker)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] toByteArray(final InputStream is) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(4096, is.available()));
+        final byte[] buffer = new byte[4096];
+        int length;
+        while ((length = is.read(buffer)) > 0) {
+            out.write(buffer, 0, length);
+        }
+        return out.toByteArray();
+    }
+
+    private static String toHex(final byte[] bytes, final int length) {
+        final char[] result = new char[length * 2];
+        for (int i = 0; i < length; i++) {
+            result[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+            result[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xF];
+        }
+        return new String(result);
+    }
+}
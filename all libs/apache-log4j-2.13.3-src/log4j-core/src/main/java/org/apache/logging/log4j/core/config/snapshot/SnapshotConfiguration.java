@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config.snapshot;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.AbstractConfiguration;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.ConfigurationFactory;
+import org.apache.logging.log4j.core.config.ConfigurationSource;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.Reconfigurable;
+import org.apache.logging.log4j.core.config.plugins.util.PluginType;
+import org.apache.logging.log4j.core.config.plugins.util.ResolverUtil;
+import org.apache.logging.log4j.core.config.snapshot.ConfigurationSnapshot.Element;
+import org.apache.logging.log4j.core.config.status.StatusConfiguration;
+import org.apache.logging.log4j.core.util.Patterns;
+
+/**
+ * Creates a Node hierarchy from a {@link ConfigurationSnapshot} of a configuration file.
+ *
+ * @since 2.14.0
+ */
+public class SnapshotConfiguration extends AbstractConfiguration implements Reconfigurable {
+
+    private static final String[] VERBOSE_CLASSES = new String[] { ResolverUtil.class.getName() };
+
+    private List<Element> elements;
+
+    SnapshotConfiguration(final LoggerContext loggerContext, final ConfigurationSource configSource,
+            final byte[] buffer, final String contentType, final Map<String, String> rootAttributes,
+            final List<Element> elements) {
+        super(loggerContext, configSource);
+        this.elements = elements;
+        rootNode.getAttributes().putAll(rootAttributes);
+        final StatusConfiguration statusConfig = new StatusConfiguration().withVerboseClasses(VERBOSE_CLASSES)
+                .withStatus(getDefaultStatus());
+        int monitorIntervalSeconds = 0;
+        for (final Map.Entry<String, String> entry : rootAttributes.entrySet()) {
+            final String key = entry.getKey();
+            final String value = getStrSubstitutor().replace(entry.getValue());
+            // the schema was validated when the configuration file was parsed
+            if ("status".equalsIgnoreCase(key)) {
+                statusConfig.withStatus(value);
+            } else if ("dest".equalsIgnoreCase(key)) {
+                statusConfig.withDestination(value);
+            } else if ("shutdownHook".equalsIgnoreCase(key)) {
+                isShutdownHookEnabled = !"disable".equalsIgnoreCase(value);
+            } else if ("shutdownTimeout".equalsIgnoreCase(key)) {
+                shutdownTimeoutMillis = Long.parseLong(value);
+            } else if ("verbose".equalsIgnoreCase(key)) {
+                statusConfig.withVerbosity(value);
+            } else if ("packages".equalsIgnoreCase(key)) {
+                pluginPackages.addAll(Arrays.asList(value.split(Patterns.COMMA_SEPARATOR)));
+            } else if ("name".equalsIgnoreCase(key)) {
+                setName(value);
+            } else if ("monitorInterval".equalsIgnoreCase(key)) {
+                monitorIntervalSeconds = Integer.parseInt(value);
+            } else if ("advertiser".equalsIgnoreCase(key)) {
+                createAdvertiser(value, configSource, buffer, contentType);
+            }
+        }
+        initializeWatchers(this, configSource, monitorIntervalSeconds);
+        statusConfig.initialize();
+        if (getName() == null) {
+            setName(configSource.getLocation());
+        }
+    }
+
+    @Override
+    public void setup() {
+        if (elements == null) {
+            return;
+        }
+        addChildren(rootNode, elements);
+        elements = null;
+        LOGGER.debug("Completed reading configuration snapshot");
+    }
+
+    private void addChildren(final Node parent, final List<Element> children) {
+        for (final Element element : children) {
+            PluginType<?> type = null;
+            if (element.pluginKey != null) {
+                type = pluginManager.getPluginType(element.pluginKey);
+                if (type == null) {
+                    LOGGER.error("Error processing element {}: CLASS_NOT_FOUND", element.name);
+                }
+            }
+            final Node node = new Node(parent, element.name, type);
+            node.setValue(element.value);
+            node.getAttributes().putAll(element.attributes);
+            addChildren(node, element.children);
+            parent.getChildren().add(node);
+        }
+    }
+
+    @Override
+    public Configuration reconfigure() {
+        try {
+            final ConfigurationSource source = getConfigurationSource().resetInputStream();
+            if (source == null) {
+                return null;
+            }
+            // parses the configuration file if it changed
+            return ConfigurationFactory.getInstance().getConfiguration(getLoggerContext(), source);
+        } catch (final IOException ex) {
+            LOGGER.error("Cannot locate file {}", getConfigurationSource(), ex);
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[location=" + getConfigurationSource() + "]";
+    }
+}
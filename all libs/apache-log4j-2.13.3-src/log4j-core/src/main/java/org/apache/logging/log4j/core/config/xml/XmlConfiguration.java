@@ -257,6 +257,8 @@ public class XmlConfiguration extends AbstractConfiguration implements Reconfigu
             for (final Status s : status) {
                 LOGGER.error("Error processing element {} ({}): {}", s.name, s.element, s.errorType);
             }
+            // a configuration with errors is parsed again to report them
+            setSnapshot(null);
             return;
         }
         rootElement = null;
@@ -88,6 +88,11 @@ public abstract class AbstractFilterable extends AbstractLifeCycle implements Fi
      */
     private volatile Filter filter;
 
+    /**
+     * The filter compiled when it is set, used to filter events. May be null.
+     */
+    private volatile CompiledFilter compiledFilter;
+
     @PluginElement("Properties")
     private final Property[] propertyArray;
 
@@ -103,7 +108,7 @@ public abstract class AbstractFilterable extends AbstractLifeCycle implements Fi
      * @since 2.11.2
      */
     protected AbstractFilterable(final Filter filter, final Property[] propertyArray) {
-        this.filter = filter;
+        setFilter(filter);
         this.propertyArray = propertyArray == null ? Property.EMPTY_ARRAY : propertyArray;
     }
 
@@ -117,15 +122,20 @@ public abstract class AbstractFilterable extends AbstractLifeCycle implements Fi
             return;
         }
         if (this.filter == null) {
-            this.filter = filter;
+            setFilter(filter);
         } else if (this.filter instanceof CompositeFilter) {
-            this.filter = ((CompositeFilter) this.filter).addFilter(filter);
+            setFilter(((CompositeFilter) this.filter).addFilter(filter));
         } else {
             final Filter[] filters = new Filter[] {this.filter, filter};
-            this.filter = CompositeFilter.createFilters(filters);
+            setFilter(CompositeFilter.createFilters(filters));
         }
     }
 
+    private void setFilter(final Filter filter) {
+        this.compiledFilter = CompiledFilter.compile(filter);
+        this.filter = filter;
+    }
+
     /**
      * Returns the Filter.
      * @return the Filter or null.
@@ -151,7 +161,8 @@ public abstract class AbstractFilterable extends AbstractLifeCycle implements Fi
      */
     @Override
     public boolean isFiltered(final LogEvent event) {
-        return filter != null && filter.filter(event) == Filter.Result.DENY;
+        final Filter compiled = compiledFilter;
+        return compiled != null && compiled.filter(event) == Filter.Result.DENY;
     }
 
     /**
@@ -164,17 +175,17 @@ public abstract class AbstractFilterable extends AbstractLifeCycle implements Fi
             return;
         }
         if (this.filter == filter || this.filter.equals(filter)) {
-            this.filter = null;
+            setFilter(null);
         } else if (this.filter instanceof CompositeFilter) {
             CompositeFilter composite = (CompositeFilter) this.filter;
             composite = composite.removeFilter(filter);
             if (composite.size() > 1) {
-                this.filter = composite;
+                setFilter(composite);
             } else if (composite.size() == 1) {
                 final Iterator<Filter> iter = composite.iterator();
-                this.filter = iter.next();
+                setFilter(iter.next());
             } else {
-                this.filter = null;
+                setFilter(null);
             }
         }
     }
@@ -0,0 +1,500 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.AbstractLifeCycle;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LifeCycle2;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * A Filter compiled at configuration time from a Filter that may be a nested {@link CompositeFilter}.
+ * <p>
+ * Nested composites are flattened into a single array of steps, which are evaluated like the filters of a
+ * {@code CompositeFilter}: the first step that returns {@code ACCEPT} or {@code DENY} decides. Consecutive filters
+ * whose result only depends on the level and marker of an event ({@link ThresholdFilter}, {@link LevelRangeFilter},
+ * {@link LevelMatchFilter}, {@link MarkerFilter}, {@link NoMarkerFilter} and {@link DenyAllFilter}) are merged into
+ * one step that caches its result per level for events without a marker. Events with a marker are evaluated by the
+ * merged filters every time, because the parents of a marker, which {@link MarkerFilter} matches, may change at any
+ * time.
+ * </p>
+ * <p>
+ * The compiled filter does not own the source filter: it starts and stops it when asked to, but
+ * {@link AbstractFilterable} manages the life cycle of its source filter itself.
+ * </p>
+ * <p>
+ * This class should be considered internal.
+ * </p>
+ *
+ * @since 2.14.0
+ */
+@PerformanceSensitive("allocation")
+public final class CompiledFilter extends AbstractLifeCycle implements Filter {
+
+    private final Filter source;
+    private final Filter[] steps;
+
+    private CompiledFilter(final Filter source, final Filter[] steps) {
+        this.source = source;
+        this.steps = steps;
+    }
+
+    /**
+     * Compiles the specified filter.
+     *
+     * @param filter the filter to compile, may be {@code null}
+     * @return the compiled filter, or {@code null} if the specified filter is {@code null}
+     */
+    public static CompiledFilter compile(final Filter filter) {
+        if (filter == null) {
+            return null;
+        }
+        if (filter instanceof CompiledFilter) {
+            return (CompiledFilter) filter;
+        }
+        final List<Filter> filters = new ArrayList<>();
+        flatten(filter, filters);
+        final List<Filter> steps = new ArrayList<>(filters.size());
+        final List<Filter> constantRun = new ArrayList<>();
+        for (final Filter current : filters) {
+            if (isConstant(current)) {
+                constantRun.add(current);
+            } else {
+                addConstantRun(constantRun, steps);
+                steps.add(current);
+            }
+        }
+        addConstantRun(constantRun, steps);
+        return new CompiledFilter(filter, steps.toArray(new Filter[steps.size()]));
+    }
+
+    private static void flatten(final Filter filter, final List<Filter> result) {
+        if (filter instanceof CompositeFilter) {
+            for (final Filter child : ((CompositeFilter) filter).getFiltersArray()) {
+                flatten(child, result);
+            }
+        } else if (filter instanceof CompiledFilter) {
+            flatten(((CompiledFilter) filter).source, result);
+        } else if (filter != null) {
+            result.add(filter);
+        }
+    }
+
+    private static void addConstantRun(final List<Filter> constantRun, final List<Filter> steps) {
+        if (!constantRun.isEmpty()) {
+            steps.add(new ConstantFilters(constantRun.toArray(new Filter[constantRun.size()])));
+            constantRun.clear();
+        }
+    }
+
+    /**
+     * Returns whether the result of the specified filter only depends on the level and marker of an event.
+     */
+    static boolean isConstant(final Filter filter) {
+        return filter instanceof ThresholdFilter || filter instanceof LevelRangeFilter
+                || filter instanceof LevelMatchFilter || filter instanceof MarkerFilter
+                || filter instanceof NoMarkerFilter || filter instanceof DenyAllFilter;
+    }
+
+    /**
+     * Returns whether this filter was compiled from the specified filter.
+     *
+     * @param filter a filter
+     * @return {@code true} if this filter was compiled from the specified filter
+     */
+    public boolean isCompiledFrom(final Filter filter) {
+        return source == filter;
+    }
+
+    /**
+     * Returns the filter this filter was compiled from.
+     *
+     * @return the source filter
+     */
+    public Filter getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the number of steps of this filter, where consecutive level and marker filters count as one step.
+     *
+     * @return the number of steps
+     */
+    public int getStepCount() {
+        return steps.length;
+    }
+
+    @Override
+    public void start() {
+        setStarting();
+        source.start();
+        setStarted();
+    }
+
+    @Override
+    public boolean stop(final long timeout, final TimeUnit timeUnit) {
+        setStopping();
+        if (source instanceof LifeCycle2) {
+            ((LifeCycle2) source).stop(timeout, timeUnit);
+        } else {
+            source.stop();
+        }
+        setStopped();
+        return true;
+    }
+
+    @Override
+    public Result getOnMismatch() {
+        return Result.NEUTRAL;
+    }
+
+    @Override
+    public Result getOnMatch() {
+        return Result.NEUTRAL;
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object... params) {
+        Result result = Result.NEUTRAL;
+        for (int i = 0; i < steps.length; i++) {
+            result = steps[i].filter(logger, level, marker, msg, params);
+            if (result == Result.ACCEPT || result == Result.DENY) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0) {
+        Result result = Result.NEUTRAL;
+        for (int i = 0; i < steps.length; i++) {
+            result = steps[i].filter(logger, level, marker, msg, p0);
+            if (result == Result.ACCEPT || result == Result.DENY) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1) {
+        Result result = Result.NEUTRAL;
+        for (int i = 0; i < steps.length; i++) {
+            result = steps[i].filter(logger, level, marker, msg, p0, p1);
+            if (result == Result.ACCEPT || result == Result.DENY) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2) {
+        Result result = Result.NEUTRAL;
+        for (int i = 0; i < steps.length; i++) {
+            result = steps[i].filter(logger, level, marker, msg, p0, p1, p2);
+            if (result == Result.ACCEPT || result == Result.DENY) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3) {
+        Result result = Result.NEUTRAL;
+        for (int i = 0; i < steps.length; i++) {
+            result = steps[i].filter(logger, level, marker, msg, p0, p1, p2, p3);
+            if (result == Result.ACCEPT || result == Result.DENY) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3, final Object p4) {
+        Result result = Result.NEUTRAL;
+        for (int i = 0; i < steps.length; i++) {
+            result = steps[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4);
+            if (result == Result.ACCEPT || result == Result.DENY) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3, final Object p4, final Object p5) {
+        Result result = Result.NEUTRAL;
+        for (int i = 0; i < steps.length; i++) {
+            result = steps[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5);
+            if (result == Result.ACCEPT || result == Result.DENY) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3, final Object p4, final Object p5,
+            final Object p6) {
+        Result result = Result.NEUTRAL;
+        for (int i = 0; i < steps.length; i++) {
+            result = steps[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6);
+            if (result == Result.ACCEPT || result == Result.DENY) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3, final Object p4, final Object p5,
+            final Object p6, final Object p7) {
+        Result result = Result.NEUTRAL;
+        for (int i = 0; i < steps.length; i++) {
+            result = steps[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7);
+            if (result == Result.ACCEPT || result == Result.DENY) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3, final Object p4, final Object p5,
+            final Object p6, final Object p7, final Object p8) {
+        Result result = Result.NEUTRAL;
+        for (int i = 0; i < steps.length; i++) {
+            result = steps[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7, p8);
+            if (result == Result.ACCEPT || result == Result.DENY) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3, final Object p4, final Object p5,
+            final Object p6, final Object p7, final Object p8, final Object p9) {
+        Result result = Result.NEUTRAL;
+        for (int i = 0; i < steps.length; i++) {
+            result = steps[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7, p8, p9);
+            if (result == Result.ACCEPT || result == Result.DENY) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final Object msg,
+            final Throwable t) {
+        Result result = Result.NEUTRAL;
+        for (int i = 0; i < steps.length; i++) {
+            result = steps[i].filter(logger, level, marker, msg, t);
+            if (result == Result.ACCEPT || result == Result.DENY) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final Message msg,
+            final Throwable t) {
+        Result result = Result.NEUTRAL;
+        for (int i = 0; i < steps.length; i++) {
+            result = steps[i].filter(logger, level, marker, msg, t);
+            if (result == Result.ACCEPT || result == Result.DENY) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Result filter(final LogEvent event) {
+        Result result = Result.NEUTRAL;
+        for (int i = 0; i < steps.length; i++) {
+            result = steps[i].filter(event);
+            if (result == Result.ACCEPT || result == Result.DENY) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledFilter" + Arrays.toString(steps);
+    }
+
+    /**
+     * Consecutive filters whose result only depends on the level and marker of an event, with their combined result
+     * cached per level for events without a marker.
+     */
+    static final class ConstantFilters extends AbstractFilter {
+
+        private final Filter[] filters;
+        private final ConcurrentMap<Level, Result> noMarkerResults = new ConcurrentHashMap<>();
+
+        ConstantFilters(final Filter[] filters) {
+            this.filters = filters;
+        }
+
+        Result filter(final Level level, final Marker marker) {
+            if (level == null || marker != null) {
+                return evaluate(level, marker);
+            }
+            Result result = noMarkerResults.get(level);
+            if (result == null) {
+                result = evaluate(level, null);
+                noMarkerResults.put(level, result);
+            }
+            return result;
+        }
+
+        private Result evaluate(final Level level, final Marker marker) {
+            Result result = Result.NEUTRAL;
+            for (int i = 0; i < filters.length; i++) {
+                result = filters[i].filter(null, level, marker, (Object) null, (Throwable) null);
+                if (result == Result.ACCEPT || result == Result.DENY) {
+                    return result;
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                final Object... params) {
+            return filter(level, marker);
+        }
+
+        @Override
+        public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                final Object p0) {
+            return filter(level, marker);
+        }
+
+        @Override
+        public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                final Object p0, final Object p1) {
+            return filter(level, marker);
+        }
+
+        @Override
+        public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                final Object p0, final Object p1, final Object p2) {
+            return filter(level, marker);
+        }
+
+        @Override
+        public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                final Object p0, final Object p1, final Object p2, final Object p3) {
+            return filter(level, marker);
+        }
+
+        @Override
+        public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                final Object p0, final Object p1, final Object p2, final Object p3, final Object p4) {
+            return filter(level, marker);
+        }
+
+        @Override
+        public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                final Object p0, final Object p1, final Object p2, final Object p3, final Object p4, final Object p5) {
+            return filter(level, marker);
+        }
+
+        @Override
+        public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                final Object p0, final Object p1, final Object p2, final Object p3, final Object p4, final Object p5,
+                final Object p6) {
+            return filter(level, marker);
+        }
+
+        @Override
+        public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                final Object p0, final Object p1, final Object p2, final Object p3, final Object p4, final Object p5,
+                final Object p6, final Object p7) {
+            return filter(level, marker);
+        }
+
+        @Override
+        public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                final Object p0, final Object p1, final Object p2, final Object p3, final Object p4, final Object p5,
+                final Object p6, final Object p7, final Object p8) {
+            return filter(level, marker);
+        }
+
+        @Override
+        public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                final Object p0, final Object p1, final Object p2, final Object p3, final Object p4, final Object p5,
+                final Object p6, final Object p7, final Object p8, final Object p9) {
+            return filter(level, marker);
+        }
+
+        @Override
+        public Result filter(final Logger logger, final Level level, final Marker marker, final Object msg,
+                final Throwable t) {
+            return filter(level, marker);
+        }
+
+        @Override
+        public Result filter(final Logger logger, final Level level, final Marker marker, final Message msg,
+                final Throwable t) {
+            return filter(level, marker);
+        }
+
+        @Override
+        public Result filter(final LogEvent event) {
+            return filter(event.getLevel(), event.getMarker());
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(filters);
+        }
+    }
+}
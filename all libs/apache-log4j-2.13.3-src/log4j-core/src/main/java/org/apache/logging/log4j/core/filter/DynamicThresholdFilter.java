@@ -33,6 +33,7 @@ import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
 import org.apache.logging.log4j.core.ContextDataInjector;
 import org.apache.logging.log4j.core.impl.ContextDataInjectorFactory;
+import org.apache.logging.log4j.core.impl.ContextDataSlots;
 import org.apache.logging.log4j.core.util.KeyValuePair;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.util.PerformanceSensitive;
@@ -74,6 +75,7 @@ public final class DynamicThresholdFilter extends AbstractFilter {
 
     private Level defaultThreshold = Level.ERROR;
     private final String key;
+    private final int slot;
     private final ContextDataInjector injector = ContextDataInjectorFactory.createInjector();
     private Map<String, Level> levelMap = new HashMap<>();
 
@@ -82,6 +84,7 @@ public final class DynamicThresholdFilter extends AbstractFilter {
         super(onMatch, onMismatch);
         Objects.requireNonNull(key, "key cannot be null");
         this.key = key;
+        this.slot = ContextDataSlots.slotOf(key);
         this.levelMap = pairs;
         this.defaultThreshold = defaultLevel;
     }
@@ -123,7 +126,7 @@ public final class DynamicThresholdFilter extends AbstractFilter {
     }
 
     private Result filter(final Level level, final ReadOnlyStringMap contextMap) {
-        final String value = contextMap.getValue(key);
+        final String value = ContextDataSlots.getValue(contextMap, slot, key);
         if (value != null) {
             Level ctxLevel = levelMap.get(value);
             if (ctxLevel == null) {
@@ -0,0 +1,319 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.apache.logging.log4j.util.StringBuilders;
+
+/**
+ * The <code>KeywordFilter</code> matches the formatted message against many keywords at once, instead of a chain of
+ * {@link StringMatchFilter}s or {@link RegexFilter}s that each scan the message.
+ *
+ * <p>
+ * All keywords are compiled into one automaton that reads the message once. Messages that can format themselves into
+ * a buffer are not formatted into a String. A {@code '*'} in a keyword matches any text, so {@code user*password}
+ * matches a message that contains {@code user} followed by {@code password}. Keywords are separated by commas.
+ * </p>
+ * <p>
+ * The keywords of the <code>keywords</code> attribute and of each nested <code>Keywords</code> element form groups,
+ * which are evaluated in order like the filters of a {@link CompositeFilter}: a group returns its
+ * <code>onMatch</code> result, which defaults to the one of the filter, if one of its keywords occurs and its
+ * <code>onMismatch</code> result otherwise, and the first result that is not NEUTRAL is returned. If all groups are
+ * NEUTRAL, the filter returns its <code>onMatch</code> result if any keyword occurred and its <code>onMismatch</code>
+ * result otherwise. At most {@value KeywordMatcher#MAX_GROUPS} groups are supported.
+ * </p>
+ * <code>
+ * &lt;KeywordFilter ignoreCase="true" onMatch="DENY" onMismatch="NEUTRAL"&gt;<br>
+ * &nbsp;&nbsp;&lt;Keywords keywords="healthcheck" onMatch="ACCEPT"/&gt;<br>
+ * &nbsp;&nbsp;&lt;Keywords keywords="password, secret, user*token"/&gt;<br>
+ * &lt;/KeywordFilter&gt;<br>
+ * </code><br>
+ *
+ * @since 2.14.0
+ */
+@Plugin(name = "KeywordFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
+@PerformanceSensitive("allocation")
+public final class KeywordFilter extends AbstractFilter {
+
+    private static final ThreadLocal<StringBuilder> threadLocalStringBuilder = new ThreadLocal<>();
+
+    private final List<KeywordGroup> groups;
+    private final KeywordMatcher matcher;
+    private final Result[] groupOnMatch;
+    private final Result[] groupOnMismatch;
+    /** The groups whose match decides the result regardless of the other groups. */
+    private final long stopGroups;
+    private final boolean ignoreCase;
+
+    private KeywordFilter(final List<KeywordGroup> groups, final boolean ignoreCase, final Result onMatch,
+            final Result onMismatch) {
+        super(onMatch, onMismatch);
+        this.groups = groups;
+        this.ignoreCase = ignoreCase;
+        final List<List<String>> keywords = new ArrayList<>(groups.size());
+        groupOnMatch = new Result[groups.size()];
+        groupOnMismatch = new Result[groups.size()];
+        long stop = 0;
+        boolean neutralBefore = true;
+        for (int i = 0; i < groups.size(); i++) {
+            final KeywordGroup group = groups.get(i);
+            keywords.add(group.getKeywords());
+            groupOnMatch[i] = group.getOnMatch() != null ? group.getOnMatch() : this.onMatch;
+            groupOnMismatch[i] = group.getOnMismatch() != null ? group.getOnMismatch() : Result.NEUTRAL;
+            if (neutralBefore && groupOnMatch[i] != Result.NEUTRAL) {
+                stop |= 1L << i;
+            }
+            neutralBefore &= groupOnMatch[i] == Result.NEUTRAL && groupOnMismatch[i] == Result.NEUTRAL;
+        }
+        this.stopGroups = stop;
+        this.matcher = new KeywordMatcher(keywords, ignoreCase);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                         final Object... params) {
+        return filterNewMessage(logger.getMessageFactory().newMessage(msg, params));
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final Object msg,
+                         final Throwable t) {
+        if (msg == null) {
+            return onMismatch;
+        }
+        return filterNewMessage(logger.getMessageFactory().newMessage(msg));
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final Message msg,
+                         final Throwable t) {
+        return filter(msg);
+    }
+
+    @Override
+    public Result filter(final LogEvent event) {
+        return filter(event.getMessage());
+    }
+
+    private Result filterNewMessage(final Message msg) {
+        try {
+            return filter(msg);
+        } finally {
+            // the filter is called before the logger creates its own message, which can then reuse this one
+            ReusableMessageFactory.release(msg);
+        }
+    }
+
+    private Result filter(final Message msg) {
+        if (msg == null) {
+            return onMismatch;
+        }
+        if (msg instanceof StringBuilderFormattable) {
+            final StringBuilder sb = getStringBuilder();
+            ((StringBuilderFormattable) msg).formatTo(sb);
+            return filter(sb);
+        }
+        final String text = msg.getFormattedMessage();
+        return text == null ? onMismatch : filter(text);
+    }
+
+    private Result filter(final CharSequence text) {
+        final long matched = matcher.match(text, stopGroups);
+        for (int i = 0; i < groupOnMatch.length; i++) {
+            final Result result = (matched & (1L << i)) != 0 ? groupOnMatch[i] : groupOnMismatch[i];
+            if (result != Result.NEUTRAL) {
+                return result;
+            }
+        }
+        return matched != 0 ? onMatch : onMismatch;
+    }
+
+    private static StringBuilder getStringBuilder() {
+        if (!Constants.ENABLE_THREADLOCALS) {
+            return new StringBuilder(Constants.INITIAL_REUSABLE_MESSAGE_SIZE);
+        }
+        StringBuilder result = threadLocalStringBuilder.get();
+        if (result == null) {
+            result = new StringBuilder(Constants.INITIAL_REUSABLE_MESSAGE_SIZE);
+            threadLocalStringBuilder.set(result);
+        }
+        StringBuilders.trimToMaxSize(result, Constants.MAX_REUSABLE_MESSAGE_SIZE);
+        result.setLength(0);
+        return result;
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0) {
+        return filterNewMessage(logger.getMessageFactory().newMessage(msg, p0));
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1) {
+        return filterNewMessage(logger.getMessageFactory().newMessage(msg, p0, p1));
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2) {
+        return filterNewMessage(logger.getMessageFactory().newMessage(msg, p0, p1, p2));
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3) {
+        return filterNewMessage(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3));
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4) {
+        return filterNewMessage(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4));
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5) {
+        return filterNewMessage(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5));
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6) {
+        return filterNewMessage(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5, p6));
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7) {
+        return filterNewMessage(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5, p6, p7));
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7, final Object p8) {
+        return filterNewMessage(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5, p6, p7, p8));
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7, final Object p8, final Object p9) {
+        return filterNewMessage(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5, p6, p7, p8, p9));
+    }
+
+    @Override
+    public String toString() {
+        return "ignoreCase=" + ignoreCase + ", groups=" + groups;
+    }
+
+    @PluginBuilderFactory
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder extends AbstractFilterBuilder<Builder>
+            implements org.apache.logging.log4j.core.util.Builder<KeywordFilter> {
+
+        @PluginBuilderAttribute
+        private String keywords;
+
+        @PluginBuilderAttribute
+        private boolean ignoreCase;
+
+        @PluginElement("Keywords")
+        private KeywordGroup[] groups;
+
+        /**
+         * Sets the keywords of the first group, separated by commas. A '*' in a keyword matches any text.
+         * @param keywords the keywords.
+         * @return this
+         */
+        public Builder setKeywords(final String keywords) {
+            this.keywords = keywords;
+            return this;
+        }
+
+        /**
+         * Sets whether keywords are matched ignoring case. Defaults to false.
+         * @param ignoreCase whether keywords are matched ignoring case.
+         * @return this
+         */
+        public Builder setIgnoreCase(final boolean ignoreCase) {
+            this.ignoreCase = ignoreCase;
+            return this;
+        }
+
+        /**
+         * Sets the keyword groups, which are evaluated after the keywords of the filter.
+         * @param groups the keyword groups.
+         * @return this
+         */
+        public Builder setGroups(final KeywordGroup... groups) {
+            this.groups = groups;
+            return this;
+        }
+
+        @Override
+        public KeywordFilter build() {
+            final List<KeywordGroup> allGroups = new ArrayList<>();
+            if (keywords != null) {
+                allGroups.add(KeywordGroup.newBuilder().setKeywords(keywords).build());
+            }
+            if (groups != null) {
+                allGroups.addAll(Arrays.asList(groups));
+            }
+            if (allGroups.isEmpty()) {
+                LOGGER.error("Keywords must be provided for KeywordFilter");
+                return null;
+            }
+            if (allGroups.size() > KeywordMatcher.MAX_GROUPS) {
+                LOGGER.error("KeywordFilter supports at most {} keyword groups, not {}", KeywordMatcher.MAX_GROUPS,
+                        allGroups.size());
+                return null;
+            }
+            return new KeywordFilter(allGroups, ignoreCase, getOnMatch(), getOnMismatch());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
+
+/**
+ * A group of keywords of a {@link KeywordFilter}, with the results to return when one of them occurs in the message
+ * and when none does.
+ * <code>
+ * &lt;Keywords keywords="password, secret, user*token" onMatch="DENY"/&gt;<br>
+ * </code>
+ *
+ * @since 2.14.0
+ */
+@Plugin(name = "Keywords", category = Node.CATEGORY, printObject = true)
+public final class KeywordGroup {
+
+    private final List<String> keywords;
+    private final Result onMatch;
+    private final Result onMismatch;
+
+    private KeywordGroup(final List<String> keywords, final Result onMatch, final Result onMismatch) {
+        this.keywords = keywords;
+        this.onMatch = onMatch;
+        this.onMismatch = onMismatch;
+    }
+
+    /**
+     * Returns the keywords.
+     * @return the keywords.
+     */
+    public List<String> getKeywords() {
+        return keywords;
+    }
+
+    /**
+     * Returns the result when one of the keywords occurs, or {@code null} to use the onMatch result of the filter.
+     * @return the result when one of the keywords occurs.
+     */
+    public Result getOnMatch() {
+        return onMatch;
+    }
+
+    /**
+     * Returns the result when none of the keywords occurs, or {@code null} to continue with the next group.
+     * @return the result when none of the keywords occurs.
+     */
+    public Result getOnMismatch() {
+        return onMismatch;
+    }
+
+    /**
+     * Splits a comma separated list of keywords.
+     *
+     * @param keywords the keywords, may be {@code null}
+     * @return the trimmed keywords that are not empty
+     */
+    static List<String> parseKeywords(final String keywords) {
+        if (keywords == null) {
+            return Collections.emptyList();
+        }
+        final List<String> result = new ArrayList<>();
+        for (final String keyword : keywords.split(",")) {
+            final String trimmed = keyword.trim();
+            if (!trimmed.isEmpty()) {
+                result.add(trimmed);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "keywords=" + keywords + ", onMatch=" + onMatch + ", onMismatch=" + onMismatch;
+    }
+
+    @PluginBuilderFactory
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder implements org.apache.logging.log4j.core.util.Builder<KeywordGroup> {
+
+        @PluginBuilderAttribute
+        private String keywords;
+
+        @PluginBuilderAttribute
+        private Result onMatch;
+
+        @PluginBuilderAttribute
+        private Result onMismatch;
+
+        /**
+         * Sets the keywords, separated by commas. A '*' in a keyword matches any text.
+         * @param keywords the keywords.
+         * @return this
+         */
+        public Builder setKeywords(final String keywords) {
+            this.keywords = keywords;
+            return this;
+        }
+
+        /**
+         * Sets the result when one of the keywords occurs. Defaults to the onMatch result of the filter.
+         * @param onMatch the result when one of the keywords occurs.
+         * @return this
+         */
+        public Builder setOnMatch(final Result onMatch) {
+            this.onMatch = onMatch;
+            return this;
+        }
+
+        /**
+         * Sets the result when none of the keywords occurs. By default the next group is evaluated.
+         * @param onMismatch the result when none of the keywords occurs.
+         * @return this
+         */
+        public Builder setOnMismatch(final Result onMismatch) {
+            this.onMismatch = onMismatch;
+            return this;
+        }
+
+        @Override
+        public KeywordGroup build() {
+            return new KeywordGroup(Collections.unmodifiableList(parseKeywords(keywords)), onMatch, onMismatch);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * Matches a text against many keywords in one pass, with an Aho-Corasick automaton compiled into a deterministic
+ * state table.
+ * <p>
+ * Each keyword belongs to one of at most {@value #MAX_GROUPS} groups, and {@link #match(CharSequence, long)} returns
+ * the groups of the keywords that occur in the text. A {@code '*'} in a keyword matches any text, so
+ * {@code "user*password"} occurs in a text that contains {@code "user"} followed by {@code "password"}. The parts of
+ * such a keyword are matched by the same automaton, which records per keyword how many parts were seen.
+ * </p>
+ * <p>
+ * Characters are mapped to classes, one per character that occurs in a keyword and one for all others, so the state
+ * table has a column per class rather than per character. When case is ignored, characters are compared like
+ * {@link String#equalsIgnoreCase(String)} does.
+ * </p>
+ */
+@PerformanceSensitive("allocation")
+final class KeywordMatcher {
+
+    /** Maximum number of keyword groups. */
+    static final int MAX_GROUPS = 64;
+
+    static final char WILDCARD = '*';
+
+    private static final int ASCII_SIZE = 128;
+
+    /** Per keyword: the index of the next part to match and the end of the last matched part. */
+    private static final ThreadLocal<int[]> PROGRESS = new ThreadLocal<>();
+
+    private final boolean ignoreCase;
+    private final int[] asciiClasses = new int[ASCII_SIZE];
+    /** The sorted characters of the keywords; the class of a character is its index plus one. */
+    private final char[] chars;
+    private final int classCount;
+    /** The next state by state and character class. */
+    private final int[] transitions;
+    /** The parts that end in each state, including those of its suffix states, or {@code null}. */
+    private final int[][] outputs;
+    private final int[] partKeyword;
+    private final int[] partIndex;
+    private final int[] partLength;
+    private final int[] keywordGroup;
+    private final int[] keywordPartCount;
+    private final boolean wildcards;
+
+    /**
+     * Compiles keywords.
+     *
+     * @param keywords the keywords of each group, indexed by group
+     * @param ignoreCase whether to compare characters ignoring case
+     * @throws IllegalArgumentException if there are more than {@value #MAX_GROUPS} groups
+     */
+    KeywordMatcher(final List<List<String>> keywords, final boolean ignoreCase) {
+        if (keywords.size() > MAX_GROUPS) {
+            throw new IllegalArgumentException("At most " + MAX_GROUPS + " keyword groups are supported, not "
+                    + keywords.size());
+        }
+        this.ignoreCase = ignoreCase;
+        final List<String> parts = new ArrayList<>();
+        final List<int[]> partInfo = new ArrayList<>();
+        final List<int[]> keywordInfo = new ArrayList<>();
+        boolean hasWildcards = false;
+        for (int group = 0; group < keywords.size(); group++) {
+            for (final String keyword : keywords.get(group)) {
+                final List<String> keywordParts = split(keyword);
+                if (keywordParts.isEmpty()) {
+                    continue;
+                }
+                final int keywordIndex = keywordInfo.size();
+                keywordInfo.add(new int[] {group, keywordParts.size()});
+                hasWildcards |= keywordParts.size() > 1;
+                for (int i = 0; i < keywordParts.size(); i++) {
+                    parts.add(keywordParts.get(i));
+                    partInfo.add(new int[] {keywordIndex, i});
+                }
+            }
+        }
+        this.wildcards = hasWildcards;
+        keywordGroup = new int[keywordInfo.size()];
+        keywordPartCount = new int[keywordInfo.size()];
+        for (int i = 0; i < keywordInfo.size(); i++) {
+            keywordGroup[i] = keywordInfo.get(i)[0];
+            keywordPartCount[i] = keywordInfo.get(i)[1];
+        }
+        partKeyword = new int[parts.size()];
+        partIndex = new int[parts.size()];
+        partLength = new int[parts.size()];
+        final TreeSet<Character> charSet = new TreeSet<>();
+        for (int i = 0; i < parts.size(); i++) {
+            final String part = parts.get(i);
+            partKeyword[i] = partInfo.get(i)[0];
+            partIndex[i] = partInfo.get(i)[1];
+            partLength[i] = part.length();
+            for (int j = 0; j < part.length(); j++) {
+                charSet.add(fold(part.charAt(j)));
+            }
+        }
+        chars = new char[charSet.size()];
+        int index = 0;
+        for (final Character c : charSet) {
+            chars[index++] = c;
+        }
+        classCount = chars.length + 1;
+        for (char c = 0; c < ASCII_SIZE; c++) {
+            asciiClasses[c] = searchClass(fold(c));
+        }
+
+        // the trie
+        final List<int[]> trie = new ArrayList<>();
+        final List<List<Integer>> stateOutputs = new ArrayList<>();
+        trie.add(newRow());
+        stateOutputs.add(new ArrayList<Integer>());
+        for (int i = 0; i < parts.size(); i++) {
+            final String part = parts.get(i);
+            int state = 0;
+            for (int j = 0; j < part.length(); j++) {
+                final int charClass = classOf(part.charAt(j));
+                if (trie.get(state)[charClass] < 0) {
+                    trie.get(state)[charClass] = trie.size();
+                    trie.add(newRow());
+                    stateOutputs.add(new ArrayList<Integer>());
+                }
+                state = trie.get(state)[charClass];
+            }
+            stateOutputs.get(state).add(i);
+        }
+
+        // failure links, breadth first, turned into transitions
+        final int stateCount = trie.size();
+        transitions = new int[stateCount * classCount];
+        final int[] failure = new int[stateCount];
+        final int[] queue = new int[stateCount];
+        int head = 0;
+        int tail = 0;
+        for (int c = 0; c < classCount; c++) {
+            final int next = trie.get(0)[c];
+            if (next > 0) {
+                failure[next] = 0;
+                queue[tail++] = next;
+            }
+            transitions[c] = Math.max(next, 0);
+        }
+        while (head < tail) {
+            final int state = queue[head++];
+            stateOutputs.get(state).addAll(stateOutputs.get(failure[state]));
+            for (int c = 0; c < classCount; c++) {
+                final int next = trie.get(state)[c];
+                final int fallback = transitions[failure[state] * classCount + c];
+                if (next > 0) {
+                    failure[next] = fallback;
+                    queue[tail++] = next;
+                    transitions[state * classCount + c] = next;
+                } else {
+                    transitions[state * classCount + c] = fallback;
+                }
+            }
+        }
+        outputs = new int[stateCount][];
+        for (int state = 0; state < stateCount; state++) {
+            final List<Integer> list = stateOutputs.get(state);
+            if (!list.isEmpty()) {
+                outputs[state] = new int[list.size()];
+                for (int i = 0; i < list.size(); i++) {
+                    outputs[state][i] = list.get(i);
+                }
+            }
+        }
+    }
+
+    private static List<String> split(final String keyword) {
+        final List<String> result = new ArrayList<>();
+        int start = 0;
+        while (start <= keyword.length()) {
+            int end = keyword.indexOf(WILDCARD, start);
+            if (end < 0) {
+                end = keyword.length();
+            }
+            if (end > start) {
+                result.add(keyword.substring(start, end));
+            }
+            start = end + 1;
+        }
+        return result;
+    }
+
+    private int[] newRow() {
+        final int[] row = new int[classCount];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private char fold(final char c) {
+        return ignoreCase ? Character.toLowerCase(Character.toUpperCase(c)) : c;
+    }
+
+    private int searchClass(final char folded) {
+        final int index = Arrays.binarySearch(chars, folded);
+        return index < 0 ? 0 : index + 1;
+    }
+
+    private int classOf(final char c) {
+        return c < ASCII_SIZE ? asciiClasses[c] : chars.length == 0 ? 0 : searchClass(fold(c));
+    }
+
+    /**
+     * Returns whether there are keywords.
+     *
+     * @return whether there are keywords
+     */
+    boolean isEmpty() {
+        return keywordGroup.length == 0;
+    }
+
+    /**
+     * Returns the groups of the keywords that occur in the specified text.
+     *
+     * @param text the text to search
+     * @param stopGroups the groups after whose first match the rest of the text does not need to be searched
+     * @return a bit set of the groups that matched; once a group in {@code stopGroups} matched, groups that only
+     *         occur later in the text are not included
+     */
+    long match(final CharSequence text, final long stopGroups) {
+        final int[] progress = wildcards ? getProgress() : null;
+        long matched = 0;
+        int state = 0;
+        final int length = text.length();
+        for (int i = 0; i < length; i++) {
+            state = transitions[state * classCount + classOf(text.charAt(i))];
+            final int[] ends = outputs[state];
+            if (ends == null) {
+                continue;
+            }
+            for (final int part : ends) {
+                final int keyword = partKeyword[part];
+                final int partCount = keywordPartCount[keyword];
+                if (partCount > 1) {
+                    // the parts of a keyword with wildcards must occur in order without overlapping
+                    final int next = partIndex[part];
+                    if (progress[2 * keyword] != next || i + 1 - partLength[part] < progress[2 * keyword + 1]) {
+                        continue;
+                    }
+                    progress[2 * keyword] = next + 1;
+                    progress[2 * keyword + 1] = i + 1;
+                    if (next + 1 < partCount) {
+                        continue;
+                    }
+                }
+                matched |= 1L << keywordGroup[keyword];
+            }
+            if ((matched & stopGroups) != 0) {
+                break;
+            }
+        }
+        return matched;
+    }
+
+    private int[] getProgress() {
+        final int size = 2 * keywordGroup.length;
+        if (!Constants.ENABLE_THREADLOCALS) {
+            return new int[size];
+        }
+        int[] result = PROGRESS.get();
+        if (result == null || result.length < size) {
+            result = new int[size];
+            PROGRESS.set(result);
+        } else {
+            Arrays.fill(result, 0, size, 0);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,521 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
+import org.apache.logging.log4j.message.Message;
+
+/**
+ * The <code>RateLimitFilter</code> limits the rate of log events with a token bucket, optionally one bucket per
+ * logger, marker or ThreadContext value.
+ *
+ * <p>
+ * Unlike the {@link BurstFilter}, which records every accepted event in a delay queue, each bucket is a single atomic
+ * value: the time at which the bucket would be full again. An event takes one token, so it is accepted if adding the
+ * time it takes to earn a token back does not move that time more than {@code maxBurst} tokens into the future.
+ * Events more specific than the configured level are not limited.
+ * </p>
+ * <p>
+ * With a <code>key</code>, every logger name, marker name or value of a ThreadContext key has its own bucket, so one
+ * noisy caller cannot use up the tokens of the others. At most <code>maxKeys</code> buckets are kept. Buckets that are
+ * full are indistinguishable from new ones and are evicted first; events of new keys that do not fit share one
+ * overflow bucket. At most once per <code>summaryIntervalMillis</code> the number of suppressed events per key is
+ * logged to the status logger.
+ * </p>
+ * <code>
+ * &lt;RateLimitFilter level="INFO" rate="16" maxBurst="100" key="context" contextKey="tenant"/&gt;<br>
+ * </code><br>
+ *
+ * @since 2.14.0
+ */
+@Plugin(name = "RateLimitFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
+public final class RateLimitFilter extends AbstractFilter {
+
+    /**
+     * What log events are grouped by to share a token bucket.
+     */
+    public enum KeyType {
+        /** All events share one bucket. */
+        NONE,
+        /** One bucket per logger name. */
+        LOGGER,
+        /** One bucket per marker name; events without a marker share a bucket. */
+        MARKER,
+        /** One bucket per value of a ThreadContext key; events without that key share a bucket. */
+        CONTEXT
+    }
+
+    private static final long NANOS_IN_SECONDS = 1000000000;
+
+    private static final int DEFAULT_RATE = 10;
+
+    private static final int DEFAULT_RATE_MULTIPLE = 100;
+
+    private static final int DEFAULT_MAX_KEYS = 1000;
+
+    private static final long DEFAULT_SUMMARY_INTERVAL_MILLIS = 60000;
+
+    /** Key of the bucket shared by events without a key value, and of the bucket when there is no key. */
+    private static final String NO_KEY = "";
+
+    private final Level level;
+    private final KeyType keyType;
+    private final String contextKey;
+    private final int maxKeys;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final long summaryIntervalNanos;
+    private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Bucket overflowBucket;
+    private final AtomicLong nextEvictionNanos;
+    private final AtomicLong nextSummaryNanos;
+    private final AtomicLong suppressedCount = new AtomicLong();
+
+    /**
+     * A token bucket, stored as the time at which it is full again. A time in the past means the bucket is full.
+     */
+    private static final class Bucket {
+        private final AtomicLong fullNanos;
+        private final AtomicLong suppressed = new AtomicLong();
+
+        Bucket(final long nowNanos) {
+            this.fullNanos = new AtomicLong(nowNanos);
+        }
+
+        boolean tryAcquire(final long nowNanos, final long intervalNanos, final long burstNanos) {
+            while (true) {
+                final long full = fullNanos.get();
+                final long next = (full - nowNanos > 0 ? full : nowNanos) + intervalNanos;
+                if (next - nowNanos > burstNanos) {
+                    return false;
+                }
+                if (fullNanos.compareAndSet(full, next)) {
+                    return true;
+                }
+            }
+        }
+
+        boolean isFull(final long nowNanos) {
+            return fullNanos.get() - nowNanos <= 0;
+        }
+    }
+
+    private RateLimitFilter(final Level level, final float rate, final long maxBurst, final KeyType keyType,
+            final String contextKey, final int maxKeys, final long summaryIntervalMillis, final Result onMatch,
+            final Result onMismatch) {
+        super(onMatch, onMismatch);
+        this.level = level;
+        this.keyType = keyType;
+        this.contextKey = contextKey;
+        this.maxKeys = maxKeys;
+        this.intervalNanos = (long) (NANOS_IN_SECONDS / rate);
+        this.burstNanos = intervalNanos * maxBurst;
+        this.summaryIntervalNanos = TimeUnit.MILLISECONDS.toNanos(summaryIntervalMillis);
+        final long now = System.nanoTime();
+        this.overflowBucket = new Bucket(now);
+        this.nextEvictionNanos = new AtomicLong(now);
+        this.nextSummaryNanos = new AtomicLong(now + summaryIntervalNanos);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object... params) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3, final Object p4) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3, final Object p4, final Object p5) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3, final Object p4, final Object p5,
+            final Object p6) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3, final Object p4, final Object p5,
+            final Object p6, final Object p7) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3, final Object p4, final Object p5,
+            final Object p6, final Object p7, final Object p8) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3, final Object p4, final Object p5,
+            final Object p6, final Object p7, final Object p8, final Object p9) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final Object msg,
+            final Throwable t) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final Message msg,
+            final Throwable t) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final LogEvent event) {
+        final Level eventLevel = event.getLevel();
+        if (!isLimited(eventLevel)) {
+            return onMatch;
+        }
+        final String key;
+        switch (keyType) {
+        case LOGGER:
+            key = event.getLoggerName();
+            break;
+        case MARKER:
+            key = event.getMarker() == null ? null : event.getMarker().getName();
+            break;
+        case CONTEXT:
+            key = event.getContextData().getValue(contextKey);
+            break;
+        default:
+            key = null;
+        }
+        return filter(key);
+    }
+
+    private Result filter(final Logger logger, final Level eventLevel, final Marker marker) {
+        if (!isLimited(eventLevel)) {
+            return onMatch;
+        }
+        final String key;
+        switch (keyType) {
+        case LOGGER:
+            key = logger == null ? null : logger.getName();
+            break;
+        case MARKER:
+            key = marker == null ? null : marker.getName();
+            break;
+        case CONTEXT:
+            key = ThreadContext.get(contextKey);
+            break;
+        default:
+            key = null;
+        }
+        return filter(key);
+    }
+
+    private boolean isLimited(final Level eventLevel) {
+        return eventLevel != null && eventLevel.isLessSpecificThan(level);
+    }
+
+    private Result filter(final String key) {
+        final long now = System.nanoTime();
+        final Bucket bucket = getBucket(key == null ? NO_KEY : key, now);
+        final Result result;
+        if (bucket.tryAcquire(now, intervalNanos, burstNanos)) {
+            result = onMatch;
+        } else {
+            bucket.suppressed.incrementAndGet();
+            suppressedCount.incrementAndGet();
+            result = onMismatch;
+        }
+        summarizeIfDue(now);
+        return result;
+    }
+
+    private Bucket getBucket(final String key, final long now) {
+        final Bucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys && !evictFullBuckets(now)) {
+            return overflowBucket;
+        }
+        final Bucket created = new Bucket(now);
+        final Bucket existing = buckets.putIfAbsent(key, created);
+        return existing == null ? created : existing;
+    }
+
+    /**
+     * Removes the buckets that are full, at most once per second, and logs their suppressed events. Returns whether
+     * there is room for a new bucket.
+     */
+    private boolean evictFullBuckets(final long now) {
+        final long next = nextEvictionNanos.get();
+        if (now - next >= 0 && nextEvictionNanos.compareAndSet(next, now + NANOS_IN_SECONDS)) {
+            for (final Iterator<Map.Entry<String, Bucket>> iterator = buckets.entrySet().iterator();
+                    iterator.hasNext();) {
+                final Map.Entry<String, Bucket> entry = iterator.next();
+                if (entry.getValue().isFull(now)) {
+                    iterator.remove();
+                    if (summaryIntervalNanos > 0) {
+                        logSuppressed(entry.getKey(), entry.getValue().suppressed.getAndSet(0));
+                    }
+                }
+            }
+        }
+        return buckets.size() < maxKeys;
+    }
+
+    private void summarizeIfDue(final long now) {
+        if (summaryIntervalNanos > 0) {
+            final long next = nextSummaryNanos.get();
+            if (now - next >= 0 && nextSummaryNanos.compareAndSet(next, now + summaryIntervalNanos)) {
+                summarize();
+            }
+        }
+    }
+
+    /**
+     * Logs the number of events suppressed per key since the previous summary.
+     */
+    void summarize() {
+        for (final Map.Entry<String, Bucket> entry : buckets.entrySet()) {
+            logSuppressed(entry.getKey(), entry.getValue().suppressed.getAndSet(0));
+        }
+        final long overflow = overflowBucket.suppressed.getAndSet(0);
+        if (overflow > 0) {
+            LOGGER.warn("RateLimitFilter suppressed {} events of keys that exceeded maxKeys={}.", overflow, maxKeys);
+        }
+    }
+
+    private void logSuppressed(final String key, final long suppressed) {
+        if (suppressed > 0) {
+            if (keyType == KeyType.NONE) {
+                LOGGER.warn("RateLimitFilter suppressed {} events.", suppressed);
+            } else {
+                LOGGER.warn("RateLimitFilter suppressed {} events with {} '{}'.", suppressed,
+                        keyType == KeyType.CONTEXT ? contextKey : keyType.name().toLowerCase(Locale.ROOT), key);
+            }
+        }
+    }
+
+    @Override
+    public boolean stop(final long timeout, final TimeUnit timeUnit) {
+        setStopping();
+        if (summaryIntervalNanos > 0) {
+            summarize();
+        }
+        setStopped();
+        return true;
+    }
+
+    /**
+     * Returns the number of suppressed events.
+     *
+     * @return the number of suppressed events
+     */
+    public long getSuppressedCount() {
+        return suppressedCount.get();
+    }
+
+    /**
+     * Returns the number of token buckets, not counting the overflow bucket.
+     *
+     * @return the number of token buckets
+     */
+    public int getBucketCount() {
+        return buckets.size();
+    }
+
+    @Override
+    public String toString() {
+        return "level=" + level + ", intervalNanos=" + intervalNanos + ", burstNanos=" + burstNanos + ", key="
+                + keyType + (keyType == KeyType.CONTEXT ? "(" + contextKey + ")" : "") + ", buckets=" + buckets.size();
+    }
+
+    @PluginBuilderFactory
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder extends AbstractFilterBuilder<Builder>
+            implements org.apache.logging.log4j.core.util.Builder<RateLimitFilter> {
+
+        @PluginBuilderAttribute
+        private Level level = Level.WARN;
+
+        @PluginBuilderAttribute
+        private float rate = DEFAULT_RATE;
+
+        @PluginBuilderAttribute
+        private long maxBurst;
+
+        @PluginBuilderAttribute
+        private KeyType key = KeyType.NONE;
+
+        @PluginBuilderAttribute
+        private String contextKey;
+
+        @PluginBuilderAttribute
+        private int maxKeys = DEFAULT_MAX_KEYS;
+
+        @PluginBuilderAttribute
+        private long summaryIntervalMillis = DEFAULT_SUMMARY_INTERVAL_MILLIS;
+
+        /**
+         * Sets the most specific level of events to limit. The default is WARN.
+         * @param level the most specific level of events to limit.
+         * @return this
+         */
+        public Builder setLevel(final Level level) {
+            this.level = level;
+            return this;
+        }
+
+        /**
+         * Sets the average number of events per second to allow, per key.
+         * @param rate the average number of events per second to allow. This must be a positive number.
+         * @return this
+         */
+        public Builder setRate(final float rate) {
+            this.rate = rate;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of events that can occur before events are filtered for exceeding the average rate.
+         * The default is 100 times the rate.
+         * @param maxBurst the size of the token buckets.
+         * @return this
+         */
+        public Builder setMaxBurst(final long maxBurst) {
+            this.maxBurst = maxBurst;
+            return this;
+        }
+
+        /**
+         * Sets what events are grouped by to share a token bucket. The default is NONE.
+         * @param key what events are grouped by.
+         * @return this
+         */
+        public Builder setKey(final KeyType key) {
+            this.key = key;
+            return this;
+        }
+
+        /**
+         * Sets the ThreadContext key whose values events are grouped by, if the key type is CONTEXT.
+         * @param contextKey the ThreadContext key.
+         * @return this
+         */
+        public Builder setContextKey(final String contextKey) {
+            this.contextKey = contextKey;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of token buckets. The default is 1000.
+         * @param maxKeys the maximum number of token buckets.
+         * @return this
+         */
+        public Builder setMaxKeys(final int maxKeys) {
+            this.maxKeys = maxKeys;
+            return this;
+        }
+
+        /**
+         * Sets the minimum number of milliseconds between two summaries of suppressed events, or 0 to disable them.
+         * The default is 60000.
+         * @param summaryIntervalMillis the minimum number of milliseconds between two summaries.
+         * @return this
+         */
+        public Builder setSummaryIntervalMillis(final long summaryIntervalMillis) {
+            this.summaryIntervalMillis = summaryIntervalMillis;
+            return this;
+        }
+
+        @Override
+        public RateLimitFilter build() {
+            if (this.rate <= 0) {
+                this.rate = DEFAULT_RATE;
+            }
+            if (this.maxBurst <= 0) {
+                this.maxBurst = (long) (this.rate * DEFAULT_RATE_MULTIPLE);
+            }
+            if (this.key == null) {
+                this.key = KeyType.NONE;
+            }
+            if (this.key == KeyType.CONTEXT && this.contextKey == null) {
+                LOGGER.error("A contextKey must be provided for RateLimitFilter with key CONTEXT");
+                return null;
+            }
+            if (this.maxKeys <= 0) {
+                this.maxKeys = DEFAULT_MAX_KEYS;
+            }
+            return new RateLimitFilter(this.level == null ? Level.WARN : this.level, this.rate, this.maxBurst,
+                    this.key, this.contextKey, this.maxKeys, Math.max(0, this.summaryIntervalMillis),
+                    this.getOnMatch(), this.getOnMismatch());
+        }
+    }
+}
@@ -35,6 +35,7 @@ import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
 import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
 import org.apache.logging.log4j.core.impl.ContextDataInjectorFactory;
+import org.apache.logging.log4j.core.impl.ContextDataSlots;
 import org.apache.logging.log4j.core.util.KeyValuePair;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.util.IndexedReadOnlyStringMap;
@@ -52,6 +53,8 @@ public class ThreadContextMapFilter extends MapFilter {
     private final ContextDataInjector injector = ContextDataInjectorFactory.createInjector();
     private final String key;
     private final String value;
+    private final int slot;
+    private final int[] slots;
 
     private final boolean useMap;
 
@@ -75,6 +78,12 @@ public class ThreadContextMapFilter extends MapFilter {
             this.value = null;
             this.useMap = true;
         }
+        this.slot = ContextDataSlots.slotOf(key);
+        final IndexedReadOnlyStringMap map = getStringMap();
+        this.slots = new int[map.size()];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = ContextDataSlots.slotOf(map.getKeyAt(i));
+        }
     }
 
     @Override
@@ -96,22 +105,22 @@ public class ThreadContextMapFilter extends MapFilter {
     }
 
     private Result filter() {
+        return filterContextData(currentContextData());
+    }
+
+    private Result filterContextData(final ReadOnlyStringMap contextData) {
         boolean match = false;
         if (useMap) {
-            ReadOnlyStringMap currentContextData = null;
             final IndexedReadOnlyStringMap map = getStringMap();
             for (int i = 0; i < map.size(); i++) {
-                if (currentContextData == null) {
-                    currentContextData = currentContextData();
-                }
-                final String toMatch = currentContextData.getValue(map.getKeyAt(i));
+                final String toMatch = ContextDataSlots.getValue(contextData, slots[i], map.getKeyAt(i));
                 match = toMatch != null && ((List<String>) map.getValueAt(i)).contains(toMatch);
                 if ((!isAnd() && match) || (isAnd() && !match)) {
                     break;
                 }
             }
         } else {
-            match = value.equals(currentContextData().getValue(key));
+            match = value.equals(ContextDataSlots.getValue(contextData, slot, key));
         }
         return match ? onMatch : onMismatch;
     }
@@ -122,7 +131,7 @@ public class ThreadContextMapFilter extends MapFilter {
 
     @Override
     public Result filter(final LogEvent event) {
-        return super.filter(event.getContextData()) ? onMatch : onMismatch;
+        return filterContextData(event.getContextData());
     }
 
     @Override
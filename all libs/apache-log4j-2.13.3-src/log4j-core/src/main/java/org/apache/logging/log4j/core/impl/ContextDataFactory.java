@@ -37,7 +37,9 @@ import org.apache.logging.log4j.util.StringMap;
  * By default returns {@code SortedArrayStringMap} objects. Can be configured by setting system property
  * {@code "log4j2.ContextData"} to the fully qualified class name of a class implementing the {@code StringMap}
  * interface. The class must have a public default constructor, and if possible should also have a public constructor
- * that takes a single {@code int} argument for the initial capacity.
+ * that takes a single {@code int} argument for the initial capacity. Setting it to
+ * {@code org.apache.logging.log4j.core.impl.SlotIndexedStringMap} lets filters and pattern converters read the context
+ * data keys they use by {@linkplain ContextDataSlots slot}, at the cost of a slot lookup on every write.
  * </p>
  *
  * @see LogEvent#getContextData()
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.impl;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+
+/**
+ * Interns the context data keys that components read for every event, like the keys of a
+ * {@code ThreadContextMapFilter} or of a {@code %X{key}} pattern, and assigns each of them a slot index that is stable
+ * for the lifetime of the class loader.
+ * <p>
+ * Components resolve their keys to slots once, when they are configured. A {@link SlotIndexedStringMap}, which log
+ * events use as context data when system property {@code log4j2.ContextData} selects it, records the values of the
+ * interned keys by slot when they are put, so that {@link #getValue(ReadOnlyStringMap, int, String)} reads them with
+ * an array access instead of searching the key. Other context data implementations, including the default
+ * {@code SortedArrayStringMap}, are read by key.
+ * </p>
+ * <p>
+ * At most {@value #MAX_SLOTS} keys are interned and slots are never released, since they are only taken by
+ * configured components; {@link #slotOf(String)} returns {@code -1} for further keys, which are then read by key.
+ * </p>
+ * <p>
+ * This class should be considered internal.
+ * </p>
+ *
+ * @since 2.14.0
+ */
+public final class ContextDataSlots {
+
+    /** Maximum number of interned keys. */
+    public static final int MAX_SLOTS = 1024;
+
+    private static final ConcurrentMap<String, Integer> SLOTS = new ConcurrentHashMap<>();
+
+    /** The interned keys by slot, copied on write so that reading the slot count does not lock. */
+    private static volatile String[] keys = new String[0];
+
+    private ContextDataSlots() {
+    }
+
+    /**
+     * Returns the slot of the specified key, interning the key if it does not have a slot yet.
+     *
+     * @param key a context data key
+     * @return the slot of the key, or {@code -1} if the key is {@code null} or no more keys can be interned
+     */
+    public static int slotOf(final String key) {
+        if (key == null) {
+            return -1;
+        }
+        final Integer slot = SLOTS.get(key);
+        if (slot != null) {
+            return slot;
+        }
+        synchronized (ContextDataSlots.class) {
+            final Integer existing = SLOTS.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            final int count = keys.length;
+            if (count >= MAX_SLOTS) {
+                return -1;
+            }
+            final String[] newKeys = Arrays.copyOf(keys, count + 1);
+            newKeys[count] = key;
+            // publish the slot before the count, so that a map that sees the count also sees the slot when it is put
+            SLOTS.put(key, count);
+            keys = newKeys;
+            return count;
+        }
+    }
+
+    /**
+     * Returns the slot of the specified key without interning it.
+     *
+     * @param key a context data key
+     * @return the slot of the key, or {@code -1} if the key was not interned
+     */
+    public static int getSlot(final String key) {
+        if (key == null) {
+            return -1;
+        }
+        final Integer slot = SLOTS.get(key);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Returns the number of interned keys. The slots of the interned keys are smaller than this number.
+     *
+     * @return the number of interned keys
+     */
+    public static int getSlotCount() {
+        return keys.length;
+    }
+
+    /**
+     * Returns the key of the specified slot.
+     *
+     * @param slot a slot returned by {@link #slotOf(String)}
+     * @return the key of the slot
+     */
+    public static String getKey(final int slot) {
+        return keys[slot];
+    }
+
+    /**
+     * Returns the value of a key in the specified context data, by slot if the context data records the values of
+     * interned keys and otherwise by key.
+     *
+     * @param contextData the context data of an event or of the current thread
+     * @param slot the slot of the key, or {@code -1} if it is not interned
+     * @param key the key
+     * @param <V> the type of the value
+     * @return the value of the key, or {@code null}
+     */
+    public static <V> V getValue(final ReadOnlyStringMap contextData, final int slot, final String key) {
+        if (slot >= 0 && contextData instanceof SlotIndexedStringMap) {
+            return ((SlotIndexedStringMap) contextData).getSlotValue(slot);
+        }
+        return contextData.getValue(key);
+    }
+}
@@ -92,6 +92,18 @@ public class MutableLogEvent implements LogEvent, ReusableMessage, ParameterVisi
      * @param event the event to copy data from
      */
     public void initFrom(final LogEvent event) {
+        initFrom(event, event.isIncludeLocation());
+    }
+
+    /**
+     * Initialize the fields of this {@code MutableLogEvent} from another event, copying the location of the event only
+     * if {@code includeLocation} is true. The location of the other event is not computed otherwise.
+     *
+     * @param event the event to copy data from
+     * @param includeLocation whether this event includes the location of the other event
+     * @since 2.14.0
+     */
+    public void initFrom(final LogEvent event, final boolean includeLocation) {
         this.loggerFqcn = event.getLoggerFqcn();
         this.marker = event.getMarker();
         this.level = event.getLevel();
@@ -107,12 +119,12 @@ public class MutableLogEvent implements LogEvent, ReusableMessage, ParameterVisi
         this.contextData.putAll(event.getContextData());
 
         this.contextStack = event.getContextStack();
-        this.source = event.isIncludeLocation() ? event.getSource() : null;
+        this.source = includeLocation ? event.getSource() : null;
         this.threadId = event.getThreadId();
         this.threadName = event.getThreadName();
         this.threadPriority = event.getThreadPriority();
         this.endOfBatch = event.isEndOfBatch();
-        this.includeLocation = event.isIncludeLocation();
+        this.includeLocation = includeLocation;
         this.nanoTime = event.getNanoTime();
         setMessage(event.getMessage());
     }
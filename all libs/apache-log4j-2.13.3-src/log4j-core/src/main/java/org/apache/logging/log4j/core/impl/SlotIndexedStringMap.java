@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.impl;
+
+import java.util.Arrays;
+
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
+
+/**
+ * A {@code SortedArrayStringMap} that also records the values of the keys {@linkplain ContextDataSlots interned} by
+ * filters, pattern converters and lookups in an array indexed by slot, so that {@link #getSlotValue(int)} does not
+ * search the key.
+ * <p>
+ * The slot array covers the keys that were interned when the map was created or last cleared, which for the reusable
+ * context data of a log event is the start of each event. Keys interned later are read by key until then. The map
+ * is serialized as a plain {@code SortedArrayStringMap}.
+ * </p>
+ * <p>
+ * Every write looks up the slot of its key, so this map is only used as the context data of log events when system
+ * property {@code log4j2.ContextData} is set to the name of this class, see {@link ContextDataFactory}.
+ * </p>
+ * <p>
+ * This class should be considered internal.
+ * </p>
+ *
+ * @since 2.14.0
+ */
+public final class SlotIndexedStringMap extends SortedArrayStringMap {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Object[] EMPTY = {};
+
+    // not initialized in their declaration: the superclass constructors put values before they would be
+    private transient Object[] slotValues;
+    private transient int slotLimit;
+    private transient boolean slotsUsed;
+
+    public SlotIndexedStringMap() {
+        super();
+        resetSlots();
+    }
+
+    public SlotIndexedStringMap(final int initialCapacity) {
+        super(initialCapacity);
+        resetSlots();
+    }
+
+    public SlotIndexedStringMap(final ReadOnlyStringMap other) {
+        super(other);
+        resetSlots();
+        indexSlots();
+    }
+
+    private void resetSlots() {
+        final int count = ContextDataSlots.getSlotCount();
+        if (slotValues == null || slotValues.length < count) {
+            slotValues = count == 0 ? EMPTY : new Object[count];
+        } else if (slotsUsed) {
+            Arrays.fill(slotValues, null);
+        }
+        slotsUsed = false;
+        slotLimit = count;
+    }
+
+    private void indexSlots() {
+        if (slotLimit > 0) {
+            for (int i = 0; i < size(); i++) {
+                setSlot(getKeyAt(i), getValueAt(i));
+            }
+        }
+    }
+
+    private void setSlot(final String key, final Object value) {
+        if (slotLimit > 0) {
+            final int slot = ContextDataSlots.getSlot(key);
+            if (slot >= 0 && slot < slotLimit) {
+                slotValues[slot] = value;
+                slotsUsed = true;
+            }
+        }
+    }
+
+    /**
+     * Returns the value of the key with the specified slot.
+     *
+     * @param slot a slot returned by {@link ContextDataSlots#slotOf(String)}
+     * @param <V> the type of the value
+     * @return the value of the key, or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V getSlotValue(final int slot) {
+        if (slot < slotLimit) {
+            return (V) slotValues[slot];
+        }
+        return getValue(ContextDataSlots.getKey(slot));
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        resetSlots();
+    }
+
+    @Override
+    public void putValue(final String key, final Object value) {
+        super.putValue(key, value);
+        setSlot(key, value);
+    }
+
+    @Override
+    public void putAll(final ReadOnlyStringMap source) {
+        super.putAll(source);
+        if (source != this) {
+            indexSlots();
+        }
+    }
+
+    @Override
+    public void remove(final String key) {
+        super.remove(key);
+        setSlot(key, null);
+    }
+
+    private Object writeReplace() {
+        final SortedArrayStringMap result = new SortedArrayStringMap(this);
+        if (isFrozen()) {
+            result.freeze();
+        }
+        return result;
+    }
+}
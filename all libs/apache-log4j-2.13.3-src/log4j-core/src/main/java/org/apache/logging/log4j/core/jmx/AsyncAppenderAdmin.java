@@ -131,4 +131,14 @@ public class AsyncAppenderAdmin implements AsyncAppenderAdminMBean {
     public int getQueueRemainingCapacity() {
         return asyncAppender.getQueueRemainingCapacity();
     }
+
+    @Override
+    public long getDiscardCount() {
+        return asyncAppender.getDiscardCount();
+    }
+
+    @Override
+    public String[] getDiscardCountsByLevel() {
+        return asyncAppender.getDiscardCountsByLevel();
+    }
 }
@@ -128,4 +128,21 @@ public interface AsyncAppenderAdminMBean {
     int getQueueCapacity();
 
     int getQueueRemainingCapacity();
+
+    /**
+     * Returns the number of events discarded because the queue was full or filling up.
+     *
+     * @return the number of discarded events
+     * @since 2.14.0
+     */
+    long getDiscardCount();
+
+    /**
+     * Returns the number of discarded events per level, as {@code LEVEL=count} strings. Only the
+     * {@code Priority} queue full policy counts discarded events per level.
+     *
+     * @return the number of discarded events per level
+     * @since 2.14.0
+     */
+    String[] getDiscardCountsByLevel();
 }
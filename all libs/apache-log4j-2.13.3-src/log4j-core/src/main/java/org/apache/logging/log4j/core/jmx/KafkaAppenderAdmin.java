@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+import java.util.Objects;
+
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.core.appender.mom.kafka.KafkaAppender;
+import org.apache.logging.log4j.core.appender.mom.kafka.KafkaManager;
+import org.apache.logging.log4j.core.appender.mom.kafka.LatencyHistogram;
+
+/**
+ * Implementation of the {@code KafkaAppenderAdminMBean} interface.
+ *
+ * @since 2.14.0
+ */
+public class KafkaAppenderAdmin implements KafkaAppenderAdminMBean {
+
+    private final KafkaAppender appender;
+    private final ObjectName objectName;
+
+    /**
+     * Constructs a new {@code KafkaAppenderAdmin} with the specified contextName
+     * and Kafka appender.
+     *
+     * @param contextName used in the {@code ObjectName} for this mbean
+     * @param appender the instrumented object
+     */
+    public KafkaAppenderAdmin(final String contextName, final KafkaAppender appender) {
+        Objects.requireNonNull(contextName, "contextName");
+        this.appender = Objects.requireNonNull(appender, "kafka appender");
+        try {
+            final String ctxName = Server.escape(contextName);
+            final String configName = Server.escape(appender.getName());
+            final String name = String.format(PATTERN, ctxName, configName);
+            objectName = new ObjectName(name);
+        } catch (final Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the {@code ObjectName} of this mbean.
+     *
+     * @return the {@code ObjectName}
+     * @see KafkaAppenderAdminMBean#PATTERN
+     */
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+
+    private KafkaManager manager() {
+        return appender.getManager();
+    }
+
+    @Override
+    public String getName() {
+        return appender.getName();
+    }
+
+    @Override
+    public String getTopic() {
+        return manager().getTopic();
+    }
+
+    @Override
+    public int getMaxInFlightSends() {
+        return manager().getMaxInFlightSends();
+    }
+
+    @Override
+    public int getInFlightSends() {
+        return manager().getInFlightSends();
+    }
+
+    @Override
+    public long getAckCount() {
+        return manager().getAckLatency().getCount();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return manager().getErrorLatency().getCount();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return manager().getRejectedCount();
+    }
+
+    @Override
+    public long[] getLatencyBucketBoundsMicros() {
+        return LatencyHistogram.getBucketBoundsMicros();
+    }
+
+    @Override
+    public long[] getSendLatencyHistogram() {
+        return manager().getSendLatency().getCounts();
+    }
+
+    @Override
+    public long[] getAckLatencyHistogram() {
+        return manager().getAckLatency().getCounts();
+    }
+
+    @Override
+    public long[] getErrorLatencyHistogram() {
+        return manager().getErrorLatency().getCounts();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+/**
+ * The MBean interface for monitoring the sends of a {@code KafkaAppender}. Latencies are reported as histograms: each
+ * element of a histogram array is the number of latencies below the bound with the same index in
+ * {@link #getLatencyBucketBoundsMicros()} and at or above the previous bound.
+ *
+ * @since 2.14.0
+ */
+public interface KafkaAppenderAdminMBean {
+    /**
+     * ObjectName pattern ({@value} ) for KafkaAppenderAdmin MBeans. This
+     * pattern contains two variables, where the first is the name of the
+     * context, the second is the name of the instrumented appender.
+     * <p>
+     * You can find all registered KafkaAppenderAdmin MBeans like this:
+     * </p>
+     *
+     * <pre>
+     * MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+     * String pattern = String.format(KafkaAppenderAdminMBean.PATTERN, &quot;*&quot;, &quot;*&quot;);
+     * Set&lt;ObjectName&gt; appenderNames = mbs.queryNames(new ObjectName(pattern), null);
+     * </pre>
+     *
+     * @see Server#escape(String)
+     */
+    String PATTERN = Server.DOMAIN + ":type=%s,component=Appenders,name=%s,subtype=Kafka";
+
+    /**
+     * Returns the name of the instrumented {@code KafkaAppender}.
+     *
+     * @return the name of the KafkaAppender
+     */
+    String getName();
+
+    /**
+     * Returns the Kafka topic the instrumented {@code KafkaAppender} sends to.
+     *
+     * @return the topic
+     */
+    String getTopic();
+
+    /**
+     * Returns the maximum number of unacknowledged messages, or 0 if the number is not limited.
+     *
+     * @return the maximum number of unacknowledged messages
+     */
+    int getMaxInFlightSends();
+
+    /**
+     * Returns the number of messages that were sent and are not acknowledged yet.
+     *
+     * @return the number of unacknowledged messages
+     */
+    int getInFlightSends();
+
+    /**
+     * Returns the number of messages that were acknowledged.
+     *
+     * @return the number of acknowledged messages
+     */
+    long getAckCount();
+
+    /**
+     * Returns the number of messages whose send failed.
+     *
+     * @return the number of failed messages
+     */
+    long getErrorCount();
+
+    /**
+     * Returns the number of events that were not sent because the maximum number of messages was in flight.
+     *
+     * @return the number of rejected events
+     */
+    long getRejectedCount();
+
+    /**
+     * Returns the exclusive upper bounds of the latency histogram buckets in microseconds.
+     *
+     * @return the bucket bounds
+     */
+    long[] getLatencyBucketBoundsMicros();
+
+    /**
+     * Returns the histogram of the time the producer took to accept a message.
+     *
+     * @return the counts of the histogram buckets
+     */
+    long[] getSendLatencyHistogram();
+
+    /**
+     * Returns the histogram of the time from sending a message to its acknowledgement.
+     *
+     * @return the counts of the histogram buckets
+     */
+    long[] getAckLatencyHistogram();
+
+    /**
+     * Returns the histogram of the time from sending a message to the failure of the send.
+     *
+     * @return the counts of the histogram buckets
+     */
+    long[] getErrorLatencyHistogram();
+}
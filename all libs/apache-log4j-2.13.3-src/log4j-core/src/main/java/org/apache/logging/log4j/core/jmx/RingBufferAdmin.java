@@ -19,6 +19,10 @@ package org.apache.logging.log4j.core.jmx;
 import javax.management.ObjectName;
 
 import com.lmax.disruptor.RingBuffer;
+import org.apache.logging.log4j.core.async.AsyncQueueFullPolicy;
+import org.apache.logging.log4j.core.async.DiscardingAsyncQueueFullPolicy;
+import org.apache.logging.log4j.core.async.PriorityAsyncQueueFullPolicy;
+import org.apache.logging.log4j.core.async.ProducerStatistics;
 
 /**
  * Instruments an LMAX Disruptor ring buffer.
@@ -27,23 +31,73 @@ public class RingBufferAdmin implements RingBufferAdminMBean {
 
     private final RingBuffer<?> ringBuffer;
     private final ObjectName objectName;
+    private final ProducerStatistics producerStatistics;
+    private final AsyncQueueFullPolicy asyncQueueFullPolicy;
 
     public static RingBufferAdmin forAsyncLogger(final RingBuffer<?> ringBuffer, final String contextName) {
+        return forAsyncLogger(ringBuffer, contextName, null, null);
+    }
+
+    /**
+     * Creates a RingBufferAdmin for the ring buffer of the {@code AsyncLogger}s of a context.
+     *
+     * @param ringBuffer the instrumented ring buffer
+     * @param contextName the name of the context
+     * @param producerStatistics the statistics of the threads that enqueue into the ring buffer, may be null
+     * @param asyncQueueFullPolicy the policy that decides which events to discard, may be null
+     * @return a new RingBufferAdmin
+     * @since 2.14.0
+     */
+    public static RingBufferAdmin forAsyncLogger(final RingBuffer<?> ringBuffer, final String contextName,
+            final ProducerStatistics producerStatistics, final AsyncQueueFullPolicy asyncQueueFullPolicy) {
         final String ctxName = Server.escape(contextName);
         final String name = String.format(PATTERN_ASYNC_LOGGER, ctxName);
-        return new RingBufferAdmin(ringBuffer, name);
+        return new RingBufferAdmin(ringBuffer, name, producerStatistics, asyncQueueFullPolicy);
     }
 
     public static RingBufferAdmin forAsyncLoggerConfig(final RingBuffer<?> ringBuffer,
             final String contextName, final String configName) {
+        return forAsyncLoggerConfig(ringBuffer, contextName, configName, null, null);
+    }
+
+    /**
+     * Creates a RingBufferAdmin for the ring buffer of an {@code AsyncLoggerConfig}.
+     *
+     * @param ringBuffer the instrumented ring buffer
+     * @param contextName the name of the context
+     * @param configName the name of the logger config
+     * @param producerStatistics the statistics of the threads that enqueue into the ring buffer, may be null
+     * @param asyncQueueFullPolicy the policy that decides which events to discard, may be null
+     * @return a new RingBufferAdmin
+     * @since 2.14.0
+     */
+    public static RingBufferAdmin forAsyncLoggerConfig(final RingBuffer<?> ringBuffer,
+            final String contextName, final String configName, final ProducerStatistics producerStatistics,
+            final AsyncQueueFullPolicy asyncQueueFullPolicy) {
         final String ctxName = Server.escape(contextName);
         final String cfgName = Server.escape(configName);
         final String name = String.format(PATTERN_ASYNC_LOGGER_CONFIG, ctxName, cfgName);
-        return new RingBufferAdmin(ringBuffer, name);
+        return new RingBufferAdmin(ringBuffer, name, producerStatistics, asyncQueueFullPolicy);
     }
 
     protected RingBufferAdmin(final RingBuffer<?> ringBuffer, final String mbeanName) {
+        this(ringBuffer, mbeanName, null, null);
+    }
+
+    /**
+     * Constructs a RingBufferAdmin.
+     *
+     * @param ringBuffer the instrumented ring buffer
+     * @param mbeanName the name of the MBean
+     * @param producerStatistics the statistics of the threads that enqueue into the ring buffer, may be null
+     * @param asyncQueueFullPolicy the policy that decides which events to discard, may be null
+     * @since 2.14.0
+     */
+    protected RingBufferAdmin(final RingBuffer<?> ringBuffer, final String mbeanName,
+            final ProducerStatistics producerStatistics, final AsyncQueueFullPolicy asyncQueueFullPolicy) {
         this.ringBuffer = ringBuffer;
+        this.producerStatistics = producerStatistics;
+        this.asyncQueueFullPolicy = asyncQueueFullPolicy;
         try {
             objectName = new ObjectName(mbeanName);
         } catch (final Exception e) {
@@ -61,6 +115,31 @@ public class RingBufferAdmin implements RingBufferAdminMBean {
         return ringBuffer == null ? 0 : ringBuffer.remainingCapacity();
     }
 
+    @Override
+    public long getEnqueueCount() {
+        return producerStatistics == null ? 0 : producerStatistics.getEnqueueCount();
+    }
+
+    @Override
+    public long getQueueFullCount() {
+        return producerStatistics == null ? 0 : producerStatistics.getQueueFullCount();
+    }
+
+    @Override
+    public String[] getProducerStatistics() {
+        return producerStatistics == null ? new String[0] : producerStatistics.getProducerStatistics();
+    }
+
+    @Override
+    public long getDiscardCount() {
+        return DiscardingAsyncQueueFullPolicy.getDiscardCount(asyncQueueFullPolicy);
+    }
+
+    @Override
+    public String[] getDiscardCountsByLevel() {
+        return PriorityAsyncQueueFullPolicy.getDiscardCountsByLevel(asyncQueueFullPolicy);
+    }
+
     /**
      * Returns the {@code ObjectName} of this mbean.
      *
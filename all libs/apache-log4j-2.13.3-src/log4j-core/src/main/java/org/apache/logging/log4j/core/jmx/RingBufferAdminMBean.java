@@ -68,4 +68,49 @@ public interface RingBufferAdminMBean {
      * @return the number of available slots in the ring buffer
      */
     long getRemainingCapacity();
+
+    /**
+     * Returns the number of enqueue operations whose latency was measured. Enqueue latencies are only measured
+     * when the {@code AsyncLogger.ProducerStatistics} or {@code AsyncLoggerConfig.ProducerStatistics} system
+     * property is {@code true}.
+     *
+     * @return the number of timed enqueue operations
+     * @since 2.14.0
+     */
+    long getEnqueueCount();
+
+    /**
+     * Returns how often application threads found the ring buffer full.
+     *
+     * @return the number of times the ring buffer was full on enqueue
+     * @since 2.14.0
+     */
+    long getQueueFullCount();
+
+    /**
+     * Returns one line per application thread that enqueued into the ring buffer, with its number of timed enqueue
+     * operations, average and maximum enqueue latency in nanoseconds, and the number of times it found the ring
+     * buffer full.
+     *
+     * @return the statistics of the threads that enqueue into the ring buffer
+     * @since 2.14.0
+     */
+    String[] getProducerStatistics();
+
+    /**
+     * Returns the number of events discarded because the ring buffer was full or filling up.
+     *
+     * @return the number of discarded events
+     * @since 2.14.0
+     */
+    long getDiscardCount();
+
+    /**
+     * Returns the number of discarded events per level, as {@code LEVEL=count} strings. Only the
+     * {@code Priority} queue full policy counts discarded events per level.
+     *
+     * @return the number of discarded events per level
+     * @since 2.14.0
+     */
+    String[] getDiscardCountsByLevel();
 }
@@ -0,0 +1,753 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import java.lang.reflect.Method;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.ThreadContext.ContextStack;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.impl.ExtendedStackTraceElement;
+import org.apache.logging.log4j.core.impl.ThrowableProxy;
+import org.apache.logging.log4j.core.jackson.JsonConstants;
+import org.apache.logging.log4j.core.lookup.StrSubstitutor;
+import org.apache.logging.log4j.core.pattern.PlainTextRenderer;
+import org.apache.logging.log4j.core.time.Instant;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.core.util.JsonUtils;
+import org.apache.logging.log4j.core.util.KeyValuePair;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.apache.logging.log4j.util.Strings;
+import org.apache.logging.log4j.util.TriConsumer;
+
+/**
+ * Lays out events in the JSON format of the {@link JsonLayout} without Jackson.
+ * <p>
+ * The JSON text of an event is appended to a reused {@code StringBuilder}, escaping strings with {@link JsonUtils},
+ * and {@link #encode(LogEvent, ByteBufferDestination)} encodes it directly into the destination, so events are laid
+ * out without creating temporary objects when their message is a {@link StringBuilderFormattable} and they carry no
+ * exception.
+ * </p>
+ * <p>
+ * This layout supports the {@code compact}, {@code eventEol}, {@code endOfLine}, {@code complete},
+ * {@code locationInfo}, {@code properties}, {@code propertiesAsList}, {@code includeStacktrace},
+ * {@code stacktraceAsString}, {@code includeNullDelimiter} and {@code includeTimeMillis} options and the
+ * {@code AdditionalField} elements of the {@link JsonLayout}, and produces the same output for them. The complete
+ * document header and footer are always {@code [} and {@code ]}, and messages are always written as strings.
+ * </p>
+ *
+ * @since 2.14.0
+ */
+@Plugin(name = "DirectJsonLayout", category = Node.CATEGORY, elementType = Layout.ELEMENT_TYPE, printObject = true)
+public final class DirectJsonLayout extends AbstractStringLayout {
+
+    private static final String DEFAULT_EOL = "\r\n";
+    private static final String COMPACT_EOL = Strings.EMPTY;
+    private static final String DEFAULT_HEADER = "[";
+    private static final String DEFAULT_FOOTER = "]";
+
+    // the StackTraceElement properties added in Java 9, in the order Jackson writes them
+    private static final String[] JAVA9_ELEMENT_PROPERTIES = {"classLoaderName", "moduleName", "moduleVersion"};
+    private static final Method[] JAVA9_ELEMENT_GETTERS = getJava9ElementGetters();
+
+    private static final ThreadLocal<JsonWriter> jsonWriter = new ThreadLocal<>();
+    private static final ThreadLocal<StringBuilder> messageStringBuilder = new ThreadLocal<>();
+
+    private static final TriConsumer<String, Object, JsonWriter> WRITE_CONTEXT_FIELD =
+            new TriConsumer<String, Object, JsonWriter>() {
+        @Override
+        public void accept(final String key, final Object value, final JsonWriter writer) {
+            writer.name(key);
+            writer.value(value instanceof CharSequence ? (CharSequence) value : String.valueOf(value));
+        }
+    };
+
+    private static final TriConsumer<String, Object, JsonWriter> WRITE_CONTEXT_ENTRY =
+            new TriConsumer<String, Object, JsonWriter>() {
+        @Override
+        public void accept(final String key, final Object value, final JsonWriter writer) {
+            writer.beginObject();
+            writer.name("key");
+            writer.value(key);
+            writer.name("value");
+            writer.value(value instanceof CharSequence ? (CharSequence) value : String.valueOf(value));
+            writer.endObject();
+        }
+    };
+
+    public static class Builder<B extends Builder<B>> extends AbstractStringLayout.Builder<B>
+            implements org.apache.logging.log4j.core.util.Builder<DirectJsonLayout> {
+
+        @PluginBuilderAttribute
+        private boolean eventEol;
+
+        @PluginBuilderAttribute
+        private String endOfLine;
+
+        @PluginBuilderAttribute
+        private boolean compact;
+
+        @PluginBuilderAttribute
+        private boolean complete;
+
+        @PluginBuilderAttribute
+        private boolean locationInfo;
+
+        @PluginBuilderAttribute
+        private boolean properties;
+
+        @PluginBuilderAttribute
+        private boolean propertiesAsList;
+
+        @PluginBuilderAttribute
+        private boolean includeStacktrace = true;
+
+        @PluginBuilderAttribute
+        private boolean stacktraceAsString;
+
+        @PluginBuilderAttribute
+        private boolean includeNullDelimiter;
+
+        @PluginBuilderAttribute
+        private boolean includeTimeMillis;
+
+        @PluginElement("AdditionalField")
+        private KeyValuePair[] additionalFields;
+
+        public Builder() {
+            super();
+            setCharset(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public DirectJsonLayout build() {
+            return new DirectJsonLayout(getConfiguration(), getCharset(), this);
+        }
+
+        public boolean getEventEol() {
+            return eventEol;
+        }
+
+        public String getEndOfLine() {
+            return endOfLine;
+        }
+
+        public boolean isCompact() {
+            return compact;
+        }
+
+        public boolean isComplete() {
+            return complete;
+        }
+
+        public boolean isLocationInfo() {
+            return locationInfo;
+        }
+
+        public boolean isProperties() {
+            return properties;
+        }
+
+        public boolean isPropertiesAsList() {
+            return propertiesAsList;
+        }
+
+        public boolean isIncludeStacktrace() {
+            return includeStacktrace;
+        }
+
+        public boolean isStacktraceAsString() {
+            return stacktraceAsString;
+        }
+
+        public boolean isIncludeNullDelimiter() {
+            return includeNullDelimiter;
+        }
+
+        public boolean isIncludeTimeMillis() {
+            return includeTimeMillis;
+        }
+
+        public KeyValuePair[] getAdditionalFields() {
+            return additionalFields;
+        }
+
+        public B setEventEol(final boolean eventEol) {
+            this.eventEol = eventEol;
+            return asBuilder();
+        }
+
+        public B setEndOfLine(final String endOfLine) {
+            this.endOfLine = endOfLine;
+            return asBuilder();
+        }
+
+        public B setCompact(final boolean compact) {
+            this.compact = compact;
+            return asBuilder();
+        }
+
+        public B setComplete(final boolean complete) {
+            this.complete = complete;
+            return asBuilder();
+        }
+
+        public B setLocationInfo(final boolean locationInfo) {
+            this.locationInfo = locationInfo;
+            return asBuilder();
+        }
+
+        public B setProperties(final boolean properties) {
+            this.properties = properties;
+            return asBuilder();
+        }
+
+        public B setPropertiesAsList(final boolean propertiesAsList) {
+            this.propertiesAsList = propertiesAsList;
+            return asBuilder();
+        }
+
+        /**
+         * If "true", includes the stacktrace of any Throwable in the generated JSON, defaults to "true".
+         * @param includeStacktrace If "true", includes the stacktrace of any Throwable in the generated JSON.
+         * @return this builder
+         */
+        public B setIncludeStacktrace(final boolean includeStacktrace) {
+            this.includeStacktrace = includeStacktrace;
+            return asBuilder();
+        }
+
+        /**
+         * Whether to format the stacktrace as a string, and not a nested object (optional, defaults to false).
+         *
+         * @return this builder
+         */
+        public B setStacktraceAsString(final boolean stacktraceAsString) {
+            this.stacktraceAsString = stacktraceAsString;
+            return asBuilder();
+        }
+
+        /**
+         * Whether to include NULL byte as delimiter after each event (optional, default to false).
+         *
+         * @return this builder
+         */
+        public B setIncludeNullDelimiter(final boolean includeNullDelimiter) {
+            this.includeNullDelimiter = includeNullDelimiter;
+            return asBuilder();
+        }
+
+        /**
+         * Whether to include the timestamp in milliseconds instead of the instant (optional, default to false).
+         *
+         * @return this builder
+         */
+        public B setIncludeTimeMillis(final boolean includeTimeMillis) {
+            this.includeTimeMillis = includeTimeMillis;
+            return asBuilder();
+        }
+
+        /**
+         * Additional fields to set on each log event.
+         *
+         * @return this builder
+         */
+        public B setAdditionalFields(final KeyValuePair[] additionalFields) {
+            this.additionalFields = additionalFields;
+            return asBuilder();
+        }
+    }
+
+    private final String eol;
+    private final boolean compact;
+    private final boolean complete;
+    private final boolean locationInfo;
+    private final boolean properties;
+    private final boolean propertiesAsList;
+    private final boolean includeStacktrace;
+    private final boolean stacktraceAsString;
+    private final boolean includeNullDelimiter;
+    private final boolean includeTimeMillis;
+    private final KeyValuePair[] additionalFields;
+    private final boolean[] additionalFieldNeedsLookup;
+
+    private DirectJsonLayout(final Configuration config, final Charset charset, final Builder<?> builder) {
+        super(config, charset, null, null);
+        this.compact = builder.isCompact();
+        this.complete = builder.isComplete();
+        this.eol = builder.getEndOfLine() != null ? builder.getEndOfLine()
+                : compact && !builder.getEventEol() ? COMPACT_EOL : DEFAULT_EOL;
+        this.locationInfo = builder.isLocationInfo();
+        this.properties = builder.isProperties();
+        this.propertiesAsList = properties && builder.isPropertiesAsList();
+        this.includeStacktrace = builder.isIncludeStacktrace();
+        this.stacktraceAsString = builder.isStacktraceAsString();
+        this.includeNullDelimiter = builder.isIncludeNullDelimiter();
+        this.includeTimeMillis = builder.isIncludeTimeMillis();
+        this.additionalFields = builder.getAdditionalFields() != null
+                ? Arrays.copyOf(builder.getAdditionalFields(), builder.getAdditionalFields().length)
+                : new KeyValuePair[0];
+        this.additionalFieldNeedsLookup = new boolean[additionalFields.length];
+        for (int i = 0; i < additionalFields.length; i++) {
+            final String value = additionalFields[i].getValue();
+            additionalFieldNeedsLookup[i] = value != null && value.contains("${");
+            if (config == null && additionalFieldNeedsLookup[i]) {
+                throw new IllegalArgumentException(
+                        "configuration needs to be set when there are additional fields with variables");
+            }
+        }
+    }
+
+    @PluginBuilderFactory
+    public static <B extends Builder<B>> B newBuilder() {
+        return new Builder<B>().asBuilder();
+    }
+
+    /**
+     * Returns the JSON header opening the array of events if {@code complete} is set.
+     *
+     * @return a byte array containing the header, or {@code null}
+     */
+    @Override
+    public byte[] getHeader() {
+        return complete ? getBytes(DEFAULT_HEADER + eol) : null;
+    }
+
+    /**
+     * Returns the JSON footer closing the array of events if {@code complete} is set.
+     *
+     * @return a byte array containing the footer, or {@code null}
+     */
+    @Override
+    public byte[] getFooter() {
+        return complete ? getBytes(eol + DEFAULT_FOOTER + eol) : null;
+    }
+
+    @Override
+    public Map<String, String> getContentFormat() {
+        final Map<String, String> result = new HashMap<>();
+        result.put("version", "2.0");
+        return result;
+    }
+
+    @Override
+    public String getContentType() {
+        return JsonLayout.CONTENT_TYPE + "; charset=" + this.getCharset();
+    }
+
+    @Override
+    public boolean requiresLocation() {
+        return locationInfo;
+    }
+
+    @Override
+    public String toSerializable(final LogEvent event) {
+        final StringBuilder text = toText(event, getStringBuilder(), false);
+        return text.toString();
+    }
+
+    @Override
+    public void encode(final LogEvent event, final ByteBufferDestination destination) {
+        final StringBuilder text = toText(event, getStringBuilder(), true);
+        final Encoder<StringBuilder> helper = getStringBuilderEncoder();
+        helper.encode(text, destination);
+    }
+
+    private StringBuilder toText(final LogEvent event, final StringBuilder builder, final boolean gcFree) {
+        if (complete && eventCount > 0) {
+            builder.append(", ");
+        }
+        final JsonWriter writer = getJsonWriter(builder);
+        writer.beginObject();
+        if (includeTimeMillis) {
+            writer.name(JsonConstants.ELT_TIME_MILLIS);
+            writer.value(event.getTimeMillis());
+        } else {
+            final Instant instant = event.getInstant();
+            writer.name(JsonConstants.ELT_INSTANT);
+            writer.beginObject();
+            writer.name("epochSecond");
+            writer.value(instant.getEpochSecond());
+            writer.name("nanoOfSecond");
+            writer.value(instant.getNanoOfSecond());
+            writer.endObject();
+        }
+        writeStringField(writer, "thread", event.getThreadName());
+        writeStringField(writer, "level", event.getLevel() == null ? null : event.getLevel().name());
+        writeStringField(writer, "loggerName", event.getLoggerName());
+        if (event.getMarker() != null) {
+            writer.name(JsonConstants.ELT_MARKER);
+            writeMarker(writer, event.getMarker());
+        }
+        writeMessage(writer, event.getMessage(), gcFree);
+        if (event.getThrown() != null) {
+            writer.name(JsonConstants.ELT_THROWN);
+            writeThrowableProxy(writer, event.getThrownProxy());
+        }
+        final ContextStack contextStack = event.getContextStack();
+        if (contextStack != null && contextStack.getDepth() > 0) {
+            writer.name(JsonConstants.ELT_CONTEXT_STACK);
+            writer.beginArray();
+            for (final String item : contextStack.asList()) {
+                writer.value(item);
+            }
+            writer.endArray();
+        }
+        writer.name("endOfBatch");
+        writer.value(event.isEndOfBatch());
+        writeStringField(writer, "loggerFqcn", event.getLoggerFqcn());
+        if (properties) {
+            writer.name(JsonConstants.ELT_CONTEXT_MAP);
+            if (propertiesAsList) {
+                writer.beginArray();
+                event.getContextData().forEach(WRITE_CONTEXT_ENTRY, writer);
+                writer.endArray();
+            } else {
+                writer.beginObject();
+                event.getContextData().forEach(WRITE_CONTEXT_FIELD, writer);
+                writer.endObject();
+            }
+        }
+        writer.name("threadId");
+        writer.value(event.getThreadId());
+        writer.name("threadPriority");
+        writer.value(event.getThreadPriority());
+        if (locationInfo && event.getSource() != null) {
+            writer.name(JsonConstants.ELT_SOURCE);
+            writeStackTraceElement(writer, event.getSource());
+        }
+        if (additionalFields.length > 0) {
+            final StrSubstitutor strSubstitutor = additionalFieldNeedsLookup.length > 0 && configuration != null
+                    ? configuration.getStrSubstitutor() : null;
+            for (int i = 0; i < additionalFields.length; i++) {
+                final String value = additionalFieldNeedsLookup[i]
+                        ? strSubstitutor.replace(event, additionalFields[i].getValue())
+                        : additionalFields[i].getValue();
+                writeStringField(writer, additionalFields[i].getKey(), value);
+            }
+        }
+        writer.endObject();
+        builder.append(eol);
+        if (includeNullDelimiter) {
+            builder.append('\0');
+        }
+        markEvent();
+        return builder;
+    }
+
+    private static void writeStringField(final JsonWriter writer, final String name, final CharSequence value) {
+        if (value != null && value.length() > 0) {
+            writer.name(name);
+            writer.value(value);
+        }
+    }
+
+    private static void writeMessage(final JsonWriter writer, final Message message, final boolean gcFree) {
+        if (message == null) {
+            return;
+        }
+        if (message instanceof CharSequence) {
+            writeStringField(writer, JsonConstants.ELT_MESSAGE, (CharSequence) message);
+        } else if (gcFree && message instanceof StringBuilderFormattable) {
+            final StringBuilder messageBuffer = getMessageStringBuilder();
+            try {
+                ((StringBuilderFormattable) message).formatTo(messageBuffer);
+                writeStringField(writer, JsonConstants.ELT_MESSAGE, messageBuffer);
+            } finally {
+                trimToMaxSize(messageBuffer);
+            }
+        } else {
+            writeStringField(writer, JsonConstants.ELT_MESSAGE, message.getFormattedMessage());
+        }
+    }
+
+    private static void writeMarker(final JsonWriter writer, final Marker marker) {
+        writer.beginObject();
+        writeStringField(writer, "name", marker.getName());
+        final Marker[] parents = marker.getParents();
+        if (parents != null && parents.length > 0) {
+            writer.name(JsonConstants.ELT_PARENTS);
+            writer.beginArray();
+            for (final Marker parent : parents) {
+                writeMarker(writer, parent);
+            }
+            writer.endArray();
+        }
+        writer.endObject();
+    }
+
+    private void writeThrowableProxy(final JsonWriter writer, final ThrowableProxy proxy) {
+        writer.beginObject();
+        writer.name("commonElementCount");
+        writer.value(proxy.getCommonElementCount());
+        writeStringField(writer, "localizedMessage", proxy.getLocalizedMessage());
+        writeStringField(writer, JsonConstants.ELT_MESSAGE, proxy.getMessage());
+        writeStringField(writer, "name", proxy.getName());
+        if (proxy.getCauseProxy() != null) {
+            writer.name(JsonConstants.ELT_CAUSE);
+            writeThrowableProxy(writer, proxy.getCauseProxy());
+        }
+        // JsonLayout writes the suppressed exceptions before the stack trace string but after the stack trace array
+        if (includeStacktrace && stacktraceAsString) {
+            writeSuppressed(writer, proxy);
+            final StringBuilder stackTrace = getMessageStringBuilder();
+            proxy.formatExtendedStackTraceTo(stackTrace, null, PlainTextRenderer.getInstance(), Strings.EMPTY,
+                    Strings.LINE_SEPARATOR);
+            writeStringField(writer, JsonConstants.ELT_EXTENDED_STACK_TRACE, stackTrace);
+            trimToMaxSize(stackTrace);
+        } else {
+            final ExtendedStackTraceElement[] elements = includeStacktrace ? proxy.getExtendedStackTrace() : null;
+            if (elements != null && elements.length > 0) {
+                writer.name(JsonConstants.ELT_EXTENDED_STACK_TRACE);
+                writer.beginArray();
+                for (final ExtendedStackTraceElement element : elements) {
+                    writeExtendedStackTraceElement(writer, element);
+                }
+                writer.endArray();
+            }
+            writeSuppressed(writer, proxy);
+        }
+        writer.endObject();
+    }
+
+    private void writeSuppressed(final JsonWriter writer, final ThrowableProxy proxy) {
+        final ThrowableProxy[] suppressed = proxy.getSuppressedProxies();
+        if (suppressed != null && suppressed.length > 0) {
+            writer.name(JsonConstants.ELT_SUPPRESSED);
+            writer.beginArray();
+            for (final ThrowableProxy suppressedProxy : suppressed) {
+                writeThrowableProxy(writer, suppressedProxy);
+            }
+            writer.endArray();
+        }
+    }
+
+    private static void writeExtendedStackTraceElement(final JsonWriter writer,
+            final ExtendedStackTraceElement element) {
+        writer.beginObject();
+        writeStringField(writer, "class", element.getClassName());
+        writeStringField(writer, "method", element.getMethodName());
+        writeStringField(writer, "file", element.getFileName());
+        writer.name("line");
+        writer.value(element.getLineNumber());
+        writer.name("exact");
+        writer.value(element.getExact());
+        writeStringField(writer, "location", element.getLocation());
+        writeStringField(writer, "version", element.getVersion());
+        writer.endObject();
+    }
+
+    private static void writeStackTraceElement(final JsonWriter writer, final StackTraceElement element) {
+        writer.beginObject();
+        writeStringField(writer, "class", element.getClassName());
+        writeStringField(writer, "method", element.getMethodName());
+        writeStringField(writer, "file", element.getFileName());
+        writer.name("line");
+        writer.value(element.getLineNumber());
+        for (int i = 0; i < JAVA9_ELEMENT_GETTERS.length; i++) {
+            writeStringField(writer, JAVA9_ELEMENT_PROPERTIES[i], getJava9ElementProperty(i, element));
+        }
+        writer.endObject();
+    }
+
+    private static Method[] getJava9ElementGetters() {
+        final Method[] getters = new Method[JAVA9_ELEMENT_PROPERTIES.length];
+        try {
+            for (int i = 0; i < getters.length; i++) {
+                final String property = JAVA9_ELEMENT_PROPERTIES[i];
+                getters[i] = StackTraceElement.class.getMethod(
+                        "get" + Character.toUpperCase(property.charAt(0)) + property.substring(1));
+            }
+            return getters;
+        } catch (final NoSuchMethodException | SecurityException e) {
+            // Java 8
+            return new Method[0];
+        }
+    }
+
+    private static String getJava9ElementProperty(final int index, final StackTraceElement element) {
+        try {
+            return (String) JAVA9_ELEMENT_GETTERS[index].invoke(element);
+        } catch (final ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private JsonWriter getJsonWriter(final StringBuilder builder) {
+        JsonWriter result = Constants.ENABLE_THREADLOCALS ? jsonWriter.get() : null;
+        if (result == null) {
+            result = new JsonWriter();
+            if (Constants.ENABLE_THREADLOCALS) {
+                jsonWriter.set(result);
+            }
+        }
+        result.reset(builder, compact);
+        return result;
+    }
+
+    private static StringBuilder getMessageStringBuilder() {
+        StringBuilder result = messageStringBuilder.get();
+        if (result == null) {
+            result = new StringBuilder(DEFAULT_STRING_BUILDER_SIZE);
+            messageStringBuilder.set(result);
+        }
+        result.setLength(0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "DirectJsonLayout[compact=" + compact + ", complete=" + complete + ", locationInfo=" + locationInfo
+                + ", properties=" + properties + ", stacktraceAsString=" + stacktraceAsString + "]";
+    }
+
+    /**
+     * Appends JSON tokens to a {@code StringBuilder}, in compact form or indented like Jackson's default pretty
+     * printer.
+     */
+    private static final class JsonWriter {
+
+        private static final int INDENT = 2;
+
+        private StringBuilder builder;
+        private boolean compact;
+        // for each open object or array: whether it is an object, and whether it has a member yet
+        private boolean[] isObject = new boolean[16];
+        private boolean[] hasMembers = new boolean[16];
+        private int depth;
+        private int objectDepth;
+        private boolean afterName;
+
+        void reset(final StringBuilder output, final boolean compactOutput) {
+            this.builder = output;
+            this.compact = compactOutput;
+            this.depth = 0;
+            this.objectDepth = 0;
+            this.afterName = false;
+        }
+
+        void beginObject() {
+            beforeValue();
+            builder.append('{');
+            push(true);
+            objectDepth++;
+        }
+
+        void endObject() {
+            final boolean members = hasMembers[--depth];
+            objectDepth--;
+            if (!compact) {
+                if (members) {
+                    newLine(objectDepth);
+                } else {
+                    builder.append(' ');
+                }
+            }
+            builder.append('}');
+        }
+
+        void beginArray() {
+            beforeValue();
+            builder.append('[');
+            push(false);
+        }
+
+        void endArray() {
+            depth--;
+            if (!compact) {
+                builder.append(' ');
+            }
+            builder.append(']');
+        }
+
+        void name(final String name) {
+            if (hasMembers[depth - 1]) {
+                builder.append(',');
+            }
+            hasMembers[depth - 1] = true;
+            if (!compact) {
+                newLine(objectDepth);
+            }
+            builder.append('"');
+            JsonUtils.quoteAsString(name, builder);
+            builder.append(compact ? "\":" : "\" : ");
+            afterName = true;
+        }
+
+        void value(final CharSequence value) {
+            beforeValue();
+            builder.append('"');
+            JsonUtils.quoteAsString(value, builder);
+            builder.append('"');
+        }
+
+        void value(final long value) {
+            beforeValue();
+            builder.append(value);
+        }
+
+        void value(final boolean value) {
+            beforeValue();
+            builder.append(value);
+        }
+
+        private void beforeValue() {
+            if (afterName) {
+                afterName = false;
+                return;
+            }
+            if (depth > 0 && !isObject[depth - 1]) {
+                if (hasMembers[depth - 1]) {
+                    builder.append(compact ? "," : ", ");
+                } else if (!compact) {
+                    builder.append(' ');
+                }
+                hasMembers[depth - 1] = true;
+            }
+        }
+
+        private void push(final boolean object) {
+            if (depth == isObject.length) {
+                isObject = Arrays.copyOf(isObject, depth * 2);
+                hasMembers = Arrays.copyOf(hasMembers, depth * 2);
+            }
+            isObject[depth] = object;
+            hasMembers[depth] = false;
+            depth++;
+        }
+
+        private void newLine(final int indent) {
+            builder.append(Strings.LINE_SEPARATOR);
+            for (int i = 0; i < indent * INDENT; i++) {
+                builder.append(' ');
+            }
+        }
+    }
+}
@@ -35,6 +35,7 @@ import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
 import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
 import org.apache.logging.log4j.core.impl.LocationAware;
+import org.apache.logging.log4j.core.pattern.CompiledPatternFormatter;
 import org.apache.logging.log4j.core.pattern.LogEventPatternConverter;
 import org.apache.logging.log4j.core.pattern.PatternFormatter;
 import org.apache.logging.log4j.core.pattern.PatternParser;
@@ -84,6 +85,7 @@ public final class PatternLayout extends AbstractStringLayout {
     private final String conversionPattern;
     private final PatternSelector patternSelector;
     private final Serializer eventSerializer;
+    private final CompiledPatternSerializer preEncodedSerializer;
 
     /**
      * Constructs a PatternLayout using the supplied conversion pattern.
@@ -105,7 +107,7 @@ public final class PatternLayout extends AbstractStringLayout {
     private PatternLayout(final Configuration config, final RegexReplacement replace, final String eventPattern,
             final PatternSelector patternSelector, final Charset charset, final boolean alwaysWriteExceptions,
             final boolean disableAnsi, final boolean noConsoleNoAnsi, final String headerPattern,
-            final String footerPattern) {
+            final String footerPattern, final boolean compiled, final boolean preEncoded) {
         super(config, charset,
                 newSerializerBuilder()
                         .setConfiguration(config)
@@ -136,7 +138,13 @@ public final class PatternLayout extends AbstractStringLayout {
                 .setNoConsoleNoAnsi(noConsoleNoAnsi)
                 .setPattern(eventPattern)
                 .setDefaultPattern(DEFAULT_CONVERSION_PATTERN)
+                .setCompiled(compiled)
+                .setPreEncoded(preEncoded)
+                .setCharset(charset)
                 .build();
+        this.preEncodedSerializer = eventSerializer instanceof CompiledPatternSerializer
+                && ((CompiledPatternSerializer) eventSerializer).isPreEncoded()
+                ? (CompiledPatternSerializer) eventSerializer : null;
     }
 
     public static SerializerBuilder newSerializerBuilder() {
@@ -222,6 +230,12 @@ public final class PatternLayout extends AbstractStringLayout {
 
     @Override
     public void encode(final LogEvent event, final ByteBufferDestination destination) {
+        if (preEncodedSerializer != null) {
+            final StringBuilder text = getStringBuilder();
+            preEncodedSerializer.encode(event, text, destination);
+            trimToMaxSize(text);
+            return;
+        }
         if (!(eventSerializer instanceof Serializer2)) {
             super.encode(event, destination);
             return;
@@ -376,6 +390,73 @@ public final class PatternLayout extends AbstractStringLayout {
         }
     }
 
+    private static class CompiledPatternSerializer implements Serializer, Serializer2, LocationAware {
+
+        private final PatternFormatter[] formatters;
+        private final CompiledPatternFormatter compiledFormatter;
+        private final RegexReplacement replace;
+
+        private CompiledPatternSerializer(final PatternFormatter[] formatters,
+                final CompiledPatternFormatter compiledFormatter, final RegexReplacement replace) {
+            super();
+            this.formatters = formatters;
+            this.compiledFormatter = compiledFormatter;
+            this.replace = replace;
+        }
+
+        @Override
+        public String toSerializable(final LogEvent event) {
+            final StringBuilder sb = getStringBuilder();
+            try {
+                return toSerializable(event, sb).toString();
+            } finally {
+                trimToMaxSize(sb);
+            }
+        }
+
+        boolean isPreEncoded() {
+            return replace == null && compiledFormatter.isPreEncoded();
+        }
+
+        void encode(final LogEvent event, final StringBuilder text, final ByteBufferDestination destination) {
+            compiledFormatter.encode(event, text, destination);
+        }
+
+        @Override
+        public StringBuilder toSerializable(final LogEvent event, final StringBuilder buffer) {
+            compiledFormatter.format(event, buffer);
+            if (replace != null) { // creates temporary objects
+                String str = buffer.toString();
+                str = replace.format(str);
+                buffer.setLength(0);
+                buffer.append(str);
+            }
+            return buffer;
+        }
+
+        @Override
+        public boolean requiresLocation() {
+            for (PatternFormatter formatter : formatters) {
+                if (formatter.requiresLocation()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder builder = new StringBuilder();
+            builder.append(super.toString());
+            builder.append("[compiledFormatter=");
+            builder.append(compiledFormatter);
+            builder.append(", replace=");
+            builder.append(replace);
+            builder.append("]");
+            return builder.toString();
+        }
+    }
+
     public static class SerializerBuilder implements org.apache.logging.log4j.core.util.Builder<Serializer> {
 
         private Configuration configuration;
@@ -386,6 +467,9 @@ public final class PatternLayout extends AbstractStringLayout {
         private boolean alwaysWriteExceptions;
         private boolean disableAnsi;
         private boolean noConsoleNoAnsi;
+        private boolean compiled;
+        private boolean preEncoded;
+        private Charset charset;
 
         @Override
         public Serializer build() {
@@ -398,6 +482,10 @@ public final class PatternLayout extends AbstractStringLayout {
                     final List<PatternFormatter> list = parser.parse(pattern == null ? defaultPattern : pattern,
                             alwaysWriteExceptions, disableAnsi, noConsoleNoAnsi);
                     final PatternFormatter[] formatters = list.toArray(new PatternFormatter[0]);
+                    if (compiled || preEncoded) {
+                        return new CompiledPatternSerializer(formatters,
+                                CompiledPatternFormatter.compile(list, preEncoded ? charset : null), replace);
+                    }
                     return new PatternSerializer(formatters, replace);
                 } catch (final RuntimeException ex) {
                     throw new IllegalArgumentException("Cannot parse pattern '" + pattern + "'", ex);
@@ -446,6 +534,42 @@ public final class PatternLayout extends AbstractStringLayout {
             return this;
         }
 
+        /**
+         * Compiles the formatters of the pattern when no pattern selector is used, see
+         * {@link CompiledPatternFormatter}.
+         *
+         * @param compiled whether to compile the pattern
+         * @return this builder
+         * @since 2.14.0
+         */
+        public SerializerBuilder setCompiled(final boolean compiled) {
+            this.compiled = compiled;
+            return this;
+        }
+
+        /**
+         * Compiles the formatters of the pattern for the charset set with {@link #setCharset(Charset)}, encoding the
+         * constant text, levels, logger names and thread names once, see {@link CompiledPatternFormatter}.
+         *
+         * @param preEncoded whether to pre-encode the pattern
+         * @return this builder
+         * @since 2.14.0
+         */
+        public SerializerBuilder setPreEncoded(final boolean preEncoded) {
+            this.preEncoded = preEncoded;
+            return this;
+        }
+
+        /**
+         * @param charset the charset of the layout, used to pre-encode the pattern
+         * @return this builder
+         * @since 2.14.0
+         */
+        public SerializerBuilder setCharset(final Charset charset) {
+            this.charset = charset;
+            return this;
+        }
+
     }
 
     private static class PatternSelectorSerializer implements Serializer, Serializer2, LocationAware {
@@ -573,6 +697,12 @@ public final class PatternLayout extends AbstractStringLayout {
         @PluginBuilderAttribute
         private String footer;
 
+        @PluginBuilderAttribute
+        private boolean compiled;
+
+        @PluginBuilderAttribute
+        private boolean preEncoded;
+
         private Builder() {
         }
 
@@ -677,6 +807,30 @@ public final class PatternLayout extends AbstractStringLayout {
             return this;
         }
 
+        /**
+         * @param compiled
+         *        If {@code "true"} (default is false), the event pattern is compiled when the layout is built so that
+         *        the common converters are called directly instead of through a virtual call. Ignored when a pattern
+         *        selector is used.
+         * @since 2.14.0
+         */
+        public Builder withCompiled(final boolean compiled) {
+            this.compiled = compiled;
+            return this;
+        }
+
+        /**
+         * @param preEncoded
+         *        If {@code "true"} (default is false), the event pattern is compiled and, with the UTF-8, US-ASCII or
+         *        ISO-8859-1 charset, its literal text, levels, logger names and thread names are encoded once instead
+         *        of for each event. Ignored when a pattern selector or a regex replacement is used.
+         * @since 2.14.0
+         */
+        public Builder withPreEncoded(final boolean preEncoded) {
+            this.preEncoded = preEncoded;
+            return this;
+        }
+
         @Override
         public PatternLayout build() {
             // fall back to DefaultConfiguration
@@ -684,7 +838,8 @@ public final class PatternLayout extends AbstractStringLayout {
                 configuration = new DefaultConfiguration();
             }
             return new PatternLayout(configuration, regexReplacement, pattern, patternSelector, charset,
-                alwaysWriteExceptions, disableAnsi, noConsoleNoAnsi, header, footer);
+                alwaysWriteExceptions, disableAnsi, noConsoleNoAnsi, header, footer, compiled,
+                preEncoded);
         }
     }
 
@@ -21,6 +21,7 @@ import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
 import org.apache.logging.log4j.core.ContextDataInjector;
 import org.apache.logging.log4j.core.impl.ContextDataInjectorFactory;
+import org.apache.logging.log4j.core.impl.ContextDataSlots;
 import org.apache.logging.log4j.util.ReadOnlyStringMap;
 
 /**
@@ -57,4 +58,17 @@ public class ContextMapLookup implements StrLookup {
     public String lookup(final LogEvent event, final String key) {
         return event.getContextData().getValue(key);
     }
+
+    /**
+     * Looks up the value of a key that was interned by {@link ContextDataSlots#slotOf(String)} in the context data
+     * of the event.
+     *
+     * @param event The current LogEvent.
+     * @param slot the slot of the key
+     * @param key  the key to be looked up
+     * @return The value associated with the key.
+     */
+    String lookup(final LogEvent event, final int slot, final String key) {
+        return ContextDataSlots.getValue(event.getContextData(), slot, key);
+    }
 }
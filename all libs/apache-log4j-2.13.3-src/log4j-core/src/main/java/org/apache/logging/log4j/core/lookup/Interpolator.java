@@ -234,6 +234,41 @@ public class Interpolator extends AbstractConfigurationAwareLookup {
         return null;
     }
 
+    /**
+     * Returns the lookup registered for the specified prefix.
+     *
+     * @param prefix the prefix of a variable, case insensitive
+     * @return the lookup, or {@code null} if no lookup is registered for the prefix
+     */
+    StrLookup getStrLookup(final String prefix) {
+        return strLookupMap.get(prefix.toLowerCase(Locale.US));
+    }
+
+    /**
+     * Resolves a variable whose prefix was already resolved by {@link #getStrLookup(String)}. Returns the same value
+     * as {@link #lookup(LogEvent, String)} without parsing the variable.
+     *
+     * @param event The current LogEvent or null.
+     * @param lookup the lookup registered for the prefix of the variable, or {@code null}
+     * @param name the name of the variable without its prefix
+     * @return the value of this variable or <b>null</b> if it cannot be resolved
+     */
+    String lookup(final LogEvent event, final StrLookup lookup, final String name) {
+        if (lookup != null) {
+            if (lookup instanceof ConfigurationAware) {
+                ((ConfigurationAware) lookup).setConfiguration(configuration);
+            }
+            final String value = event == null ? lookup.lookup(name) : lookup.lookup(event, name);
+            if (value != null) {
+                return value;
+            }
+        }
+        if (defaultLookup != null) {
+            return event == null ? defaultLookup.lookup(name) : defaultLookup.lookup(event, name);
+        }
+        return null;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
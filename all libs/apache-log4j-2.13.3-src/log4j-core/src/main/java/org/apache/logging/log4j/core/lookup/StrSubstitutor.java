@@ -22,6 +22,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
 
 import org.apache.logging.log4j.core.LogEvent;
@@ -440,6 +441,35 @@ public class StrSubstitutor implements ConfigurationAware {
     }
 
     //-----------------------------------------------------------------------
+    /**
+     * Parses the specified source string once into a template that replaces the variables in it with their values
+     * for each log event, with the same result as {@link #replace(LogEvent, String)}.
+     *
+     * @param source the string to replace in, not null
+     * @return the template
+     * @see StrTemplate
+     * @since 2.14.0
+     */
+    public StrTemplate compile(final String source) {
+        return new StrTemplate(this, Objects.requireNonNull(source, "source"));
+    }
+
+    /**
+     * Returns whether this substitutor uses the default syntax, so that {@link StrTemplate} can parse strings once.
+     */
+    boolean isCompilable() {
+        return getClass() == StrSubstitutor.class && escapeChar == DEFAULT_ESCAPE && prefixMatcher == DEFAULT_PREFIX
+                && suffixMatcher == DEFAULT_SUFFIX
+                && (valueDelimiterMatcher == null || valueDelimiterMatcher == DEFAULT_VALUE_DELIMITER)
+                && (valueEscapeDelimiterMatcher == null
+                        || valueEscapeDelimiterMatcher == DEFAULT_VALUE_ESCAPE_DELIMITER)
+                && enableSubstitutionInVariables;
+    }
+
+    boolean hasValueEscapeDelimiter() {
+        return valueEscapeDelimiterMatcher != null;
+    }
+
     /**
      * Replaces all the occurrences of variables with their matching values
      * from the resolver using the given source string as a template.
@@ -0,0 +1,324 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.lookup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.ContextDataSlots;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * A string with variables that was parsed once by {@link StrSubstitutor#compile(String)}, for strings that are
+ * substituted for every log event, like the pattern of a {@code RoutingAppender} or a literal in a
+ * {@code PatternLayout}.
+ * <p>
+ * The string is split into literal text and variables. Variables with a prefix like {@code ${ctx:tenant}} are bound
+ * to the lookup registered for their prefix when the substitutor uses an {@link Interpolator}, so resolving them
+ * costs a call to that lookup, which is a map lookup for the context map. Variables with nested variables, like
+ * {@code ${ctx:${sys:key}}}, and values that contain variables themselves are substituted by the
+ * {@code StrSubstitutor} for each event.
+ * </p>
+ * <p>
+ * A template produces the same result as {@link StrSubstitutor#replace(LogEvent, String)}. It falls back to it when
+ * the substitutor does not use the default syntax, or when its variable resolver was replaced after the template was
+ * compiled, which happens while a configuration is initialized. Changes to the syntax of the substitutor after the
+ * template was compiled are not detected.
+ * </p>
+ *
+ * @since 2.14.0
+ */
+@PerformanceSensitive("allocation")
+public final class StrTemplate {
+
+    private static final String PREFIX = "${";
+    private static final char SUFFIX = '}';
+
+    private final StrSubstitutor substitutor;
+    private final String source;
+    private final StrLookup resolver;
+    private final Segment[] segments;
+
+    /**
+     * A literal text, or a variable of the template.
+     */
+    private static final class Segment {
+        /** The literal text, or the variable including the prefix and the suffix. */
+        private final String text;
+        private final boolean variable;
+        /** Whether the variable is substituted by the StrSubstitutor, because it has nested variables. */
+        private final boolean interpreted;
+        /** Whether the variable directly follows another variable, whose value could end with the escape char. */
+        private final boolean afterVariable;
+        private final String name;
+        private final String defaultValue;
+        private final Interpolator interpolator;
+        private final StrLookup lookup;
+        private final String lookupName;
+        /** The context data slot of the name of a {@code ctx} variable, or -1. */
+        private final int contextDataSlot;
+
+        Segment(final String text) {
+            this.text = text;
+            this.variable = false;
+            this.interpreted = false;
+            this.afterVariable = false;
+            this.name = null;
+            this.defaultValue = null;
+            this.interpolator = null;
+            this.lookup = null;
+            this.lookupName = null;
+            this.contextDataSlot = -1;
+        }
+
+        Segment(final String text, final boolean afterVariable) {
+            this.text = text;
+            this.variable = true;
+            this.interpreted = true;
+            this.afterVariable = afterVariable;
+            this.name = null;
+            this.defaultValue = null;
+            this.interpolator = null;
+            this.lookup = null;
+            this.lookupName = null;
+            this.contextDataSlot = -1;
+        }
+
+        Segment(final String text, final boolean afterVariable, final String name, final String defaultValue,
+                final StrLookup resolver) {
+            this.text = text;
+            this.variable = true;
+            this.interpreted = false;
+            this.afterVariable = afterVariable;
+            this.name = name;
+            this.defaultValue = defaultValue;
+            final int prefixPos = name.indexOf(Interpolator.PREFIX_SEPARATOR);
+            if (resolver != null && resolver.getClass() == Interpolator.class) {
+                this.interpolator = (Interpolator) resolver;
+                this.lookup = prefixPos >= 0 ? interpolator.getStrLookup(name.substring(0, prefixPos)) : null;
+                this.lookupName = prefixPos >= 0 ? name.substring(prefixPos + 1) : name;
+            } else {
+                this.interpolator = null;
+                this.lookup = resolver;
+                this.lookupName = name;
+            }
+            this.contextDataSlot = interpolator != null && lookup instanceof ContextMapLookup
+                    ? ContextDataSlots.slotOf(lookupName)
+                    : -1;
+        }
+
+        /**
+         * Returns the value of this variable, or the variable itself if it cannot be resolved.
+         */
+        String resolve(final StrSubstitutor substitutor, final LogEvent event) {
+            if (interpreted) {
+                return substitutor.replace(event, text);
+            }
+            String value;
+            if (contextDataSlot >= 0 && event != null) {
+                value = ((ContextMapLookup) lookup).lookup(event, contextDataSlot, lookupName);
+                if (value == null) {
+                    // the default lookup of the interpolator
+                    value = interpolator.lookup(event, null, lookupName);
+                }
+            } else if (interpolator != null) {
+                value = interpolator.lookup(event, lookup, lookupName);
+            } else {
+                value = lookup == null ? null : lookup.lookup(event, lookupName);
+            }
+            if (value == null) {
+                value = defaultValue;
+            }
+            if (value == null) {
+                return text;
+            }
+            // values are substituted recursively
+            return value.contains(PREFIX) ? substitutor.replace(event, value) : value;
+        }
+    }
+
+    StrTemplate(final StrSubstitutor substitutor, final String source) {
+        this.substitutor = substitutor;
+        this.source = source;
+        this.resolver = substitutor.getVariableResolver();
+        this.segments = substitutor.isCompilable() ? parse(source) : null;
+    }
+
+    private Segment[] parse(final String str) {
+        final List<Segment> result = new ArrayList<>();
+        final StringBuilder literal = new StringBuilder();
+        final int length = str.length();
+        int pos = 0;
+        while (pos < length) {
+            if (!str.startsWith(PREFIX, pos)) {
+                literal.append(str.charAt(pos++));
+                continue;
+            }
+            if (literal.length() > 0 && literal.charAt(literal.length() - 1) == StrSubstitutor.DEFAULT_ESCAPE) {
+                // escaped: the escape char is removed and the prefix is kept, so the text is unchanged
+                pos++;
+                continue;
+            }
+            int end = pos + PREFIX.length();
+            int nestedVarCount = 0;
+            boolean nested = false;
+            while (end < length) {
+                if (str.startsWith(PREFIX, end)) {
+                    nestedVarCount++;
+                    nested = true;
+                    end += PREFIX.length();
+                } else if (str.charAt(end) == SUFFIX) {
+                    if (nestedVarCount == 0) {
+                        break;
+                    }
+                    nestedVarCount--;
+                    end++;
+                } else {
+                    end++;
+                }
+            }
+            if (end >= length) {
+                // no suffix: the rest is text
+                literal.append(str, pos, length);
+                break;
+            }
+            final boolean afterVariable = literal.length() == 0 && !result.isEmpty();
+            if (literal.length() > 0) {
+                result.add(new Segment(literal.toString()));
+                literal.setLength(0);
+            }
+            final String text = str.substring(pos, end + 1);
+            final String expression = str.substring(pos + PREFIX.length(), end);
+            if (nested || (substitutor.hasValueEscapeDelimiter()
+                    && expression.contains(StrSubstitutor.ESCAPE_DELIMITER_STRING))) {
+                result.add(new Segment(text, afterVariable));
+            } else {
+                String name = expression;
+                String defaultValue = null;
+                if (substitutor.getValueDelimiterMatcher() != null) {
+                    final int delimiterPos = expression.indexOf(StrSubstitutor.DEFAULT_VALUE_DELIMITER_STRING);
+                    if (delimiterPos >= 0) {
+                        name = expression.substring(0, delimiterPos);
+                        defaultValue = expression.substring(
+                                delimiterPos + StrSubstitutor.DEFAULT_VALUE_DELIMITER_STRING.length());
+                    }
+                }
+                result.add(new Segment(text, afterVariable, name, defaultValue, resolver));
+            }
+            pos = end + 1;
+        }
+        if (literal.length() > 0) {
+            result.add(new Segment(literal.toString()));
+        }
+        return result.toArray(new Segment[result.size()]);
+    }
+
+    /**
+     * Returns the string this template was compiled from.
+     *
+     * @return the source string
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Returns whether the template was parsed, or is substituted by the {@code StrSubstitutor} for each event because
+     * the substitutor does not use the default syntax or its variable resolver was replaced.
+     *
+     * @return whether the template was parsed
+     */
+    public boolean isCompiled() {
+        return segments != null && substitutor.getVariableResolver() == resolver;
+    }
+
+    /**
+     * Returns whether the template does not contain variables.
+     *
+     * @return whether the result of the template does not depend on the log event
+     */
+    public boolean isConstant() {
+        if (!isCompiled()) {
+            return false;
+        }
+        for (final Segment segment : segments) {
+            if (segment.variable) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Replaces the variables of this template with their values for the specified event. A template that consists
+     * of a single variable returns the value of the variable without copying it.
+     *
+     * @param event The current LogEvent, if there is one.
+     * @return the result of the replace operation
+     */
+    public String format(final LogEvent event) {
+        if (!isCompiled()) {
+            return substitutor.replace(event, source);
+        }
+        switch (segments.length) {
+            case 0:
+                return source;
+            case 1:
+                return segments[0].variable ? segments[0].resolve(substitutor, event) : segments[0].text;
+            default:
+                final StringBuilder buffer = new StringBuilder(source.length() + 16);
+                format(event, buffer);
+                return buffer.toString();
+        }
+    }
+
+    /**
+     * Appends the result of replacing the variables of this template with their values for the specified event to
+     * the specified buffer. This does not allocate unless the lookups or the substitution of values that contain
+     * variables do.
+     *
+     * @param event The current LogEvent, if there is one.
+     * @param buffer the buffer to append to
+     */
+    public void format(final LogEvent event, final StringBuilder buffer) {
+        if (!isCompiled()) {
+            buffer.append(substitutor.replace(event, source));
+            return;
+        }
+        final int start = buffer.length();
+        for (final Segment segment : segments) {
+            if (!segment.variable) {
+                buffer.append(segment.text);
+                continue;
+            }
+            if (segment.afterVariable && buffer.length() > start
+                    && buffer.charAt(buffer.length() - 1) == StrSubstitutor.DEFAULT_ESCAPE) {
+                // the value of the previous variable escapes this variable: let the substitutor handle it
+                buffer.setLength(start);
+                buffer.append(substitutor.replace(event, source));
+                return;
+            }
+            buffer.append(segment.resolve(substitutor, event));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StrTemplate[source=" + source + ", compiled=" + isCompiled() + "]";
+    }
+}
@@ -0,0 +1,1149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.net;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.ManagerFactory;
+import org.apache.logging.log4j.core.appender.SpillJournal;
+import org.apache.logging.log4j.core.layout.ByteBufferDestinationHelper;
+import org.apache.logging.log4j.core.util.Closer;
+import org.apache.logging.log4j.core.util.Log4jThread;
+import org.apache.logging.log4j.util.Strings;
+
+/**
+ * Manager of a TCP connection that never blocks the logging threads on the network.
+ * <p>
+ * Events are copied into a bounded write queue, a ring buffer in direct memory, and written to a non-blocking
+ * {@link SocketChannel} by a single I/O thread with gathering writes of up to {@value #MAX_GATHERED_EVENTS} events. The
+ * I/O thread also connects, detects connections closed by the peer and reconnects every {@code reconnectionDelayMillis}
+ * while the connection is down, so a slow or unavailable log collector only fills the queue. When the queue is full,
+ * events are dropped, the logging thread waits, or events are spilled to a {@link SpillJournal} on disk, depending on
+ * the {@link OverflowPolicy}.
+ * </p>
+ * <p>
+ * Each event is one record of the queue, so it is queued, dropped or spilled whole. An event written with
+ * {@link #writeEvent(Layout, LogEvent)} or with one {@code write} call is one record, whatever its size; bytes written
+ * through the {@link org.apache.logging.log4j.core.layout.ByteBufferDestination ByteBufferDestination} methods are
+ * collected, growing the buffer up to the capacity of the queue, and queued as one record when the manager is flushed.
+ * </p>
+ * <p>
+ * Spilled events are moved back to the queue by the I/O thread, in order, when the connection is established and the
+ * queue has room. While the journal is not empty, new events are spilled too, so that they are not written before
+ * older ones. The events that were spilled when the connection was established are moved at most
+ * {@code spillReplayRate} per second; the events spilled after them are moved as fast as the receiver takes them, so
+ * that the journal drains even when events are logged faster than the replay rate. The journal is kept when the
+ * manager stops, with the events left in the queue in front of it, and its events are written once the manager is
+ * started again.
+ * </p>
+ * <p>
+ * An event that was partially written when the connection was lost is written again in full on the next connection,
+ * so the receiver never sees a truncated event at the start of a connection.
+ * </p>
+ *
+ * @since 2.14.0
+ */
+public class NioTcpSocketManager extends AbstractSocketManager {
+
+    /**
+     * The default capacity of the write queue in bytes.
+     */
+    public static final int DEFAULT_WRITE_QUEUE_CAPACITY = 1024 * 1024;
+
+    /**
+     * The default maximum size of the spill journal in bytes.
+     */
+    public static final long DEFAULT_SPILL_MAX_BYTES = 256L * 1024 * 1024;
+
+    /**
+     * What to do with an event when the write queue is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Drops the event and counts it, so that logging never waits for the network.
+         */
+        DROP,
+
+        /**
+         * Waits until the I/O thread has written enough of the queue, which makes logging as slow as the receiver.
+         */
+        BLOCK,
+
+        /**
+         * Writes the event to the spill journal on disk, to be written to the queue again once the connection is
+         * established and the queue has room. Events are dropped when the journal is full or cannot be opened.
+         */
+        SPILL
+    }
+
+    /**
+     * The state of the connection.
+     */
+    public enum ConnectionState {
+        /** A connection is being established. */
+        CONNECTING,
+        /** The connection is established. */
+        CONNECTED,
+        /** There is no connection; the I/O thread waits for the reconnection delay. */
+        DISCONNECTED,
+        /** The manager was stopped. */
+        CLOSED
+    }
+
+    static final int MAX_GATHERED_EVENTS = 64;
+
+    private static final int HEADER_SIZE = 4;
+    private static final int WRAP_MARKER = -1;
+
+    private static final NioTcpSocketManagerFactory FACTORY = new NioTcpSocketManagerFactory();
+
+    private final int connectTimeoutMillis;
+    private final int reconnectionDelayMillis;
+    private final SocketOptions socketOptions;
+    private final OverflowPolicy overflowPolicy;
+
+    // the write queue: records of an int length and the bytes of an event, or a wrap marker
+    private final ByteBuffer ring;
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    /** The view of the ring that producers copy events into while holding the lock. */
+    private final ByteBuffer producerView;
+    private long head;
+    private long tail;
+    private boolean closing;
+    /** Guarded by the lock; {@code null} unless the overflow policy is SPILL. */
+    private final SpillJournal spillJournal;
+    private final SpillJournal.Consumer replayConsumer = new SpillJournal.Consumer() {
+        @Override
+        public boolean accept(final ByteBuffer record) {
+            final int length = record.remaining();
+            if (HEADER_SIZE + length > capacity) {
+                droppedEventCount++;
+                LOGGER.warn("Dropping spilled event of {} bytes in {}: larger than the write queue of {} bytes",
+                        length, getName(), capacity);
+                return true;
+            }
+            final int pos = reserve(length);
+            if (pos < 0) {
+                return false;
+            }
+            producerView.clear();
+            producerView.position(pos);
+            producerView.put(record);
+            return true;
+        }
+    };
+
+    private final Selector selector;
+    private final IoThread ioThread;
+
+    // written by the I/O thread only
+    private volatile ConnectionState connectionState = ConnectionState.CONNECTING;
+    /** Guarded by the lock. */
+    private long droppedEventCount;
+    /** The number of spilled events left to move at the replay rate; guarded by the lock. */
+    private long rateLimitedEvents;
+    /** Whether the bytes collected in the buffer since the last flush exceed the write queue; guarded by this. */
+    private boolean oversized;
+    private volatile long writtenEventCount;
+    private volatile long writtenByteCount;
+    private volatile long connectCount;
+    private volatile long connectionLossCount;
+
+    /**
+     * Constructs a manager and starts its I/O thread, which connects to the host.
+     *
+     * @param name The unique name of this connection.
+     * @param inetAddress The Internet address of the host.
+     * @param host The name of the host.
+     * @param port The port number on the host.
+     * @param connectTimeoutMillis The connect timeout in milliseconds.
+     * @param reconnectionDelayMillis The interval between connection attempts.
+     * @param layout The Layout.
+     * @param bufferSize The buffer size.
+     * @param socketOptions The socket options, or {@code null}.
+     * @param writeQueueCapacity The capacity of the write queue in bytes.
+     * @param overflowPolicy What to do with events when the write queue is full.
+     * @throws IOException if the selector cannot be opened
+     */
+    protected NioTcpSocketManager(final String name, final InetAddress inetAddress, final String host, final int port,
+            final int connectTimeoutMillis, final int reconnectionDelayMillis,
+            final Layout<? extends Serializable> layout, final int bufferSize, final SocketOptions socketOptions,
+            final int writeQueueCapacity, final OverflowPolicy overflowPolicy) throws IOException {
+        this(name, inetAddress, host, port, connectTimeoutMillis, reconnectionDelayMillis, layout, bufferSize,
+                socketOptions, writeQueueCapacity, overflowPolicy, null, 0, 0);
+    }
+
+    /**
+     * Constructs a manager and starts its I/O thread, which connects to the host.
+     *
+     * @param name The unique name of this connection.
+     * @param inetAddress The Internet address of the host.
+     * @param host The name of the host.
+     * @param port The port number on the host.
+     * @param connectTimeoutMillis The connect timeout in milliseconds.
+     * @param reconnectionDelayMillis The interval between connection attempts.
+     * @param layout The Layout.
+     * @param bufferSize The buffer size.
+     * @param socketOptions The socket options, or {@code null}.
+     * @param writeQueueCapacity The capacity of the write queue in bytes.
+     * @param overflowPolicy What to do with events when the write queue is full.
+     * @param spillDirectory The directory of the spill journal for the {@link OverflowPolicy#SPILL} policy.
+     * @param spillMaxBytes The maximum size of the spill journal in bytes, or 0 for the default.
+     * @param spillReplayRate The maximum number of spilled events written to the queue per second, or 0 for no limit.
+     * @throws IOException if the selector cannot be opened
+     */
+    protected NioTcpSocketManager(final String name, final InetAddress inetAddress, final String host, final int port,
+            final int connectTimeoutMillis, final int reconnectionDelayMillis,
+            final Layout<? extends Serializable> layout, final int bufferSize, final SocketOptions socketOptions,
+            final int writeQueueCapacity, final OverflowPolicy overflowPolicy, final String spillDirectory,
+            final long spillMaxBytes, final int spillReplayRate) throws IOException {
+        super(name, null, inetAddress, host, port, layout, false, bufferSize);
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.reconnectionDelayMillis = reconnectionDelayMillis;
+        this.socketOptions = socketOptions;
+        this.overflowPolicy = overflowPolicy == null ? OverflowPolicy.DROP : overflowPolicy;
+        this.capacity = writeQueueCapacity > 0 ? writeQueueCapacity : DEFAULT_WRITE_QUEUE_CAPACITY;
+        this.ring = ByteBuffer.allocateDirect(capacity);
+        this.producerView = ring.duplicate();
+        this.selector = Selector.open();
+        this.spillJournal = this.overflowPolicy == OverflowPolicy.SPILL
+                ? openSpillJournal(name, spillDirectory, spillMaxBytes, spillReplayRate)
+                : null;
+        if (layout != null) {
+            final byte[] header = layout.getHeader();
+            if (header != null) {
+                write(header, 0, header.length, false);
+            }
+        }
+        this.ioThread = new IoThread();
+        this.ioThread.start();
+    }
+
+    private SpillJournal openSpillJournal(final String name, final String spillDirectory, final long spillMaxBytes,
+            final int spillReplayRate) {
+        if (Strings.isEmpty(spillDirectory)) {
+            LOGGER.error("{} requires a spill directory for the SPILL overflow policy; dropping events instead", name);
+            return null;
+        }
+        final long maxBytes = spillMaxBytes > 0 ? spillMaxBytes : DEFAULT_SPILL_MAX_BYTES;
+        // a segment holds at least one event of the largest size the queue takes
+        final int segmentSize = (int) Math.max(capacity + 64,
+                Math.min(SpillJournal.DEFAULT_SEGMENT_SIZE, maxBytes / 4));
+        try {
+            return SpillJournal.open(new File(spillDirectory), name.replaceAll("[^A-Za-z0-9._-]", "_"), segmentSize,
+                    maxBytes, spillReplayRate);
+        } catch (final IOException | RuntimeException ex) {
+            LOGGER.error("{} is unable to open its spill journal in {}; dropping events instead", name,
+                    spillDirectory, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Obtains a NioTcpSocketManager.
+     *
+     * @param host The host to connect to.
+     * @param port The port on the host.
+     * @param connectTimeoutMillis The connect timeout in milliseconds.
+     * @param reconnectDelayMillis The interval between connection attempts.
+     * @param layout The Layout.
+     * @param bufferSize The buffer size.
+     * @param socketOptions The socket options, or {@code null}.
+     * @param writeQueueCapacity The capacity of the write queue in bytes.
+     * @param overflowPolicy What to do with events when the write queue is full.
+     * @return A NioTcpSocketManager.
+     */
+    public static NioTcpSocketManager getSocketManager(final String host, int port, final int connectTimeoutMillis,
+            int reconnectDelayMillis, final Layout<? extends Serializable> layout, final int bufferSize,
+            final SocketOptions socketOptions, final int writeQueueCapacity, final OverflowPolicy overflowPolicy) {
+        return getSocketManager(host, port, connectTimeoutMillis, reconnectDelayMillis, layout, bufferSize,
+                socketOptions, writeQueueCapacity, overflowPolicy, null, 0, 0);
+    }
+
+    /**
+     * Obtains a NioTcpSocketManager.
+     *
+     * @param host The host to connect to.
+     * @param port The port on the host.
+     * @param connectTimeoutMillis The connect timeout in milliseconds.
+     * @param reconnectDelayMillis The interval between connection attempts.
+     * @param layout The Layout.
+     * @param bufferSize The buffer size.
+     * @param socketOptions The socket options, or {@code null}.
+     * @param writeQueueCapacity The capacity of the write queue in bytes.
+     * @param overflowPolicy What to do with events when the write queue is full.
+     * @param spillDirectory The directory of the spill journal for the {@link OverflowPolicy#SPILL} policy.
+     * @param spillMaxBytes The maximum size of the spill journal in bytes, or 0 for the default.
+     * @param spillReplayRate The maximum number of spilled events written to the queue per second, or 0 for no limit.
+     * @return A NioTcpSocketManager.
+     */
+    public static NioTcpSocketManager getSocketManager(final String host, int port, final int connectTimeoutMillis,
+            int reconnectDelayMillis, final Layout<? extends Serializable> layout, final int bufferSize,
+            final SocketOptions socketOptions, final int writeQueueCapacity, final OverflowPolicy overflowPolicy,
+            final String spillDirectory, final long spillMaxBytes, final int spillReplayRate) {
+        if (Strings.isEmpty(host)) {
+            throw new IllegalArgumentException("A host name is required");
+        }
+        if (port <= 0) {
+            port = TcpSocketManager.DEFAULT_PORT;
+        }
+        if (reconnectDelayMillis == 0) {
+            reconnectDelayMillis = TcpSocketManager.DEFAULT_RECONNECTION_DELAY_MILLIS;
+        }
+        return (NioTcpSocketManager) getManager("NioTCP:" + host + ':' + port, new FactoryData(host, port,
+                connectTimeoutMillis, reconnectDelayMillis, layout, bufferSize, socketOptions, writeQueueCapacity,
+                overflowPolicy, spillDirectory, spillMaxBytes, spillReplayRate), FACTORY);
+    }
+
+    /**
+     * Encodes an event with the layout and adds it to the write queue as one record, however many times the layout
+     * writes to this manager.
+     *
+     * @param layout The layout that encodes the event.
+     * @param event The event.
+     */
+    public synchronized void writeEvent(final Layout<?> layout, final LogEvent event) {
+        flushBuffer(byteBuffer);
+        layout.encode(event, this);
+        flushBuffer(byteBuffer);
+    }
+
+    /**
+     * Adds an event to the write queue, or to the spill journal with the {@link OverflowPolicy#SPILL} policy. Does not
+     * wait for the network; waits for space in the queue only with the {@link OverflowPolicy#BLOCK} policy.
+     */
+    @SuppressWarnings("sync-override") // the write queue has its own lock
+    @Override
+    protected void write(final byte[] bytes, final int offset, final int length, final boolean immediateFlush) {
+        synchronized (this) {
+            // bytes collected in the buffer were written first
+            if (byteBuffer.position() > 0 || oversized) {
+                flushBuffer(byteBuffer);
+            }
+        }
+        enqueue(bytes, offset, length);
+    }
+
+    private void enqueue(final byte[] bytes, final int offset, final int length) {
+        if (length == 0) {
+            return;
+        }
+        final int recordSize = HEADER_SIZE + length;
+        boolean wasEmpty;
+        lock.lock();
+        try {
+            if (recordSize > capacity) {
+                droppedEventCount++;
+                LOGGER.warn("Dropping event of {} bytes in {}: larger than the write queue of {} bytes", length,
+                        getName(), capacity);
+                return;
+            }
+            int pos;
+            while (true) {
+                wasEmpty = head == tail;
+                // once events are spilled, the following ones are spilled too until the journal was replayed
+                if (!closing && (spillJournal == null || spillJournal.isEmpty())) {
+                    pos = reserve(length);
+                    if (pos >= 0) {
+                        break;
+                    }
+                }
+                if (closing || overflowPolicy != OverflowPolicy.BLOCK) {
+                    overflow(bytes, offset, length);
+                    return;
+                }
+                notFull.awaitUninterruptibly();
+            }
+            producerView.clear();
+            producerView.position(pos);
+            producerView.put(bytes, offset, length);
+        } finally {
+            lock.unlock();
+        }
+        if (wasEmpty) {
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * Reserves a record for an event at the tail of the write queue. Called while holding the lock.
+     *
+     * @return the position of the bytes of the event in the ring, or -1 if the queue is full
+     */
+    private int reserve(final int length) {
+        final int recordSize = HEADER_SIZE + length;
+        int pos = (int) (tail % capacity);
+        final int toEnd = capacity - pos;
+        final int waste = toEnd < recordSize ? toEnd : 0;
+        if (capacity - (tail - head) < waste + recordSize) {
+            return -1;
+        }
+        if (waste > 0) {
+            if (waste >= HEADER_SIZE) {
+                ring.putInt(pos, WRAP_MARKER);
+            }
+            tail += waste;
+            pos = 0;
+        }
+        ring.putInt(pos, length);
+        tail += recordSize;
+        return pos + HEADER_SIZE;
+    }
+
+    /**
+     * Spills or drops an event that the write queue cannot take. Called while holding the lock.
+     */
+    private void overflow(final byte[] bytes, final int offset, final int length) {
+        if (spillJournal != null) {
+            try {
+                if (spillJournal.append(bytes, offset, length)) {
+                    return;
+                }
+            } catch (final IOException ex) {
+                LOGGER.error("{} is unable to spill an event to {}", getName(), spillJournal, ex);
+            }
+        }
+        droppedEventCount++;
+    }
+
+    @Override
+    protected void writeToDestination(final byte[] bytes, final int offset, final int length) {
+        enqueue(bytes, offset, length);
+    }
+
+    /**
+     * Collects the bytes in the buffer instead of queueing them, so that they are queued with the rest of the event.
+     */
+    @Override
+    public void writeBytes(final byte[] data, final int offset, final int length) {
+        if (length == 0) {
+            return;
+        }
+        synchronized (this) {
+            ByteBufferDestinationHelper.writeToUnsynchronized(data, offset, length, this);
+        }
+    }
+
+    /**
+     * Grows the buffer instead of queueing a part of an event, up to the capacity of the write queue. An event that
+     * does not fit the queue is dropped when the buffer is flushed.
+     */
+    @Override
+    public synchronized ByteBuffer drain(final ByteBuffer buf) {
+        if (oversized || buf.capacity() >= capacity) {
+            oversized = true;
+            buf.clear();
+            return buf;
+        }
+        final ByteBuffer larger = ByteBuffer.allocate((int) Math.min(capacity, Math.max(1024, 2L * buf.capacity())));
+        buf.flip();
+        larger.put(buf);
+        buf.clear();
+        byteBuffer = larger;
+        return larger;
+    }
+
+    /**
+     * Adds the bytes collected in the buffer since the last flush to the write queue as one record.
+     */
+    @Override
+    protected synchronized void flushBuffer(final ByteBuffer buf) {
+        if (oversized) {
+            oversized = false;
+            buf.clear();
+            lock.lock();
+            try {
+                droppedEventCount++;
+            } finally {
+                lock.unlock();
+            }
+            LOGGER.warn("Dropping event in {}: larger than the write queue of {} bytes", getName(), capacity);
+            return;
+        }
+        buf.flip();
+        try {
+            if (buf.hasRemaining()) {
+                enqueue(buf.array(), buf.arrayOffset() + buf.position(), buf.remaining());
+            }
+        } finally {
+            buf.clear();
+        }
+    }
+
+    @Override
+    protected synchronized boolean closeOutputStream() {
+        // the I/O thread owns the channel; see releaseSub
+        return true;
+    }
+
+    @Override
+    public boolean releaseSub(final long timeout, final TimeUnit timeUnit) {
+        // queue the collected bytes ahead of the footer
+        flush();
+        writeFooter();
+        lock.lock();
+        try {
+            closing = true;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        selector.wakeup();
+        if (timeout > 0) {
+            try {
+                ioThread.join(timeUnit.toMillis(timeout));
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (ioThread.isAlive()) {
+                LOGGER.warn("{} did not write {} queued bytes within {} {}", getName(), getQueuedBytes(), timeout,
+                        timeUnit);
+                ioThread.interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the state of the connection.
+     *
+     * @return the connection state
+     */
+    public ConnectionState getConnectionState() {
+        return connectionState;
+    }
+
+    /**
+     * Returns the number of bytes in the write queue, including the record headers.
+     *
+     * @return the number of queued bytes
+     */
+    public long getQueuedBytes() {
+        lock.lock();
+        try {
+            return tail - head;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the capacity of the write queue in bytes.
+     *
+     * @return the capacity of the write queue
+     */
+    public int getWriteQueueCapacity() {
+        return capacity;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Returns the number of events that were dropped because the write queue was full, the event was larger than the
+     * queue, the manager was stopping, or the spill journal was full.
+     *
+     * @return the number of dropped events
+     */
+    public long getDroppedEventCount() {
+        lock.lock();
+        try {
+            return droppedEventCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of spilled events that were not written to the queue again yet.
+     *
+     * @return the number of events in the spill journal, 0 without the {@link OverflowPolicy#SPILL} policy
+     */
+    public long getSpilledEventCount() {
+        lock.lock();
+        try {
+            return spillJournal == null ? 0 : spillJournal.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of spilled events that were written to the queue again since the manager was started.
+     *
+     * @return the number of replayed events
+     */
+    public long getReplayedEventCount() {
+        lock.lock();
+        try {
+            return spillJournal == null ? 0 : spillJournal.getReplayedCount();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of events that were completely written to a connection.
+     *
+     * @return the number of written events
+     */
+    public long getWrittenEventCount() {
+        return writtenEventCount;
+    }
+
+    /**
+     * Returns the number of bytes that were written to connections, including partially written events.
+     *
+     * @return the number of written bytes
+     */
+    public long getWrittenByteCount() {
+        return writtenByteCount;
+    }
+
+    /**
+     * Returns the number of connections that were established.
+     *
+     * @return the number of connections
+     */
+    public long getConnectCount() {
+        return connectCount;
+    }
+
+    /**
+     * Returns the number of established connections that were lost.
+     *
+     * @return the number of lost connections
+     */
+    public long getConnectionLossCount() {
+        return connectionLossCount;
+    }
+
+    public int getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public int getReconnectionDelayMillis() {
+        return reconnectionDelayMillis;
+    }
+
+    public SocketOptions getSocketOptions() {
+        return socketOptions;
+    }
+
+    /**
+     * Gets this NioTcpSocketManager's content format. Specified by:
+     * <ul>
+     * <li>Key: "protocol" Value: "tcp"</li>
+     * <li>Key: "direction" Value: "out"</li>
+     * </ul>
+     *
+     * @return Map of content format keys supporting NioTcpSocketManager
+     */
+    @Override
+    public Map<String, String> getContentFormat() {
+        final Map<String, String> result = new HashMap<>(super.getContentFormat());
+        result.put("protocol", "tcp");
+        result.put("direction", "out");
+        return result;
+    }
+
+    /**
+     * Connects, writes the queue and reconnects.
+     */
+    private class IoThread extends Log4jThread {
+
+        private final ByteBuffer[] views = new ByteBuffer[MAX_GATHERED_EVENTS];
+        private final int[] viewStarts = new int[MAX_GATHERED_EVENTS];
+        private final long[] recordEnds = new long[MAX_GATHERED_EVENTS];
+        private final ByteBuffer readBuffer = ByteBuffer.allocate(256);
+        private SocketChannel channel;
+        private SelectionKey key;
+        private long connectDeadline;
+        private long nextConnectTime;
+        private int addressIndex;
+        /** The number of bytes of the oldest queued event that were written to the current connection. */
+        private int partialBytes;
+
+        IoThread() {
+            super("NioTcpSocketManager-" + host + ':' + port);
+            setDaemon(true);
+            for (int i = 0; i < views.length; i++) {
+                views[i] = ring.duplicate();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!isInterrupted()) {
+                    final boolean empty = isQueueEmpty();
+                    if (empty && isClosing()) {
+                        break;
+                    }
+                    if (channel == null) {
+                        if (isClosing()) {
+                            break;
+                        }
+                        final long delay = nextConnectTime - System.currentTimeMillis();
+                        if (delay > 0) {
+                            selector.select(delay);
+                            selector.selectedKeys().clear();
+                            continue;
+                        }
+                        connect();
+                        continue;
+                    }
+                    if (connectionState == ConnectionState.CONNECTING) {
+                        awaitConnect();
+                        continue;
+                    }
+                    boolean blocked = false;
+                    if (!empty) {
+                        blocked = writeQueue();
+                    }
+                    if (channel == null) {
+                        continue;
+                    }
+                    final long replayDelay = blocked ? -1 : replaySpilled();
+                    key.interestOps(blocked ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+                    // the wakeup of releaseSub may already have been consumed, e.g. while connecting
+                    if (replayDelay != 0 && (blocked || isQueueEmpty() && !isClosing())) {
+                        selector.select(replayDelay > 0 ? replayDelay : 0);
+                    }
+                    if (key.isValid() && key.isReadable() && selector.selectedKeys().contains(key)) {
+                        readFromPeer();
+                    }
+                    selector.selectedKeys().clear();
+                }
+            } catch (final IOException | ClosedSelectorException e) {
+                LOGGER.error("I/O thread of {} failed", getName(), e);
+            } finally {
+                closeChannel();
+                Closer.closeSilently(selector);
+                connectionState = ConnectionState.CLOSED;
+                final long dropped = discardQueue();
+                if (dropped > 0) {
+                    LOGGER.warn("{} discarded {} queued bytes when it was stopped", getName(), dropped);
+                }
+            }
+        }
+
+        private void connect() throws IOException {
+            connectionState = ConnectionState.CONNECTING;
+            InetSocketAddress address = null;
+            try {
+                final List<InetSocketAddress> addresses = TcpSocketManager.TcpSocketManagerFactory.resolver
+                        .resolveHost(host, port);
+                address = addresses.get(addressIndex++ % addresses.size());
+                LOGGER.debug("Connecting {} to {}", getName(), address);
+                channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                if (socketOptions != null) {
+                    socketOptions.apply(channel.socket());
+                }
+                final boolean connected = channel.connect(address);
+                key = channel.register(selector, connected ? SelectionKey.OP_READ : SelectionKey.OP_CONNECT);
+                connectDeadline = connectTimeoutMillis > 0 ? System.currentTimeMillis() + connectTimeoutMillis : 0;
+                if (connected) {
+                    connected();
+                }
+            } catch (final IOException | RuntimeException e) {
+                connectFailed(address, e);
+            }
+        }
+
+        private void awaitConnect() throws IOException {
+            long timeout = 0;
+            if (connectDeadline > 0) {
+                timeout = connectDeadline - System.currentTimeMillis();
+                if (timeout <= 0) {
+                    connectFailed(null, new IOException("Connect timed out"));
+                    return;
+                }
+            }
+            selector.select(timeout);
+            if (selector.selectedKeys().remove(key) && key.isConnectable()) {
+                try {
+                    if (channel.finishConnect()) {
+                        key.interestOps(SelectionKey.OP_READ);
+                        connected();
+                    }
+                } catch (final IOException e) {
+                    connectFailed(null, e);
+                }
+            }
+            selector.selectedKeys().clear();
+            if (isClosing() && connectionState == ConnectionState.CONNECTING) {
+                closeChannel();
+            }
+        }
+
+        private void connected() throws IOException {
+            if (socketOptions != null) {
+                socketOptions.apply(channel.socket());
+            }
+            connectCount++;
+            lock.lock();
+            try {
+                // the backlog is replayed at the replay rate; the events spilled from now on as fast as possible
+                rateLimitedEvents = spillJournal == null ? 0 : spillJournal.size();
+            } finally {
+                lock.unlock();
+            }
+            connectionState = ConnectionState.CONNECTED;
+            LOGGER.debug("Connection of {} established: {}", getName(), channel);
+        }
+
+        private void connectFailed(final Object address, final Exception e) {
+            LOGGER.debug("{} cannot connect to {}:{} ({}); retrying in {} ms", getName(),
+                    address != null ? address : host, port, e.toString(), reconnectionDelayMillis);
+            disconnect();
+        }
+
+        private void connectionLost(final String reason) {
+            connectionLossCount++;
+            LOGGER.warn("Connection of {} to {}:{} lost: {}; reconnecting in {} ms", getName(), host, port, reason,
+                    reconnectionDelayMillis);
+            disconnect();
+        }
+
+        private void disconnect() {
+            closeChannel();
+            // the oldest event is written again in full on the next connection
+            partialBytes = 0;
+            connectionState = ConnectionState.DISCONNECTED;
+            nextConnectTime = System.currentTimeMillis() + reconnectionDelayMillis;
+        }
+
+        private void closeChannel() {
+            if (key != null) {
+                key.cancel();
+                key = null;
+            }
+            Closer.closeSilently(channel);
+            channel = null;
+        }
+
+        private void readFromPeer() {
+            try {
+                int n;
+                do {
+                    readBuffer.clear();
+                    n = channel.read(readBuffer);
+                } while (n > 0);
+                if (n < 0) {
+                    connectionLost("closed by peer");
+                }
+            } catch (final IOException e) {
+                connectionLost(e.toString());
+            }
+        }
+
+        /**
+         * Writes queued events until the queue is empty or the socket cannot take more data.
+         *
+         * @return whether data is left that the socket did not accept
+         */
+        private boolean writeQueue() {
+            while (channel != null) {
+                final int count = gather();
+                if (count == 0) {
+                    return false;
+                }
+                final long written;
+                try {
+                    written = channel.write(views, 0, count);
+                } catch (final IOException e) {
+                    connectionLost(e.toString());
+                    return false;
+                }
+                writtenByteCount += written;
+                int completed = 0;
+                while (completed < count && !views[completed].hasRemaining()) {
+                    completed++;
+                }
+                if (completed < count) {
+                    partialBytes = views[completed].position() - viewStarts[completed];
+                } else {
+                    partialBytes = 0;
+                }
+                if (completed > 0) {
+                    release(recordEnds[completed - 1], completed);
+                }
+                if (completed < count) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Points the views at the oldest queued events.
+         *
+         * @return the number of events to write
+         */
+        private int gather() {
+            lock.lock();
+            try {
+                long pos = head;
+                int count = 0;
+                while (pos < tail && count < views.length) {
+                    final int offset = (int) (pos % capacity);
+                    if (capacity - offset < HEADER_SIZE || ring.getInt(offset) == WRAP_MARKER) {
+                        pos += capacity - offset;
+                        continue;
+                    }
+                    final int length = ring.getInt(offset);
+                    final int start = offset + HEADER_SIZE;
+                    final ByteBuffer view = views[count];
+                    view.clear();
+                    view.limit(start + length);
+                    view.position(count == 0 ? start + partialBytes : start);
+                    viewStarts[count] = start;
+                    pos += HEADER_SIZE + length;
+                    recordEnds[count] = pos;
+                    count++;
+                }
+                return count;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void release(final long newHead, final int events) {
+            lock.lock();
+            try {
+                head = newHead;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            writtenEventCount += events;
+        }
+    }
+
+    /**
+     * Moves spilled events back to the write queue, as many as fit and, for the events that were spilled when the
+     * connection was established, the replay rate allows.
+     *
+     * @return 0 if events were moved, the milliseconds until the replay rate allows more, or -1 if there is nothing
+     *         to replay or the queue is full
+     */
+    private long replaySpilled() {
+        lock.lock();
+        try {
+            if (spillJournal == null || closing || spillJournal.isEmpty()) {
+                return -1;
+            }
+            final boolean rateLimited = rateLimitedEvents > 0;
+            final int replayed = spillJournal.drain(replayConsumer,
+                    rateLimited ? (int) Math.min(Integer.MAX_VALUE, rateLimitedEvents) : Integer.MAX_VALUE,
+                    !rateLimited);
+            rateLimitedEvents = Math.max(0, rateLimitedEvents - replayed);
+            if (replayed > 0) {
+                return 0;
+            }
+            if (!rateLimited) {
+                return -1;
+            }
+            final long delay = spillJournal.getReplayDelay(TimeUnit.MILLISECONDS);
+            return delay > 0 ? delay : -1;
+        } catch (final IOException ex) {
+            LOGGER.error("{} is unable to replay spilled events from {}", getName(), spillJournal, ex);
+            return -1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isQueueEmpty() {
+        lock.lock();
+        try {
+            return head == tail;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isClosing() {
+        lock.lock();
+        try {
+            return closing;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long discardQueue() {
+        lock.lock();
+        try {
+            if (spillJournal != null) {
+                spillQueue();
+            }
+            final long discarded = tail - head;
+            head = tail;
+            closing = true;
+            notFull.signalAll();
+            if (spillJournal != null) {
+                try {
+                    spillJournal.close();
+                } catch (final IOException ex) {
+                    LOGGER.error("{} is unable to close {}", getName(), spillJournal, ex);
+                }
+            }
+            return discarded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves the events left in the write queue to the front of the spill journal, ahead of the events that were
+     * spilled after them, so that they are written first when the manager is started again. Called while holding the
+     * lock.
+     */
+    private void spillQueue() {
+        final List<ByteBuffer> records = new ArrayList<>();
+        long pos = head;
+        while (pos < tail) {
+            final int offset = (int) (pos % capacity);
+            if (capacity - offset < HEADER_SIZE || ring.getInt(offset) == WRAP_MARKER) {
+                pos += capacity - offset;
+                continue;
+            }
+            final int length = ring.getInt(offset);
+            final ByteBuffer view = ring.duplicate();
+            view.limit(offset + HEADER_SIZE + length);
+            view.position(offset + HEADER_SIZE);
+            records.add(view);
+            pos += HEADER_SIZE + length;
+        }
+        try {
+            if (spillJournal.prepend(records)) {
+                head = tail;
+                return;
+            }
+        } catch (final IOException ex) {
+            LOGGER.error("{} is unable to spill its queued events to {}", getName(), spillJournal, ex);
+        }
+        droppedEventCount += records.size();
+    }
+
+    /**
+     * Data for the factory.
+     */
+    static class FactoryData {
+        protected final String host;
+        protected final int port;
+        protected final int connectTimeoutMillis;
+        protected final int reconnectDelayMillis;
+        protected final Layout<? extends Serializable> layout;
+        protected final int bufferSize;
+        protected final SocketOptions socketOptions;
+        protected final int writeQueueCapacity;
+        protected final OverflowPolicy overflowPolicy;
+        protected final String spillDirectory;
+        protected final long spillMaxBytes;
+        protected final int spillReplayRate;
+
+        FactoryData(final String host, final int port, final int connectTimeoutMillis, final int reconnectDelayMillis,
+                final Layout<? extends Serializable> layout, final int bufferSize, final SocketOptions socketOptions,
+                final int writeQueueCapacity, final OverflowPolicy overflowPolicy, final String spillDirectory,
+                final long spillMaxBytes, final int spillReplayRate) {
+            this.host = host;
+            this.port = port;
+            this.connectTimeoutMillis = connectTimeoutMillis;
+            this.reconnectDelayMillis = reconnectDelayMillis;
+            this.layout = layout;
+            this.bufferSize = bufferSize;
+            this.socketOptions = socketOptions;
+            this.writeQueueCapacity = writeQueueCapacity;
+            this.overflowPolicy = overflowPolicy;
+            this.spillDirectory = spillDirectory;
+            this.spillMaxBytes = spillMaxBytes;
+            this.spillReplayRate = spillReplayRate;
+        }
+
+        @Override
+        public String toString() {
+            return "FactoryData [host=" + host + ", port=" + port + ", connectTimeoutMillis=" + connectTimeoutMillis
+                    + ", reconnectDelayMillis=" + reconnectDelayMillis + ", layout=" + layout + ", bufferSize="
+                    + bufferSize + ", socketOptions=" + socketOptions + ", writeQueueCapacity=" + writeQueueCapacity
+                    + ", overflowPolicy=" + overflowPolicy + ", spillDirectory=" + spillDirectory + ", spillMaxBytes="
+                    + spillMaxBytes + ", spillReplayRate=" + spillReplayRate + "]";
+        }
+    }
+
+    /**
+     * Factory to create a NioTcpSocketManager.
+     */
+    private static class NioTcpSocketManagerFactory implements ManagerFactory<NioTcpSocketManager, FactoryData> {
+
+        @Override
+        public NioTcpSocketManager createManager(final String name, final FactoryData data) {
+            final InetAddress inetAddress;
+            try {
+                inetAddress = InetAddress.getByName(data.host);
+            } catch (final UnknownHostException ex) {
+                LOGGER.error("Could not find address of {}: {}", data.host, ex, ex);
+                return null;
+            }
+            try {
+                return new NioTcpSocketManager(name, inetAddress, data.host, data.port, data.connectTimeoutMillis,
+                        data.reconnectDelayMillis, data.layout, data.bufferSize, data.socketOptions,
+                        data.writeQueueCapacity, data.overflowPolicy, data.spillDirectory, data.spillMaxBytes,
+                        data.spillReplayRate);
+            } catch (final IOException ex) {
+                LOGGER.error("Could not create {}: {}", name, ex, ex);
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "NioTcpSocketManager [connectionState=" + connectionState + ", queuedBytes=" + getQueuedBytes()
+                + ", writeQueueCapacity=" + capacity + ", overflowPolicy=" + overflowPolicy + ", droppedEventCount="
+                + getDroppedEventCount() + ", spilledEventCount=" + getSpilledEventCount() + ", connectCount="
+                + connectCount + ", reconnectionDelayMillis=" + reconnectionDelayMillis + ", socketOptions="
+                + socketOptions + ", connectTimeoutMillis=" + connectTimeoutMillis + ", inetAddress=" + inetAddress
+                + ", host=" + host + ", port=" + port + ", layout=" + layout + "]";
+    }
+}
@@ -50,7 +50,7 @@ public class TcpSocketManager extends AbstractSocketManager {
     /**
      * The default port number of remote logging server (4560).
      */
-    private static final int DEFAULT_PORT = 4560;
+    static final int DEFAULT_PORT = 4560;
 
     private static final TcpSocketManagerFactory<TcpSocketManager, FactoryData> FACTORY = new TcpSocketManagerFactory<>();
 
@@ -0,0 +1,486 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.pattern;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * Formats events with a list of pattern formatters compiled once when the layout is configured.
+ * <p>
+ * {@link PatternFormatter#format(LogEvent, StringBuilder)} calls each converter through a single virtual call site,
+ * which becomes megamorphic as soon as a pattern uses more than two converter types, so the JIT cannot inline any of
+ * them. This class compiles the formatters into a sequence of steps instead:
+ * </p>
+ * <ul>
+ * <li>Consecutive constant literals and line separators are merged into one text, with their padding and truncation
+ * already applied.</li>
+ * <li>The common converters are dispatched by a switch whose branches call the final converter classes directly,
+ * so each call site only ever sees one type and can be inlined.</li>
+ * <li>The padding and truncation of a step is only applied when it is not the default one.</li>
+ * <li>Any other converter falls back to its {@link PatternFormatter}.</li>
+ * </ul>
+ * <p>
+ * When compiled for a charset, {@link #encode(LogEvent, StringBuilder, ByteBufferDestination)} also skips the
+ * charset encoder for the text that does not change from one event to the next: the constant text is encoded once
+ * at compile time, and the level, logger name and thread name are encoded once per distinct value and cached. Only
+ * the remaining text, typically the message, is encoded for each event. The bytes of an event are assembled in a
+ * thread-local buffer and written to the destination at once. This is only done for charsets whose encoded text can
+ * be concatenated: UTF-8, US-ASCII and ISO-8859-1.
+ * </p>
+ * <p>
+ * The output is identical to calling the formatters in order. This class should be considered internal.
+ * </p>
+ *
+ * @since 2.14.0
+ */
+@PerformanceSensitive("allocation")
+public final class CompiledPatternFormatter {
+
+    private static final byte TEXT = 0;
+    private static final byte FORMATTER = 1;
+    private static final byte LEVEL = 2;
+    private static final byte LOGGER = 3;
+    private static final byte THREAD_NAME = 4;
+    private static final byte THREAD_ID = 5;
+    private static final byte MESSAGE = 6;
+    private static final byte DATE = 7;
+    private static final byte MDC = 8;
+
+    /**
+     * The maximum number of distinct values whose bytes are cached for each level, logger or thread name step.
+     */
+    static final int MAX_CACHED_FRAGMENTS = 1024;
+
+    private static final int MAX_REUSABLE_BYTE_BUFFER_SIZE = 4 * Constants.ENCODER_BYTE_BUFFER_SIZE;
+
+    private final byte[] kinds;
+    private final String[] texts;
+    private final PatternFormatter[] formatters;
+    private final Object[] converters;
+    private final FormattingInfo[] fields;
+    private final int compiledCount;
+    private final Charset charset;
+    private final byte[][] encodedTexts;
+    private final ConcurrentMap<Object, byte[]>[] fragments;
+    /**
+     * Like in StringBuilderEncoder, only JDK objects are kept in the thread-local: CharsetEncoder, CharBuffer and
+     * ByteBuffer.
+     */
+    private final ThreadLocal<Object[]> threadLocal = new ThreadLocal<>();
+
+    private CompiledPatternFormatter(final List<Step> steps, final Charset charset) {
+        final int length = steps.size();
+        this.charset = charset;
+        this.encodedTexts = charset == null ? null : new byte[length][];
+        this.fragments = charset == null ? null : newFragmentCaches(length);
+        this.kinds = new byte[length];
+        this.texts = new String[length];
+        this.formatters = new PatternFormatter[length];
+        this.converters = new Object[length];
+        this.fields = new FormattingInfo[length];
+        int compiled = 0;
+        for (int i = 0; i < length; i++) {
+            final Step step = steps.get(i);
+            kinds[i] = step.kind;
+            texts[i] = step.text;
+            formatters[i] = step.formatter;
+            if (step.formatter != null) {
+                converters[i] = step.formatter.getConverter();
+                final FormattingInfo field = step.formatter.getFormattingInfo();
+                fields[i] = field == FormattingInfo.getDefault() ? null : field;
+            }
+            if (step.kind != FORMATTER) {
+                compiled++;
+            }
+            if (charset != null) {
+                if (step.kind == TEXT) {
+                    encodedTexts[i] = step.text.getBytes(charset);
+                } else if (step.kind == LEVEL || step.kind == LOGGER || step.kind == THREAD_NAME) {
+                    fragments[i] = new ConcurrentHashMap<>();
+                }
+            }
+        }
+        this.compiledCount = compiled;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static ConcurrentMap<Object, byte[]>[] newFragmentCaches(final int length) {
+        return new ConcurrentMap[length];
+    }
+
+    /**
+     * Compiles the specified formatters.
+     *
+     * @param patternFormatters the formatters of a parsed pattern
+     * @return a formatter producing the same output as the specified formatters
+     */
+    public static CompiledPatternFormatter compile(final List<PatternFormatter> patternFormatters) {
+        return compile(patternFormatters, null);
+    }
+
+    /**
+     * Compiles the specified formatters, encoding the text that does not change from one event to the next if the
+     * charset allows it.
+     *
+     * @param patternFormatters the formatters of a parsed pattern
+     * @param charset the charset the events are encoded with, or {@code null}
+     * @return a formatter producing the same output as the specified formatters
+     * @see #isPreEncoded()
+     */
+    public static CompiledPatternFormatter compile(final List<PatternFormatter> patternFormatters,
+            final Charset charset) {
+        final List<Step> steps = new ArrayList<>(patternFormatters.size());
+        StringBuilder text = null;
+        for (final PatternFormatter formatter : patternFormatters) {
+            final String constant = constantText(formatter);
+            if (constant != null) {
+                if (text == null) {
+                    text = new StringBuilder();
+                }
+                text.append(constant);
+                continue;
+            }
+            if (text != null) {
+                steps.add(new Step(TEXT, text.toString(), null));
+                text = null;
+            }
+            steps.add(new Step(kindOf(formatter.getConverter()), null, formatter));
+        }
+        if (text != null) {
+            steps.add(new Step(TEXT, text.toString(), null));
+        }
+        return new CompiledPatternFormatter(steps, isConcatenable(charset) ? charset : null);
+    }
+
+    /**
+     * Appends the formatted event to the specified buffer.
+     *
+     * @param event the event to format
+     * @param buffer the buffer to append to
+     */
+    public void format(final LogEvent event, final StringBuilder buffer) {
+        final int length = kinds.length;
+        for (int i = 0; i < length; i++) {
+            formatStep(i, event, buffer);
+        }
+    }
+
+    /**
+     * Writes the encoded event to the specified destination in one call.
+     * <p>
+     * The constant text and the cached level, logger name and thread name bytes are copied as is, the other text is
+     * formatted into the specified buffer and encoded.
+     * </p>
+     *
+     * @param event the event to encode
+     * @param text a buffer for the text to encode, its content is discarded
+     * @param destination the destination of the bytes
+     * @throws IllegalStateException if the formatter is not {@link #isPreEncoded() pre-encoded}
+     */
+    public void encode(final LogEvent event, final StringBuilder text, final ByteBufferDestination destination) {
+        if (charset == null) {
+            throw new IllegalStateException("CompiledPatternFormatter was not compiled for a charset");
+        }
+        final Object[] threadLocalState = getThreadLocalState();
+        ByteBuffer bytes = (ByteBuffer) threadLocalState[2];
+        try {
+            bytes = encodeSteps(event, text, (CharsetEncoder) threadLocalState[0], (CharBuffer) threadLocalState[1],
+                    bytes);
+        } catch (final CharacterCodingException | RuntimeException ex) {
+            StatusLogger.getLogger().error("Recovering from CompiledPatternFormatter.encode('{}') error: {}", text,
+                    ex, ex);
+            bytes.clear();
+            text.setLength(0);
+            format(event, text);
+            final byte[] fallback = text.toString().getBytes(charset);
+            destination.writeBytes(fallback, 0, fallback.length);
+            return;
+        }
+        bytes.flip();
+        destination.writeBytes(bytes);
+        bytes.clear();
+        threadLocalState[2] = bytes.capacity() > MAX_REUSABLE_BYTE_BUFFER_SIZE
+                ? ByteBuffer.allocate(Constants.ENCODER_BYTE_BUFFER_SIZE)
+                : bytes;
+    }
+
+    /**
+     * Returns whether {@link #encode(LogEvent, StringBuilder, ByteBufferDestination)} uses pre-encoded text.
+     *
+     * @return {@code true} if the formatter was compiled for a charset whose encoded text can be concatenated
+     */
+    public boolean isPreEncoded() {
+        return charset != null;
+    }
+
+    /**
+     * Returns the number of steps, after merging the constant text.
+     *
+     * @return the number of steps
+     */
+    public int getStepCount() {
+        return kinds.length;
+    }
+
+    /**
+     * Returns the number of steps that do not fall back to a {@link PatternFormatter}.
+     *
+     * @return the number of compiled steps
+     */
+    public int getCompiledStepCount() {
+        return compiledCount;
+    }
+
+    private void formatStep(final int i, final LogEvent event, final StringBuilder buffer) {
+        final int start = buffer.length();
+        switch (kinds[i]) {
+            case TEXT:
+                buffer.append(texts[i]);
+                return;
+            case LEVEL:
+                ((LevelPatternConverter) converters[i]).format(event, buffer);
+                break;
+            case LOGGER:
+                ((LoggerPatternConverter) converters[i]).format(event, buffer);
+                break;
+            case THREAD_NAME:
+                ((ThreadNamePatternConverter) converters[i]).format(event, buffer);
+                break;
+            case THREAD_ID:
+                ((ThreadIdPatternConverter) converters[i]).format(event, buffer);
+                break;
+            case MESSAGE:
+                ((MessagePatternConverter) converters[i]).format(event, buffer);
+                break;
+            case DATE:
+                ((DatePatternConverter) converters[i]).format(event, buffer);
+                break;
+            case MDC:
+                ((MdcPatternConverter) converters[i]).format(event, buffer);
+                break;
+            default:
+                formatters[i].format(event, buffer);
+                return;
+        }
+        final FormattingInfo field = fields[i];
+        if (field != null) {
+            field.format(start, buffer);
+        }
+    }
+
+    private ByteBuffer encodeSteps(final LogEvent event, final StringBuilder text, final CharsetEncoder charsetEncoder,
+            final CharBuffer charBuffer, ByteBuffer bytes) throws CharacterCodingException {
+        text.setLength(0);
+        final int length = kinds.length;
+        for (int i = 0; i < length; i++) {
+            final byte[] fragment = fragmentOf(i, event, text);
+            if (fragment != null) {
+                if (text.length() > 0) {
+                    bytes = encodeText(charsetEncoder, charBuffer, text, bytes);
+                    text.setLength(0);
+                }
+                bytes = put(fragment, bytes);
+            }
+        }
+        if (text.length() > 0) {
+            bytes = encodeText(charsetEncoder, charBuffer, text, bytes);
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the encoded output of the specified step, or formats it into the specified buffer and returns
+     * {@code null} if its output is not cached.
+     */
+    private byte[] fragmentOf(final int i, final LogEvent event, final StringBuilder text) {
+        final Object key;
+        switch (kinds[i]) {
+            case TEXT:
+                return encodedTexts[i];
+            case LEVEL:
+                key = event.getLevel();
+                break;
+            case LOGGER:
+                key = event.getLoggerName();
+                break;
+            case THREAD_NAME:
+                key = event.getThreadName();
+                break;
+            default:
+                formatStep(i, event, text);
+                return null;
+        }
+        final ConcurrentMap<Object, byte[]> cache = fragments[i];
+        byte[] result = key == null ? null : cache.get(key);
+        if (result == null) {
+            final int start = text.length();
+            formatStep(i, event, text);
+            if (key == null || cache.size() >= MAX_CACHED_FRAGMENTS) {
+                return null;
+            }
+            result = text.substring(start).getBytes(charset);
+            text.setLength(start);
+            cache.putIfAbsent(key, result);
+        }
+        return result;
+    }
+
+    private static ByteBuffer encodeText(final CharsetEncoder charsetEncoder, final CharBuffer charBuffer,
+            final StringBuilder text, ByteBuffer bytes) throws CharacterCodingException {
+        charsetEncoder.reset();
+        final int length = text.length();
+        int offset = 0;
+        while (offset < length) {
+            int chunk = Math.min(charBuffer.capacity(), length - offset);
+            if (offset + chunk < length && chunk > 1 && Character.isHighSurrogate(text.charAt(offset + chunk - 1))) {
+                // keep surrogate pairs in one chunk
+                chunk--;
+            }
+            charBuffer.clear();
+            text.getChars(offset, offset + chunk, charBuffer.array(), charBuffer.arrayOffset());
+            charBuffer.limit(chunk);
+            offset += chunk;
+            CoderResult result = charsetEncoder.encode(charBuffer, bytes, offset == length);
+            while (result.isOverflow()) {
+                bytes = grow(bytes);
+                result = charsetEncoder.encode(charBuffer, bytes, offset == length);
+            }
+            if (result.isError()) {
+                result.throwException();
+            }
+        }
+        CoderResult result = charsetEncoder.flush(bytes);
+        while (result.isOverflow()) {
+            bytes = grow(bytes);
+            result = charsetEncoder.flush(bytes);
+        }
+        return bytes;
+    }
+
+    private static ByteBuffer put(final byte[] fragment, ByteBuffer bytes) {
+        while (bytes.remaining() < fragment.length) {
+            bytes = grow(bytes);
+        }
+        return bytes.put(fragment);
+    }
+
+    private static ByteBuffer grow(final ByteBuffer bytes) {
+        final ByteBuffer larger = ByteBuffer.allocate(bytes.capacity() * 2);
+        bytes.flip();
+        return larger.put(bytes);
+    }
+
+    private Object[] getThreadLocalState() {
+        Object[] threadLocalState = threadLocal.get();
+        if (threadLocalState == null) {
+            threadLocalState = new Object[] {
+                    charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+                            .onUnmappableCharacter(CodingErrorAction.REPLACE),
+                    CharBuffer.allocate(Constants.ENCODER_CHAR_BUFFER_SIZE),
+                    ByteBuffer.allocate(Constants.ENCODER_BYTE_BUFFER_SIZE)
+            };
+            threadLocal.set(threadLocalState);
+        }
+        return threadLocalState;
+    }
+
+    private static boolean isConcatenable(final Charset charset) {
+        // stateless encodings without byte order mark
+        return StandardCharsets.UTF_8.equals(charset) || StandardCharsets.US_ASCII.equals(charset)
+                || StandardCharsets.ISO_8859_1.equals(charset);
+    }
+
+    private static String constantText(final PatternFormatter formatter) {
+        final LogEventPatternConverter converter = formatter.getConverter();
+        final String text;
+        if (converter instanceof LiteralPatternConverter) {
+            text = ((LiteralPatternConverter) converter).getLiteral();
+            if (text.contains("${")) {
+                // resolved for each event
+                return null;
+            }
+        } else if (converter instanceof LineSeparatorPatternConverter) {
+            final StringBuilder lineSeparator = new StringBuilder();
+            converter.format((LogEvent) null, lineSeparator);
+            text = lineSeparator.toString();
+        } else {
+            return null;
+        }
+        final FormattingInfo field = formatter.getFormattingInfo();
+        if (field == FormattingInfo.getDefault()) {
+            return text;
+        }
+        final StringBuilder formatted = new StringBuilder(text);
+        field.format(0, formatted);
+        return formatted.toString();
+    }
+
+    private static byte kindOf(final LogEventPatternConverter converter) {
+        if (converter instanceof LevelPatternConverter) {
+            return LEVEL;
+        } else if (converter instanceof LoggerPatternConverter) {
+            return LOGGER;
+        } else if (converter instanceof ThreadNamePatternConverter) {
+            return THREAD_NAME;
+        } else if (converter instanceof ThreadIdPatternConverter) {
+            return THREAD_ID;
+        } else if (converter instanceof MessagePatternConverter) {
+            return MESSAGE;
+        } else if (converter instanceof DatePatternConverter) {
+            return DATE;
+        } else if (converter instanceof MdcPatternConverter) {
+            return MDC;
+        }
+        return FORMATTER;
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledPatternFormatter[kinds=" + Arrays.toString(kinds) + ", texts=" + Arrays.toString(texts)
+                + ", formatters=" + Arrays.toString(formatters) + "]";
+    }
+
+    private static final class Step {
+        final byte kind;
+        final String text;
+        final PatternFormatter formatter;
+
+        Step(final byte kind, final String text, final PatternFormatter formatter) {
+            this.kind = kind;
+            this.text = text;
+            this.formatter = formatter;
+        }
+    }
+}
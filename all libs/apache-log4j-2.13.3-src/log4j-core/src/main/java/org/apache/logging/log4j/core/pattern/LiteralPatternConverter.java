@@ -18,6 +18,8 @@ package org.apache.logging.log4j.core.pattern;
 
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.lookup.StrSubstitutor;
+import org.apache.logging.log4j.core.lookup.StrTemplate;
 import org.apache.logging.log4j.core.util.OptionConverter;
 import org.apache.logging.log4j.util.PerformanceSensitive;
 
@@ -37,6 +39,8 @@ public final class LiteralPatternConverter extends LogEventPatternConverter impl
 
     private final boolean substitute;
 
+    private final StrTemplate template;
+
     /**
      * Create a new instance.
      *
@@ -50,6 +54,8 @@ public final class LiteralPatternConverter extends LogEventPatternConverter impl
         this.literal = convertBackslashes ? OptionConverter.convertSpecialChars(literal) : literal; // LOG4J2-829
         this.config = config;
         substitute = config != null && literal.contains("${");
+        final StrSubstitutor strSubstitutor = substitute ? config.getStrSubstitutor() : null;
+        template = strSubstitutor != null ? strSubstitutor.compile(this.literal) : null;
     }
 
     /**
@@ -57,7 +63,11 @@ public final class LiteralPatternConverter extends LogEventPatternConverter impl
      */
     @Override
     public void format(final LogEvent event, final StringBuilder toAppendTo) {
-        toAppendTo.append(substitute ? config.getStrSubstitutor().replace(event, literal) : literal);
+        if (template != null) {
+            template.format(event, toAppendTo);
+        } else {
+            toAppendTo.append(substitute ? config.getStrSubstitutor().replace(event, literal) : literal);
+        }
     }
 
     /**
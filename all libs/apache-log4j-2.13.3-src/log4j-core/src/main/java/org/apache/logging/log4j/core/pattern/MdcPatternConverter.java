@@ -20,6 +20,7 @@ import org.apache.logging.log4j.util.PerformanceSensitive;
 import org.apache.logging.log4j.util.ReadOnlyStringMap;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.impl.ContextDataSlots;
 import org.apache.logging.log4j.util.TriConsumer;
 import org.apache.logging.log4j.util.StringBuilders;
 
@@ -40,6 +41,8 @@ public final class MdcPatternConverter extends LogEventPatternConverter {
      */
     private final String key;
     private final String[] keys;
+    private final int slot;
+    private final int[] slots;
     private final boolean full;
 
     /**
@@ -66,6 +69,15 @@ public final class MdcPatternConverter extends LogEventPatternConverter {
             key = null;
             keys = null;
         }
+        slot = ContextDataSlots.slotOf(key);
+        if (keys != null) {
+            slots = new int[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                slots[i] = ContextDataSlots.slotOf(keys[i]);
+            }
+        } else {
+            slots = null;
+        }
     }
 
     /**
@@ -107,10 +119,10 @@ public final class MdcPatternConverter extends LogEventPatternConverter {
                     toAppendTo.append("{}");
                     return;
                 }
-                appendSelectedKeys(keys, contextData, toAppendTo);
+                appendSelectedKeys(keys, slots, contextData, toAppendTo);
             } else if (contextData != null){
                 // otherwise they just want a single key output
-                final Object value = contextData.getValue(key);
+                final Object value = ContextDataSlots.getValue(contextData, slot, key);
                 if (value != null) {
                     StringBuilders.appendValue(toAppendTo, value);
                 }
@@ -131,13 +143,14 @@ public final class MdcPatternConverter extends LogEventPatternConverter {
         }
     }
 
-    private static void appendSelectedKeys(final String[] keys, final ReadOnlyStringMap contextData, final StringBuilder sb) {
+    private static void appendSelectedKeys(final String[] keys, final int[] slots, final ReadOnlyStringMap contextData,
+            final StringBuilder sb) {
         // Print all the keys in the array that have a value.
         final int start = sb.length();
         sb.append('{');
         for (int i = 0; i < keys.length; i++) {
             final String theKey = keys[i];
-            final Object value = contextData.getValue(theKey);
+            final Object value = ContextDataSlots.getValue(contextData, slots[i], theKey);
             if (value != null) { // !contextData.containskey(theKey)
                 if (sb.length() - start > 1) {
                     sb.append(", ");
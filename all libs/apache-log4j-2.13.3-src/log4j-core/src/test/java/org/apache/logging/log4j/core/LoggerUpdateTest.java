@@ -22,6 +22,7 @@ import java.util.List;
 
 import org.apache.logging.log4j.*;
 import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
 import org.apache.logging.log4j.core.config.LoggerConfig;
 import org.apache.logging.log4j.junit.LoggerContextRule;
 import org.apache.logging.log4j.test.appender.ListAppender;
@@ -67,6 +68,54 @@ public class LoggerUpdateTest {
         assertEquals("Incorrect number of events. Expected 0, actual " + events.size(), 0, events.size());
     }
 
+    @Test
+    public void testUpdateLoggersOnlyUpdatesAffectedLoggers() {
+        final LoggerContext ctx = context.getLoggerContext();
+        final Logger affected = ctx.getLogger("org.example.update.affected.Child");
+        final Logger unaffected = ctx.getLogger("org.example.other.Child");
+        final Logger.PrivateConfig affectedConfig = affected.privateConfig;
+        final Logger.PrivateConfig unaffectedConfig = unaffected.privateConfig;
+        final Configuration config = ctx.getConfiguration();
+        final LoggerConfig loggerConfig = new LoggerConfig("org.example.update.affected", Level.OFF, true);
+        config.addLogger(loggerConfig.getName(), loggerConfig);
+        try {
+            ctx.updateLoggers();
+            assertNotSame(affectedConfig, affected.privateConfig);
+            assertSame(loggerConfig, affected.privateConfig.loggerConfig);
+            assertSame(unaffectedConfig, unaffected.privateConfig);
+            loggerConfig.setLevel(Level.FATAL);
+            ctx.updateLoggers();
+            assertEquals(Level.FATAL, affected.getLevel());
+            assertSame(unaffectedConfig, unaffected.privateConfig);
+        } finally {
+            config.removeLogger(loggerConfig.getName());
+            ctx.updateLoggers();
+        }
+        assertSame(affectedConfig.loggerConfig, affected.privateConfig.loggerConfig);
+    }
+
+    @Test
+    public void testEquivalentLoggerConfigOfNewConfigurationIsNotAnUpdate() {
+        final LoggerContext ctx = context.getLoggerContext();
+        final Logger logger = ctx.getLogger("org.example.reuse.Child");
+        final Configuration original = ctx.getConfiguration();
+        final DefaultConfiguration first = new DefaultConfiguration();
+        final DefaultConfiguration second = new DefaultConfiguration();
+        try {
+            assertTrue(logger.updateConfigurationIfChanged(first));
+            assertFalse(logger.updateConfigurationIfChanged(first));
+            assertFalse(logger.updateConfigurationIfChanged(second));
+            assertSame(second, logger.privateConfig.config);
+            assertSame(second.getRootLogger(), logger.privateConfig.loggerConfig);
+            second.getRootLogger().setLevel(Level.TRACE);
+            assertTrue(logger.updateConfigurationIfChanged(second));
+            assertEquals(Level.TRACE, logger.getLevel());
+        } finally {
+            logger.updateConfigurationIfChanged(original);
+        }
+        assertSame(original, logger.privateConfig.config);
+    }
+
     @Test
     public void testUpdateLoggersPropertyListeners() throws Exception {
         final LoggerContext ctx = context.getLoggerContext();
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.categories.AsyncLoggers;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.junit.LoggerContextRule;
+import org.apache.logging.log4j.test.appender.BatchListAppender;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that AsyncAppender hands drained batches to {@link org.apache.logging.log4j.core.BatchAppender}s.
+ */
+@RunWith(Parameterized.class)
+@Category(AsyncLoggers.class)
+public class AsyncAppenderBatchTest {
+
+    private static final int EVENT_COUNT = 1000;
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Object[] data() {
+        return new String[]{
+            "AsyncAppenderBatchTest-ArrayBlockingQueue.xml",
+            "AsyncAppenderBatchTest-LogEventRingBufferQueue.xml"
+        };
+    }
+
+    @Rule
+    public LoggerContextRule context;
+
+    public AsyncAppenderBatchTest(final String configFileName) {
+        context = new LoggerContextRule(configFileName);
+    }
+
+    @Test
+    public void testEventsAreDeliveredInBatches() throws Exception {
+        final Logger logger = context.getLogger(AsyncAppenderBatchTest.class);
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            logger.log(i % 2 == 0 ? Level.INFO : Level.DEBUG, "message {}", i);
+        }
+        final BatchListAppender appender = context.getAppender("BatchList", BatchListAppender.class);
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (appender.getEvents().size() < EVENT_COUNT / 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        final List<LogEvent> events = appender.getEvents();
+        assertEquals("AppenderRef level filter must apply to batches", EVENT_COUNT / 2, events.size());
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(Level.INFO, events.get(i).getLevel());
+            assertEquals("message " + (i * 2), events.get(i).getMessage().getFormattedMessage());
+        }
+        assertEquals(0, appender.getSingleCalls());
+        assertTrue(appender.getBatchCalls() > 0);
+        assertTrue(appender.getBatchCalls() <= EVENT_COUNT);
+    }
+}
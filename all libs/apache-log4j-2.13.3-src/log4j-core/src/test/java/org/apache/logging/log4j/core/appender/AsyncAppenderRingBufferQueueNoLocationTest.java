@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.junit.LoggerContextRule;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests an AsyncAppender with the LogEventRingBufferQueue and the default includeLocation="false", where events are
+ * copied into the reused slots of the queue instead of being snapshot.
+ */
+public class AsyncAppenderRingBufferQueueNoLocationTest {
+
+    private static final int EVENT_COUNT = 20;
+
+    @Rule
+    public LoggerContextRule context =
+            new LoggerContextRule("BlockingQueueFactory-LogEventRingBufferQueue-NoLocation.xml");
+
+    @Test
+    public void testNoLocation() throws Exception {
+        final ListAppender listAppender = context.getListAppender("List");
+        final Logger logger = LogManager.getLogger(AsyncAppender.class);
+        // more events than the queue has slots, so that the slots are reused
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            logger.info("Message {}", i);
+        }
+        final List<String> list = listAppender.getMessages(EVENT_COUNT, 2000, TimeUnit.MILLISECONDS);
+        assertEquals(EVENT_COUNT, list.size());
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            assertEquals("?  Message " + i, list.get(i));
+        }
+    }
+}
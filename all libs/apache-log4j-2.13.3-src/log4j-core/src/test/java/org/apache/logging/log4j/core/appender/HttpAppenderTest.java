@@ -27,10 +27,12 @@ import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.io.Serializable;
 import java.net.URL;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.SystemUtils;
 import org.apache.logging.log4j.Level;
@@ -54,8 +56,12 @@ import org.junit.BeforeClass;
 import org.junit.Rule;
 import org.junit.Test;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
 
 /* Fails often on Windows, for example:
 [ERROR] Failed to execute goal org.apache.maven.plugins:maven-surefire-plugin:2.20.1:test (default-test) on project log4j-core: There are test failures.
@@ -304,4 +310,153 @@ public class HttpAppenderTest {
         appender.append(createLogEvent());
     }
 
-}
\ No newline at end of file
+    private HttpAppender.Builder<?> newBatchingBuilder(final Layout<? extends Serializable> layout) throws Exception {
+        return HttpAppender.newBuilder().setName("Http").setLayout(layout)
+            .setConfiguration(ctx.getConfiguration())
+            .setUrl(new URL("http://localhost:" + wireMockRule.port() + "/test/log4j/"))
+            .setLingerMillis(0)
+            .setRetryBackoffMillis(10);
+    }
+
+    private static Layout<? extends Serializable> createNdjsonLayout() {
+        return JsonLayout.newBuilder().setCompact(true).setEventEol(true).build();
+    }
+
+    @Test
+    public void testAppendBatchNdjson() throws Exception {
+        wireMockRule.stubFor(post(urlEqualTo("/test/log4j/"))
+            .willReturn(SUCCESS_RESPONSE));
+
+        final HttpAppender appender = newBatchingBuilder(createNdjsonLayout()).setBatchSize(3).build();
+        for (int i = 0; i < 6; i++) {
+            appender.append(createLogEvent());
+        }
+        assertTrue(appender.stop(10, TimeUnit.SECONDS));
+
+        wireMockRule.verify(2, postRequestedFor(urlEqualTo("/test/log4j/"))
+            .withHeader("Content-Type", equalTo("application/x-ndjson")));
+        for (final LoggedRequest request : wireMockRule.findAll(postRequestedFor(urlEqualTo("/test/log4j/")))) {
+            final String[] lines = request.getBodyAsString().split("\n");
+            assertEquals(3, lines.length);
+            for (final String line : lines) {
+                assertTrue(line, line.contains("\"message\":\"" + LOG_MESSAGE + "\""));
+            }
+        }
+    }
+
+    @Test
+    public void testAppendBatchJsonArray() throws Exception {
+        wireMockRule.stubFor(post(urlEqualTo("/test/log4j/"))
+            .willReturn(SUCCESS_RESPONSE));
+
+        final HttpAppender appender = newBatchingBuilder((Layout<? extends Serializable>) JsonLayout.createDefaultLayout())
+            .setBatchSize(2)
+            .setBatchFormat(BatchingHttpURLConnectionManager.BatchFormat.JSON_ARRAY)
+            .build();
+        appender.append(createLogEvent());
+        appender.append(createLogEvent());
+        assertTrue(appender.stop(10, TimeUnit.SECONDS));
+
+        wireMockRule.verify(1, postRequestedFor(urlEqualTo("/test/log4j/"))
+            .withHeader("Content-Type", containing("application/json")));
+        final String body = wireMockRule.findAll(postRequestedFor(urlEqualTo("/test/log4j/"))).get(0).getBodyAsString();
+        final JsonNode array = new ObjectMapper().readTree(body);
+        assertTrue(array.isArray());
+        assertEquals(2, array.size());
+        assertEquals(LOG_MESSAGE, array.get(1).get("message").asText());
+    }
+
+    @Test
+    public void testAppendBatchMaxBytes() throws Exception {
+        wireMockRule.stubFor(post(urlEqualTo("/test/log4j/"))
+            .willReturn(SUCCESS_RESPONSE));
+
+        final HttpAppender appender = newBatchingBuilder(createNdjsonLayout()).setBatchSize(100).setMaxBatchBytes(1)
+            .build();
+        appender.append(createLogEvent());
+        appender.append(createLogEvent());
+        assertTrue(appender.stop(10, TimeUnit.SECONDS));
+
+        wireMockRule.verify(2, postRequestedFor(urlEqualTo("/test/log4j/")));
+    }
+
+    @Test
+    public void testAppendBatchLinger() throws Exception {
+        wireMockRule.stubFor(post(urlEqualTo("/test/log4j/"))
+            .willReturn(SUCCESS_RESPONSE));
+
+        final HttpAppender appender = newBatchingBuilder(createNdjsonLayout()).setBatchSize(100).setLingerMillis(50)
+            .build();
+        appender.append(createLogEvent());
+        final long deadline = System.currentTimeMillis() + 10_000;
+        while (wireMockRule.findAll(postRequestedFor(urlEqualTo("/test/log4j/"))).isEmpty()
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        wireMockRule.verify(1, postRequestedFor(urlEqualTo("/test/log4j/"))
+            .withRequestBody(containing(LOG_MESSAGE)));
+        assertTrue(appender.stop(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testAppendBatchCompressed() throws Exception {
+        wireMockRule.stubFor(post(urlEqualTo("/test/log4j/"))
+            .willReturn(SUCCESS_RESPONSE));
+
+        final HttpAppender appender = newBatchingBuilder(createNdjsonLayout()).setBatchSize(2).setCompress(true)
+            .build();
+        appender.append(createLogEvent());
+        appender.append(createLogEvent());
+        assertTrue(appender.stop(10, TimeUnit.SECONDS));
+
+        wireMockRule.verify(1, postRequestedFor(urlEqualTo("/test/log4j/"))
+            .withHeader("Content-Encoding", equalTo("gzip")));
+    }
+
+    @Test
+    public void testAppendBatchRetry() throws Exception {
+        wireMockRule.stubFor(post(urlEqualTo("/test/log4j/")).inScenario("retry")
+            .whenScenarioStateIs(Scenario.STARTED)
+            .willReturn(aResponse().withStatus(503))
+            .willSetStateTo("available"));
+        wireMockRule.stubFor(post(urlEqualTo("/test/log4j/")).inScenario("retry")
+            .whenScenarioStateIs("available")
+            .willReturn(SUCCESS_RESPONSE));
+
+        final HttpAppender appender = newBatchingBuilder(createNdjsonLayout()).setBatchSize(1).build();
+        appender.append(createLogEvent());
+        assertTrue(appender.stop(10, TimeUnit.SECONDS));
+
+        wireMockRule.verify(2, postRequestedFor(urlEqualTo("/test/log4j/"))
+            .withRequestBody(containing(LOG_MESSAGE)));
+    }
+
+    @Test
+    public void testAppendBatchClientErrorNotRetried() throws Exception {
+        wireMockRule.stubFor(post(urlEqualTo("/test/log4j/"))
+            .willReturn(FAILURE_RESPONSE));
+
+        final HttpAppender appender = newBatchingBuilder(createNdjsonLayout()).setBatchSize(1).build();
+        appender.append(createLogEvent());
+        assertTrue(appender.stop(10, TimeUnit.SECONDS));
+
+        wireMockRule.verify(1, postRequestedFor(urlEqualTo("/test/log4j/")));
+    }
+
+    @Test
+    public void testAppendBatchSentWhenStoppedWithoutTimeout() throws Exception {
+        wireMockRule.stubFor(post(urlEqualTo("/test/log4j/"))
+            .willReturn(SUCCESS_RESPONSE.withFixedDelay(200)));
+
+        final HttpAppender appender = newBatchingBuilder(createNdjsonLayout()).setBatchSize(2).setLingerMillis(60_000)
+            .build();
+        appender.append(createLogEvent());
+        appender.append(createLogEvent());
+        appender.append(createLogEvent());
+        appender.stop();
+
+        // the batch in flight and the incomplete batch were both sent
+        wireMockRule.verify(2, postRequestedFor(urlEqualTo("/test/log4j/")));
+    }
+
+}
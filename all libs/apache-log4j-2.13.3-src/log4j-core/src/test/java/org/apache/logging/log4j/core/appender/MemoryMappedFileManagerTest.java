@@ -18,6 +18,7 @@ package org.apache.logging.log4j.core.appender;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.BufferedReader;
@@ -64,6 +65,53 @@ public class MemoryMappedFileManagerTest {
         }
     }
 
+    @Test
+    public void testRemapAheadAfterInitialMapSizeExceeded() throws IOException {
+        final int mapSize = 64; // very small, on purpose
+        final File file = File.createTempFile("log4j2", "test");
+        file.deleteOnExit();
+
+        long expectedLength = 0;
+        try (final MemoryMappedFileManager manager = MemoryMappedFileManager.getFileManager(file.getAbsolutePath(),
+                false, false, mapSize, null, null, true)) {
+            assertTrue(manager.isRemapAhead());
+            byte[] msg;
+            for (int i = 0; i < 1000; i++) {
+                msg = ("Message " + i + "\n").getBytes();
+                manager.write(msg, 0, msg.length, false);
+                expectedLength += msg.length;
+            }
+        }
+        assertEquals("truncated to the data written", expectedLength, file.length());
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            for (int i = 0; i < 1000; i++) {
+                assertEquals("Message " + i, reader.readLine());
+            }
+            assertNull(reader.readLine());
+        }
+    }
+
+    @Test
+    public void testRemapAheadOfPartiallyFilledRegionLeavesNoGap() throws IOException {
+        final File file = File.createTempFile("log4j2", "test");
+        file.deleteOnExit();
+
+        try (final MemoryMappedFileManager manager = MemoryMappedFileManager.getFileManager(file.getAbsolutePath(),
+                false, false, 64, null, null, true)) {
+            // an encoder drains the buffer when the next chunk does not fit, before the region is full
+            manager.getByteBuffer().put("first\n".getBytes());
+            manager.drain(manager.getByteBuffer()).put("second\n".getBytes());
+        }
+        assertEquals("first\nsecond\n".length(), file.length());
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            assertEquals("first", reader.readLine());
+            assertEquals("second", reader.readLine());
+            assertNull(reader.readLine());
+        }
+    }
+
     @Test
     public void testAppendDoesNotOverwriteExistingFile() throws IOException {
         final File file = File.createTempFile("log4j2", "test");
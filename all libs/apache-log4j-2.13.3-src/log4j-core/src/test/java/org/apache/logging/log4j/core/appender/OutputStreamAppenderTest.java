@@ -24,10 +24,13 @@ import java.sql.SQLException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.filter.NoMarkerFilter;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
@@ -96,6 +99,33 @@ public class OutputStreamAppenderTest {
         Assert.assertTrue(actual, actual.contains(TEST_MSG));
     }
 
+    @Test
+    public void testBatchIsFlushedOnceAtItsEnd() {
+        final int[] flushes = new int[1];
+        final ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes[0]++;
+            }
+        };
+        final OutputStreamAppender appender = OutputStreamAppender.newBuilder().setName(getName(out)).setTarget(out)
+                .setLayout(PatternLayout.newBuilder().withPattern("%m%n").build()).build();
+        appender.start();
+        try {
+            final LogEvent[] events = new LogEvent[3];
+            for (int i = 0; i < events.length; i++) {
+                events[i] = Log4jLogEvent.newBuilder().setMessage(new SimpleMessage("event " + i)).build();
+            }
+            appender.append(events, events.length);
+            Assert.assertEquals(1, flushes[0]);
+            Assert.assertTrue(out.toString(), out.toString().contains("event 2"));
+            appender.append(events[0]);
+            Assert.assertEquals(2, flushes[0]);
+        } finally {
+            appender.stop();
+        }
+    }
+
     /**
      * Validates that the code pattern we use to add an appender on the fly
      * works with a basic appender that is not the new OutputStream appender or
@@ -21,6 +21,11 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
 
 import org.apache.logging.log4j.core.util.NullOutputStream;
 import org.junit.ClassRule;
@@ -136,4 +141,130 @@ public class RandomAccessFileManagerTest {
         final int expected = bytes.length * 2;
         assertEquals("appended, not overwritten", expected, file.length());
     }
+
+    @Test
+    public void testThreadLocalBuffers() throws Exception {
+        final File file = folder.newFile();
+        final RandomAccessFileManager manager = RandomAccessFileManager.getFileManager(file.getAbsolutePath(), false,
+                false, RandomAccessFileManager.DEFAULT_BUFFER_SIZE, null, null, null, true);
+        final ThreadLocalBufferFileWriter writer = manager.getThreadLocalWriter();
+        assertNotNull(writer);
+        final int threadCount = 4;
+        final int lineCount = 1000;
+        final Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            final byte[] line = ("thread " + i + "\n").getBytes(StandardCharsets.UTF_8);
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < lineCount; j++) {
+                        writer.getDestination().writeBytes(line, 0, line.length);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        // the buffers of the threads are written when the manager is closed
+        manager.close();
+        assertTrue(writer.isSuspended());
+
+        final List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        assertEquals(threadCount * lineCount, lines.size());
+        final int[] counts = new int[threadCount];
+        for (final String line : lines) {
+            assertTrue(line, line.matches("thread \\d"));
+            counts[line.charAt(7) - '0']++;
+        }
+        for (final int count : counts) {
+            assertEquals(lineCount, count);
+        }
+    }
+
+    @Test
+    public void testThreadLocalFlushWritesBuffersOfIdleThreads() throws Exception {
+        final File file = folder.newFile();
+        final RandomAccessFileManager manager = RandomAccessFileManager.getFileManager(file.getAbsolutePath(), false,
+                false, RandomAccessFileManager.DEFAULT_BUFFER_SIZE, null, null, null, true);
+        final ThreadLocalBufferFileWriter writer = manager.getThreadLocalWriter();
+        try {
+            runAndJoin(writer, "idle\n");
+            assertEquals(0, file.length());
+            // the end of a batch on another thread
+            writer.flush();
+            assertEquals(Arrays.asList("idle"), Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+        } finally {
+            manager.close();
+        }
+    }
+
+    @Test
+    public void testThreadLocalBufferFillingUpWritesBuffersOfIdleThreads() throws Exception {
+        final File file = folder.newFile();
+        final RandomAccessFileManager manager = RandomAccessFileManager.getFileManager(file.getAbsolutePath(), false,
+                false, RandomAccessFileManager.DEFAULT_BUFFER_SIZE, null, null, null, true);
+        final ThreadLocalBufferFileWriter writer = manager.getThreadLocalWriter();
+        final CountDownLatch written = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        final Thread idle = new Thread() {
+            @Override
+            public void run() {
+                final byte[] bytes = "idle\n".getBytes(StandardCharsets.UTF_8);
+                writer.getDestination().writeBytes(bytes, 0, bytes.length);
+                written.countDown();
+                try {
+                    done.await();
+                } catch (final InterruptedException ignored) {
+                    // exit
+                }
+            }
+        };
+        idle.start();
+        try {
+            written.await();
+            final byte[] line = "busy\n".getBytes(StandardCharsets.UTF_8);
+            while (file.length() == 0) {
+                writer.getDestination().writeBytes(line, 0, line.length);
+            }
+            assertTrue(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).contains("idle"));
+        } finally {
+            done.countDown();
+            idle.join();
+            manager.close();
+        }
+    }
+
+    @Test
+    public void testThreadLocalBuffersOfTerminatedThreadsAreRemoved() throws Exception {
+        final File file = folder.newFile();
+        final RandomAccessFileManager manager = RandomAccessFileManager.getFileManager(file.getAbsolutePath(), false,
+                false, RandomAccessFileManager.DEFAULT_BUFFER_SIZE, null, null, null, true);
+        final ThreadLocalBufferFileWriter writer = manager.getThreadLocalWriter();
+        try {
+            for (int i = 0; i < 10; i++) {
+                runAndJoin(writer, "thread " + i + "\n");
+            }
+            // each new thread writes and removes the buffers of the terminated ones
+            assertEquals(1, writer.getBufferCount());
+            assertEquals(9, Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).size());
+        } finally {
+            manager.close();
+        }
+        assertEquals(10, Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).size());
+    }
+
+    private static void runAndJoin(final ThreadLocalBufferFileWriter writer, final String text)
+            throws InterruptedException {
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        final Thread thread = new Thread() {
+            @Override
+            public void run() {
+                writer.getDestination().writeBytes(bytes, 0, bytes.length);
+            }
+        };
+        thread.start();
+        thread.join();
+    }
 }
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SpillJournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static void append(final SpillJournal journal, final String record) throws IOException {
+        final byte[] bytes = record.getBytes(StandardCharsets.UTF_8);
+        assertTrue(record, journal.append(bytes, 0, bytes.length));
+    }
+
+    private static List<String> drain(final SpillJournal journal, final int maxRecords) throws IOException {
+        return drain(journal, maxRecords, false);
+    }
+
+    private static List<String> drain(final SpillJournal journal, final int maxRecords,
+            final boolean ignoreReplayRate) throws IOException {
+        final List<String> result = new ArrayList<>();
+        journal.drain(new SpillJournal.Consumer() {
+            @Override
+            public boolean accept(final ByteBuffer record) {
+                final byte[] bytes = new byte[record.remaining()];
+                record.get(bytes);
+                result.add(new String(bytes, StandardCharsets.UTF_8));
+                return true;
+            }
+        }, maxRecords, ignoreReplayRate);
+        return result;
+    }
+
+    private int countSegments(final File directory) {
+        return directory.list().length - 1;
+    }
+
+    @Test
+    public void testDrainsRecordsInOrderAcrossSegments() throws IOException {
+        final File directory = folder.newFolder();
+        try (final SpillJournal journal = SpillJournal.open(directory, "test", 64, 64 * 100, 0)) {
+            for (int i = 0; i < 20; i++) {
+                append(journal, "record " + i);
+            }
+            assertEquals(20, journal.size());
+            assertTrue(countSegments(directory) > 1);
+            assertEquals(5, drain(journal, 5).size());
+            final List<String> rest = drain(journal, Integer.MAX_VALUE);
+            assertEquals(15, rest.size());
+            for (int i = 0; i < 15; i++) {
+                assertEquals("record " + (i + 5), rest.get(i));
+            }
+            assertTrue(journal.isEmpty());
+            assertEquals(0, journal.getPendingBytes());
+            assertEquals(20, journal.getReplayedCount());
+            assertEquals(1, countSegments(directory));
+        }
+    }
+
+    @Test
+    public void testConsumerCanDeferRecords() throws IOException {
+        try (final SpillJournal journal = SpillJournal.open(folder.newFolder(), "test", 1024, 4096, 0)) {
+            append(journal, "first");
+            append(journal, "second");
+            assertEquals(0, journal.drain(new SpillJournal.Consumer() {
+                @Override
+                public boolean accept(final ByteBuffer record) {
+                    return false;
+                }
+            }, 10));
+            assertEquals(2, journal.size());
+            assertEquals("first", drain(journal, 1).get(0));
+        }
+    }
+
+    @Test
+    public void testReopenKeepsUnreadRecords() throws IOException {
+        final File directory = folder.newFolder();
+        try (final SpillJournal journal = SpillJournal.open(directory, "test", 64, 64 * 100, 0)) {
+            for (int i = 0; i < 10; i++) {
+                append(journal, "record " + i);
+            }
+            drain(journal, 3);
+        }
+        try (final SpillJournal journal = SpillJournal.open(directory, "test", 64, 64 * 100, 0)) {
+            assertEquals(7, journal.size());
+            append(journal, "record 10");
+            final List<String> records = drain(journal, Integer.MAX_VALUE);
+            assertEquals(8, records.size());
+            for (int i = 0; i < 8; i++) {
+                assertEquals("record " + (i + 3), records.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testRejectsRecordsWhenFull() throws IOException {
+        try (final SpillJournal journal = SpillJournal.open(folder.newFolder(), "test", 64, 128, 0)) {
+            final byte[] bytes = new byte[20];
+            int appended = 0;
+            while (journal.append(bytes, 0, bytes.length)) {
+                appended++;
+            }
+            // two segments of two records each
+            assertEquals(4, appended);
+            assertEquals(1, journal.getRejectedCount());
+            assertFalse(journal.append(new byte[100], 0, 100));
+            drain(journal, Integer.MAX_VALUE);
+            assertTrue(journal.append(bytes, 0, bytes.length));
+        }
+    }
+
+    @Test
+    public void testLimitsReplayRate() throws IOException {
+        try (final SpillJournal journal = SpillJournal.open(folder.newFolder(), "test", 1024, 4096, 10)) {
+            for (int i = 0; i < 5; i++) {
+                append(journal, "record " + i);
+            }
+            // bursts of a tenth of a second
+            assertEquals(1, drain(journal, Integer.MAX_VALUE).size());
+            assertEquals(0, drain(journal, Integer.MAX_VALUE).size());
+            final long delay = journal.getReplayDelay(TimeUnit.MILLISECONDS);
+            assertTrue(String.valueOf(delay), delay > 0 && delay <= 100);
+        }
+    }
+
+    @Test
+    public void testCanIgnoreReplayRate() throws IOException {
+        try (final SpillJournal journal = SpillJournal.open(folder.newFolder(), "test", 1024, 4096, 10)) {
+            for (int i = 0; i < 5; i++) {
+                append(journal, "record " + i);
+            }
+            assertEquals(1, drain(journal, Integer.MAX_VALUE).size());
+            assertEquals(4, drain(journal, Integer.MAX_VALUE, true).size());
+        }
+    }
+
+    @Test
+    public void testPrependedRecordsAreReadFirst() throws IOException {
+        final File directory = folder.newFolder();
+        try (final SpillJournal journal = SpillJournal.open(directory, "test", 64, 64 * 100, 0)) {
+            for (int i = 0; i < 10; i++) {
+                append(journal, "record " + i);
+            }
+            drain(journal, 3);
+            assertTrue(journal.prepend(Arrays.asList(
+                    ByteBuffer.wrap("first".getBytes(StandardCharsets.UTF_8)),
+                    ByteBuffer.wrap("second".getBytes(StandardCharsets.UTF_8)))));
+            assertEquals(9, journal.size());
+        }
+        try (final SpillJournal journal = SpillJournal.open(directory, "test", 64, 64 * 100, 0)) {
+            assertEquals(9, journal.size());
+            final List<String> records = drain(journal, Integer.MAX_VALUE);
+            assertEquals(9, records.size());
+            assertEquals("first", records.get(0));
+            assertEquals("second", records.get(1));
+            for (int i = 0; i < 7; i++) {
+                assertEquals("record " + (i + 3), records.get(i + 2));
+            }
+            assertTrue(journal.isEmpty());
+        }
+    }
+
+    @Test
+    public void testCannotBeOpenedTwice() throws IOException {
+        final File directory = folder.newFolder();
+        try (final SpillJournal journal = SpillJournal.open(directory, "test", 1024, 4096, 0)) {
+            try {
+                SpillJournal.open(directory, "test", 1024, 4096, 0);
+                fail("Expected IOException");
+            } catch (final IOException expected) {
+                // expected
+            }
+        }
+    }
+}
@@ -19,6 +19,7 @@ package org.apache.logging.log4j.core.appender.db;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.BDDMockito.then;
@@ -32,6 +33,7 @@ import static org.mockito.Mockito.when;
 import java.io.Serializable;
 
 import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AppenderLoggingException;
 import org.junit.Test;
 
 public class AbstractDatabaseManagerTest {
@@ -42,6 +44,10 @@ public class AbstractDatabaseManagerTest {
             super(name, bufferSize);
         }
 
+        protected StubDatabaseManager(final String name, final int bufferSize, final boolean backgroundFlush) {
+            super(name, bufferSize, null, backgroundFlush);
+        }
+
         @Override
         protected boolean commitAndClose() {
             return true;
@@ -115,6 +121,50 @@ public class AbstractDatabaseManagerTest {
         reset(manager);
     }
 
+    @Test
+    public void testBatchWriteThroughUsesOneTransaction() throws Exception {
+        setUp("name", 0);
+
+        final LogEvent event1 = mock(LogEvent.class);
+        final LogEvent event2 = mock(LogEvent.class);
+
+        manager.startup();
+        reset(manager);
+
+        manager.write(new LogEvent[] { event1, event2, null }, 2);
+        then(manager).should().isBuffered();
+        then(manager).should().writeThrough(new LogEvent[] { event1, event2, null }, 2);
+        then(manager).should().connectAndStart();
+        then(manager).should().writeEvents(new LogEvent[] { event1, event2, null }, 2);
+        then(manager).should().writeInternal(same(event1), (Serializable) isNull());
+        then(manager).should().writeInternal(same(event2), (Serializable) isNull());
+        then(manager).should().commitAndClose();
+        then(manager).shouldHaveNoMoreInteractions();
+    }
+
+    @Test
+    public void testBatchWriteIsBuffered() throws Exception {
+        setUp("name", 4);
+
+        final LogEvent event1 = mock(LogEvent.class);
+        final LogEvent event2 = mock(LogEvent.class);
+        when(event1.toImmutable()).thenReturn(event1);
+        when(event2.toImmutable()).thenReturn(event2);
+
+        manager.startup();
+        reset(manager);
+
+        manager.write(new LogEvent[] { event1, event2 }, 2);
+        verify(manager, times(0)).connectAndStart();
+        verify(manager, times(0)).commitAndClose();
+
+        manager.flush();
+        then(manager).should().writeInternal(same(event1), (Serializable) isNull());
+        then(manager).should().writeInternal(same(event2), (Serializable) isNull());
+        verify(manager, times(1)).connectAndStart();
+        verify(manager, times(1)).commitAndClose();
+    }
+
     @Test
     public void testBuffering02() throws Exception {
         setUp("name", 4);
@@ -144,12 +194,20 @@ public class AbstractDatabaseManagerTest {
 
         then(manager).should().connectAndStart();
         verify(manager, times(5)).isBuffered(); // 4 + 1 in flush()
+        then(manager).should().toBufferedEvent(event1);
+        then(manager).should().writeBufferedEvent(same(event1copy));
         then(manager).should().writeInternal(same(event1copy), (Serializable) isNull());
         then(manager).should().buffer(event1);
+        then(manager).should().toBufferedEvent(event2);
+        then(manager).should().writeBufferedEvent(same(event2copy));
         then(manager).should().writeInternal(same(event2copy), (Serializable) isNull());
         then(manager).should().buffer(event2);
+        then(manager).should().toBufferedEvent(event3);
+        then(manager).should().writeBufferedEvent(same(event3copy));
         then(manager).should().writeInternal(same(event3copy), (Serializable) isNull());
         then(manager).should().buffer(event3);
+        then(manager).should().toBufferedEvent(event4);
+        then(manager).should().writeBufferedEvent(same(event4copy));
         then(manager).should().writeInternal(same(event4copy), (Serializable) isNull());
         then(manager).should().buffer(event4);
         then(manager).should().commitAndClose();
@@ -182,10 +240,16 @@ public class AbstractDatabaseManagerTest {
 
         then(manager).should().connectAndStart();
         verify(manager, times(4)).isBuffered();
+        then(manager).should().toBufferedEvent(event1);
+        then(manager).should().writeBufferedEvent(same(event1copy));
         then(manager).should().writeInternal(same(event1copy), (Serializable) isNull());
         then(manager).should().buffer(event1);
+        then(manager).should().toBufferedEvent(event2);
+        then(manager).should().writeBufferedEvent(same(event2copy));
         then(manager).should().writeInternal(same(event2copy), (Serializable) isNull());
         then(manager).should().buffer(event2);
+        then(manager).should().toBufferedEvent(event3);
+        then(manager).should().writeBufferedEvent(same(event3copy));
         then(manager).should().writeInternal(same(event3copy), (Serializable) isNull());
         then(manager).should().buffer(event3);
         then(manager).should().commitAndClose();
@@ -218,10 +282,16 @@ public class AbstractDatabaseManagerTest {
 
         then(manager).should().connectAndStart();
         verify(manager, times(4)).isBuffered();
+        then(manager).should().toBufferedEvent(event1);
+        then(manager).should().writeBufferedEvent(same(event1copy));
         then(manager).should().writeInternal(same(event1copy), (Serializable) isNull());
         then(manager).should().buffer(event1);
+        then(manager).should().toBufferedEvent(event2);
+        then(manager).should().writeBufferedEvent(same(event2copy));
         then(manager).should().writeInternal(same(event2copy), (Serializable) isNull());
         then(manager).should().buffer(event2);
+        then(manager).should().toBufferedEvent(event3);
+        then(manager).should().writeBufferedEvent(same(event3copy));
         then(manager).should().writeInternal(same(event3copy), (Serializable) isNull());
         then(manager).should().buffer(event3);
         then(manager).should().commitAndClose();
@@ -274,4 +344,30 @@ public class AbstractDatabaseManagerTest {
 
         assertEquals("The string is not correct.", "bufferSize=12, anotherKey02=coolValue02", manager.toString());
     }
+
+    @Test
+    public void testBackgroundFlushFailureIsThrownToCaller() {
+        final AbstractDatabaseManager failing = new StubDatabaseManager("background", 2, true) {
+            @Override
+            protected void writeInternal(final LogEvent event, final Serializable serializable) {
+                throw new DbAppenderLoggingException("Failed to write %s", event);
+            }
+        };
+        failing.startup();
+        final LogEvent event = mock(LogEvent.class);
+        when(event.toImmutable()).thenReturn(event);
+        failing.write(event, null);
+        // hands the full buffer to the flush thread
+        failing.write(event, null);
+
+        try {
+            failing.flush();
+            fail("The failure of the background flush was not thrown");
+        } catch (final AppenderLoggingException e) {
+            assertTrue(e.getCause() instanceof DbAppenderLoggingException);
+        }
+        // the failure is thrown only once
+        failing.flush();
+        assertTrue(failing.shutdown());
+    }
 }
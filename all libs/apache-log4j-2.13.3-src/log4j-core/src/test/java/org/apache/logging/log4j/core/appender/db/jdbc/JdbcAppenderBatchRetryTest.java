@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.db.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.Statement;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AppenderLoggingException;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.junit.JdbcRule;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Tests that a batch of events that fails halfway is written once after the JdbcAppender reconnects.
+ */
+public class JdbcAppenderBatchRetryTest {
+
+    private static final int EVENT_COUNT = 10;
+
+    /** The number of rows added before the connection fails, or -1. */
+    private int failAfterRows = -1;
+    private boolean failCommit;
+    private int connectionCount;
+
+    private final ConnectionSource failingConnectionSource = new AbstractConnectionSource() {
+        @Override
+        public Connection getConnection() throws SQLException {
+            connectionCount++;
+            return wrap(Connection.class, JdbcH2TestHelper.getConnectionMem());
+        }
+    };
+
+    @Rule
+    public final JdbcRule jdbcRule = new JdbcRule(JdbcH2TestHelper.TEST_CONFIGURATION_SOURCE_MEM,
+            "CREATE TABLE batchLogEntry (id INTEGER IDENTITY, message VARCHAR(255))", "DROP TABLE batchLogEntry");
+
+    private <T> T wrap(final Class<T> type, final T target) {
+        return type.cast(Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {type},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(final Object proxy, final Method method, final Object[] args)
+                            throws Throwable {
+                        final String name = method.getName();
+                        if ((name.equals("addBatch") || name.equals("executeUpdate")) && failAfterRows >= 0
+                                && failAfterRows-- == 0) {
+                            throw new SQLRecoverableException("Connection lost");
+                        }
+                        if (name.equals("commit") && failCommit) {
+                            failCommit = false;
+                            throw new SQLRecoverableException("Connection lost while committing");
+                        }
+                        try {
+                            final Object result = method.invoke(target, args);
+                            return result instanceof PreparedStatement
+                                    ? wrap(PreparedStatement.class, (PreparedStatement) result)
+                                    : result;
+                        } catch (final InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                }));
+    }
+
+    private JdbcAppender createAppender() {
+        final JdbcAppender.Builder<?> builder = JdbcAppender.newBuilder()
+                .setName("batch")
+                .setIgnoreExceptions(false)
+                .setConnectionSource(failingConnectionSource)
+                .setTableName("batchLogEntry")
+                .setColumnMappings()
+                .setColumnConfigs(ColumnConfig.newBuilder().setName("message").setPattern("%m").build());
+        builder.setReconnectIntervalMillis(10);
+        final JdbcAppender appender = builder.build();
+        appender.start();
+        return appender;
+    }
+
+    private static LogEvent[] createEvents() {
+        final LogEvent[] events = new LogEvent[EVENT_COUNT];
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            events[i] = Log4jLogEvent.newBuilder()
+                    .setLoggerName(JdbcAppenderBatchRetryTest.class.getName())
+                    .setLevel(Level.INFO)
+                    .setMessage(new SimpleMessage("Message " + i))
+                    .build();
+        }
+        return events;
+    }
+
+    private int countRows() throws SQLException {
+        try (final Connection connection = jdbcRule.getConnection();
+                final Statement statement = connection.createStatement();
+                final ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM batchLogEntry")) {
+            assertTrue(resultSet.next());
+            return resultSet.getInt(1);
+        }
+    }
+
+    @Test
+    public void testBatchFailingHalfwayIsWrittenOnce() throws Exception {
+        final JdbcAppender appender = createAppender();
+        try {
+            final int connections = connectionCount;
+            failAfterRows = EVENT_COUNT / 2;
+            appender.append(createEvents(), EVENT_COUNT);
+            assertTrue("Did not reconnect", connectionCount > connections);
+            assertEquals(EVENT_COUNT, countRows());
+        } finally {
+            appender.stop();
+        }
+    }
+
+    @Test
+    public void testFailedCommitIsNotRetried() throws Exception {
+        final JdbcAppender appender = createAppender();
+        try {
+            failCommit = true;
+            try {
+                appender.append(createEvents(), EVENT_COUNT);
+                fail("Expected AppenderLoggingException");
+            } catch (final AppenderLoggingException expected) {
+                // expected
+            }
+            assertEquals(0, countRows());
+        } finally {
+            appender.stop();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.db.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.impl.MutableLogEvent;
+import org.apache.logging.log4j.junit.JdbcRule;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Tests buffered JdbcAppenders, which extract the column values of mutable events when buffering them.
+ */
+public class JdbcAppenderBufferedTest {
+
+    private static final int EVENT_COUNT = 25;
+
+    @Rule
+    public final JdbcRule jdbcRule = new JdbcRule(JdbcH2TestHelper.TEST_CONFIGURATION_SOURCE_MEM,
+            "CREATE TABLE bufferedLogEntry (id INTEGER IDENTITY, eventDate DATETIME, level VARCHAR(10), message VARCHAR(255))",
+            "DROP TABLE bufferedLogEntry");
+
+    private JdbcAppender createAppender(final boolean backgroundFlush) {
+        final JdbcAppender appender = JdbcAppender.newBuilder()
+                .setName("buffered")
+                .setBufferSize(10)
+                .setBackgroundFlush(backgroundFlush)
+                .setConnectionSource(jdbcRule.getConnectionSource())
+                .setTableName("bufferedLogEntry")
+                .setColumnMappings()
+                .setColumnConfigs(
+                        ColumnConfig.newBuilder().setName("eventDate").setEventTimestamp(true).build(),
+                        ColumnConfig.newBuilder().setName("level").setPattern("%level").build(),
+                        ColumnConfig.newBuilder().setName("message").setPattern("%m").build())
+                .build();
+        appender.start();
+        return appender;
+    }
+
+    private void appendAndVerify(final JdbcAppender appender) throws Exception {
+        // the same event is reused for all events, like the events of a garbage-free logger
+        final MutableLogEvent event = new MutableLogEvent();
+        event.setLoggerName(getClass().getName());
+        event.setLevel(Level.INFO);
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            event.setTimeMillis(1000L * i);
+            event.setMessage(new SimpleMessage("Message " + i));
+            appender.append(event);
+        }
+        appender.stop();
+
+        try (final Connection connection = jdbcRule.getConnection();
+                final Statement statement = connection.createStatement();
+                final ResultSet resultSet = statement.executeQuery("SELECT * FROM bufferedLogEntry ORDER BY id")) {
+            for (int i = 0; i < EVENT_COUNT; i++) {
+                assertTrue("Missing row " + i, resultSet.next());
+                assertEquals(1000L * i, resultSet.getTimestamp("eventDate").getTime());
+                assertEquals("INFO", resultSet.getString("level"));
+                assertEquals("Message " + i, resultSet.getString("message"));
+            }
+            assertFalse("Too many rows", resultSet.next());
+        }
+    }
+
+    @Test
+    public void testBufferedMutableEvents() throws Exception {
+        appendAndVerify(createAppender(false));
+    }
+
+    @Test
+    public void testBackgroundFlush() throws Exception {
+        appendAndVerify(createAppender(true));
+    }
+}
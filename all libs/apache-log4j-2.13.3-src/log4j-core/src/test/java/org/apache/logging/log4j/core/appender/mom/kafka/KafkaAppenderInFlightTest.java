@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.mom.kafka;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.categories.Appenders;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.jmx.KafkaAppenderAdmin;
+import org.apache.logging.log4j.junit.LoggerContextRule;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Tests a KafkaAppender that does not wait for acknowledgements, with a limit of messages in flight and a failover
+ * appender.
+ */
+@Category(Appenders.Kafka.class)
+public class KafkaAppenderInFlightTest {
+
+    private static final MockProducer<byte[], byte[]> kafka = new MockProducer<byte[], byte[]>(false, null, null) {
+        @Override
+        public void close(final long timeout, final TimeUnit timeUnit) {
+        }
+    };
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        KafkaManager.producerFactory = new KafkaProducerFactory() {
+            @Override
+            public Producer<byte[], byte[]> newKafkaProducer(final Properties config) {
+                return kafka;
+            }
+        };
+    }
+
+    @Rule
+    public LoggerContextRule ctx = new LoggerContextRule("KafkaAppenderInFlightTest.xml");
+
+    private KafkaAppender appender;
+    private ListAppender failover;
+
+    @Before
+    public void setUp() throws Exception {
+        kafka.clear();
+        appender = ctx.getAppender("KafkaAppender", KafkaAppender.class);
+        failover = ctx.getListAppender("List").clear();
+    }
+
+    private static LogEvent createLogEvent(final String message) {
+        return Log4jLogEvent.newBuilder().setLoggerName(KafkaAppenderInFlightTest.class.getName())
+                .setLevel(Level.INFO).setMessage(new SimpleMessage(message)).build();
+    }
+
+    @Test
+    public void testInFlightLimit() throws Exception {
+        appender.append(createLogEvent("1"));
+        appender.append(createLogEvent("2"));
+        appender.append(createLogEvent("3"));
+        assertEquals(2, kafka.history().size());
+        assertEquals("1", new String(kafka.history().get(0).value(), StandardCharsets.UTF_8));
+        assertEquals(1, failover.getEvents().size());
+        assertEquals("3", failover.getEvents().get(0).getMessage().getFormattedMessage());
+
+        final KafkaAppenderAdmin admin = new KafkaAppenderAdmin("test", appender);
+        assertEquals(2, admin.getInFlightSends());
+        assertEquals(1, admin.getRejectedCount());
+
+        assertTrue(kafka.completeNext());
+        assertTrue(kafka.completeNext());
+        assertEquals(0, admin.getInFlightSends());
+        assertEquals(2, admin.getAckCount());
+        assertEquals(2, sum(admin.getAckLatencyHistogram()));
+        assertEquals(3, sum(admin.getSendLatencyHistogram()) + admin.getRejectedCount());
+
+        appender.append(createLogEvent("4"));
+        assertEquals(3, kafka.history().size());
+        assertEquals(1, failover.getEvents().size());
+        assertTrue(kafka.completeNext());
+    }
+
+    @Test
+    public void testErrorGoesToFailover() throws Exception {
+        final long errors = appender.getManager().getErrorLatency().getCount();
+        appender.append(createLogEvent("failed"));
+        assertEquals(0, failover.getEvents().size());
+        assertTrue(kafka.errorNext(new RuntimeException("Test")));
+        assertEquals(1, failover.getEvents().size());
+        assertEquals("failed", failover.getEvents().get(0).getMessage().getFormattedMessage());
+        assertEquals(errors + 1, appender.getManager().getErrorLatency().getCount());
+        assertEquals(0, appender.getManager().getInFlightSends());
+    }
+
+    private static long sum(final long[] counts) {
+        long result = 0;
+        for (final long count : counts) {
+            result += count;
+        }
+        return result;
+    }
+}
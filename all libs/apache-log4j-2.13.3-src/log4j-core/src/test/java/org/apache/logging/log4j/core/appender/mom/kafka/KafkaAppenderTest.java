@@ -183,6 +183,19 @@ public class KafkaAppenderTest {
 		assertEquals(LOG_MESSAGE, new String(item.value(), StandardCharsets.UTF_8));
 	}
 
+	@Test
+	public void testAppendBatch() throws Exception {
+		final KafkaAppender appender = ctx.getAppender("KafkaAppenderWithLayout", KafkaAppender.class);
+		final LogEvent[] events = { createLogEvent(), createLogEvent(), createLogEvent(), null };
+		appender.append(events, 3);
+		final List<ProducerRecord<byte[], byte[]>> history = kafka.history();
+		assertEquals(3, history.size());
+		for (final ProducerRecord<byte[], byte[]> item : history) {
+			assertEquals(TOPIC_NAME, item.topic());
+			assertEquals("[" + LOG_MESSAGE + "]", new String(item.value(), StandardCharsets.UTF_8));
+		}
+	}
+
 	@Test
 	public void testAppendWithRetryCount() {
 		try {
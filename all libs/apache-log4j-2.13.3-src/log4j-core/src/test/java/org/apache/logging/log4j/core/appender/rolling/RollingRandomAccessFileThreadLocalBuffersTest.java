@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.appender.RollingRandomAccessFileAppender;
+import org.apache.logging.log4j.junit.LoggerContextRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests a RollingRandomAccessFileAppender writing from thread-local buffers while rolling over.
+ */
+public class RollingRandomAccessFileThreadLocalBuffersTest {
+
+    private static final String CONFIG = "log4j-rolling-random-threadlocal.xml";
+
+    private static final String DIR = "target/rolling-random-threadlocal";
+
+    private static final int THREADS = 4;
+
+    private static final int MESSAGES = 500;
+
+    public static LoggerContextRule loggerContextRule = LoggerContextRule.createShutdownTimeoutLoggerContextRule(CONFIG);
+
+    @Rule
+    public RuleChain chain = loggerContextRule.withCleanFoldersRule(DIR);
+
+    @Test
+    public void testNoEventIsLostOrTornAcrossRollovers() throws Exception {
+        final RollingRandomAccessFileAppender appender = loggerContextRule.getAppender("RollingFile",
+                RollingRandomAccessFileAppender.class);
+        assertNotNull(appender.getManager().getThreadLocalWriter());
+        final Logger logger = loggerContextRule.getLogger(RollingRandomAccessFileThreadLocalBuffersTest.class);
+        final Thread[] threads = new Thread[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            final int thread = i;
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < MESSAGES; j++) {
+                        logger.info("thread-{} message-{} padding to make the file roll over", thread, j);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        loggerContextRule.getLoggerContext().stop();
+
+        final File[] files = new File(DIR).listFiles();
+        assertNotNull(files);
+        assertTrue("Expected rollovers but found " + files.length + " file(s)", files.length > 1);
+        final Set<String> lines = new HashSet<>();
+        for (final File file : files) {
+            final List<String> fileLines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+            for (final String line : fileLines) {
+                assertTrue("Torn line in " + file + ": " + line,
+                        line.matches("thread-\\d message-\\d+ padding to make the file roll over"));
+                assertTrue("Duplicate line " + line, lines.add(line));
+            }
+        }
+        assertEquals(THREADS * MESSAGES, lines.size());
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.rolling.action.Action;
+import org.apache.logging.log4j.core.appender.rolling.action.CompositeAction;
+import org.apache.logging.log4j.core.appender.rolling.action.FileRenameAction;
+import org.apache.logging.log4j.core.appender.rolling.action.GzCompressAction;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests RolloverActionScheduler.
+ */
+public class RolloverActionSchedulerTest {
+
+    @Test
+    public void testLowerPriorityRunsFirst() throws Exception {
+        final RolloverActionScheduler scheduler = new RolloverActionScheduler("RolloverActionSchedulerTest", 1);
+        final CountDownLatch blocker = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(3);
+        final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        scheduler.submit(new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                try {
+                    blocker.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, 0);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        scheduler.submit(new Recorder("large", order, done), 1000);
+        scheduler.submit(new Recorder("small-1", order, done), 10);
+        scheduler.submit(new Recorder("small-2", order, done), 10);
+        assertEquals(3, scheduler.getQueuedCount());
+        assertEquals(1, scheduler.getInFlightCount());
+
+        blocker.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("small-1", "small-2", "large"), order);
+    }
+
+    @Test
+    public void testCancelRemovesQueuedTask() throws Exception {
+        final RolloverActionScheduler scheduler = new RolloverActionScheduler("RolloverActionSchedulerTest", 1);
+        final CountDownLatch blocker = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        final Object running = scheduler.submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    blocker.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, 0);
+        final Object queued = scheduler.submit(new Recorder("cancelled", order, done), 0);
+        assertTrue(scheduler.cancel(queued));
+        assertFalse(scheduler.cancel(queued));
+        blocker.countDown();
+        scheduler.submit(new Recorder("last", order, done), 0);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList("last"), order);
+        assertFalse(scheduler.cancel(running));
+    }
+
+    @Test
+    public void testFailuresAreCounted() throws Exception {
+        final RolloverActionScheduler scheduler = new RolloverActionScheduler("RolloverActionSchedulerTest", 2);
+        scheduler.submit(new Runnable() {
+            @Override
+            public void run() {
+                throw new IllegalStateException("Expected");
+            }
+        }, 0);
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (scheduler.getCompletedCount() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, scheduler.getCompletedCount());
+        assertEquals(1, scheduler.getFailedCount());
+        assertEquals(0, scheduler.getInFlightCount());
+    }
+
+    @Test
+    public void testSchedulerIsSharedPerLoggerContext() {
+        final LoggerContext context = new LoggerContext("RolloverActionSchedulerTest");
+        final RolloverActionScheduler scheduler = RolloverActionScheduler.getScheduler(context);
+        assertSame(scheduler, RolloverActionScheduler.getScheduler(context));
+        assertNotSame(scheduler, RolloverActionScheduler.getScheduler(new LoggerContext("other")));
+        assertSame(RolloverActionScheduler.getScheduler(null), RolloverActionScheduler.getScheduler(null));
+    }
+
+    @Test
+    public void testSchedulerIsShutDownWithLoggerContext() throws Exception {
+        final LoggerContext context = new LoggerContext("RolloverActionSchedulerTest");
+        final RolloverActionScheduler scheduler = RolloverActionScheduler.getScheduler(context);
+        final CountDownLatch done = new CountDownLatch(1);
+        scheduler.submit(new Runnable() {
+            @Override
+            public void run() {
+                done.countDown();
+            }
+        }, 0);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertFalse(scheduler.isShutdown());
+
+        context.stop();
+        assertTrue(scheduler.isShutdown());
+        assertNull(context.getObject(RolloverActionScheduler.class.getName()));
+    }
+
+    @Test
+    public void testTaskSubmittedAfterShutdownRunsOnCallingThread() {
+        final LoggerContext context = new LoggerContext("RolloverActionSchedulerTest");
+        final RolloverActionScheduler scheduler = RolloverActionScheduler.getScheduler(context);
+        context.stop();
+        final Thread[] ranOn = new Thread[1];
+        scheduler.submit(new Runnable() {
+            @Override
+            public void run() {
+                ranOn[0] = Thread.currentThread();
+            }
+        }, 0);
+        assertSame(Thread.currentThread(), ranOn[0]);
+        assertEquals(1, scheduler.getCompletedCount());
+
+        context.putObject(RolloverActionScheduler.class.getName(), scheduler);
+        final RolloverActionScheduler replacement = RolloverActionScheduler.getScheduler(context);
+        assertNotSame(scheduler, replacement);
+        assertFalse(replacement.isShutdown());
+        replacement.contextShutdown(context);
+    }
+
+    @Test
+    public void testEstimateCostIsCompressedSize() throws Exception {
+        final File source = new File("target/RolloverActionSchedulerTest.log");
+        try (FileWriter writer = new FileWriter(source)) {
+            writer.write("0123456789");
+        }
+        final List<Action> actions = new ArrayList<>();
+        actions.add(new FileRenameAction(source, new File("target/renamed.log"), false));
+        actions.add(new GzCompressAction(source, new File("target/RolloverActionSchedulerTest.log.gz"), false, 1));
+        assertEquals(10, RolloverActionScheduler.estimateCost(new CompositeAction(actions, true)));
+        assertEquals(0, RolloverActionScheduler.estimateCost(actions.get(0)));
+        source.delete();
+    }
+
+    private static class Recorder implements Runnable {
+        private final String name;
+        private final List<String> order;
+        private final CountDownLatch done;
+
+        Recorder(final String name, final List<String> order, final CountDownLatch done) {
+            this.name = name;
+            this.order = order;
+            this.done = done;
+        }
+
+        @Override
+        public void run() {
+            order.add(name);
+            done.countDown();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling.action;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests ParallelGzipOutputStream.
+ */
+public class ParallelGzipOutputStreamTest {
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(3);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static byte[] decompress(final byte[] compressed) throws IOException {
+        final ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (final InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            final byte[] buffer = new byte[1024];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                result.write(buffer, 0, n);
+            }
+        }
+        return result.toByteArray();
+    }
+
+    @Test
+    public void testBlocksAreWrittenInOrder() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            text.append("Line ").append(i).append(": ABCDEFGHIJKLMNOPQRSTUVWXYZ\n");
+        }
+        final byte[] expected = text.toString().getBytes(StandardCharsets.UTF_8);
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (final ParallelGzipOutputStream out = new ParallelGzipOutputStream(compressed, 6, 1000, 2, executor)) {
+            out.write(expected, 0, 10);
+            out.write(expected[10]);
+            out.write(expected, 11, expected.length - 11);
+        }
+        assertArrayEquals(expected, decompress(compressed.toByteArray()));
+    }
+
+    @Test
+    public void testEmptyInputIsValidGzip() throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        new ParallelGzipOutputStream(compressed, 6, 1000, 2, executor).close();
+        assertArrayEquals(new byte[0], decompress(compressed.toByteArray()));
+    }
+
+    @Test
+    public void testFlushWritesPendingBlocks() throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        final ParallelGzipOutputStream out = new ParallelGzipOutputStream(compressed, 6, 1000, 4, executor);
+        out.write("Hello".getBytes(StandardCharsets.UTF_8));
+        assertEquals(0, compressed.size());
+        out.flush();
+        assertArrayEquals("Hello".getBytes(StandardCharsets.UTF_8), decompress(compressed.toByteArray()));
+        out.close();
+    }
+
+    @Test(expected = IOException.class)
+    public void testWriteAfterCloseFails() throws IOException {
+        final ParallelGzipOutputStream out = new ParallelGzipOutputStream(new ByteArrayOutputStream(), 6, 1000, 2,
+                executor);
+        out.close();
+        out.write(1);
+    }
+}
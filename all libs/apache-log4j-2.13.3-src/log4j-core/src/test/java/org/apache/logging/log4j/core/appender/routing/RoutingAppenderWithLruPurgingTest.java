@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.routing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.config.AppenderControl;
+import org.apache.logging.log4j.core.config.ConfigurationScheduler;
+import org.apache.logging.log4j.junit.LoggerContextRule;
+import org.apache.logging.log4j.message.StructuredDataMessage;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Tests the bounded route cache of the Routing appender and concurrent routing to existing routes.
+ */
+public class RoutingAppenderWithLruPurgingTest {
+
+    @Rule
+    public final LoggerContextRule loggerContextRule = new LoggerContextRule("log4j-routing-lru.xml");
+
+    private static void log(final Logger logger, final String id) {
+        logger.info(new StructuredDataMessage(id, "This is a test " + id, "Service"));
+    }
+
+    /**
+     * A scheduler that never runs the policy, so that the tests run it explicitly.
+     */
+    private static final class ManualScheduler extends ConfigurationScheduler {
+        @Override
+        public ScheduledFuture<?> schedule(final Runnable command, final long delay, final TimeUnit unit) {
+            return null;
+        }
+    }
+
+    /**
+     * Routes an event to each of the specified number of routes and records its use in the policy.
+     */
+    private void route(final IdlePurgePolicy policy, final int routeCount) throws InterruptedException {
+        final Logger logger = loggerContextRule.getLogger("concurrent");
+        for (int i = 0; i < routeCount; i++) {
+            final String key = Integer.toString(i);
+            log(logger, key);
+            policy.update(key, null);
+            Thread.sleep(1);
+        }
+    }
+
+    private static void awaitRouteCount(final RoutingAppender appender, final int count) throws InterruptedException {
+        for (int i = 0; i < 500 && appender.getRouteCount() > count; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, appender.getRouteCount());
+    }
+
+    @Test(timeout = 10000)
+    public void testLeastRecentlyUsedRoutesArePurged() throws InterruptedException {
+        final RoutingAppender appender = loggerContextRule.getRequiredAppender("RoutingLru", RoutingAppender.class);
+        final Logger logger = loggerContextRule.getLogger("lru");
+        log(logger, "1");
+        Thread.sleep(5);
+        log(logger, "2");
+        Thread.sleep(5);
+        log(logger, "3");
+        awaitRouteCount(appender, 2);
+        assertEquals(new HashSet<>(Arrays.asList("2", "3")), appender.getAppenders().keySet());
+
+        Thread.sleep(5);
+        log(logger, "2");
+        Thread.sleep(5);
+        log(logger, "4");
+        awaitRouteCount(appender, 2);
+        assertEquals(new HashSet<>(Arrays.asList("2", "4")), appender.getAppenders().keySet());
+        assertEquals(4, appender.getRouteCreationCount());
+        assertEquals(2, appender.getRouteEvictionCount());
+    }
+
+    @Test(timeout = 30000)
+    public void testConcurrentRouting() throws InterruptedException {
+        final RoutingAppender appender =
+                loggerContextRule.getRequiredAppender("RoutingConcurrent", RoutingAppender.class);
+        final Logger logger = loggerContextRule.getLogger("concurrent");
+        final int threadCount = 4;
+        final int eventCount = 1000;
+        final int routeCount = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (final InterruptedException e) {
+                        return;
+                    }
+                    for (int j = 0; j < eventCount; j++) {
+                        log(logger, Integer.toString(j % routeCount));
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        start.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(routeCount, appender.getRouteCount());
+        assertEquals(routeCount, appender.getRouteCreationCount());
+        int total = 0;
+        for (final AppenderControl control : appender.getAppenders().values()) {
+            assertTrue(control.getAppender() instanceof ListAppender);
+            total += ((ListAppender) control.getAppender()).getEvents().size();
+        }
+        assertEquals(threadCount * eventCount, total);
+    }
+
+    @Test
+    public void testPurgeRemovesAllIdleRoutes() throws InterruptedException {
+        final RoutingAppender appender =
+                loggerContextRule.getRequiredAppender("RoutingConcurrent", RoutingAppender.class);
+        final IdlePurgePolicy policy = new IdlePurgePolicy(0, 60_000, new ManualScheduler());
+        policy.initialize(appender);
+        route(policy, IdlePurgePolicy.PURGE_BATCH_SIZE + 8);
+        Thread.sleep(5);
+        policy.purge();
+        assertEquals(0, appender.getRouteCount());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedRoutesArePurgedInBatches() throws InterruptedException {
+        final RoutingAppender appender =
+                loggerContextRule.getRequiredAppender("RoutingConcurrent", RoutingAppender.class);
+        final IdlePurgePolicy policy = new IdlePurgePolicy(3_600_000, 60_000, 2, new ManualScheduler());
+        policy.initialize(appender);
+        final int routeCount = IdlePurgePolicy.PURGE_BATCH_SIZE + 10;
+        route(policy, routeCount);
+        assertTrue(policy.evictLeastRecentlyUsed());
+        assertEquals(routeCount - IdlePurgePolicy.PURGE_BATCH_SIZE, appender.getRouteCount());
+        assertFalse(policy.evictLeastRecentlyUsed());
+        assertEquals(new HashSet<>(Arrays.asList(Integer.toString(routeCount - 2), Integer.toString(routeCount - 1))),
+                appender.getAppenders().keySet());
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.util.concurrent.TimeUnit;
+
+import com.lmax.disruptor.AlertException;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.WaitStrategy;
+import org.apache.logging.log4j.categories.AsyncLoggers;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static org.junit.Assert.*;
+
+@Category(AsyncLoggers.class)
+public class AdaptiveWaitStrategyTest {
+
+    private static class Barrier implements SequenceBarrier {
+        private volatile boolean alerted;
+
+        @Override
+        public long waitFor(final long sequence) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long getCursor() {
+            return 0;
+        }
+
+        @Override
+        public boolean isAlerted() {
+            return alerted;
+        }
+
+        @Override
+        public void alert() {
+            alerted = true;
+        }
+
+        @Override
+        public void clearAlert() {
+            alerted = false;
+        }
+
+        @Override
+        public void checkAlert() throws AlertException {
+            if (alerted) {
+                throw AlertException.INSTANCE;
+            }
+        }
+    }
+
+    @Test
+    public void testCreatedByDisruptorUtil() {
+        System.setProperty("AsyncLogger.WaitStrategy", "Adaptive");
+        try {
+            final WaitStrategy waitStrategy = DisruptorUtil.createWaitStrategy("AsyncLogger.WaitStrategy", 20);
+            assertTrue(waitStrategy instanceof AdaptiveWaitStrategy);
+            assertEquals(TimeUnit.MILLISECONDS.toNanos(20), ((AdaptiveWaitStrategy) waitStrategy).getMaxParkNanos());
+        } finally {
+            System.clearProperty("AsyncLogger.WaitStrategy");
+        }
+    }
+
+    @Test
+    public void testTunesToGaps() {
+        final AdaptiveWaitStrategy strategy = new AdaptiveWaitStrategy(10, TimeUnit.MILLISECONDS);
+        for (int i = 0; i < 100; i++) {
+            strategy.tune(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        assertTrue(strategy.getAverageWaitNanos() > AdaptiveWaitStrategy.YIELD_THRESHOLD_NANOS);
+        assertEquals(AdaptiveWaitStrategy.MIN_SPIN_TRIES, strategy.getSpinTries());
+        assertEquals(AdaptiveWaitStrategy.MIN_YIELD_TRIES, strategy.getYieldTries());
+
+        for (int i = 0; i < 100; i++) {
+            strategy.tune(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        assertEquals(AdaptiveWaitStrategy.MIN_SPIN_TRIES, strategy.getSpinTries());
+        assertEquals(AdaptiveWaitStrategy.MAX_YIELD_TRIES, strategy.getYieldTries());
+
+        for (int i = 0; i < 100; i++) {
+            strategy.tune(0);
+        }
+        assertEquals(AdaptiveWaitStrategy.MAX_SPIN_TRIES, strategy.getSpinTries());
+        assertEquals(AdaptiveWaitStrategy.MAX_YIELD_TRIES, strategy.getYieldTries());
+    }
+
+    @Test
+    public void testReturnsAvailableSequenceWithoutWaiting() throws Exception {
+        final AdaptiveWaitStrategy strategy = new AdaptiveWaitStrategy(10, TimeUnit.MILLISECONDS);
+        final Sequence sequence = new Sequence(5);
+        assertEquals(5, strategy.waitFor(3, sequence, sequence, new Barrier()));
+    }
+
+    @Test(timeout = 5000)
+    public void testWaitsUntilPublished() throws Exception {
+        final AdaptiveWaitStrategy strategy = new AdaptiveWaitStrategy(1, TimeUnit.SECONDS);
+        final Sequence sequence = new Sequence(-1);
+        final Thread publisher = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(50);
+                } catch (final InterruptedException e) {
+                    return;
+                }
+                sequence.set(0);
+                strategy.signalAllWhenBlocking();
+            }
+        };
+        publisher.start();
+        final long start = System.nanoTime();
+        assertEquals(0, strategy.waitFor(0, sequence, sequence, new Barrier()));
+        // unparked by the publisher rather than waiting for the maximum park time
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(900));
+        publisher.join();
+        assertTrue(strategy.getAverageWaitNanos() > AdaptiveWaitStrategy.SPIN_THRESHOLD_NANOS);
+    }
+
+    @Test(timeout = 5000, expected = AlertException.class)
+    public void testAlert() throws Exception {
+        final AdaptiveWaitStrategy strategy = new AdaptiveWaitStrategy(1, TimeUnit.MILLISECONDS);
+        final Sequence sequence = new Sequence(-1);
+        final Barrier barrier = new Barrier();
+        barrier.alert();
+        strategy.waitFor(0, sequence, sequence, barrier);
+    }
+}
@@ -39,6 +39,8 @@ public class AsyncQueueFullPolicyFactoryTest {
     public void resetProperties() throws Exception {
         System.clearProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_ASYNC_EVENT_ROUTER);
         System.clearProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_DISCARDING_THRESHOLD_LEVEL);
+        System.clearProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_PRIORITY_RESERVED_LEVEL);
+        System.clearProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_PRIORITY_SHED_RATIO);
         PropertiesUtil.getProperties().reload();
     }
 
@@ -92,6 +94,23 @@ public class AsyncQueueFullPolicyFactoryTest {
         }
     }
 
+    @Test
+    public void testCreatePriorityRouter() throws Exception {
+        System.setProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_ASYNC_EVENT_ROUTER,
+                AsyncQueueFullPolicyFactory.PROPERTY_VALUE_PRIORITY_ASYNC_EVENT_ROUTER.toLowerCase(Locale.ROOT));
+        final PriorityAsyncQueueFullPolicy router = (PriorityAsyncQueueFullPolicy) AsyncQueueFullPolicyFactory.create();
+        assertEquals(Level.ERROR, router.getReservedLevel());
+        assertEquals(0.1, router.getReservedRatio(), 0.0);
+        assertEquals(0.5, router.getShedRatio(), 0.0);
+
+        System.setProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_PRIORITY_RESERVED_LEVEL, "WARN");
+        System.setProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_PRIORITY_SHED_RATIO, "0.95");
+        final PriorityAsyncQueueFullPolicy invalidRatio =
+                (PriorityAsyncQueueFullPolicy) AsyncQueueFullPolicyFactory.create();
+        assertEquals(Level.WARN, invalidRatio.getReservedLevel());
+        assertEquals(0.5, invalidRatio.getShedRatio(), 0.0);
+    }
+
     static class CustomRouterDefaultConstructor implements AsyncQueueFullPolicy {
         public CustomRouterDefaultConstructor() {
         }
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.categories.AsyncLoggers;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the LogEventRingBufferQueue class.
+ */
+@Category(AsyncLoggers.class)
+public class LogEventRingBufferQueueTest {
+
+    private static LogEvent event(final String text) {
+        return Log4jLogEvent.newBuilder().setLoggerName("test").setLevel(Level.INFO)
+                .setMessage(new SimpleMessage(text)).build();
+    }
+
+    @Test
+    public void testCapacityIsRoundedUpToPowerOfTwo() {
+        final LogEventRingBufferQueue queue = new LogEventRingBufferQueue(100);
+        assertEquals(128, queue.capacity());
+        assertEquals(128, queue.remainingCapacity());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testOfferCopiesIntoSlots() {
+        final LogEventRingBufferQueue queue = new LogEventRingBufferQueue(4);
+        assertTrue(queue.offer(event("a")));
+        assertTrue(queue.offer(event("b")));
+        assertEquals(2, queue.size());
+
+        assertEquals("a", queue.poll().getMessage().getFormattedMessage());
+        assertEquals("b", queue.poll().getMessage().getFormattedMessage());
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testOfferFailsWhenFull() {
+        final LogEventRingBufferQueue queue = new LogEventRingBufferQueue(2);
+        assertTrue(queue.offer(event("a")));
+        assertTrue(queue.offer(event("b")));
+        assertFalse(queue.offer(event("c")));
+        assertEquals(0, queue.remainingCapacity());
+    }
+
+    @Test
+    public void testSlotIsReleasedOnNextRetrieval() {
+        final LogEventRingBufferQueue queue = new LogEventRingBufferQueue(2);
+        queue.offer(event("a"));
+        queue.offer(event("b"));
+        assertNotNull(queue.poll());
+        // the slot of the event returned last is still held by the consumer
+        assertFalse(queue.offer(event("c")));
+        assertEquals("b", queue.poll().getMessage().getFormattedMessage());
+        assertTrue(queue.offer(event("c")));
+        assertEquals("c", queue.poll().getMessage().getFormattedMessage());
+    }
+
+    @Test
+    public void testDrainToReturnsImmutableCopies() {
+        final LogEventRingBufferQueue queue = new LogEventRingBufferQueue(4);
+        queue.offer(event("a"));
+        queue.offer(event("b"));
+        queue.offer(event("c"));
+        final List<LogEvent> drained = new ArrayList<>();
+        assertEquals(2, queue.drainTo(drained, 2));
+        assertEquals(1, queue.drainTo(drained));
+        assertEquals(3, drained.size());
+        for (final LogEvent event : drained) {
+            assertTrue(event instanceof Log4jLogEvent);
+        }
+        assertEquals("c", drained.get(2).getMessage().getFormattedMessage());
+        assertEquals(4, queue.remainingCapacity());
+    }
+
+    @Test
+    public void testIteratorReturnsSnapshotOfQueuedEvents() {
+        final LogEventRingBufferQueue queue = new LogEventRingBufferQueue(4);
+        queue.offer(event("a"));
+        queue.offer(event("b"));
+        queue.offer(event("c"));
+        assertEquals("a", queue.poll().getMessage().getFormattedMessage());
+        final Iterator<LogEvent> iterator = queue.iterator();
+        queue.poll();
+        queue.poll();
+        queue.offer(event("d"));
+        final List<String> messages = new ArrayList<>();
+        while (iterator.hasNext()) {
+            final LogEvent event = iterator.next();
+            assertTrue(event instanceof Log4jLogEvent);
+            messages.add(event.getMessage().getFormattedMessage());
+        }
+        assertEquals(Arrays.asList("b", "c"), messages);
+        assertEquals(1, queue.size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testIteratorIsReadOnly() {
+        final LogEventRingBufferQueue queue = new LogEventRingBufferQueue(4);
+        queue.offer(event("a"));
+        final Iterator<LogEvent> iterator = queue.iterator();
+        iterator.next();
+        iterator.remove();
+    }
+
+    @Test(expected = InterruptedException.class)
+    public void testTakeThrowsWhenHaltedAndEmpty() throws Exception {
+        final LogEventRingBufferQueue queue = new LogEventRingBufferQueue(4);
+        queue.halt();
+        queue.take();
+    }
+
+    @Test
+    public void testPollWithTimeoutReturnsNullWhenEmpty() throws Exception {
+        final LogEventRingBufferQueue queue = new LogEventRingBufferQueue(4);
+        assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testMultipleProducersSingleConsumer() throws Exception {
+        final int producers = 4;
+        final int perProducer = 10_000;
+        final LogEventRingBufferQueue queue = new LogEventRingBufferQueue(64);
+        final LogEvent event = event("x");
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] threads = new Thread[producers];
+        for (int i = 0; i < producers; i++) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int j = 0; j < perProducer; j++) {
+                            queue.put(event);
+                        }
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        start.countDown();
+        for (int i = 0; i < producers * perProducer; i++) {
+            final LogEvent taken = queue.poll(5, TimeUnit.SECONDS);
+            assertNotNull("Timed out after " + i + " events", taken);
+            assertEquals("x", taken.getMessage().getFormattedMessage());
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(queue.poll());
+    }
+}
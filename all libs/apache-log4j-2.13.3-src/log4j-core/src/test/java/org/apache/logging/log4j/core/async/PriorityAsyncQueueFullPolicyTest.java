@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.categories.AsyncLoggers;
+import org.apache.logging.log4j.status.StatusData;
+import org.apache.logging.log4j.status.StatusListener;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the PriorityAsyncQueueFullPolicy class.
+ */
+@Category(AsyncLoggers.class)
+public class PriorityAsyncQueueFullPolicyTest {
+
+    private static final int CAPACITY = 1000;
+
+    private static PriorityAsyncQueueFullPolicy createRouter() {
+        return new PriorityAsyncQueueFullPolicy(Level.ERROR, 0.1, 0.5, 60_000);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testConstructorDisallowsNullReservedLevel() {
+        new PriorityAsyncQueueFullPolicy(null, 0.1, 0.5, 1000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorDisallowsShedRatioAboveReserve() {
+        new PriorityAsyncQueueFullPolicy(Level.ERROR, 0.2, 0.9, 1000);
+    }
+
+    @Test
+    public void testShedRatioIncreasesWithSpecificity() {
+        final PriorityAsyncQueueFullPolicy router = createRouter();
+        assertEquals(0.5, router.getShedRatio(Level.TRACE), 1e-9);
+        assertEquals(0.5, router.getShedRatio(Level.ALL), 1e-9);
+        assertEquals(0.6, router.getShedRatio(Level.DEBUG), 1e-9);
+        assertEquals(0.7, router.getShedRatio(Level.INFO), 1e-9);
+        assertEquals(0.8, router.getShedRatio(Level.WARN), 1e-9);
+        assertTrue(router.getShedRatio(Level.ERROR) > 1);
+        assertTrue(router.getShedRatio(Level.FATAL) > 1);
+    }
+
+    @Test
+    public void testShedsLowLevelsFirst() {
+        final PriorityAsyncQueueFullPolicy router = createRouter();
+        // 55% full
+        assertTrue(router.shed("a", Level.TRACE, 450, CAPACITY));
+        assertFalse(router.shed("a", Level.DEBUG, 450, CAPACITY));
+        // 65% full
+        assertTrue(router.shed("a", Level.DEBUG, 350, CAPACITY));
+        assertFalse(router.shed("a", Level.INFO, 350, CAPACITY));
+        // 95% full
+        assertTrue(router.shed("a", Level.WARN, 50, CAPACITY));
+        assertFalse(router.shed("a", Level.ERROR, 50, CAPACITY));
+        // full
+        assertFalse(router.shed("a", Level.FATAL, 0, CAPACITY));
+        assertEquals(3, router.getDiscardCount());
+    }
+
+    @Test
+    public void testNeverDiscardsReservedLevelsWhenQueueFull() {
+        final PriorityAsyncQueueFullPolicy router = createRouter();
+        final long otherThreadId = -1;
+        assertEquals(EventRoute.ENQUEUE, router.getRoute(otherThreadId, Level.ERROR));
+        assertEquals(EventRoute.ENQUEUE, router.getRoute(otherThreadId, Level.FATAL));
+        assertEquals(EventRoute.SYNCHRONOUS, router.getRoute(Thread.currentThread().getId(), Level.ERROR));
+        assertEquals(EventRoute.DISCARD, router.getRoute(otherThreadId, Level.WARN));
+        assertEquals(EventRoute.DISCARD, router.getRoute(otherThreadId, Level.DEBUG));
+        assertEquals(2, DiscardingAsyncQueueFullPolicy.getDiscardCount(router));
+    }
+
+    @Test
+    public void testDiscardCountsByLevel() {
+        final PriorityAsyncQueueFullPolicy router = createRouter();
+        router.shed("a", Level.DEBUG, 0, CAPACITY);
+        router.shed("b", Level.DEBUG, 0, CAPACITY);
+        router.shed("a", Level.WARN, 0, CAPACITY);
+        router.shed("a", Level.TRACE, 0, CAPACITY);
+        assertArrayEquals(new String[] {"WARN=1", "DEBUG=2", "TRACE=1"}, router.getDiscardCountsByLevel());
+        assertArrayEquals(new String[] {"WARN=1", "DEBUG=2", "TRACE=1"},
+                PriorityAsyncQueueFullPolicy.getDiscardCountsByLevel(router));
+        assertEquals(0, PriorityAsyncQueueFullPolicy.getDiscardCountsByLevel(new DefaultAsyncQueueFullPolicy()).length);
+    }
+
+    @Test
+    public void testSummarizesDiscardsPerLogger() {
+        final PriorityAsyncQueueFullPolicy router = createRouter();
+        final StringBuilder messages = new StringBuilder();
+        final StatusListener listener = new StatusListener() {
+            @Override
+            public void log(final StatusData data) {
+                messages.append(data.getMessage().getFormattedMessage()).append('\n');
+            }
+
+            @Override
+            public Level getStatusLevel() {
+                return Level.WARN;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        StatusLogger.getLogger().registerListener(listener);
+        try {
+            // the first discard is summarized immediately, the following ones after the interval
+            router.shed("com.example.Foo", Level.DEBUG, 0, CAPACITY);
+            for (int i = 0; i < 41; i++) {
+                router.shed("com.example.Foo", Level.DEBUG, 0, CAPACITY);
+            }
+            router.shed("com.example.Bar", Level.INFO, 0, CAPACITY);
+            router.summarize();
+        } finally {
+            StatusLogger.getLogger().removeListener(listener);
+        }
+        final String summary = messages.toString();
+        assertTrue(summary, summary.contains("discarded 1 DEBUG events from logger com.example.Foo."));
+        assertTrue(summary, summary.contains("discarded 41 DEBUG events from logger com.example.Foo."));
+        assertTrue(summary, summary.contains("discarded 1 INFO events from logger com.example.Bar."));
+    }
+
+    @Test
+    public void testForgetsLoggersOnceSummarized() {
+        final PriorityAsyncQueueFullPolicy router = createRouter();
+        for (int i = 0; i < 100; i++) {
+            router.shed("logger" + i, Level.DEBUG, 0, CAPACITY);
+        }
+        router.summarize();
+        assertEquals(0, router.getPendingLoggerCount());
+        router.shed("logger0", Level.DEBUG, 0, CAPACITY);
+        assertEquals(1, router.getPendingLoggerCount());
+        assertEquals(101, router.getDiscardCount());
+    }
+}
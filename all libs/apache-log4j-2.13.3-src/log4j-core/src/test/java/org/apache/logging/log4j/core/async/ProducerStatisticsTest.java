@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import org.apache.logging.log4j.categories.AsyncLoggers;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static org.junit.Assert.*;
+
+@Category(AsyncLoggers.class)
+public class ProducerStatisticsTest {
+
+    @Test
+    public void testCountsPerThread() throws Exception {
+        final ProducerStatistics statistics = new ProducerStatistics(true);
+        for (int i = 0; i < 3; i++) {
+            statistics.enqueueFinished(statistics.enqueueStarted());
+        }
+        statistics.queueFull();
+        final Thread producer = new Thread("producer-2") {
+            @Override
+            public void run() {
+                statistics.enqueueFinished(statistics.enqueueStarted());
+                statistics.queueFull();
+                statistics.queueFull();
+            }
+        };
+        producer.start();
+        producer.join();
+
+        assertEquals(4, statistics.getEnqueueCount());
+        assertEquals(3, statistics.getQueueFullCount());
+        // the terminated thread is only counted in the totals
+        final String[] lines = statistics.getProducerStatistics();
+        assertEquals(1, lines.length);
+        assertTrue(lines[0], lines[0].startsWith(Thread.currentThread().getName() + " (id="));
+        assertTrue(lines[0], lines[0].contains("enqueueCount=3,"));
+        assertTrue(lines[0], lines[0].endsWith("queueFullCount=1"));
+        assertEquals(4, statistics.getEnqueueCount());
+        assertEquals(3, statistics.getQueueFullCount());
+    }
+
+    @Test
+    public void testTimingDisabled() {
+        final ProducerStatistics statistics = new ProducerStatistics(false);
+        assertEquals(0, statistics.enqueueStarted());
+        statistics.enqueueFinished(0);
+        assertEquals(0, statistics.getEnqueueCount());
+        assertEquals(0, statistics.getProducerStatistics().length);
+        statistics.queueFull();
+        assertEquals(1, statistics.getQueueFullCount());
+        assertEquals(1, statistics.getProducerStatistics().length);
+    }
+
+    @Test
+    public void testTerminatedThreadsAreFoldedIntoTotals() throws Exception {
+        final ProducerStatistics statistics = new ProducerStatistics(false);
+        final int threadCount = 3 * ProducerStatistics.MIN_PRUNE_THRESHOLD;
+        for (int i = 0; i < threadCount; i++) {
+            final Thread producer = new Thread("producer-" + i) {
+                @Override
+                public void run() {
+                    statistics.queueFull();
+                }
+            };
+            producer.start();
+            producer.join();
+            assertTrue(statistics.getProducerCount() <= ProducerStatistics.MIN_PRUNE_THRESHOLD);
+        }
+        assertEquals(threadCount, statistics.getQueueFullCount());
+        assertEquals(0, statistics.getProducerCount());
+    }
+}
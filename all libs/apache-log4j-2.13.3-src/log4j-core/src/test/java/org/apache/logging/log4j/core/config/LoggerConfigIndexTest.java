@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.util.NameUtil;
+import org.junit.Test;
+
+public class LoggerConfigIndexTest {
+
+    private static final String[] CONFIGURED = {
+            "com", "com.foo", "com.foo.bar.baz", "org.apache", ".leading", "double..dot", "a.b.c.d.e.f"
+    };
+
+    private static final String[] LOGGERS = {
+            "", "com", "com.foo", "com.foo.bar", "com.foo.bar.baz", "com.foo.bar.baz.Qux", "com.foobar", "co",
+            "org", "org.apache", "org.apache.logging.log4j.Logger", "net.example", ".leading", ".leading.x",
+            ".", "..", "x.", "com.", "double", "double.", "double..dot", "double..dot.x", "a.b.c.d.e", "a.b.c.d.e.f.g"
+    };
+
+    private static LoggerConfig walk(final Map<String, LoggerConfig> loggerConfigs, final String loggerName) {
+        String substr = loggerName;
+        LoggerConfig result;
+        while ((result = loggerConfigs.get(substr)) == null) {
+            substr = NameUtil.getSubName(substr);
+            if (substr == null) {
+                return null;
+            }
+        }
+        return result;
+    }
+
+    private static Map<String, LoggerConfig> createLoggerConfigs(final boolean includeRoot) {
+        final Map<String, LoggerConfig> loggerConfigs = new HashMap<>();
+        for (final String name : CONFIGURED) {
+            loggerConfigs.put(name, new LoggerConfig(name, Level.INFO, true));
+        }
+        if (includeRoot) {
+            loggerConfigs.put("", new LoggerConfig("", Level.ERROR, true));
+        }
+        return loggerConfigs;
+    }
+
+    @Test
+    public void testSameAsParentWalk() {
+        for (final boolean includeRoot : new boolean[] {true, false}) {
+            final Map<String, LoggerConfig> loggerConfigs = createLoggerConfigs(includeRoot);
+            final LoggerConfigIndex index = LoggerConfigIndex.create(loggerConfigs);
+            for (final String name : LOGGERS) {
+                assertSame("'" + name + "'", walk(loggerConfigs, name), index.find(name));
+            }
+        }
+    }
+
+    @Test
+    public void testManySiblings() {
+        final Map<String, LoggerConfig> loggerConfigs = createLoggerConfigs(true);
+        for (int i = 0; i < 1000; i++) {
+            final String name = "com.foo.Class" + i;
+            loggerConfigs.put(name, new LoggerConfig(name, Level.DEBUG, true));
+        }
+        final LoggerConfigIndex index = LoggerConfigIndex.create(loggerConfigs);
+        for (int i = 0; i < 1100; i++) {
+            final String name = "com.foo.Class" + i;
+            assertSame(name, walk(loggerConfigs, name), index.find(name));
+            assertSame(name, walk(loggerConfigs, name + ".inner"), index.find(name + ".inner"));
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        assertNull(LoggerConfigIndex.EMPTY.find("com.foo"));
+        assertNull(LoggerConfigIndex.EMPTY.find(""));
+    }
+}
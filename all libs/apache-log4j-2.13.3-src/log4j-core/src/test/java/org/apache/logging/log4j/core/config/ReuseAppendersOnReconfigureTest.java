@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+import java.util.Arrays;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.junit.LoggerContextRule;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class ReuseAppendersOnReconfigureTest {
+
+    @Rule
+    public LoggerContextRule context = new LoggerContextRule("log4j-reuse-appenders-1.xml");
+
+    @After
+    public void after() {
+        System.clearProperty(LoggerContext.REUSE_APPENDERS_PROPERTY);
+    }
+
+    private static URI getUri(final String resource) throws Exception {
+        return ReuseAppendersOnReconfigureTest.class.getClassLoader().getResource(resource).toURI();
+    }
+
+    @Test
+    public void testReusesUnchangedAppenders() throws Exception {
+        final LoggerContext ctx = context.getLoggerContext();
+        final Logger logger = context.getLogger(ReuseAppendersOnReconfigureTest.class);
+        final Configuration first = ctx.getConfiguration();
+        final ListAppender unchanged = (ListAppender) first.getAppender("Unchanged");
+        final Appender changed = first.getAppender("Changed");
+        final Appender changedProperty = first.getAppender("ChangedProperty");
+        final Appender async = first.getAppender("Async");
+        logger.info("before");
+
+        ctx.setConfigLocation(getUri("log4j-reuse-appenders-2.xml"));
+        final Configuration second = ctx.getConfiguration();
+        assertNotSame(first, second);
+        assertSame(unchanged, second.getAppender("Unchanged"));
+        assertTrue(unchanged.isStarted());
+        assertTrue(((AbstractConfiguration) second).isReusedAppender(unchanged));
+        assertNotSame(changed, second.getAppender("Changed"));
+        assertTrue(changed.isStopped());
+        assertNotSame(changedProperty, second.getAppender("ChangedProperty"));
+        assertNotSame(async, second.getAppender("Async"));
+        assertTrue(async.isStopped());
+
+        logger.debug("after");
+        assertEquals(Arrays.asList("before", "after"), unchanged.getMessages());
+        assertEquals(Arrays.asList("DEBUG after"), ((ListAppender) second.getAppender("Changed")).getMessages());
+    }
+
+    @Test
+    public void testRecreatesAppendersWithCronTriggeringPolicy() throws Exception {
+        final LoggerContext ctx = context.getLoggerContext();
+        final Appender cron = ctx.getConfiguration().getAppender("Cron");
+        ctx.setConfigLocation(getUri("log4j-reuse-appenders-2.xml"));
+        final Configuration second = ctx.getConfiguration();
+        final Appender newCron = second.getAppender("Cron");
+        assertNotSame(cron, newCron);
+        assertTrue(cron.isStopped());
+        assertTrue(newCron.isStarted());
+        // the rollover is scheduled on the scheduler of the new configuration, which keeps running
+        assertTrue(second.getScheduler().isStarted());
+        assertTrue(second.getScheduler().isExecutorServiceSet());
+    }
+
+    @Test
+    public void testReusedLayoutLooksUpPropertiesOfNewConfiguration() throws Exception {
+        final LoggerContext ctx = context.getLoggerContext();
+        final Logger logger = context.getLogger(ReuseAppendersOnReconfigureTest.class);
+        final ListAppender lookup = (ListAppender) ctx.getConfiguration().getAppender("Lookup");
+        logger.info("before");
+        ctx.setConfigLocation(getUri("log4j-reuse-appenders-2.xml"));
+        assertSame(lookup, ctx.getConfiguration().getAppender("Lookup"));
+        logger.info("after");
+        assertEquals(Arrays.asList("hello before", "bye after"), lookup.getMessages());
+    }
+
+    @Test
+    public void testReuseDisabled() throws Exception {
+        System.setProperty(LoggerContext.REUSE_APPENDERS_PROPERTY, "false");
+        final LoggerContext ctx = context.getLoggerContext();
+        final Appender unchanged = ctx.getConfiguration().getAppender("Unchanged");
+        ctx.setConfigLocation(getUri("log4j-reuse-appenders-2.xml"));
+        assertNotSame(unchanged, ctx.getConfiguration().getAppender("Unchanged"));
+        assertTrue(unchanged.isStopped());
+        assertFalse(((AbstractConfiguration) ctx.getConfiguration()).isReusedAppender(unchanged));
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config.plugins.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.core.appender.ConsoleAppender;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.processor.PluginEntry;
+import org.junit.Test;
+
+public class PluginTypeTest {
+
+    private static class RecordingClassLoader extends ClassLoader {
+        private final List<String> loaded = new ArrayList<>();
+
+        RecordingClassLoader() {
+            super(PluginTypeTest.class.getClassLoader());
+        }
+
+        @Override
+        public Class<?> loadClass(final String name) throws ClassNotFoundException {
+            loaded.add(name);
+            return super.loadClass(name);
+        }
+    }
+
+    private static PluginEntry createEntry(final String className) {
+        final PluginEntry entry = new PluginEntry();
+        entry.setKey("test");
+        entry.setName("Test");
+        entry.setClassName(className);
+        entry.setCategory(Node.CATEGORY);
+        return entry;
+    }
+
+    @Test
+    public void testClassIsLoadedOnFirstRequest() {
+        final RecordingClassLoader loader = new RecordingClassLoader();
+        final PluginType<?> type = new PluginType<>(createEntry(ConsoleAppender.class.getName()), loader, "Test");
+        assertEquals(ConsoleAppender.class.getName(), type.getPluginClassName());
+        assertEquals("test", type.getKey());
+        assertTrue(type.toString(), type.toString().contains(ConsoleAppender.class.getName()));
+        assertTrue(loader.loaded.isEmpty());
+
+        assertSame(ConsoleAppender.class, type.getPluginClass());
+        assertTrue(type.isLoadable());
+        assertSame(ConsoleAppender.class, type.getPluginClass());
+        assertEquals(1, loader.loaded.size());
+    }
+
+    @Test
+    public void testMissingClass() {
+        final RecordingClassLoader loader = new RecordingClassLoader();
+        final PluginType<?> type = new PluginType<>(createEntry("org.example.MissingPlugin"), loader, "Test");
+        assertNull(type.getPluginClass());
+        assertFalse(type.isLoadable());
+        assertEquals("org.example.MissingPlugin", type.getPluginClassName());
+        // the failure is remembered
+        assertEquals(1, loader.loaded.size());
+    }
+
+    @Test
+    public void testPluginManagerLoadsRequestedPlugin() {
+        final PluginManager manager = new PluginManager(Node.CATEGORY);
+        manager.collectPlugins();
+        final PluginType<?> type = manager.getPluginType("Console");
+        assertSame(ConsoleAppender.class, type.getPluginClass());
+        assertNull(manager.getPluginType("NoSuchPlugin"));
+        assertSame(type, manager.getPlugins().get("console"));
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config.snapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.AbstractConfiguration;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.ConfigurationFactory;
+import org.apache.logging.log4j.core.config.ConfigurationSource;
+import org.apache.logging.log4j.core.config.json.JsonConfiguration;
+import org.apache.logging.log4j.core.config.xml.XmlConfiguration;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.apache.logging.log4j.util.PropertiesUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ConfigurationSnapshotTest {
+
+    private static final String XML = "<Configuration name='SnapshotTest' status='OFF'>"
+            + "<Properties><Property name='level'>warn</Property></Properties>"
+            + "<Appenders><List name='List'><PatternLayout pattern='%m%n'/></List></Appenders>"
+            + "<Loggers><Logger name='snapshot' level='${level}'/>"
+            + "<Root level='error'><AppenderRef ref='List'/></Root></Loggers>"
+            + "</Configuration>";
+
+    private static final String JSON = "{ \"configuration\": { \"name\": \"SnapshotTest\", \"status\": \"OFF\","
+            + " \"appenders\": { \"appender\": [ { \"type\": \"List\", \"name\": \"List\" } ] },"
+            + " \"loggers\": { \"logger\": [ { \"name\": \"snapshot\", \"level\": \"warn\" } ],"
+            + " \"root\": { \"level\": \"error\", \"AppenderRef\": { \"ref\": \"List\" } } } } }";
+
+    private static final FilenameFilter SNAPSHOTS = (dir, name) -> name.endsWith(".snapshot");
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private File snapshotDirectory;
+    private LoggerContext loggerContext;
+    private final List<Configuration> configurations = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        snapshotDirectory = folder.newFolder("snapshots");
+        System.setProperty(ConfigurationFactory.CONFIGURATION_SNAPSHOT_DIRECTORY_PROPERTY,
+                snapshotDirectory.getAbsolutePath());
+        PropertiesUtil.getProperties().reload();
+        loggerContext = new LoggerContext("ConfigurationSnapshotTest");
+    }
+
+    @After
+    public void tearDown() {
+        for (final Configuration config : configurations) {
+            config.stop();
+        }
+        System.clearProperty(ConfigurationFactory.CONFIGURATION_SNAPSHOT_DIRECTORY_PROPERTY);
+        PropertiesUtil.getProperties().reload();
+    }
+
+    private Configuration load(final File file) {
+        final ConfigurationSource source = ConfigurationSource.fromUri(file.toURI());
+        final Configuration config = ConfigurationFactory.getInstance().getConfiguration(loggerContext, source);
+        assertNotNull(config);
+        configurations.add(config);
+        config.initialize();
+        return config;
+    }
+
+    private static void assertConfigured(final Configuration config) {
+        assertEquals("SnapshotTest", config.getName());
+        assertTrue(config.getAppender("List") instanceof ListAppender);
+        assertEquals(Level.WARN, config.getLoggerConfig("snapshot").getLevel());
+        assertEquals(Level.ERROR, config.getRootLogger().getLevel());
+        assertNotNull(config.getRootLogger().getAppenders().get("List"));
+    }
+
+    private File[] snapshots() {
+        return snapshotDirectory.listFiles(SNAPSHOTS);
+    }
+
+    @Test
+    public void testXmlConfigurationIsReadFromSnapshot() throws IOException {
+        final File file = folder.newFile("log4j2-snapshot.xml");
+        Files.write(file.toPath(), XML.getBytes(StandardCharsets.UTF_8));
+
+        final Configuration parsed = load(file);
+        assertEquals(XmlConfiguration.class, parsed.getClass());
+        assertConfigured(parsed);
+        assertEquals(1, snapshots().length);
+
+        final Configuration cached = load(file);
+        assertEquals(SnapshotConfiguration.class, cached.getClass());
+        assertConfigured(cached);
+        assertEquals(file.getAbsolutePath(), cached.getConfigurationSource().getFile().getAbsolutePath());
+    }
+
+    @Test
+    public void testJsonConfigurationIsReadFromSnapshot() throws IOException {
+        final File file = folder.newFile("log4j2-snapshot.json");
+        Files.write(file.toPath(), JSON.getBytes(StandardCharsets.UTF_8));
+
+        final Configuration parsed = load(file);
+        assertEquals(JsonConfiguration.class, parsed.getClass());
+        assertConfigured(parsed);
+
+        final Configuration cached = load(file);
+        assertEquals(SnapshotConfiguration.class, cached.getClass());
+        assertConfigured(cached);
+    }
+
+    @Test
+    public void testChangedFileIsParsed() throws IOException {
+        final File file = folder.newFile("log4j2-snapshot.xml");
+        Files.write(file.toPath(), XML.getBytes(StandardCharsets.UTF_8));
+        load(file);
+        final File first = snapshots()[0];
+
+        Files.write(file.toPath(), XML.replace("warn", "info").getBytes(StandardCharsets.UTF_8));
+        final Configuration changed = load(file);
+        assertEquals(XmlConfiguration.class, changed.getClass());
+        assertEquals(Level.INFO, changed.getLoggerConfig("snapshot").getLevel());
+        // the snapshot of the previous contents was replaced
+        final File[] snapshots = snapshots();
+        assertEquals(1, snapshots.length);
+        assertTrue(!first.equals(snapshots[0]));
+
+        final Configuration cached = load(file);
+        assertEquals(SnapshotConfiguration.class, cached.getClass());
+        assertEquals(Level.INFO, cached.getLoggerConfig("snapshot").getLevel());
+    }
+
+    @Test
+    public void testCorruptedSnapshotIsIgnored() throws IOException {
+        final File file = folder.newFile("log4j2-snapshot.xml");
+        Files.write(file.toPath(), XML.getBytes(StandardCharsets.UTF_8));
+        load(file);
+        final File snapshot = snapshots()[0];
+        final byte[] bytes = Files.readAllBytes(snapshot.toPath());
+        bytes[bytes.length / 2] ^= 0x55;
+        Files.write(snapshot.toPath(), bytes);
+
+        final Configuration config = load(file);
+        assertEquals(XmlConfiguration.class, config.getClass());
+        assertConfigured(config);
+        assertEquals(SnapshotConfiguration.class, load(file).getClass());
+    }
+
+    @Test
+    public void testNoSnapshotWithoutDirectory() throws IOException {
+        System.clearProperty(ConfigurationFactory.CONFIGURATION_SNAPSHOT_DIRECTORY_PROPERTY);
+        PropertiesUtil.getProperties().reload();
+        final File file = folder.newFile("log4j2-snapshot.xml");
+        Files.write(file.toPath(), XML.getBytes(StandardCharsets.UTF_8));
+        assertEquals(XmlConfiguration.class, load(file).getClass());
+        assertEquals(XmlConfiguration.class, load(file).getClass());
+        assertEquals(0, snapshots().length);
+    }
+
+    @Test
+    public void testReconfigureParsesChangedFile() throws IOException {
+        final File file = folder.newFile("log4j2-snapshot.xml");
+        Files.write(file.toPath(), XML.getBytes(StandardCharsets.UTF_8));
+        load(file);
+        final AbstractConfiguration cached = (AbstractConfiguration) load(file);
+        assertEquals(SnapshotConfiguration.class, cached.getClass());
+
+        Files.write(file.toPath(), XML.replace("warn", "debug").getBytes(StandardCharsets.UTF_8));
+        final Configuration reconfigured = ((SnapshotConfiguration) cached).reconfigure();
+        assertEquals(XmlConfiguration.class, reconfigured.getClass());
+        configurations.add(reconfigured);
+        reconfigured.initialize();
+        assertEquals(Level.DEBUG, reconfigured.getLoggerConfig("snapshot").getLevel());
+    }
+
+    @Test
+    public void testConfigurationWithXIncludeIsParsed() throws IOException {
+        final File loggers = folder.newFile("log4j2-snapshot-loggers.xml");
+        Files.write(loggers.toPath(), ("<Loggers><Logger name='snapshot' level='warn'/>"
+                + "<Root level='error'><AppenderRef ref='List'/></Root></Loggers>").getBytes(StandardCharsets.UTF_8));
+        final File file = folder.newFile("log4j2-snapshot.xml");
+        Files.write(file.toPath(), ("<Configuration name='SnapshotTest' status='OFF'"
+                + " xmlns:xi='http://www.w3.org/2001/XInclude'>"
+                + "<Appenders><List name='List'><PatternLayout pattern='%m%n'/></List></Appenders>"
+                + "<xi:include href='" + loggers.getName() + "'/>"
+                + "</Configuration>").getBytes(StandardCharsets.UTF_8));
+
+        final Configuration parsed = load(file);
+        assertEquals(XmlConfiguration.class, parsed.getClass());
+        assertConfigured(parsed);
+        assertEquals(0, snapshots().length);
+
+        // a change of the included file is seen although the configuration file did not change
+        Files.write(loggers.toPath(), new String(Files.readAllBytes(loggers.toPath()), StandardCharsets.UTF_8)
+                .replace("warn", "info").getBytes(StandardCharsets.UTF_8));
+        final Configuration changed = load(file);
+        assertEquals(XmlConfiguration.class, changed.getClass());
+        assertEquals(Level.INFO, changed.getLoggerConfig("snapshot").getLevel());
+        assertEquals(0, snapshots().length);
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.Test;
+
+public class CompiledFilterTest {
+
+    private static final Level[] LEVELS = {Level.TRACE, Level.DEBUG, Level.INFO, Level.WARN, Level.ERROR, Level.FATAL};
+
+    /** Accepts events whose message is "accept", so it cannot be cached. */
+    private static class MessageFilter extends AbstractFilter {
+        int calls;
+
+        MessageFilter() {
+            super(Result.ACCEPT, Result.NEUTRAL);
+        }
+
+        @Override
+        public Result filter(final LogEvent event) {
+            calls++;
+            return "accept".equals(event.getMessage().getFormattedMessage()) ? onMatch : onMismatch;
+        }
+    }
+
+    private static LogEvent createEvent(final Level level, final Marker marker, final String message) {
+        return Log4jLogEvent.newBuilder().setLevel(level).setMarker(marker).setMessage(new SimpleMessage(message))
+                .build();
+    }
+
+    private static Filter createNestedFilter(final Filter other) {
+        final Filter inner = CompositeFilter.createFilters(new Filter[] {
+                MarkerFilter.createFilter("AUDIT", Result.ACCEPT, Result.NEUTRAL),
+                LevelRangeFilter.createFilter(Level.FATAL, Level.WARN, Result.NEUTRAL, Result.NEUTRAL)});
+        return CompositeFilter.createFilters(new Filter[] {
+                ThresholdFilter.createFilter(Level.TRACE, Result.NEUTRAL, Result.DENY),
+                inner,
+                other,
+                ThresholdFilter.createFilter(Level.INFO, Result.NEUTRAL, Result.DENY)});
+    }
+
+    @Test
+    public void testSameResultsAsCompositeFilter() {
+        final Filter composite = createNestedFilter(new MessageFilter());
+        final CompiledFilter compiled = CompiledFilter.compile(composite);
+        final Marker[] markers = {null, MarkerManager.getMarker("AUDIT"), MarkerManager.getMarker("OTHER")};
+        for (int i = 0; i < 2; i++) { // twice: the second time the results are cached
+            for (final Level level : LEVELS) {
+                for (final Marker marker : markers) {
+                    for (final String message : new String[] {"accept", "other"}) {
+                        final LogEvent event = createEvent(level, marker, message);
+                        final String description = level + " " + marker + " " + message;
+                        assertSame(description, composite.filter(event), compiled.filter(event));
+                    }
+                    assertSame(composite.filter(null, level, marker, "msg", "p0", "p1"),
+                            compiled.filter(null, level, marker, "msg", "p0", "p1"));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMergesConstantFilters() {
+        final MessageFilter messageFilter = new MessageFilter();
+        final CompiledFilter compiled = CompiledFilter.compile(createNestedFilter(messageFilter));
+        // threshold, marker and level range, then the message filter, then threshold
+        assertEquals(3, compiled.getStepCount());
+        assertSame(Result.DENY, compiled.filter(createEvent(Level.DEBUG, null, "other")));
+        assertEquals(1, messageFilter.calls);
+    }
+
+    @Test
+    public void testMarkerWithParentsIsNotCached() {
+        final CompiledFilter compiled = CompiledFilter.compile(
+                MarkerFilter.createFilter("CompiledFilterTestParent", Result.ACCEPT, Result.DENY));
+        final Marker parent = MarkerManager.getMarker("CompiledFilterTestParent");
+        final Marker child = MarkerManager.getMarker("CompiledFilterTestChild");
+        assertSame(Result.DENY, compiled.filter(null, Level.INFO, child, "msg"));
+        child.addParents(parent);
+        try {
+            assertSame(Result.ACCEPT, compiled.filter(null, Level.INFO, child, "msg"));
+        } finally {
+            child.remove(parent);
+        }
+        assertSame(Result.DENY, compiled.filter(null, Level.INFO, child, "msg"));
+    }
+
+    @Test
+    public void testCompile() {
+        assertNull(CompiledFilter.compile(null));
+        final Filter filter = ThresholdFilter.createFilter(Level.WARN, null, null);
+        final CompiledFilter compiled = CompiledFilter.compile(filter);
+        assertTrue(compiled.isCompiledFrom(filter));
+        assertSame(filter, compiled.getSource());
+        assertSame(compiled, CompiledFilter.compile(compiled));
+    }
+
+    @Test
+    public void testFilterableRecompilesOnChange() {
+        final AbstractFilterable filterable = new AbstractFilterable() {
+        };
+        final LogEvent event = createEvent(Level.INFO, null, "msg");
+        assertFalse(filterable.isFiltered(event));
+        final Filter threshold = ThresholdFilter.createFilter(Level.WARN, null, null);
+        filterable.addFilter(threshold);
+        assertTrue(filterable.isFiltered(event));
+        filterable.addFilter(new MessageFilter());
+        assertTrue(filterable.isFiltered(event));
+        filterable.removeFilter(threshold);
+        assertFalse(filterable.isFiltered(event));
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.junit.LoggerContextRule;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class KeywordFilterTest {
+
+    @ClassRule
+    public static LoggerContextRule context = new LoggerContextRule("log4j-keywordfilter.xml");
+
+    private static LogEvent createEvent(final String message) {
+        return Log4jLogEvent.newBuilder().setLevel(Level.INFO).setMessage(new SimpleMessage(message)).build();
+    }
+
+    private static long match(final KeywordMatcher matcher, final String text) {
+        return matcher.match(text, 0);
+    }
+
+    @Test
+    public void testMatcherFindsAllKeywords() {
+        final List<List<String>> keywords = Arrays.asList(Arrays.asList("he", "she", "hers"),
+                Collections.singletonList("his"), Collections.singletonList("ushe"));
+        final KeywordMatcher matcher = new KeywordMatcher(keywords, false);
+        assertEquals(0b101, match(matcher, "ushers"));
+        assertEquals(0b010, match(matcher, "this"));
+        assertEquals(0b001, match(matcher, "hhe"));
+        assertEquals(0, match(matcher, "hHe"));
+        assertEquals(0, match(matcher, "HERS"));
+        assertEquals(0, match(matcher, ""));
+        assertEquals(0b001, new KeywordMatcher(keywords, true).match("HERS", 0));
+    }
+
+    @Test
+    public void testMatcherWildcards() {
+        final KeywordMatcher matcher = new KeywordMatcher(
+                Collections.singletonList(Arrays.asList("user*token", "ab*ab", "*x*")), false);
+        assertEquals(1, match(matcher, "user has a token"));
+        assertEquals(1, match(matcher, "usertoken"));
+        assertEquals(0, match(matcher, "token of a user"));
+        assertEquals(0, match(matcher, "aba"));
+        assertEquals(1, match(matcher, "abab"));
+        assertEquals(1, match(matcher, "x"));
+    }
+
+    @Test
+    public void testMatcherIgnoresCaseOfNonAsciiCharacters() {
+        final KeywordMatcher matcher = new KeywordMatcher(
+                Collections.singletonList(Collections.singletonList("straße")), true);
+        assertEquals(1, match(matcher, "STRAßE"));
+        assertEquals(0, match(matcher, "strasse"));
+    }
+
+    @Test
+    public void testGroupsAreEvaluatedInOrder() {
+        final KeywordFilter filter = KeywordFilter.newBuilder()
+                .setGroups(KeywordGroup.newBuilder().setKeywords("healthcheck").setOnMatch(Result.ACCEPT).build(),
+                        KeywordGroup.newBuilder().setKeywords("password, secret").build())
+                .setOnMatch(Result.DENY).setOnMismatch(Result.NEUTRAL).build();
+        assertSame(Result.NEUTRAL, filter.filter(createEvent("hello")));
+        assertSame(Result.DENY, filter.filter(createEvent("my password")));
+        assertSame(Result.ACCEPT, filter.filter(createEvent("secret healthcheck")));
+    }
+
+    @Test
+    public void testGroupOnMismatch() {
+        final KeywordFilter filter = KeywordFilter.newBuilder()
+                .setGroups(KeywordGroup.newBuilder().setKeywords("audit").setOnMatch(Result.NEUTRAL)
+                        .setOnMismatch(Result.DENY).build())
+                .setKeywords("ignored").setOnMatch(Result.ACCEPT).setOnMismatch(Result.NEUTRAL).build();
+        assertSame(Result.DENY, filter.filter(createEvent("hello")));
+        assertSame(Result.ACCEPT, filter.filter(createEvent("audit ignored")));
+        // all groups are NEUTRAL, but a keyword occurred
+        assertSame(Result.ACCEPT, filter.filter(createEvent("audit")));
+    }
+
+    @Test
+    public void testMessageTypes() {
+        final Logger logger = context.getLogger();
+        final KeywordFilter filter = KeywordFilter.newBuilder().setKeywords("secret").setIgnoreCase(true)
+                .setOnMatch(Result.DENY).setOnMismatch(Result.NEUTRAL).build();
+        final org.apache.logging.log4j.core.Logger coreLogger = (org.apache.logging.log4j.core.Logger) logger;
+        assertSame(Result.DENY, filter.filter(coreLogger, Level.INFO, null, "value: {}", "Secret"));
+        assertSame(Result.NEUTRAL, filter.filter(coreLogger, Level.INFO, null, "value: {}", "public"));
+        assertSame(Result.DENY, filter.filter(coreLogger, Level.INFO, null, "{}{}", "sec", "ret"));
+        assertSame(Result.DENY, filter.filter(coreLogger, Level.INFO, null, (Object) "SECRET", null));
+        assertSame(Result.DENY, filter.filter(coreLogger, Level.INFO, null,
+                new ParameterizedMessage("a {}", "secret"), null));
+        assertSame(Result.NEUTRAL, filter.filter(coreLogger, Level.INFO, null, (Object) null, null));
+    }
+
+    @Test
+    public void testNoKeywords() {
+        assertNull(KeywordFilter.newBuilder().build());
+    }
+
+    @Test
+    public void testConfiguration() {
+        final Logger logger = context.getLogger();
+        final ListAppender app = context.getListAppender("ListAppender").clear();
+        logger.info("hello");
+        logger.info("the Password is {}", "x");
+        logger.info("User {} has token {}", "jdoe", "t");
+        logger.info("secret healthcheck");
+        assertEquals(Arrays.asList("hello", "secret healthcheck"), app.getMessages());
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.junit.LoggerContextRule;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.status.StatusData;
+import org.apache.logging.log4j.status.StatusListener;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.apache.logging.log4j.util.StringMap;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class RateLimitFilterTest {
+
+    @ClassRule
+    public static LoggerContextRule context = new LoggerContextRule("log4j-ratelimit.xml");
+
+    private static RateLimitFilter.Builder newBuilder() {
+        // one token per 1000 seconds, so buckets do not refill during the test
+        return RateLimitFilter.newBuilder().setLevel(Level.INFO).setRate(0.001f).setMaxBurst(2)
+                .setSummaryIntervalMillis(0);
+    }
+
+    private static LogEvent createEvent(final String loggerName, final Level level, final String tenant) {
+        final StringMap contextData = ContextDataFactory.createContextData();
+        if (tenant != null) {
+            contextData.putValue("tenant", tenant);
+        }
+        return Log4jLogEvent.newBuilder().setLoggerName(loggerName).setLevel(level).setContextData(contextData)
+                .setMessage(new SimpleMessage("Test")).build();
+    }
+
+    @Test
+    public void testLimitsRate() {
+        final RateLimitFilter filter = newBuilder().build();
+        assertSame(Result.NEUTRAL, filter.filter(null, Level.INFO, null, "msg"));
+        assertSame(Result.NEUTRAL, filter.filter(createEvent("a", Level.DEBUG, null)));
+        assertSame(Result.DENY, filter.filter(null, Level.INFO, null, "msg"));
+        assertSame(Result.DENY, filter.filter(createEvent("b", Level.INFO, null)));
+        // more specific than the level: not limited
+        assertSame(Result.NEUTRAL, filter.filter(createEvent("a", Level.WARN, null)));
+        assertEquals(2, filter.getSuppressedCount());
+    }
+
+    @Test
+    public void testBucketPerContextValue() {
+        final RateLimitFilter filter = newBuilder().setKey(RateLimitFilter.KeyType.CONTEXT).setContextKey("tenant")
+                .setMaxBurst(1).build();
+        assertSame(Result.NEUTRAL, filter.filter(createEvent("a", Level.INFO, "noisy")));
+        assertSame(Result.DENY, filter.filter(createEvent("a", Level.INFO, "noisy")));
+        assertSame(Result.NEUTRAL, filter.filter(createEvent("a", Level.INFO, "quiet")));
+        assertSame(Result.NEUTRAL, filter.filter(createEvent("a", Level.INFO, null)));
+        ThreadContext.put("tenant", "other");
+        try {
+            assertSame(Result.NEUTRAL, filter.filter(null, Level.INFO, null, "msg"));
+            assertSame(Result.DENY, filter.filter(null, Level.INFO, null, "msg", "p0"));
+        } finally {
+            ThreadContext.remove("tenant");
+        }
+        assertEquals(4, filter.getBucketCount());
+    }
+
+    @Test
+    public void testBucketPerMarker() {
+        final RateLimitFilter filter = newBuilder().setKey(RateLimitFilter.KeyType.MARKER).setMaxBurst(1).build();
+        assertSame(Result.NEUTRAL, filter.filter(null, Level.INFO, MarkerManager.getMarker("A"), "msg"));
+        assertSame(Result.DENY, filter.filter(null, Level.INFO, MarkerManager.getMarker("A"), "msg"));
+        assertSame(Result.NEUTRAL, filter.filter(null, Level.INFO, MarkerManager.getMarker("B"), "msg"));
+    }
+
+    @Test
+    public void testOverflowBucket() {
+        final RateLimitFilter filter = newBuilder().setKey(RateLimitFilter.KeyType.LOGGER).setMaxBurst(1)
+                .setMaxKeys(1).build();
+        assertSame(Result.NEUTRAL, filter.filter(createEvent("a", Level.INFO, null)));
+        // "b" and "c" do not fit and share the overflow bucket
+        assertSame(Result.NEUTRAL, filter.filter(createEvent("b", Level.INFO, null)));
+        assertSame(Result.DENY, filter.filter(createEvent("c", Level.INFO, null)));
+        assertSame(Result.DENY, filter.filter(createEvent("a", Level.INFO, null)));
+        assertEquals(1, filter.getBucketCount());
+    }
+
+    @Test
+    public void testSummary() {
+        final RateLimitFilter filter = newBuilder().setKey(RateLimitFilter.KeyType.LOGGER).setMaxBurst(1)
+                .setSummaryIntervalMillis(60000).build();
+        final StringBuilder messages = new StringBuilder();
+        final StatusListener listener = new StatusListener() {
+            @Override
+            public void log(final StatusData data) {
+                messages.append(data.getMessage().getFormattedMessage()).append('\n');
+            }
+
+            @Override
+            public Level getStatusLevel() {
+                return Level.WARN;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        StatusLogger.getLogger().registerListener(listener);
+        try {
+            for (int i = 0; i < 4; i++) {
+                filter.filter(createEvent("com.example.Noisy", Level.INFO, null));
+            }
+            filter.summarize();
+        } finally {
+            StatusLogger.getLogger().removeListener(listener);
+        }
+        final String summary = messages.toString();
+        assertTrue(summary, summary.contains("RateLimitFilter suppressed 3 events with logger 'com.example.Noisy'."));
+    }
+
+    @Test
+    public void testContextKeyRequired() {
+        assertNull(newBuilder().setKey(RateLimitFilter.KeyType.CONTEXT).build());
+    }
+
+    @Test
+    public void testConfiguration() {
+        final ListAppender app = context.getListAppender("ListAppender");
+        final RateLimitFilter filter = (RateLimitFilter) app.getFilter();
+        assertNotNull("No RateLimitFilter", filter);
+        for (int i = 0; i < 5; i++) {
+            context.getLogger("RateLimitFilterTest.a").info("Test");
+            context.getLogger("RateLimitFilterTest.b").info("Test");
+            context.getLogger("RateLimitFilterTest.b").error("Test");
+        }
+        assertEquals(2 + 2 + 5, app.getMessages().size());
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.filter.ThreadContextMapFilter;
+import org.apache.logging.log4j.core.util.KeyValuePair;
+import org.apache.logging.log4j.util.FilteredObjectInputStream;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
+import org.junit.Test;
+
+/**
+ * Tests the SlotIndexedStringMap and ContextDataSlots classes.
+ */
+public class SlotIndexedStringMapTest {
+
+    @Test
+    public void testSlotValuesFollowPutAndRemove() {
+        final int slot = ContextDataSlots.slotOf("SlotIndexedStringMapTest.a");
+        final SlotIndexedStringMap map = new SlotIndexedStringMap();
+        assertNull(map.getSlotValue(slot));
+        map.putValue("SlotIndexedStringMapTest.a", "1");
+        map.putValue("other", "2");
+        assertEquals("1", map.getSlotValue(slot));
+        assertEquals("1", ContextDataSlots.getValue(map, slot, "SlotIndexedStringMapTest.a"));
+        map.putValue("SlotIndexedStringMapTest.a", "3");
+        assertEquals("3", map.getSlotValue(slot));
+        map.remove("SlotIndexedStringMapTest.a");
+        assertNull(map.getSlotValue(slot));
+        map.putValue("SlotIndexedStringMapTest.a", "4");
+        map.clear();
+        assertNull(map.getSlotValue(slot));
+    }
+
+    @Test
+    public void testSlotValuesFollowPutAll() {
+        final int slot = ContextDataSlots.slotOf("SlotIndexedStringMapTest.b");
+        final SortedArrayStringMap source = new SortedArrayStringMap();
+        source.putValue("SlotIndexedStringMapTest.b", "1");
+        final SlotIndexedStringMap map = new SlotIndexedStringMap();
+        map.putAll(source);
+        assertEquals("1", map.getSlotValue(slot));
+        assertEquals("1", new SlotIndexedStringMap(source).getSlotValue(slot));
+    }
+
+    @Test
+    public void testKeyInternedAfterCreationIsReadByKey() {
+        final SlotIndexedStringMap map = new SlotIndexedStringMap();
+        map.putValue("SlotIndexedStringMapTest.late", "1");
+        final int slot = ContextDataSlots.slotOf("SlotIndexedStringMapTest.late");
+        assertEquals("1", map.getSlotValue(slot));
+        map.clear();
+        map.putValue("SlotIndexedStringMapTest.late", "2");
+        assertEquals("2", map.getSlotValue(slot));
+    }
+
+    @Test
+    public void testSlotOf() {
+        final int slot = ContextDataSlots.slotOf("SlotIndexedStringMapTest.c");
+        assertEquals(slot, ContextDataSlots.slotOf("SlotIndexedStringMapTest.c"));
+        assertEquals(slot, ContextDataSlots.getSlot("SlotIndexedStringMapTest.c"));
+        assertEquals("SlotIndexedStringMapTest.c", ContextDataSlots.getKey(slot));
+        assertTrue(slot < ContextDataSlots.getSlotCount());
+        assertEquals(-1, ContextDataSlots.slotOf(null));
+        assertEquals(-1, ContextDataSlots.getSlot("SlotIndexedStringMapTest.unknown"));
+    }
+
+    @Test
+    public void testSerializedAsSortedArrayStringMap() throws Exception {
+        final SlotIndexedStringMap map = new SlotIndexedStringMap();
+        map.putValue("key", "value");
+        map.freeze();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(map);
+        }
+        final Object result;
+        try (final FilteredObjectInputStream in = new FilteredObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            result = in.readObject();
+        }
+        assertSame(SortedArrayStringMap.class, result.getClass());
+        assertEquals(map, result);
+        assertTrue(((SortedArrayStringMap) result).isFrozen());
+    }
+
+    @Test
+    public void testThreadContextMapFilterReadsSlots() {
+        final KeyValuePair[] pairs = { new KeyValuePair("SlotIndexedStringMapTest.user", "bob") };
+        final ThreadContextMapFilter filter = ThreadContextMapFilter.createFilter(pairs, "and", null, null);
+        final SlotIndexedStringMap map = new SlotIndexedStringMap();
+        map.putValue("SlotIndexedStringMapTest.user", "bob");
+        assertSame(Filter.Result.NEUTRAL, filter.filter(Log4jLogEvent.newBuilder().setLevel(Level.INFO)
+                .setContextData(map).build()));
+        map.putValue("SlotIndexedStringMapTest.user", "alice");
+        assertSame(Filter.Result.DENY, filter.filter(Log4jLogEvent.newBuilder().setLevel(Level.INFO)
+                .setContextData(map).build()));
+    }
+}
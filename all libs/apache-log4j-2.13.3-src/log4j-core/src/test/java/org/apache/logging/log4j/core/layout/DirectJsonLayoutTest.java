@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.util.KeyValuePair;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.Test;
+
+/**
+ * Tests that {@link DirectJsonLayout} produces the same output as {@link JsonLayout}.
+ */
+public class DirectJsonLayoutTest {
+
+    private static final int DESTINATION_SIZE = 1 << 20;
+
+    private static final Configuration CONFIGURATION = new DefaultConfiguration();
+
+    private static final KeyValuePair[] ADDITIONAL_FIELDS = new KeyValuePair[] {
+            new KeyValuePair("KEY1", "VALUE1"),
+            new KeyValuePair("KEY2", "${java:runtime}")
+    };
+
+    @Test
+    public void testCompactFullEvent() {
+        assertSameOutput(LogEventFixtures.createLogEvent(), true, false, true, true, false, false, true);
+    }
+
+    @Test
+    public void testCompactStacktraceAsString() {
+        assertSameOutput(LogEventFixtures.createLogEvent(), true, false, true, true, false, true, true);
+    }
+
+    @Test
+    public void testCompactPropertiesAsList() {
+        assertSameOutput(LogEventFixtures.createLogEvent(), true, true, true, true, true, false, true);
+    }
+
+    @Test
+    public void testCompactWithoutStacktraceAndLocation() {
+        assertSameOutput(LogEventFixtures.createLogEvent(), true, false, false, false, false, false, false);
+    }
+
+    @Test
+    public void testPrettyFullEvent() {
+        assertSameOutput(LogEventFixtures.createLogEvent(), false, false, true, true, false, false, true);
+    }
+
+    @Test
+    public void testPrettyPropertiesAsListStacktraceAsString() {
+        assertSameOutput(LogEventFixtures.createLogEvent(), false, true, true, true, true, true, true);
+    }
+
+    @Test
+    public void testEscapedMessageWithoutContextData() {
+        final LogEvent event = Log4jLogEvent.newBuilder()
+                .setLoggerName("a.B")
+                .setLoggerFqcn("f.q.c.n")
+                .setLevel(Level.INFO)
+                .setMessage(new ParameterizedMessage("\"quoted\"\t{}\n\u0001", "arg"))
+                .setThreadName("main")
+                .setTimeMillis(1234567)
+                .build();
+        assertSameOutput(event, true, false, true, true, false, false, false);
+        assertSameOutput(event, false, false, true, true, false, false, false);
+    }
+
+    @Test
+    public void testSourceInJdkModule() {
+        // on Java 9 and later, the source has a module name and version
+        final LogEvent event = Log4jLogEvent.newBuilder()
+                .setLoggerName("a.B")
+                .setLevel(Level.INFO)
+                .setMessage(new SimpleMessage("message"))
+                .setSource(Thread.currentThread().getStackTrace()[0])
+                .build();
+        assertSameOutput(event, true, false, true, true, false, false, false);
+        assertSameOutput(event, false, false, true, true, false, false, false);
+    }
+
+    @Test
+    public void testCompleteDocument() {
+        final DirectJsonLayout layout = DirectJsonLayout.newBuilder()
+                .setConfiguration(CONFIGURATION)
+                .setCompact(true)
+                .setEventEol(true)
+                .setComplete(true)
+                .build();
+        final JsonLayout jsonLayout = JsonLayout.newBuilder()
+                .setConfiguration(CONFIGURATION)
+                .setCompact(true)
+                .setEventEol(true)
+                .setComplete(true)
+                .build();
+        final LogEvent event = LogEventFixtures.createLogEvent();
+        assertEquals(new String(jsonLayout.getHeader(), StandardCharsets.UTF_8),
+                new String(layout.getHeader(), StandardCharsets.UTF_8));
+        assertEquals(jsonLayout.toSerializable(event), layout.toSerializable(event));
+        assertEquals(jsonLayout.toSerializable(event), layout.toSerializable(event));
+        assertEquals(new String(jsonLayout.getFooter(), StandardCharsets.UTF_8),
+                new String(layout.getFooter(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testEncode() {
+        final DirectJsonLayout layout = DirectJsonLayout.newBuilder()
+                .setCompact(true)
+                .setEventEol(true)
+                .setIncludeNullDelimiter(true)
+                .build();
+        final LogEvent event = Log4jLogEvent.newBuilder()
+                .setLoggerName("a.B")
+                .setLevel(Level.WARN)
+                .setMessage(new SimpleMessage("café"))
+                .setThreadName("main")
+                .build();
+        final SpyByteBufferDestination destination = new SpyByteBufferDestination(16, DESTINATION_SIZE);
+        layout.encode(event, destination);
+        destination.drain(destination.getByteBuffer());
+        final byte[] expected = layout.toByteArray(event);
+        assertArrayEquals(expected, drainedBytes(destination));
+        assertEquals('\0', expected[expected.length - 1]);
+    }
+
+    private static void assertSameOutput(final LogEvent event, final boolean compact, final boolean propertiesAsList,
+            final boolean locationInfo, final boolean includeStacktrace, final boolean includeTimeMillis,
+            final boolean stacktraceAsString, final boolean properties) {
+        final JsonLayout jsonLayout = JsonLayout.newBuilder()
+                .setConfiguration(CONFIGURATION)
+                .setCompact(compact)
+                .setLocationInfo(locationInfo)
+                .setProperties(properties)
+                .setPropertiesAsList(propertiesAsList)
+                .setIncludeStacktrace(includeStacktrace)
+                .setStacktraceAsString(stacktraceAsString)
+                .setIncludeTimeMillis(includeTimeMillis)
+                .setAdditionalFields(ADDITIONAL_FIELDS)
+                .build();
+        final DirectJsonLayout layout = DirectJsonLayout.newBuilder()
+                .setConfiguration(CONFIGURATION)
+                .setCompact(compact)
+                .setLocationInfo(locationInfo)
+                .setProperties(properties)
+                .setPropertiesAsList(propertiesAsList)
+                .setIncludeStacktrace(includeStacktrace)
+                .setStacktraceAsString(stacktraceAsString)
+                .setIncludeTimeMillis(includeTimeMillis)
+                .setAdditionalFields(ADDITIONAL_FIELDS)
+                .build();
+        assertEquals(jsonLayout.toSerializable(event), layout.toSerializable(event));
+        final SpyByteBufferDestination destination = new SpyByteBufferDestination(256, DESTINATION_SIZE);
+        layout.encode(event, destination);
+        destination.drain(destination.getByteBuffer());
+        assertEquals(jsonLayout.toSerializable(event),
+                new String(drainedBytes(destination), StandardCharsets.UTF_8));
+    }
+
+    private static byte[] drainedBytes(final SpyByteBufferDestination destination) {
+        return Arrays.copyOf(destination.drained.array(), destination.drained.position());
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.lookup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.util.StringMap;
+import org.junit.Test;
+
+public class StrTemplateTest {
+
+    private static final String[] TEMPLATES = {
+            "",
+            "plain text",
+            "${ctx:tenant}",
+            "${ctx:TENANT}",
+            "${CTX:tenant}",
+            "logs/${ctx:tenant}/${ctx:user}.log",
+            "${ctx:missing}",
+            "${ctx:missing:-none}",
+            "${ctx:missing:-}",
+            "${key}",
+            "${unknown:key}",
+            "${missing}",
+            "${missing:-${key}}",
+            "${ctx:${key}}",
+            "$${ctx:tenant}",
+            "$$${ctx:tenant}",
+            "a$${ctx:tenant}${ctx:tenant}",
+            "$${${ctx:tenant}}",
+            "${ctx:dollar}${ctx:tenant}",
+            "${ctx:dollar}${ctx:dollar}x",
+            "${ctx:nested}",
+            "${ctx:tenant",
+            "x${ctx:tenant}${",
+            "${}",
+            "${ctx:}",
+            "${:-default}",
+            "${ctx:tenant}}{",
+            "${ctx:missing:\\-x}",
+            "${main:\\-x:-y}",
+            "${level}-${sys:java.version}"
+    };
+
+    private static StrSubstitutor createSubstitutor() {
+        final Map<String, String> map = new HashMap<>();
+        map.put("key", "tenant");
+        map.put("level", "INFO");
+        return new StrSubstitutor(new Interpolator(new MapLookup(map)));
+    }
+
+    private static LogEvent createLogEvent() {
+        final StringMap contextData = ContextDataFactory.createContextData();
+        contextData.putValue("tenant", "acme");
+        contextData.putValue("user", "jdoe");
+        contextData.putValue("dollar", "US$");
+        contextData.putValue("nested", "${ctx:user}@${ctx:tenant}");
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName(StrTemplateTest.class.getName())
+                .setLevel(Level.INFO)
+                .setMessage(new SimpleMessage("message"))
+                .setContextData(contextData)
+                .build();
+    }
+
+    @Test
+    public void testSameResultAsReplace() {
+        final StrSubstitutor substitutor = createSubstitutor();
+        final LogEvent event = createLogEvent();
+        for (final String source : TEMPLATES) {
+            final StrTemplate template = substitutor.compile(source);
+            assertTrue(source, template.isCompiled());
+            final String expected = substitutor.replace(event, source);
+            assertEquals(source, expected, template.format(event));
+            final StringBuilder buffer = new StringBuilder("prefix:");
+            template.format(event, buffer);
+            assertEquals(source, "prefix:" + expected, buffer.toString());
+            assertEquals(source, substitutor.replace(source), template.format(null));
+        }
+    }
+
+    @Test
+    public void testSingleVariableReturnsValue() {
+        final LogEvent event = createLogEvent();
+        final StrTemplate template = createSubstitutor().compile("${ctx:tenant}");
+        assertSame(event.getContextData().getValue("tenant"), template.format(event));
+    }
+
+    @Test
+    public void testConstant() {
+        final StrSubstitutor substitutor = createSubstitutor();
+        assertTrue(substitutor.compile("plain text").isConstant());
+        assertTrue(substitutor.compile("$${ctx:tenant}").isConstant());
+        assertFalse(substitutor.compile("x${ctx:tenant}").isConstant());
+    }
+
+    @Test
+    public void testResolverReplaced() {
+        final StrSubstitutor substitutor = createSubstitutor();
+        final StrTemplate template = substitutor.compile("${key}");
+        assertEquals("tenant", template.format(null));
+        final Map<String, String> map = new HashMap<>();
+        map.put("key", "replaced");
+        substitutor.setVariableResolver(new MapLookup(map));
+        assertFalse(template.isCompiled());
+        assertEquals("replaced", template.format(null));
+    }
+
+    @Test
+    public void testCustomSyntaxIsInterpreted() {
+        final Map<String, String> map = new HashMap<>();
+        map.put("key", "value");
+        final StrSubstitutor substitutor = new StrSubstitutor(map, "%(", ")");
+        final StrTemplate template = substitutor.compile("a %(key) ${key}");
+        assertFalse(template.isCompiled());
+        assertEquals("a value ${key}", template.format(null));
+    }
+
+    @Test
+    public void testCyclicSubstitution() {
+        final Map<String, String> map = new HashMap<>();
+        map.put("a", "${b}");
+        map.put("b", "${a}");
+        final StrTemplate template = new StrSubstitutor(new Interpolator(new MapLookup(map))).compile("x${a}");
+        try {
+            template.format(null);
+            fail("Expected IllegalStateException");
+        } catch (final IllegalStateException expected) {
+            // expected
+        }
+    }
+}
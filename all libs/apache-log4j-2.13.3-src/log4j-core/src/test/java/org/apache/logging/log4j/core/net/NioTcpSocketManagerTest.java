@@ -0,0 +1,330 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.appender.SocketAppender;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.core.net.NioTcpSocketManager.ConnectionState;
+import org.apache.logging.log4j.core.net.NioTcpSocketManager.OverflowPolicy;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class NioTcpSocketManagerTest {
+
+    private static final Layout<String> LAYOUT = PatternLayout.newBuilder().withPattern("%m%n").build();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static NioTcpSocketManager createManager(final int port, final int reconnectDelayMillis,
+            final int writeQueueCapacity) {
+        return NioTcpSocketManager.getSocketManager("localhost", port, 1000, reconnectDelayMillis, LAYOUT, 256, null,
+                writeQueueCapacity, OverflowPolicy.DROP);
+    }
+
+    private static void write(final NioTcpSocketManager manager, final String line) {
+        final byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+        manager.writeBytes(bytes, 0, bytes.length);
+        manager.flush();
+    }
+
+    private static String repeat(final char c, final int count) {
+        final char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    private static void await(final String description, final Condition condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.isTrue()) {
+            assertTrue(description, System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private interface Condition {
+        boolean isTrue();
+    }
+
+    @Test
+    public void testWritesEventsInOrder() throws Exception {
+        try (final ServerSocket server = new ServerSocket(0)) {
+            // small enough that the queue wraps many times
+            final NioTcpSocketManager manager = createManager(server.getLocalPort(), 100, 1000);
+            try (final Socket socket = server.accept();
+                    final BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+                final Thread producer = new Thread() {
+                    @Override
+                    public void run() {
+                        for (int i = 0; i < 2000; i++) {
+                            while (manager.getQueuedBytes() > 900) {
+                                Thread.yield();
+                            }
+                            write(manager, "event " + i);
+                        }
+                    }
+                };
+                producer.start();
+                for (int i = 0; i < 2000; i++) {
+                    assertEquals("event " + i, reader.readLine());
+                }
+                producer.join();
+                assertEquals(ConnectionState.CONNECTED, manager.getConnectionState());
+                assertEquals(0, manager.getDroppedEventCount());
+                assertEquals(2000, manager.getWrittenEventCount());
+                assertEquals(1, manager.getConnectCount());
+            } finally {
+                assertTrue(manager.stop(10, TimeUnit.SECONDS));
+            }
+            assertEquals(ConnectionState.CLOSED, manager.getConnectionState());
+        }
+    }
+
+    @Test
+    public void testDropsEventsWithoutBlockingWhenNotConnected() throws Exception {
+        final int port;
+        try (final ServerSocket server = new ServerSocket(0)) {
+            port = server.getLocalPort();
+        }
+        final NioTcpSocketManager manager = createManager(port, 60_000, 1024);
+        try {
+            for (int i = 0; i < 100; i++) {
+                write(manager, "event with some padding to fill the queue " + i);
+            }
+            assertNotEquals(ConnectionState.CONNECTED, manager.getConnectionState());
+            assertTrue(manager.getQueuedBytes() <= 1024);
+            assertTrue(manager.getDroppedEventCount() > 0);
+        } finally {
+            manager.stop(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testSpillsEventsWhileNotConnectedAndReplaysThemInOrder() throws Exception {
+        final int port;
+        try (final ServerSocket server = new ServerSocket(0)) {
+            port = server.getLocalPort();
+        }
+        final String spillDirectory = folder.newFolder().getAbsolutePath();
+        final NioTcpSocketManager manager = NioTcpSocketManager.getSocketManager("localhost", port, 1000, 100,
+                LAYOUT, 256, null, 1024, OverflowPolicy.SPILL, spillDirectory, 1024 * 1024, 0);
+        try {
+            for (int i = 0; i < 500; i++) {
+                write(manager, "event with some padding to fill the queue " + i);
+            }
+            assertNotEquals(ConnectionState.CONNECTED, manager.getConnectionState());
+            assertEquals(0, manager.getDroppedEventCount());
+            assertTrue(manager.getSpilledEventCount() > 0);
+            try (final ServerSocket server = new ServerSocket(port);
+                    final Socket socket = server.accept();
+                    final BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+                for (int i = 0; i < 500; i++) {
+                    assertEquals("event with some padding to fill the queue " + i, reader.readLine());
+                }
+            }
+            assertEquals(0, manager.getSpilledEventCount());
+            assertTrue(manager.getReplayedEventCount() > 0);
+        } finally {
+            manager.stop(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testKeepsQueuedEventsAheadOfSpilledEventsWhenStopped() throws Exception {
+        final int port;
+        try (final ServerSocket server = new ServerSocket(0)) {
+            port = server.getLocalPort();
+        }
+        final String spillDirectory = folder.newFolder().getAbsolutePath();
+        final NioTcpSocketManager stopped = NioTcpSocketManager.getSocketManager("localhost", port, 1000, 60_000,
+                LAYOUT, 256, null, 1024, OverflowPolicy.SPILL, spillDirectory, 1024 * 1024, 0);
+        for (int i = 0; i < 100; i++) {
+            write(stopped, "event with some padding to fill the queue " + i);
+        }
+        assertTrue(stopped.getQueuedBytes() > 0);
+        assertTrue(stopped.getSpilledEventCount() > 0);
+        stopped.stop(1, TimeUnit.SECONDS);
+        try (final ServerSocket server = new ServerSocket(port)) {
+            final NioTcpSocketManager manager = NioTcpSocketManager.getSocketManager("localhost", port, 1000, 100,
+                    LAYOUT, 256, null, 1024, OverflowPolicy.SPILL, spillDirectory, 1024 * 1024, 0);
+            try (final Socket socket = server.accept();
+                    final BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+                for (int i = 0; i < 100; i++) {
+                    assertEquals("event with some padding to fill the queue " + i, reader.readLine());
+                }
+                assertEquals(0, manager.getDroppedEventCount());
+            } finally {
+                manager.stop(1, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    @Test
+    public void testReplaysEventsSpilledAfterConnectingWithoutReplayRate() throws Exception {
+        final int port;
+        try (final ServerSocket server = new ServerSocket(0)) {
+            port = server.getLocalPort();
+        }
+        final String spillDirectory = folder.newFolder().getAbsolutePath();
+        final NioTcpSocketManager manager = NioTcpSocketManager.getSocketManager("localhost", port, 1000, 100,
+                LAYOUT, 256, null, 1024, OverflowPolicy.SPILL, spillDirectory, 1024 * 1024, 10);
+        try {
+            for (int i = 0; i < 30; i++) {
+                write(manager, "event with some padding to fill the queue " + i);
+            }
+            assertTrue(manager.getSpilledEventCount() > 0);
+            try (final ServerSocket server = new ServerSocket(port);
+                    final Socket socket = server.accept();
+                    final BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+                await("connected", new Condition() {
+                    @Override
+                    public boolean isTrue() {
+                        return manager.getConnectionState() == ConnectionState.CONNECTED;
+                    }
+                });
+                // spilled behind the backlog, but not held to the replay rate of 10 events per second
+                for (int i = 30; i < 300; i++) {
+                    write(manager, "event with some padding to fill the queue " + i);
+                }
+                final long start = System.nanoTime();
+                for (int i = 0; i < 300; i++) {
+                    assertEquals("event with some padding to fill the queue " + i, reader.readLine());
+                }
+                final long seconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+                assertTrue(seconds + " s", seconds < 10);
+            }
+        } finally {
+            manager.stop(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testReconnectsWhenPeerClosesConnection() throws Exception {
+        try (final ServerSocket server = new ServerSocket(0)) {
+            final NioTcpSocketManager manager = createManager(server.getLocalPort(), 50, 4096);
+            try {
+                try (final Socket socket = server.accept();
+                        final BufferedReader reader = new BufferedReader(
+                                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+                    write(manager, "first");
+                    assertEquals("first", reader.readLine());
+                }
+                await("connection loss detected", new Condition() {
+                    @Override
+                    public boolean isTrue() {
+                        return manager.getConnectionLossCount() == 1;
+                    }
+                });
+                write(manager, "second");
+                try (final Socket socket = server.accept();
+                        final BufferedReader reader = new BufferedReader(
+                                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+                    assertEquals("second", reader.readLine());
+                }
+                assertEquals(2, manager.getConnectCount());
+            } finally {
+                manager.stop(1, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    @Test
+    public void testQueuesEventLargerThanBufferAsOneRecord() throws Exception {
+        try (final ServerSocket server = new ServerSocket(0)) {
+            final NioTcpSocketManager manager = createManager(server.getLocalPort(), 100, 4096);
+            try (final Socket socket = server.accept();
+                    final BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+                final String large = repeat('a', 2000);
+                manager.writeEvent(LAYOUT, Log4jLogEvent.newBuilder().setMessage(new SimpleMessage(large)).build());
+                // does not fit the queue: dropped whole instead of in parts
+                manager.writeEvent(LAYOUT, Log4jLogEvent.newBuilder()
+                        .setMessage(new SimpleMessage(repeat('b', 5000))).build());
+                manager.writeEvent(LAYOUT, Log4jLogEvent.newBuilder().setMessage(new SimpleMessage("after")).build());
+                assertEquals(large, reader.readLine());
+                assertEquals("after", reader.readLine());
+                await("events written", new Condition() {
+                    @Override
+                    public boolean isTrue() {
+                        return manager.getWrittenEventCount() == 2;
+                    }
+                });
+                assertEquals(1, manager.getDroppedEventCount());
+            } finally {
+                assertTrue(manager.stop(10, TimeUnit.SECONDS));
+            }
+        }
+    }
+
+    @Test
+    public void testQueuesBufferedBytesAheadOfFooterOnStop() throws Exception {
+        final Layout<String> layout = PatternLayout.newBuilder().withPattern("%m%n").withFooter("footer\n").build();
+        try (final ServerSocket server = new ServerSocket(0)) {
+            final NioTcpSocketManager manager = NioTcpSocketManager.getSocketManager("localhost",
+                    server.getLocalPort(), 1000, 100, layout, 256, null, 4096, OverflowPolicy.DROP);
+            try (final Socket socket = server.accept();
+                    final BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+                manager.getByteBuffer().put("buffered\n".getBytes(StandardCharsets.UTF_8));
+                assertTrue(manager.stop(10, TimeUnit.SECONDS));
+                assertEquals("buffered", reader.readLine());
+                assertEquals("footer", reader.readLine());
+            }
+        }
+    }
+
+    @Test
+    public void testSocketAppenderNonBlocking() throws Exception {
+        try (final ServerSocket server = new ServerSocket(0)) {
+            final SocketAppender appender = SocketAppender.newBuilder()
+                    .withHost("localhost")
+                    .withPort(server.getLocalPort())
+                    .withNonBlocking(true)
+                    .withWriteQueueCapacity(4096)
+                    .setName("NonBlocking")
+                    .setLayout(LAYOUT)
+                    .build();
+            try {
+                assertTrue(appender.getManager() instanceof NioTcpSocketManager);
+                assertEquals(4096, ((NioTcpSocketManager) appender.getManager()).getWriteQueueCapacity());
+            } finally {
+                appender.stop(1, TimeUnit.SECONDS);
+            }
+        }
+    }
+}
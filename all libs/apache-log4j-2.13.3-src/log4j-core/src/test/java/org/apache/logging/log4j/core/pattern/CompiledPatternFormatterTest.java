@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.pattern;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.core.layout.SpyByteBufferDestination;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.util.StringMap;
+import org.junit.Test;
+
+public class CompiledPatternFormatterTest {
+
+    private static final String[] PATTERNS = {
+            "%d %-5level [%t] %logger{1.} - %msg%n",
+            "%d{ISO8601} [%tid] %level{length=1} %c{2}: %m %X{user}%n",
+            "%-10.10t|%5p|%20.-20c|%.3m|%-8X{user}|%marker%n",
+            "literal only%n",
+            "%level %notEmpty{[%marker]} %mdc %ex{short} %m%n",
+            "%r %-5p ${java:runtime} %m%n"
+    };
+
+    private static LogEvent createLogEvent() {
+        final StringMap contextData = ContextDataFactory.createContextData();
+        contextData.putValue("user", "jdoe");
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName("org.apache.logging.log4j.core.pattern.CompiledPatternFormatterTest")
+                .setLoggerFqcn("f.q.c.n")
+                .setLevel(Level.WARN)
+                .setMarker(MarkerManager.getMarker("AUDIT"))
+                .setMessage(new ParameterizedMessage("Processed {} items", 42))
+                .setContextData(contextData)
+                .setThreadName("worker-1")
+                .setThreadId(7)
+                .setThrown(new IllegalStateException("boom"))
+                .setTimeMillis(1234567890123L)
+                .build();
+    }
+
+    @Test
+    public void testSameOutputAsFormatters() {
+        final PatternParser parser = PatternLayout.createPatternParser(new DefaultConfiguration());
+        final LogEvent event = createLogEvent();
+        for (final String pattern : PATTERNS) {
+            final List<PatternFormatter> formatters = parser.parse(pattern, false, true, false);
+            final StringBuilder expected = new StringBuilder();
+            for (final PatternFormatter formatter : formatters) {
+                formatter.format(event, expected);
+            }
+            final StringBuilder actual = new StringBuilder();
+            CompiledPatternFormatter.compile(formatters).format(event, actual);
+            assertEquals(pattern, expected.toString(), actual.toString());
+        }
+    }
+
+    @Test
+    public void testMergesConstantText() {
+        final PatternParser parser = PatternLayout.createPatternParser(new DefaultConfiguration());
+        final CompiledPatternFormatter formatter = CompiledPatternFormatter.compile(
+                parser.parse("[%-8.8c] - %5.5t %n%m%n", false, true, false));
+        // "[" logger "] - " thread " \n" message "\n"
+        assertEquals(7, formatter.getStepCount());
+        assertEquals(7, formatter.getCompiledStepCount());
+    }
+
+    @Test
+    public void testFallsBackToFormatters() {
+        final PatternParser parser = PatternLayout.createPatternParser(new DefaultConfiguration());
+        final CompiledPatternFormatter formatter = CompiledPatternFormatter.compile(
+                parser.parse("%marker %m ${java:runtime}", false, true, false));
+        assertEquals(4, formatter.getStepCount());
+        // the marker and the literal with a lookup are interpreted
+        assertEquals(2, formatter.getCompiledStepCount());
+    }
+
+    @Test
+    public void testCompiledLayout() {
+        final String pattern = "%d %-5level [%t] %logger{1.} - %msg %X%n";
+        final PatternLayout interpreted = PatternLayout.newBuilder().withPattern(pattern).build();
+        final PatternLayout compiled = PatternLayout.newBuilder().withPattern(pattern).withCompiled(true).build();
+        final LogEvent event = createLogEvent();
+        assertEquals(interpreted.toSerializable(event), compiled.toSerializable(event));
+        assertTrue(compiled.getEventSerializer().toString().contains("CompiledPatternFormatter"));
+    }
+
+    @Test
+    public void testPreEncodedSameBytes() {
+        final PatternParser parser = PatternLayout.createPatternParser(new DefaultConfiguration());
+        final StringBuilder longMessage = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            longMessage.append("\u00e9t\u00e9 \ud83d\ude00 ");
+        }
+        final LogEvent[] events = {
+                createLogEvent(),
+                Log4jLogEvent.newBuilder().setLoggerName("caf\u00e9").setLevel(Level.INFO).setThreadName("\u7ebf\u7a0b")
+                        .setMessage(new SimpleMessage(longMessage.toString())).build()
+        };
+        for (final String pattern : PATTERNS) {
+            final List<PatternFormatter> formatters = parser.parse(pattern, false, true, false);
+            final CompiledPatternFormatter formatter = CompiledPatternFormatter.compile(formatters,
+                    StandardCharsets.UTF_8);
+            assertTrue(formatter.isPreEncoded());
+            for (final LogEvent event : events) {
+                final StringBuilder expected = new StringBuilder();
+                formatter.format(event, expected);
+                // twice: the second time with the cached level, logger and thread name bytes
+                for (int i = 0; i < 2; i++) {
+                    final SpyByteBufferDestination destination = new SpyByteBufferDestination(1024, 1 << 20);
+                    formatter.encode(event, new StringBuilder(), destination);
+                    destination.drain(destination.getByteBuffer());
+                    assertArrayEquals(pattern, expected.toString().getBytes(StandardCharsets.UTF_8),
+                            Arrays.copyOf(destination.drained.array(), destination.drained.position()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testNotPreEncodedWithStatefulCharset() {
+        final PatternParser parser = PatternLayout.createPatternParser(new DefaultConfiguration());
+        final List<PatternFormatter> formatters = parser.parse("%level %m%n", false, true, false);
+        assertFalse(CompiledPatternFormatter.compile(formatters, StandardCharsets.UTF_16).isPreEncoded());
+        assertFalse(CompiledPatternFormatter.compile(formatters).isPreEncoded());
+    }
+
+    @Test
+    public void testPreEncodedLayout() {
+        final String pattern = "%d %-5level [%t] %logger{1.} - %msg %X%n";
+        final PatternLayout layout = PatternLayout.newBuilder().withPattern(pattern).withPreEncoded(true)
+                .withCharset(StandardCharsets.UTF_8).build();
+        final LogEvent event = createLogEvent();
+        final SpyByteBufferDestination destination = new SpyByteBufferDestination(64, 4096);
+        layout.encode(event, destination);
+        destination.drain(destination.getByteBuffer());
+        assertArrayEquals(layout.toByteArray(event),
+                Arrays.copyOf(destination.drained.array(), destination.drained.position()));
+    }
+}
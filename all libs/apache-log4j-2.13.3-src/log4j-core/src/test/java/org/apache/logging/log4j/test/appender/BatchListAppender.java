@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.test.appender;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.BatchAppender;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.config.plugins.validation.constraints.Required;
+
+/**
+ * Records the events it receives and how many single-event and batch calls were made.
+ */
+@Plugin(name = "BatchList", category = "Core", elementType = Appender.ELEMENT_TYPE, printObject = true)
+public class BatchListAppender extends AbstractAppender implements BatchAppender {
+
+    private final List<LogEvent> events = new ArrayList<>();
+    private final AtomicInteger singleCalls = new AtomicInteger();
+    private final AtomicInteger batchCalls = new AtomicInteger();
+
+    private BatchListAppender(final String name) {
+        super(name, null, null, true, Property.EMPTY_ARRAY);
+    }
+
+    @Override
+    public synchronized void append(final LogEvent event) {
+        singleCalls.incrementAndGet();
+        events.add(event.toImmutable());
+    }
+
+    @Override
+    public synchronized void append(final LogEvent[] batch, final int count) {
+        batchCalls.incrementAndGet();
+        for (int i = 0; i < count; i++) {
+            events.add(batch[i].toImmutable());
+        }
+    }
+
+    public synchronized List<LogEvent> getEvents() {
+        return new ArrayList<>(events);
+    }
+
+    public int getSingleCalls() {
+        return singleCalls.get();
+    }
+
+    public int getBatchCalls() {
+        return batchCalls.get();
+    }
+
+    @PluginFactory
+    public static BatchListAppender createAppender(
+        @PluginAttribute("name") @Required(message = "A name for the Appender must be specified") final String name) {
+        return new BatchListAppender(name);
+    }
+
+}
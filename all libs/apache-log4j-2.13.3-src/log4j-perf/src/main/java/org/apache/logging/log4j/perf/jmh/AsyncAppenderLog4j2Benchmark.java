@@ -76,7 +76,8 @@ public class AsyncAppenderLog4j2Benchmark {
         "perf5AsyncApndNoLoc-noOpAppender.xml",
         "perf5AsyncApndDsrptrNoLoc-noOpAppender.xml",
         "perf5AsyncApndMpscQNoLoc-noOpAppender.xml",
-        "perf5AsyncApndXferQNoLoc-noOpAppender.xml"
+        "perf5AsyncApndXferQNoLoc-noOpAppender.xml",
+        "perf5AsyncApndRingQNoLoc-noOpAppender.xml"
     })
     public String configFileName;
 
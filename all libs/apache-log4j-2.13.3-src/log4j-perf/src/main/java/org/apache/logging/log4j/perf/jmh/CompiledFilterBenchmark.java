@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.filter.BurstFilter;
+import org.apache.logging.log4j.core.filter.CompiledFilter;
+import org.apache.logging.log4j.core.filter.CompositeFilter;
+import org.apache.logging.log4j.core.filter.MarkerFilter;
+import org.apache.logging.log4j.core.filter.ThreadContextMapFilter;
+import org.apache.logging.log4j.core.filter.ThresholdFilter;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.util.KeyValuePair;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares a stack of ThresholdFilter, MarkerFilter, ThreadContextMapFilter and BurstFilter, nested the way the
+ * context-wide, logger and appender filters of a configuration are, evaluated by CompositeFilter and by
+ * CompiledFilter. Run MarkerFilterBenchmark and MDCFilterBenchmark before and after this change to see the effect on
+ * complete logging calls.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// java -jar log4j-perf/target/benchmarks.jar ".*CompiledFilterBenchmark.*" -f 1 -i 10 -wi 5 -bm avgt -tu ns
+//
+// Usage help:
+// java -jar log4j-perf/target/benchmarks.jar -help
+//
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CompiledFilterBenchmark {
+
+    private static final Marker MARKER = MarkerManager.getMarker("CompiledFilterBenchmark");
+
+    private Filter composite;
+    private Filter compiled;
+    private LogEvent event;
+
+    @Setup
+    public void setup() {
+        ThreadContext.put("user", "jdoe");
+        final Filter level = CompositeFilter.createFilters(new Filter[] {
+                ThresholdFilter.createFilter(Level.DEBUG, Result.NEUTRAL, Result.DENY),
+                MarkerFilter.createFilter("AUDIT", Result.ACCEPT, Result.NEUTRAL)});
+        final Filter context = ThreadContextMapFilter.createFilter(
+                new KeyValuePair[] {new KeyValuePair("user", "admin")}, "or", Result.ACCEPT, Result.NEUTRAL);
+        final Filter burst = BurstFilter.newBuilder().setLevel(Level.WARN).setRate(1_000_000_000)
+                .setMaxBurst(1_000_000_000).build();
+        composite = CompositeFilter.createFilters(new Filter[] {level, CompositeFilter.createFilters(new Filter[] {
+                ThresholdFilter.createFilter(Level.INFO, Result.NEUTRAL, Result.DENY), context}), burst});
+        composite.start();
+        compiled = CompiledFilter.compile(composite);
+        event = Log4jLogEvent.newBuilder().setLoggerName(CompiledFilterBenchmark.class.getName()).setLevel(Level.ERROR)
+                .setMarker(MARKER).setMessage(new SimpleMessage("Test")).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        composite.stop();
+        ThreadContext.clearMap();
+    }
+
+    @Benchmark
+    public Result compositeEvent() {
+        return composite.filter(event);
+    }
+
+    @Benchmark
+    public Result compiledEvent() {
+        return compiled.filter(event);
+    }
+
+    @Benchmark
+    public Result compositeTooFine() {
+        return composite.filter(null, Level.TRACE, null, "Test", "p0");
+    }
+
+    @Benchmark
+    public Result compiledTooFine() {
+        return compiled.filter(null, Level.TRACE, null, "Test", "p0");
+    }
+}
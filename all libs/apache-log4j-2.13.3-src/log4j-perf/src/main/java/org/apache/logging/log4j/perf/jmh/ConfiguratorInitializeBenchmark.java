@@ -24,6 +24,10 @@ import java.util.concurrent.TimeUnit;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.config.ConfigurationSource;
 import org.apache.logging.log4j.core.config.Configurator;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.util.PluginManager;
+import org.apache.logging.log4j.core.config.plugins.util.PluginRegistry;
+import org.apache.logging.log4j.core.config.xml.XmlConfiguration;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Mode;
@@ -35,9 +39,18 @@ import org.openjdk.jmh.annotations.State;
 /**
  * This benchmark demonstrates how long it takes for a simple XML configuration file to be parsed and initialize a new
  * {@link org.apache.logging.log4j.core.LoggerContext} using that configuration.
+ * <p>
+ * The single shot benchmarks measure the cold start when each fork runs a single iteration: reading the plugin index
+ * of the class path, which does not load the plugin classes, and initializing the first LoggerContext, which loads
+ * the classes of the plugins used by the configuration. {@link #buildConfiguration()} measures how long it takes to
+ * build the plugins of an already parsed configuration once the plugin classes are known.
+ * </p>
  */
 // TO RUN THIS TEST:
 // java -jar target/benchmarks.jar '.*ConfiguratorInitializeBenchmark.*'
+//
+// To measure the cold start:
+// java -jar target/benchmarks.jar '.*ConfiguratorInitializeBenchmark.(collectPlugins|initializeLoggerContext)' -f 20 -wi 0 -i 1
 @State(Scope.Thread)
 public class ConfiguratorInitializeBenchmark {
 
@@ -67,4 +80,24 @@ public class ConfiguratorInitializeBenchmark {
         return Configurator.initialize(null, configurationSource);
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public PluginManager collectPlugins() {
+        PluginRegistry.getInstance().clear();
+        final PluginManager manager = new PluginManager(Node.CATEGORY);
+        manager.collectPlugins();
+        return manager;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public XmlConfiguration buildConfiguration() throws IOException {
+        final XmlConfiguration configuration = new XmlConfiguration(null, configurationSource.resetInputStream());
+        configuration.initialize();
+        configuration.stop();
+        return configuration;
+    }
+
 }
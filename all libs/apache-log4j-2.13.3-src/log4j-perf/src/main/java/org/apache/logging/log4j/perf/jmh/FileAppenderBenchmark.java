@@ -32,6 +32,7 @@ import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
 import org.slf4j.LoggerFactory;
 
 /**
@@ -53,6 +54,7 @@ public class FileAppenderBenchmark {
     Logger log4j2AsyncLogger;
     Logger log4j2AsyncDisruptor;
     Logger log4j2RandomLogger;
+    Logger log4j2RandomThreadLocalLogger;
     Logger log4j2MemoryLogger;
     org.slf4j.Logger slf4jLogger;
     org.slf4j.Logger slf4jAsyncLogger;
@@ -73,6 +75,7 @@ public class FileAppenderBenchmark {
         log4j2AsyncLogger = LogManager.getLogger("AsyncLogger");
         //log4j2MemoryLogger = LogManager.getLogger("MemoryMapped");
         log4j2RandomLogger = LogManager.getLogger("TestRandom");
+        log4j2RandomThreadLocalLogger = LogManager.getLogger("TestRandomThreadLocal");
         slf4jLogger = LoggerFactory.getLogger(FileAppenderBenchmark.class);
         slf4jAsyncLogger = LoggerFactory.getLogger("Async");
         log4j1Logger = org.apache.log4j.Logger.getLogger(FileAppenderBenchmark.class);
@@ -100,6 +103,8 @@ public class FileAppenderBenchmark {
         log4jFile.delete();
         final File log4jRandomFile = new File ("target/testRandomlog4j2.log");
         log4jRandomFile.delete();
+        final File log4jRandomThreadLocalFile = new File ("target/testRandomThreadLocallog4j2.log");
+        log4jRandomThreadLocalFile.delete();
         final File log4jMemoryFile = new File ("target/testMappedlog4j2.log");
         log4jMemoryFile.delete();
         final File log4j2File = new File ("target/testlog4j2.log");
@@ -115,6 +120,45 @@ public class FileAppenderBenchmark {
         log4j2RandomLogger.debug(MESSAGE);
     }
 
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Benchmark
+    public void log4j2RAFThreadLocal() {
+        log4j2RandomThreadLocalLogger.debug(MESSAGE);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(4)
+    @Benchmark
+    public void log4j2RAF4Threads() {
+        log4j2RandomLogger.debug(MESSAGE);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(4)
+    @Benchmark
+    public void log4j2RAFThreadLocal4Threads() {
+        log4j2RandomThreadLocalLogger.debug(MESSAGE);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(16)
+    @Benchmark
+    public void log4j2RAF16Threads() {
+        log4j2RandomLogger.debug(MESSAGE);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(16)
+    @Benchmark
+    public void log4j2RAFThreadLocal16Threads() {
+        log4j2RandomThreadLocalLogger.debug(MESSAGE);
+    }
+
     /*@BenchmarkMode(Mode.Throughput)
     @OutputTimeUnit(TimeUnit.SECONDS)
     @Benchmark
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.BatchingHttpURLConnectionManager.BatchFormat;
+import org.apache.logging.log4j.core.appender.HttpAppender;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.JsonLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Compares an HttpAppender that sends one request per event with one that sends batches of events as NDJSON, both
+ * sending to a stub server on the loopback interface that reads the body and answers {@code 204 No Content}.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// java -jar log4j-perf/target/benchmarks.jar ".*HttpAppenderBenchmark.*" -f 1 -i 10 -wi 5 -bm thrpt -tu s
+//
+// Usage help:
+// java -jar log4j-perf/target/benchmarks.jar -help
+//
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class HttpAppenderBenchmark {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private HttpAppender perEventAppender;
+    private HttpAppender batchingAppender;
+    private HttpAppender compressingAppender;
+    private LogEvent event;
+
+    @Setup
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                final byte[] buffer = new byte[8192];
+                try (InputStream in = exchange.getRequestBody()) {
+                    while (in.read(buffer) >= 0) {
+                        // discard
+                    }
+                }
+                exchange.sendResponseHeaders(204, -1);
+                exchange.close();
+            }
+        });
+        serverExecutor = Executors.newFixedThreadPool(4);
+        server.setExecutor(serverExecutor);
+        server.start();
+        final URL url = new URL("http://localhost:" + server.getAddress().getPort() + "/logs");
+
+        perEventAppender = createBuilder(url).setName("PerEvent").build();
+        batchingAppender = createBuilder(url).setName("Batching").setBatchSize(500).setLingerMillis(10)
+                .setBatchFormat(BatchFormat.NDJSON).setMaxInFlightRequests(2).build();
+        compressingAppender = createBuilder(url).setName("Compressing").setBatchSize(500).setLingerMillis(10)
+                .setBatchFormat(BatchFormat.NDJSON).setMaxInFlightRequests(2).setCompress(true).build();
+        perEventAppender.start();
+        batchingAppender.start();
+        compressingAppender.start();
+
+        event = Log4jLogEvent.newBuilder()
+                .setLoggerName(HttpAppenderBenchmark.class.getName())
+                .setLevel(Level.INFO)
+                .setMessage(new SimpleMessage("Order 12345 was shipped to the customer"))
+                .build();
+    }
+
+    private static HttpAppender.Builder<?> createBuilder(final URL url) {
+        return HttpAppender.newBuilder()
+                .setConfiguration(new DefaultConfiguration())
+                .setLayout(JsonLayout.newBuilder().setCompact(true).setEventEol(true).build())
+                .setUrl(url);
+    }
+
+    @TearDown
+    public void tearDown() {
+        perEventAppender.stop(10, TimeUnit.SECONDS);
+        batchingAppender.stop(10, TimeUnit.SECONDS);
+        compressingAppender.stop(10, TimeUnit.SECONDS);
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public void perEvent() {
+        perEventAppender.append(event);
+    }
+
+    @Benchmark
+    public void batched() {
+        batchingAppender.append(event);
+    }
+
+    @Benchmark
+    public void batchedCompressed() {
+        compressingAppender.append(event);
+    }
+}
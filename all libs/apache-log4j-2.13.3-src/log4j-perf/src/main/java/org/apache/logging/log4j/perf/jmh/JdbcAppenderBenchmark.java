@@ -42,7 +42,8 @@ import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.infra.Blackhole;
 
 /**
- * Tests the overhead of a number of JDBC Appenders.
+ * Tests the overhead of a number of JDBC Appenders. The buffered appenders insert batches of 100 rows, the background
+ * flush appenders insert them in a background thread; their throughput is the number of rows inserted per second.
  */
 // ============================== HOW TO RUN THIS TEST: ====================================
 //
@@ -55,6 +56,10 @@ import org.openjdk.jmh.infra.Blackhole;
 public class JdbcAppenderBenchmark {
     private Logger loggerH2;
     private Logger loggerHSQLDB;
+    private Logger loggerH2Buffered;
+    private Logger loggerH2BackgroundFlush;
+    private Logger loggerHSQLDBBuffered;
+    private Logger loggerHSQLDBBackgroundFlush;
     private Connection connectionHSQLDB;
     private Connection connectionH2;
     private final RuntimeException exception = new RuntimeException("Hello, world!");
@@ -74,6 +79,10 @@ public class JdbcAppenderBenchmark {
         StatusLogger.getLogger().reset();
         loggerH2 = LogManager.getLogger("H2Logger");
         loggerHSQLDB = LogManager.getLogger("HSQLDBLogger");
+        loggerH2Buffered = LogManager.getLogger("H2BufferedLogger");
+        loggerH2BackgroundFlush = LogManager.getLogger("H2BackgroundFlushLogger");
+        loggerHSQLDBBuffered = LogManager.getLogger("HSQLDBBufferedLogger");
+        loggerHSQLDBBackgroundFlush = LogManager.getLogger("HSQLDBBackgroundFlushLogger");
     }
 
     @BenchmarkMode(Mode.Throughput)
@@ -132,12 +141,42 @@ public class JdbcAppenderBenchmark {
         loggerHSQLDB.warn("Test message", exception);
     }
 
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Benchmark
+    public void testThroughputH2BufferedMessage(final Blackhole bh) {
+        loggerH2Buffered.info("Test message");
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Benchmark
+    public void testThroughputH2BackgroundFlushMessage(final Blackhole bh) {
+        loggerH2BackgroundFlush.info("Test message");
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Benchmark
+    public void testThroughputHSQLDBBufferedMessage(final Blackhole bh) {
+        loggerHSQLDBBuffered.info("Test message");
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Benchmark
+    public void testThroughputHSQLDBBackgroundFlushMessage(final Blackhole bh) {
+        loggerHSQLDBBackgroundFlush.info("Test message");
+    }
+
     @TearDown
     public void tearDown() throws SQLException {
         final LoggerContext context = LoggerContext.getContext(false);
         try {
-            ((JdbcAppender) context.getConfiguration().getAppender("H2Appender")).getManager().close();
-            ((JdbcAppender) context.getConfiguration().getAppender("HSQLDBAppender")).getManager().close();
+            for (final String name : new String[] {"H2Appender", "HSQLDBAppender", "H2BufferedAppender",
+                    "H2BackgroundFlushAppender", "HSQLDBBufferedAppender", "HSQLDBBackgroundFlushAppender"}) {
+                ((JdbcAppender) context.getConfiguration().getAppender(name)).getManager().close();
+            }
         } finally {
             System.clearProperty(ConfigurationFactory.CONFIGURATION_FILE_PROPERTY);
             // context.reconfigure();
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.filter.CompositeFilter;
+import org.apache.logging.log4j.core.filter.KeywordFilter;
+import org.apache.logging.log4j.core.filter.StringMatchFilter;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares a CompositeFilter of StringMatchFilters, one per keyword, with a KeywordFilter of the same keywords, for a
+ * parameterized message that does not contain any of them.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// java -jar log4j-perf/target/benchmarks.jar ".*KeywordFilterBenchmark.*" -f 1 -i 10 -wi 5 -bm avgt -tu ns
+//
+// Usage help:
+// java -jar log4j-perf/target/benchmarks.jar -help
+//
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class KeywordFilterBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int keywordCount;
+
+    private Filter composite;
+    private Filter keywords;
+    private LogEvent event;
+
+    @Setup
+    public void setup() {
+        final Filter[] filters = new Filter[keywordCount];
+        final StringBuilder list = new StringBuilder();
+        for (int i = 0; i < keywordCount; i++) {
+            final String keyword = "keyword" + i;
+            filters[i] = StringMatchFilter.newBuilder().setMatchString(keyword).setOnMatch(Result.DENY)
+                    .setOnMismatch(Result.NEUTRAL).build();
+            list.append(keyword).append(',');
+        }
+        composite = CompositeFilter.createFilters(filters);
+        keywords = KeywordFilter.newBuilder().setKeywords(list.toString()).setOnMatch(Result.DENY)
+                .setOnMismatch(Result.NEUTRAL).build();
+        event = Log4jLogEvent.newBuilder().setLoggerName(KeywordFilterBenchmark.class.getName()).setLevel(Level.INFO)
+                .setMessage(new ParameterizedMessage("User {} logged in from {} after {} attempts", "jdoe",
+                        "192.168.0.1", 3))
+                .build();
+    }
+
+    @Benchmark
+    public Result composite() {
+        return composite.filter(event);
+    }
+
+    @Benchmark
+    public Result keywordFilter() {
+        return keywords.filter(event);
+    }
+}
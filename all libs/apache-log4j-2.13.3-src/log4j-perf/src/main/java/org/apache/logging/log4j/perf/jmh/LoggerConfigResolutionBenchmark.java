@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures how fast Logger names are resolved to their LoggerConfig, and how long updating all Loggers takes when one
+ * LoggerConfig changes, in a hierarchy with many Loggers and LoggerConfigs.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// java -jar log4j-perf/target/benchmarks.jar ".*LoggerConfigResolutionBenchmark.*" -i 10 -f 1 -wi 5
+//
+// Usage help:
+// java -jar log4j-perf/target/benchmarks.jar -help
+//
+@State(Scope.Benchmark)
+public class LoggerConfigResolutionBenchmark {
+
+    /** One LoggerConfig is configured for this many Loggers. */
+    private static final int LOGGERS_PER_CONFIG = 10;
+
+    @Param({"10000", "100000"})
+    public int loggerCount;
+
+    private LoggerContext context;
+    private Configuration configuration;
+    private String[] loggerNames;
+    private LoggerConfig changedConfig;
+    private int index;
+
+    private static String loggerName(final int i) {
+        return "com.example.module" + (i % 100) + ".service" + (i / 100 % 100) + ".Class" + i;
+    }
+
+    @Setup
+    public void setup() {
+        configuration = new DefaultConfiguration();
+        context = new LoggerContext("LoggerConfigResolutionBenchmark");
+        context.start(configuration);
+        loggerNames = new String[loggerCount];
+        for (int i = 0; i < loggerCount; i++) {
+            loggerNames[i] = loggerName(i) + ".inner";
+            if (i % LOGGERS_PER_CONFIG == 0) {
+                final String name = loggerName(i);
+                configuration.addLogger(name, new LoggerConfig(name, Level.INFO, true));
+            }
+            context.getLogger(loggerNames[i]);
+        }
+        changedConfig = configuration.getLoggerConfig(loggerName(0));
+        context.updateLoggers();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public LoggerConfig getLoggerConfig() {
+        final int i = index;
+        index = i + 1 == loggerCount ? 0 : i + 1;
+        return configuration.getLoggerConfig(loggerNames[i]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void updateLoggersAfterLevelChange() {
+        changedConfig.setLevel(changedConfig.getLevel() == Level.INFO ? Level.DEBUG : Level.INFO);
+        context.updateLoggers();
+    }
+}
@@ -72,6 +72,9 @@ public class PatternLayoutBenchmark {
     private final PatternLayout PATTERN_M_EX = PatternLayout.createLayout("%m %ex%n", null, null, null, CHARSET_DEFAULT, false, true, null, null);
     private final PatternLayout PATTERN_M_D_EX = PatternLayout.createLayout("%d %m%ex%n", null, null, null, CHARSET_DEFAULT, false, true, null, null);
     private final PatternLayout PATTERN_M_C_D_EX = PatternLayout.createLayout("%d %c %m%ex%n", null, null, null, CHARSET_DEFAULT, false, true, null, null);
+    private final PatternLayout PATTERN_M_C_D_COMPILED = PatternLayout.newBuilder().withPattern("%d %c %m%n")
+            .withCharset(CHARSET_DEFAULT).withAlwaysWriteExceptions(false).withNoConsoleNoAnsi(true).withCompiled(true)
+            .build();
 
     private static LogEvent createLogEvent() {
         final Marker marker = null;
@@ -135,6 +138,13 @@ public class PatternLayoutBenchmark {
         return PATTERN_M_C_D.toByteArray(EVENT);
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public byte[] byteArrayMCDCompiled() {
+        return PATTERN_M_C_D_COMPILED.toByteArray(EVENT);
+    }
+
     @Benchmark
     @BenchmarkMode(Mode.SampleTime)
     @OutputTimeUnit(TimeUnit.NANOSECONDS)
@@ -220,6 +230,13 @@ public class PatternLayoutBenchmark {
         return PATTERN_M_C_D.toSerializable(EVENT);
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String serializableMCDCompiled() {
+        return PATTERN_M_C_D_COMPILED.toSerializable(EVENT);
+    }
+
     @Benchmark
     @BenchmarkMode(Mode.SampleTime)
     @OutputTimeUnit(TimeUnit.NANOSECONDS)
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.lookup.Interpolator;
+import org.apache.logging.log4j.core.lookup.StrSubstitutor;
+import org.apache.logging.log4j.core.lookup.StrTemplate;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.util.StringMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares substituting the variables of a RoutingAppender pattern and of a file name with StrSubstitutor.replace,
+ * which parses the string for every event, and with a StrTemplate compiled once.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// java -jar log4j-perf/target/benchmarks.jar ".*StrTemplateBenchmark.*" -f 1 -i 10 -wi 5 -bm avgt -tu ns
+//
+// Usage help:
+// java -jar log4j-perf/target/benchmarks.jar -help
+//
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StrTemplateBenchmark {
+
+    private static final String ROUTING_KEY = "${ctx:tenant}";
+    private static final String FILE_NAME = "logs/${ctx:tenant}/${ctx:user}-${ctx:missing:-none}.log";
+
+    private final StringBuilder buffer = new StringBuilder(128);
+    private StrSubstitutor substitutor;
+    private StrTemplate routingKeyTemplate;
+    private StrTemplate fileNameTemplate;
+    private LogEvent event;
+
+    @Setup
+    public void setup() {
+        substitutor = new StrSubstitutor(new Interpolator());
+        routingKeyTemplate = substitutor.compile(ROUTING_KEY);
+        fileNameTemplate = substitutor.compile(FILE_NAME);
+        final StringMap contextData = ContextDataFactory.createContextData();
+        contextData.putValue("tenant", "acme");
+        contextData.putValue("user", "jdoe");
+        event = Log4jLogEvent.newBuilder().setLoggerName(StrTemplateBenchmark.class.getName()).setLevel(Level.INFO)
+                .setMessage(new SimpleMessage("Test")).setContextData(contextData).build();
+    }
+
+    @Benchmark
+    public String replaceRoutingKey() {
+        return substitutor.replace(event, ROUTING_KEY);
+    }
+
+    @Benchmark
+    public String templateRoutingKey() {
+        return routingKeyTemplate.format(event);
+    }
+
+    @Benchmark
+    public String replaceFileName() {
+        return substitutor.replace(event, FILE_NAME);
+    }
+
+    @Benchmark
+    public int templateFileName() {
+        buffer.setLength(0);
+        fileNameTemplate.format(event, buffer);
+        return buffer.length();
+    }
+}
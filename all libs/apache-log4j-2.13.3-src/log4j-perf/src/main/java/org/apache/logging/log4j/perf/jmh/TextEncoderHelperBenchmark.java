@@ -19,6 +19,7 @@ package org.apache.logging.log4j.perf.jmh;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.Level;
@@ -63,6 +64,11 @@ public class TextEncoderHelperBenchmark {
     final static LogEvent EVENT = createLogEvent();
     private static final Charset CHARSET_DEFAULT = Charset.defaultCharset();
     private final PatternLayout PATTERN_M_C_D = PatternLayout.createLayout("%d %c %m%n", null, null, null, CHARSET_DEFAULT, false, true, null, null);
+    private final PatternLayout PATTERN_UTF8 = PatternLayout.newBuilder().withPattern("%d %-5p [%t] %c - %m%n")
+            .withCharset(StandardCharsets.UTF_8).withAlwaysWriteExceptions(false).build();
+    private final PatternLayout PATTERN_UTF8_PRE_ENCODED = PatternLayout.newBuilder()
+            .withPattern("%d %-5p [%t] %c - %m%n").withCharset(StandardCharsets.UTF_8)
+            .withAlwaysWriteExceptions(false).withPreEncoded(true).build();
     private final Destination destination = new Destination();
 
     class Destination implements ByteBufferDestination {
@@ -248,4 +254,20 @@ public class TextEncoderHelperBenchmark {
         PATTERN_M_C_D.encode(EVENT, destination);
         return destination.count;
     }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public long encodeUtf8() {
+        PATTERN_UTF8.encode(EVENT, destination);
+        return destination.count;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public long encodeUtf8PreEncoded() {
+        PATTERN_UTF8_PRE_ENCODED.encode(EVENT, destination);
+        return destination.count;
+    }
 }